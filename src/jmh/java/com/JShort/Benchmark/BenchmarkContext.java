@@ -0,0 +1,63 @@
+package com.JShort.Benchmark;
+
+import com.JShort.Cache.ShortCodeBloomFilter;
+import com.JShort.JShortApplication;
+import com.JShort.Model.Url;
+import com.JShort.Repository.UrlRepository;
+import com.JShort.Service.UrlHash;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Sobe a aplicação com o perfil de teste (H2 em modo PostgreSQL) e popula a tabela {@code url},
+ * para que os benchmarks meçam o caminho real com um volume de dados realista.
+ */
+final class BenchmarkContext {
+
+    static final String PREFIXO_URL = "https://bench.example.com/";
+
+    private BenchmarkContext() {
+    }
+
+    static ConfigurableApplicationContext iniciar() {
+        // Argumentos de linha de comando, para prevalecer sobre o application-test.properties (que loga todo SQL)
+        return new SpringApplicationBuilder(JShortApplication.class)
+                .profiles("test")
+                .run("--server.port=0",
+                        "--spring.docker.compose.enabled=false",
+                        "--spring.jpa.show-sql=false",
+                        "--spring.jpa.properties.hibernate.format_sql=false",
+                        "--logging.level.root=WARN",
+                        "--logging.level.org.hibernate.SQL=WARN",
+                        "--logging.level.org.hibernate.type.descriptor.sql.BasicBinder=WARN");
+    }
+
+    /**
+     * Insere {@code linhas} URLs com códigos {@code b0}, {@code b1}, ... para os benchmarks de leitura.
+     */
+    static void popular(ConfigurableApplicationContext contexto, int linhas) {
+        UrlRepository urlRepository = contexto.getBean(UrlRepository.class);
+        LocalDateTime agora = LocalDateTime.now();
+        LocalDateTime expiracao = agora.plusYears(1);
+
+        List<Url> lote = new ArrayList<>();
+        for (int i = 0; i < linhas; i++) {
+            String originalUrl = PREFIXO_URL + i;
+            lote.add(new Url("bench-" + i, originalUrl, UrlHash.calcular(originalUrl), shortCode(i), agora, expiracao, 0L));
+            if (lote.size() == 5_000 || i == linhas - 1) {
+                urlRepository.inserirLote(lote, false);
+                lote.clear();
+            }
+        }
+        // As linhas entram por fora do UrlService: o bloom filter precisa relê-las
+        contexto.getBean(ShortCodeBloomFilter.class).reconstruir();
+    }
+
+    static String shortCode(int i) {
+        return "b" + i;
+    }
+}
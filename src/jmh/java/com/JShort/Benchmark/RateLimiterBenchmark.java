@@ -0,0 +1,51 @@
+package com.JShort.Benchmark;
+
+import com.JShort.Config.JShortProperties;
+import com.JShort.RateLimit.RateLimiter;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Vazão do {@link RateLimiter} com 8 threads: todas no mesmo cliente (disputa do CAS no mesmo balde) ou
+ * espalhadas por muitos clientes (custo da busca no cache de clientes).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(8)
+public class RateLimiterBenchmark {
+
+    @Param({"1", "10000"})
+    private int clientes;
+
+    private RateLimiter limiter;
+
+    private String[] chaves;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        // Limite alto o bastante para medir o caminho aceito, não a recusa
+        limiter = new RateLimiter(new JShortProperties.RateLimit.Limite(1e9, 1_000_000), 100_000);
+        chaves = new String[clientes];
+        for (int i = 0; i < clientes; i++) {
+            chaves[i] = "203.0." + (i / 256) + "." + (i % 256);
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class Cliente {
+
+        private int proximo;
+    }
+
+    @Benchmark
+    public long consumir(Cliente cliente) {
+        String chave = chaves[cliente.proximo];
+        cliente.proximo = (cliente.proximo + 1) % chaves.length;
+        return limiter.consumir(chave);
+    }
+}
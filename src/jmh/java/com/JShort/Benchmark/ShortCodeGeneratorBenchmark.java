@@ -0,0 +1,60 @@
+package com.JShort.Benchmark;
+
+import com.JShort.Config.JShortProperties;
+import com.JShort.ShortCode.RandomShortCodeGenerator;
+import com.JShort.ShortCode.SequenceShortCodeGenerator;
+import com.JShort.ShortCode.ShortCodeGenerator;
+import org.flywaydb.core.Flyway;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabase;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseBuilder;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseType;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Vazão da geração de códigos com 8 threads disputando o mesmo gerador.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(8)
+public class ShortCodeGeneratorBenchmark {
+
+    @Param({"random", "sequence"})
+    private String strategy;
+
+    private EmbeddedDatabase database;
+
+    private ShortCodeGenerator generator;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        if ("sequence".equals(strategy)) {
+            database = new EmbeddedDatabaseBuilder()
+                    .setType(EmbeddedDatabaseType.H2)
+                    .generateUniqueName(true)
+                    .build();
+            Flyway.configure().dataSource(database).locations("classpath:db/migration/h2").load().migrate();
+            generator = new SequenceShortCodeGenerator(new JdbcTemplate(database), new JShortProperties());
+        } else {
+            generator = new RandomShortCodeGenerator();
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        if (database != null) {
+            database.shutdown();
+        }
+    }
+
+    @Benchmark
+    public String gerarShortCode() {
+        return generator.gerarShortCode();
+    }
+}
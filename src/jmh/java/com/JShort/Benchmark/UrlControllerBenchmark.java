@@ -0,0 +1,64 @@
+package com.JShort.Benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.WebApplicationContext;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+
+/**
+ * Caminho completo do Spring MVC (DispatcherServlet, conversão de mensagens, UrlController) sem a rede.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class UrlControllerBenchmark {
+
+    @Param({"100000"})
+    private int linhas;
+
+    private ConfigurableApplicationContext contexto;
+
+    private MockMvc mockMvc;
+
+    private final AtomicLong novas = new AtomicLong();
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        contexto = BenchmarkContext.iniciar();
+        BenchmarkContext.popular(contexto, linhas);
+        mockMvc = MockMvcBuilders.webAppContextSetup((WebApplicationContext) contexto).build();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        contexto.close();
+    }
+
+    @Benchmark
+    public MvcResult redirecionar() throws Exception {
+        int i = ThreadLocalRandom.current().nextInt(linhas);
+        return mockMvc.perform(get("/url/{shortCode}", BenchmarkContext.shortCode(i))).andReturn();
+    }
+
+    @Benchmark
+    public MvcResult encurtar() throws Exception {
+        String corpo = "{\"originalUrl\":\"https://bench.example.com/mvc/" + novas.incrementAndGet() + "\"}";
+        return mockMvc.perform(post("/url/encurtar")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(corpo))
+                .andReturn();
+    }
+}
@@ -0,0 +1,71 @@
+package com.JShort.Benchmark;
+
+import com.JShort.Model.Url;
+import com.JShort.Service.UrlService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Latência de {@code encutadorUrl} e {@code BuscarUrlOriginal} contra o H2 com a tabela já populada.
+ *
+ * <p>{@code buscarQuente} repete um conjunto pequeno de códigos (atendido pelo cache); {@code buscarFrio}
+ * sorteia entre todas as linhas, então quase toda chamada vai ao banco.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class UrlServiceBenchmark {
+
+    private static final int CODIGOS_QUENTES = 100;
+
+    @Param({"100000"})
+    private int linhas;
+
+    private ConfigurableApplicationContext contexto;
+
+    private UrlService urlService;
+
+    private final AtomicLong novas = new AtomicLong();
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        contexto = BenchmarkContext.iniciar();
+        BenchmarkContext.popular(contexto, linhas);
+        urlService = contexto.getBean(UrlService.class);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        contexto.close();
+    }
+
+    @Benchmark
+    public Url encurtarNova() {
+        return urlService.encutadorUrl("https://bench.example.com/nova/" + novas.incrementAndGet());
+    }
+
+    @Benchmark
+    public Url encurtarExistente() {
+        int i = ThreadLocalRandom.current().nextInt(linhas);
+        return urlService.encutadorUrl(BenchmarkContext.PREFIXO_URL + i);
+    }
+
+    @Benchmark
+    public String buscarQuente() {
+        int i = ThreadLocalRandom.current().nextInt(CODIGOS_QUENTES);
+        return urlService.BuscarUrlOriginal(BenchmarkContext.shortCode(i));
+    }
+
+    @Benchmark
+    public String buscarFrio() {
+        int i = ThreadLocalRandom.current().nextInt(linhas);
+        return urlService.BuscarUrlOriginal(BenchmarkContext.shortCode(i));
+    }
+}
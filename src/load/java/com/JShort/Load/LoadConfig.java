@@ -0,0 +1,68 @@
+package com.JShort.Load;
+
+import org.springframework.boot.convert.DurationStyle;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Parâmetros do {@link LoadHarness}, no formato {@code chave=valor}. Argumentos que começam com {@code --}
+ * vão direto para a aplicação (ex.: {@code --jshort.coalescing.enabled=false}) e prevalecem sobre os do harness.
+ */
+record LoadConfig(int linhas, Duration aquecimento, Duration duracao, int concorrencia, double taxa,
+                  double proporcaoEncurtar, double zipf, List<String> perfis, boolean rateLimit,
+                  String relatorio, List<String> argumentosAplicacao) {
+
+    private static final Set<String> CHAVES = Set.of("rows", "warmup", "duration", "concurrency", "rate",
+            "shortenRatio", "zipf", "profiles", "rateLimit", "report");
+
+    static LoadConfig ler(String[] args) {
+        Map<String, String> valores = new HashMap<>();
+        List<String> argumentosAplicacao = new ArrayList<>();
+        for (String arg : args) {
+            if (arg.startsWith("--")) {
+                argumentosAplicacao.add(arg);
+                continue;
+            }
+            int igual = arg.indexOf('=');
+            String chave = igual < 0 ? arg : arg.substring(0, igual);
+            if (igual < 0 || !CHAVES.contains(chave)) {
+                throw new IllegalArgumentException("Argumento desconhecido: " + arg + " (aceitos: " + CHAVES + ")");
+            }
+            valores.put(chave, arg.substring(igual + 1));
+        }
+
+        double proporcaoEncurtar = Double.parseDouble(valores.getOrDefault("shortenRatio", "0.05"));
+        if (proporcaoEncurtar < 0 || proporcaoEncurtar > 1) {
+            throw new IllegalArgumentException("shortenRatio precisa estar entre 0 e 1");
+        }
+        String perfis = valores.getOrDefault("profiles", "");
+        String relatorio = valores.getOrDefault("report", "target/load-report-"
+                + LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss")) + ".txt");
+
+        return new LoadConfig(
+                Integer.parseInt(valores.getOrDefault("rows", "1000000")),
+                DurationStyle.detectAndParse(valores.getOrDefault("warmup", "15s")),
+                DurationStyle.detectAndParse(valores.getOrDefault("duration", "60s")),
+                Integer.parseInt(valores.getOrDefault("concurrency", "64")),
+                Double.parseDouble(valores.getOrDefault("rate", "0")),
+                proporcaoEncurtar,
+                Double.parseDouble(valores.getOrDefault("zipf", "1.1")),
+                perfis.isBlank() ? List.of() : Arrays.asList(perfis.split(",")),
+                Boolean.parseBoolean(valores.getOrDefault("rateLimit", "false")),
+                relatorio,
+                List.copyOf(argumentosAplicacao));
+    }
+
+    /** Carga em malha aberta (taxa fixa, latência medida desde o instante planejado) ou fechada. */
+    boolean malhaAberta() {
+        return taxa > 0;
+    }
+}
@@ -0,0 +1,228 @@
+package com.JShort.Load;
+
+import com.JShort.Cache.ShortCodeBloomFilter;
+import com.JShort.JShortApplication;
+import com.JShort.Model.Url;
+import com.JShort.Repository.UrlRepository;
+import com.JShort.Service.UrlHash;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.reactive.context.ReactiveWebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Teste de carga ponta a ponta: sobe a aplicação com o perfil de teste (H2 em modo PostgreSQL, sem
+ * Postgres nem Docker), popula a tabela pelo {@link UrlRepository} e dispara encurtamentos e
+ * redirecionamentos pelos endpoints HTTP reais, com os códigos sorteados por uma distribuição de Zipf.
+ * O relatório (vazão, percentis, erros) vai para {@code target/load-report-*.txt}.
+ *
+ * <pre>
+ * ./mvnw -Pload -DskipTests verify -Dload.args="rows=1000000 duration=60s concurrency=64 zipf=1.1"
+ * ./mvnw -Pload,reactive ... -Dload.args="profiles=reactive ..."        runtime WebFlux/R2DBC
+ * ./mvnw -Pload,java21 ... -Dload.args="profiles=virtual ..."           virtual threads (Java 21)
+ * </pre>
+ *
+ * <p>Parâmetros: {@code rows}, {@code warmup}, {@code duration}, {@code concurrency}, {@code rate} (req/s em
+ * malha aberta; 0 = malha fechada), {@code shortenRatio}, {@code zipf}, {@code profiles}, {@code rateLimit}
+ * ({@code true} passa toda requisição pelo limitador com limites que nunca rejeitam, para medir o custo dele)
+ * e {@code report}. Argumentos {@code --propriedade=valor} vão para a aplicação.
+ *
+ * <p>Em malha aberta, a latência conta desde o instante em que a requisição deveria ter saído, então a fila
+ * formada quando o servidor não acompanha a taxa aparece nos percentis (sem coordinated omission).
+ */
+public final class LoadHarness {
+
+    static final String PREFIXO_URL = "https://load.example.com/";
+
+    private static final int LOTE_POPULACAO = 5_000;
+
+    private LoadHarness() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        LoadConfig config = LoadConfig.ler(args);
+        ConfigurableApplicationContext contexto = iniciar(config);
+        try {
+            popular(contexto, config.linhas());
+
+            String base = "http://localhost:" + contexto.getEnvironment().getProperty("local.server.port") + "/api";
+            HttpClient cliente = HttpClient.newBuilder()
+                    .version(HttpClient.Version.HTTP_1_1)
+                    .followRedirects(HttpClient.Redirect.NEVER)
+                    .connectTimeout(Duration.ofSeconds(5))
+                    .build();
+            ZipfGenerator zipf = new ZipfGenerator(config.linhas(), config.zipf());
+            AtomicLong novas = new AtomicLong();
+
+            System.out.printf("Aquecimento por %s%n", config.aquecimento());
+            executar(cliente, base, zipf, novas, config, config.aquecimento());
+            System.out.printf("Medição por %s%n", config.duracao());
+            LoadStats stats = executar(cliente, base, zipf, novas, config, config.duracao());
+
+            System.out.println(LoadReport.escrever(config, runtime(contexto), zipf, stats));
+            System.out.printf("Relatório em %s%n", config.relatorio());
+        } finally {
+            contexto.close();
+        }
+        System.exit(0);
+    }
+
+    private static ConfigurableApplicationContext iniciar(LoadConfig config) {
+        List<String> perfis = new ArrayList<>(List.of("test"));
+        perfis.addAll(config.perfis());
+
+        // Como no BenchmarkContext: linha de comando prevalece sobre o application-test.properties (que loga todo SQL)
+        List<String> argumentos = new ArrayList<>(List.of(
+                "--server.port=0",
+                "--spring.docker.compose.enabled=false",
+                "--spring.jpa.show-sql=false",
+                "--spring.jpa.properties.hibernate.format_sql=false",
+                "--logging.level.root=WARN",
+                "--logging.level.org.hibernate.SQL=WARN",
+                "--logging.level.org.hibernate.type.descriptor.sql.BasicBinder=WARN",
+                // O R2DBC do perfil reactive aponta para o mesmo H2 em memória do JDBC
+                "--spring.r2dbc.url=r2dbc:h2:mem:///testdb;MODE=PostgreSQL;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE",
+                "--spring.r2dbc.username=sa",
+                "--spring.r2dbc.password="));
+        if (config.rateLimit()) {
+            argumentos.add("--jshort.rate-limit.enabled=true");
+            for (String rota : List.of("shorten", "redirect")) {
+                argumentos.add("--jshort.rate-limit." + rota + ".requests-per-second=1000000000");
+                argumentos.add("--jshort.rate-limit." + rota + ".burst=1000000");
+            }
+        } else {
+            argumentos.add("--jshort.rate-limit.enabled=false");
+        }
+        argumentos.addAll(config.argumentosAplicacao());
+
+        // O devtools (no classpath de teste) reiniciaria a aplicação numa thread própria, repetindo os argumentos
+        System.setProperty("spring.devtools.restart.enabled", "false");
+        return new SpringApplicationBuilder(JShortApplication.class)
+                .profiles(perfis.toArray(String[]::new))
+                .run(argumentos.toArray(String[]::new));
+    }
+
+    /**
+     * Insere {@code linhas} URLs com códigos {@code ld_0}, {@code ld_1}, ... (o {@code _} não sai do Hashids,
+     * então não colide com os códigos dos encurtamentos da carga) pelo {@link UrlRepository}, em lotes.
+     */
+    private static void popular(ConfigurableApplicationContext contexto, int linhas) {
+        UrlRepository urlRepository = contexto.getBean(UrlRepository.class);
+        LocalDateTime agora = LocalDateTime.now();
+        LocalDateTime expiracao = agora.plusYears(1);
+        long inicio = System.nanoTime();
+
+        for (int primeira = 0; primeira < linhas; primeira += LOTE_POPULACAO) {
+            List<Url> lote = new ArrayList<>(LOTE_POPULACAO);
+            for (int i = primeira; i < Math.min(linhas, primeira + LOTE_POPULACAO); i++) {
+                Url url = new Url();
+                url.setId(UUID.randomUUID().toString());
+                url.setOriginalUrl(PREFIXO_URL + i);
+                url.setOriginalUrlHash(UrlHash.calcular(url.getOriginalUrl()));
+                url.setShortCode(shortCode(i));
+                url.setCreationDate(agora);
+                url.setExpirationDate(expiracao);
+                url.setAccessCount(0L);
+                lote.add(url);
+            }
+            urlRepository.inserirLote(lote, false);
+            if ((primeira / LOTE_POPULACAO) % 100 == 99) {
+                System.out.printf("%,d linhas inseridas%n", primeira + lote.size());
+            }
+        }
+        System.out.printf("%,d linhas em %d s%n", linhas, TimeUnit.NANOSECONDS.toSeconds(System.nanoTime() - inicio));
+
+        // As linhas entram por fora do UrlService: o bloom filter precisa relê-las
+        contexto.getBean(ShortCodeBloomFilter.class).reconstruir();
+    }
+
+    private static LoadStats executar(HttpClient cliente, String base, ZipfGenerator zipf, AtomicLong novas,
+                                      LoadConfig config, Duration duracao) throws InterruptedException {
+        LoadStats stats = new LoadStats();
+        int concorrencia = config.concorrencia();
+        // Em malha aberta cada worker sai a cada "intervalo", defasado dos outros
+        long intervalo = config.malhaAberta() ? (long) (concorrencia * 1e9 / config.taxa()) : 0;
+        long inicio = System.nanoTime();
+        long fim = inicio + duracao.toNanos();
+
+        ExecutorService workers = Executors.newFixedThreadPool(concorrencia);
+        for (int w = 0; w < concorrencia; w++) {
+            long defasagem = intervalo * w / concorrencia;
+            workers.execute(() -> {
+                long planejada = inicio + defasagem;
+                while (!Thread.currentThread().isInterrupted()) {
+                    if (intervalo > 0) {
+                        long espera = planejada - System.nanoTime();
+                        if (espera > 0) {
+                            LockSupport.parkNanos(espera);
+                        }
+                    }
+                    long partida = intervalo > 0 ? planejada : System.nanoTime();
+                    if (partida >= fim) {
+                        return;
+                    }
+                    requisitar(cliente, base, zipf, novas, config, stats, partida);
+                    planejada += intervalo;
+                }
+            });
+        }
+        workers.shutdown();
+        if (!workers.awaitTermination(duracao.toSeconds() + 60, TimeUnit.SECONDS)) {
+            workers.shutdownNow();
+        }
+        stats.encerrar(System.nanoTime() - inicio);
+        return stats;
+    }
+
+    private static void requisitar(HttpClient cliente, String base, ZipfGenerator zipf, AtomicLong novas,
+                                   LoadConfig config, LoadStats stats, long partida) {
+        boolean encurtar = ThreadLocalRandom.current().nextDouble() < config.proporcaoEncurtar();
+        LoadStats.Operacao operacao = encurtar ? LoadStats.Operacao.ENCURTAR : LoadStats.Operacao.REDIRECIONAR;
+        HttpRequest requisicao = encurtar
+                ? HttpRequest.newBuilder(URI.create(base + "/url/encurtar"))
+                        .header("Content-Type", "application/json")
+                        .POST(HttpRequest.BodyPublishers.ofString(
+                                "{\"originalUrl\":\"" + PREFIXO_URL + "novas/" + novas.incrementAndGet() + "\"}"))
+                        .build()
+                : HttpRequest.newBuilder(URI.create(base + "/url/" + shortCode(zipf.proximo()))).GET().build();
+        try {
+            HttpResponse<Void> resposta = cliente.send(requisicao, HttpResponse.BodyHandlers.discarding());
+            int status = resposta.statusCode();
+            boolean sucesso = encurtar ? status == 201 || status == 202 : status >= 300 && status < 400;
+            stats.registrar(operacao, System.nanoTime() - partida, Integer.toString(status), sucesso);
+        } catch (IOException ex) {
+            stats.registrar(operacao, System.nanoTime() - partida, ex.getClass().getSimpleName(), false);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static String runtime(ConfigurableApplicationContext contexto) {
+        if (contexto instanceof ReactiveWebServerApplicationContext) {
+            return "reactive (WebFlux/Netty + R2DBC)";
+        }
+        return contexto.getEnvironment().getProperty("spring.threads.virtual.enabled", Boolean.class, false)
+                ? "servlet (Tomcat, virtual threads)"
+                : "servlet (Tomcat, pool de threads)";
+    }
+
+    static String shortCode(int i) {
+        return "ld_" + i;
+    }
+}
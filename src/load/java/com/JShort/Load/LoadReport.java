@@ -0,0 +1,86 @@
+package com.JShort.Load;
+
+import org.HdrHistogram.Histogram;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.Map;
+
+/**
+ * Relatório em texto de uma execução: parâmetros, vazão, taxa de erro e percentis por operação, seguidos da
+ * distribuição completa de cada histograma (formato .hgrm do HdrHistogram, em milissegundos), que pode ser
+ * colada no plotter do HdrHistogram para comparar execuções.
+ */
+final class LoadReport {
+
+    private static final double MICROS_POR_MS = 1000.0;
+
+    private LoadReport() {
+    }
+
+    static String escrever(LoadConfig config, String runtime, ZipfGenerator zipf, LoadStats stats) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (PrintStream saida = new PrintStream(bytes, true, StandardCharsets.UTF_8)) {
+            saida.printf("JShort - teste de carga (%s)%n%n", LocalDateTime.now().withNano(0));
+            saida.printf("runtime:            %s, Java %s, %d CPUs%n", runtime, Runtime.version(),
+                    Runtime.getRuntime().availableProcessors());
+            saida.printf("linhas:             %,d (zipf s=%.2f: top 1%% dos códigos = %.1f%% dos redirecionamentos)%n",
+                    config.linhas(), config.zipf(), 100 * zipf.fracao(Math.max(1, config.linhas() / 100)));
+            saida.printf("carga:              %s, concorrência %d, %.0f%% encurtamentos%n",
+                    config.malhaAberta() ? String.format("malha aberta a %.0f req/s", config.taxa()) : "malha fechada",
+                    config.concorrencia(), 100 * config.proporcaoEncurtar());
+            saida.printf("rate limit:         %s%n", config.rateLimit() ? "ligado (sem rejeitar)" : "desligado");
+            saida.printf("fases:              aquecimento %d s, medição %d s%n", config.aquecimento().toSeconds(),
+                    config.duracao().toSeconds());
+            saida.printf("argumentos:         %s%n%n", config.argumentosAplicacao());
+
+            saida.printf("%-13s %12s %10s %8s %8s %9s %9s %9s %9s %9s%n", "operação", "requisições", "req/s",
+                    "erros", "% erro", "p50 ms", "p90 ms", "p99 ms", "p99.9 ms", "max ms");
+            long totalErros = 0;
+            for (LoadStats.Operacao operacao : LoadStats.Operacao.values()) {
+                long erros = stats.erros(operacao);
+                totalErros += erros;
+                linha(saida, operacao.name().toLowerCase(), stats.histograma(operacao), erros, stats.segundos());
+            }
+            linha(saida, "total", stats.total(), totalErros, stats.segundos());
+
+            saida.printf("%ndesfechos:%n");
+            for (Map.Entry<String, Long> desfecho : stats.desfechos().entrySet()) {
+                saida.printf("  %-30s %,12d%n", desfecho.getKey(), desfecho.getValue());
+            }
+
+            for (LoadStats.Operacao operacao : LoadStats.Operacao.values()) {
+                Histogram histograma = stats.histograma(operacao);
+                if (histograma.getTotalCount() > 0) {
+                    saida.printf("%n## distribuição %s (ms)%n", operacao.name().toLowerCase());
+                    histograma.outputPercentileDistribution(saida, 5, MICROS_POR_MS);
+                }
+            }
+        }
+
+        String relatorio = bytes.toString(StandardCharsets.UTF_8);
+        Path arquivo = Path.of(config.relatorio());
+        if (arquivo.getParent() != null) {
+            Files.createDirectories(arquivo.getParent());
+        }
+        Files.writeString(arquivo, relatorio);
+        return relatorio;
+    }
+
+    private static void linha(PrintStream saida, String nome, Histogram histograma, long erros, double segundos) {
+        long requisicoes = histograma.getTotalCount();
+        saida.printf("%-13s %,12d %,10.0f %,8d %8.2f %9.2f %9.2f %9.2f %9.2f %9.2f%n", nome, requisicoes,
+                requisicoes / segundos, erros, requisicoes == 0 ? 0 : 100.0 * erros / requisicoes,
+                ms(histograma, 50), ms(histograma, 90), ms(histograma, 99), ms(histograma, 99.9),
+                histograma.getMaxValue() / MICROS_POR_MS);
+    }
+
+    private static double ms(Histogram histograma, double percentil) {
+        return histograma.getValueAtPercentile(percentil) / MICROS_POR_MS;
+    }
+}
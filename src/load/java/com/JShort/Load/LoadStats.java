@@ -0,0 +1,86 @@
+package com.JShort.Load;
+
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Latências (HdrHistogram, em microssegundos) e contagens de uma fase da carga, por operação. Os
+ * {@link Recorder} aceitam gravações concorrentes sem lock.
+ */
+final class LoadStats {
+
+    enum Operacao { REDIRECIONAR, ENCURTAR }
+
+    private final Map<Operacao, Recorder> latencias = new EnumMap<>(Operacao.class);
+
+    private final Map<Operacao, LongAdder> sucessos = new EnumMap<>(Operacao.class);
+
+    private final Map<Operacao, LongAdder> erros = new EnumMap<>(Operacao.class);
+
+    private final Map<String, LongAdder> desfechos = new ConcurrentHashMap<>();
+
+    private final Map<Operacao, Histogram> resultado = new EnumMap<>(Operacao.class);
+
+    private long duracaoNanos;
+
+    LoadStats() {
+        for (Operacao operacao : Operacao.values()) {
+            latencias.put(operacao, new Recorder(3));
+            sucessos.put(operacao, new LongAdder());
+            erros.put(operacao, new LongAdder());
+        }
+    }
+
+    /**
+     * Registra uma requisição; {@code desfecho} é o status HTTP ou o nome da exceção.
+     */
+    void registrar(Operacao operacao, long nanos, String desfecho, boolean sucesso) {
+        latencias.get(operacao).recordValue(Math.max(1, TimeUnit.NANOSECONDS.toMicros(nanos)));
+        (sucesso ? sucessos : erros).get(operacao).increment();
+        desfechos.computeIfAbsent(operacao.name().toLowerCase() + " " + desfecho, d -> new LongAdder()).increment();
+    }
+
+    /** Fecha a fase: os histogramas deixam de receber gravações. */
+    void encerrar(long duracaoNanos) {
+        this.duracaoNanos = duracaoNanos;
+        for (Operacao operacao : Operacao.values()) {
+            resultado.put(operacao, latencias.get(operacao).getIntervalHistogram());
+        }
+    }
+
+    Histogram histograma(Operacao operacao) {
+        return resultado.get(operacao);
+    }
+
+    /** Histograma das duas operações juntas. */
+    Histogram total() {
+        Histogram total = resultado.get(Operacao.REDIRECIONAR).copy();
+        total.add(resultado.get(Operacao.ENCURTAR));
+        return total;
+    }
+
+    long sucessos(Operacao operacao) {
+        return sucessos.get(operacao).sum();
+    }
+
+    long erros(Operacao operacao) {
+        return erros.get(operacao).sum();
+    }
+
+    Map<String, Long> desfechos() {
+        Map<String, Long> ordenados = new TreeMap<>();
+        desfechos.forEach((desfecho, contagem) -> ordenados.put(desfecho, contagem.sum()));
+        return ordenados;
+    }
+
+    double segundos() {
+        return duracaoNanos / 1e9;
+    }
+}
@@ -0,0 +1,40 @@
+package com.JShort.Load;
+
+import java.util.Arrays;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Sorteia posições em {@code [0, n)} com distribuição de Zipf: a posição {@code k} sai com probabilidade
+ * proporcional a {@code 1 / (k + 1)^s}. Com {@code s} perto de 1, poucos códigos concentram a maior parte
+ * dos acessos, como links que viralizam; {@code s = 0} é uniforme.
+ *
+ * <p>A distribuição acumulada é calculada uma vez ({@code n} doubles) e cada sorteio é uma busca binária,
+ * sem estado compartilhado entre as threads.
+ */
+final class ZipfGenerator {
+
+    private final double[] acumulada;
+
+    ZipfGenerator(int n, double s) {
+        if (n <= 0) {
+            throw new IllegalArgumentException("n precisa ser positivo");
+        }
+        acumulada = new double[n];
+        double soma = 0;
+        for (int k = 0; k < n; k++) {
+            soma += 1.0 / Math.pow(k + 1, s);
+            acumulada[k] = soma;
+        }
+    }
+
+    int proximo() {
+        double alvo = ThreadLocalRandom.current().nextDouble() * acumulada[acumulada.length - 1];
+        int posicao = Arrays.binarySearch(acumulada, alvo);
+        return posicao >= 0 ? posicao : Math.min(-posicao - 1, acumulada.length - 1);
+    }
+
+    /** Fração dos acessos que cai nas {@code quantidade} posições mais quentes. */
+    double fracao(int quantidade) {
+        return acumulada[Math.min(quantidade, acumulada.length) - 1] / acumulada[acumulada.length - 1];
+    }
+}
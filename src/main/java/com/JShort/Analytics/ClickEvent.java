@@ -0,0 +1,10 @@
+package com.JShort.Analytics;
+
+import java.time.Instant;
+
+/**
+ * Clique capturado no redirecionamento, com os dados crus da requisição. A classificação do user-agent,
+ * o país e o host do referrer são resolvidos fora da thread da requisição, na gravação.
+ */
+public record ClickEvent(Instant occurredAt, String shortCode, String referrer, String userAgent, String remoteAddress) {
+}
@@ -0,0 +1,132 @@
+package com.JShort.Analytics;
+
+import com.JShort.Config.JShortProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.dao.DataAccessException;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Recebe os cliques na thread da requisição e os grava em lote fora dela.
+ *
+ * <p>O buffer é uma fila circular de capacidade fixa: registrar um clique é um {@code offer} que nunca
+ * bloqueia, e com o buffer cheio o evento é descartado (e contado em {@code jshort.click.descartados})
+ * para que um banco lento não segure os redirecionamentos nem a memória. A cada intervalo o buffer é
+ * esvaziado em lotes de {@code max-batch-size} para o {@link ClickEventWriter}.
+ */
+@Slf4j
+@Component
+public class ClickEventCollector implements SmartLifecycle {
+
+    private final ClickEventWriter writer;
+
+    private final TaskScheduler taskScheduler;
+
+    private final JShortProperties.Analytics config;
+
+    private final ArrayBlockingQueue<ClickEvent> buffer;
+
+    private final ReentrantLock gravando = new ReentrantLock();
+
+    private final Counter descartadosBufferCheio;
+
+    private final Counter descartadosFalha;
+
+    private final Counter gravados;
+
+    private volatile ScheduledFuture<?> agendamento;
+
+    public ClickEventCollector(ClickEventWriter writer, TaskScheduler taskScheduler, JShortProperties properties,
+                               MeterRegistry meterRegistry) {
+        this.writer = writer;
+        this.taskScheduler = taskScheduler;
+        this.config = properties.getAnalytics();
+        this.buffer = new ArrayBlockingQueue<>(config.getBufferCapacity());
+
+        this.descartadosBufferCheio = Counter.builder("jshort.click.descartados").tag("motivo", "buffer_cheio")
+                .register(meterRegistry);
+        this.descartadosFalha = Counter.builder("jshort.click.descartados").tag("motivo", "falha_gravacao")
+                .register(meterRegistry);
+        this.gravados = Counter.builder("jshort.click.gravados").register(meterRegistry);
+        Gauge.builder("jshort.click.buffer", buffer, ArrayBlockingQueue::size)
+                .description("Eventos de clique aguardando gravação")
+                .register(meterRegistry);
+    }
+
+    public void registrar(String shortCode, String referrer, String userAgent, String remoteAddress) {
+        if (!config.isEnabled()) {
+            return;
+        }
+        if (!buffer.offer(new ClickEvent(Instant.now(), shortCode, referrer, userAgent, remoteAddress))) {
+            descartadosBufferCheio.increment();
+        }
+    }
+
+    /**
+     * Grava tudo o que está no buffer agora. Um lote que falhar é descartado: os eventos continuam
+     * contados em {@code access_count}, só as estatísticas detalhadas perdem esses cliques.
+     */
+    public void descarregar() {
+        gravando.lock();
+        try {
+            List<ClickEvent> lote = new ArrayList<>(Math.min(config.getMaxBatchSize(), buffer.size()));
+            while (buffer.drainTo(lote, config.getMaxBatchSize()) > 0) {
+                try {
+                    writer.gravar(lote);
+                    gravados.increment(lote.size());
+                } catch (DataAccessException ex) {
+                    log.warn("Falha ao gravar {} eventos de clique, descartando o lote", lote.size(), ex);
+                    descartadosFalha.increment(lote.size());
+                }
+                lote.clear();
+            }
+        } finally {
+            gravando.unlock();
+        }
+    }
+
+    int pendentes() {
+        return buffer.size();
+    }
+
+    @Override
+    public void start() {
+        if (config.isEnabled()) {
+            agendamento = taskScheduler.scheduleWithFixedDelay(this::descarregar, config.getFlushInterval());
+        }
+    }
+
+    @Override
+    public void stop() {
+        ScheduledFuture<?> atual = agendamento;
+        if (atual != null) {
+            atual.cancel(false);
+            agendamento = null;
+        }
+        descarregar();
+    }
+
+    @Override
+    public boolean isRunning() {
+        return agendamento != null;
+    }
+
+    /**
+     * Mesma fase do AccessCountAggregator: para depois do servidor web.
+     */
+    @Override
+    public int getPhase() {
+        return SmartLifecycle.DEFAULT_PHASE - 4096;
+    }
+}
@@ -0,0 +1,162 @@
+package com.JShort.Analytics;
+
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Grava um lote de cliques: os eventos brutos em {@code click_event} e os deltas agregados do lote em
+ * {@code click_hourly} e {@code click_daily}, na mesma transação.
+ *
+ * <p>Os rollups são atualizados com UPDATE em batch e só as chaves que ainda não existiam recebem INSERT;
+ * se outra instância inserir a mesma chave no meio tempo, a transação é refeita uma vez, e aí o UPDATE pega.
+ */
+@Component
+public class ClickEventWriter {
+
+    static final String DIMENSAO_TOTAL = "TOTAL";
+
+    static final String DIMENSAO_PAIS = "PAIS";
+
+    static final String DIMENSAO_DISPOSITIVO = "DISPOSITIVO";
+
+    static final String DIMENSAO_REFERENCIA = "REFERENCIA";
+
+    static final String REFERENCIA_DIRETA = "direto";
+
+    private static final String SQL_EVENTO = "INSERT INTO click_event "
+            + "(occurred_at, short_code, referrer, user_agent_class, country) VALUES (?, ?, ?, ?, ?)";
+
+    private static final String SQL_HORA_UPDATE = "UPDATE click_hourly SET clicks = clicks + ? "
+            + "WHERE short_code = ? AND bucket = ?";
+
+    private static final String SQL_HORA_INSERT = "INSERT INTO click_hourly (clicks, short_code, bucket) VALUES (?, ?, ?)";
+
+    private static final String SQL_DIA_UPDATE = "UPDATE click_daily SET clicks = clicks + ? "
+            + "WHERE short_code = ? AND bucket = ? AND dimension = ? AND dimension_value = ?";
+
+    private static final String SQL_DIA_INSERT = "INSERT INTO click_daily "
+            + "(clicks, short_code, bucket, dimension, dimension_value) VALUES (?, ?, ?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private final GeoIpResolver geoIpResolver;
+
+    public ClickEventWriter(JdbcTemplate jdbcTemplate, TransactionTemplate transactionTemplate, GeoIpResolver geoIpResolver) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.geoIpResolver = geoIpResolver;
+    }
+
+    public void gravar(List<ClickEvent> eventos) {
+        if (eventos.isEmpty()) {
+            return;
+        }
+
+        List<Object[]> linhas = new ArrayList<>(eventos.size());
+        Map<List<Object>, Long> porHora = new HashMap<>();
+        Map<List<Object>, Long> porDia = new HashMap<>();
+
+        for (ClickEvent evento : eventos) {
+            LocalDateTime ocorrido = LocalDateTime.ofInstant(evento.occurredAt(), ZoneOffset.UTC);
+            String referencia = hostDoReferrer(evento.referrer());
+            String dispositivo = UserAgentClass.classificar(evento.userAgent()).name();
+            String pais = geoIpResolver.pais(evento.remoteAddress());
+            linhas.add(new Object[]{Timestamp.valueOf(ocorrido), evento.shortCode(), referencia, dispositivo, pais});
+
+            porHora.merge(List.of(evento.shortCode(), Timestamp.valueOf(ocorrido.truncatedTo(ChronoUnit.HOURS))), 1L, Long::sum);
+
+            Date dia = Date.valueOf(ocorrido.toLocalDate());
+            porDia.merge(List.of(evento.shortCode(), dia, DIMENSAO_TOTAL, ""), 1L, Long::sum);
+            porDia.merge(List.of(evento.shortCode(), dia, DIMENSAO_PAIS, pais), 1L, Long::sum);
+            porDia.merge(List.of(evento.shortCode(), dia, DIMENSAO_DISPOSITIVO, dispositivo), 1L, Long::sum);
+            porDia.merge(List.of(evento.shortCode(), dia, DIMENSAO_REFERENCIA,
+                    referencia == null ? REFERENCIA_DIRETA : referencia), 1L, Long::sum);
+        }
+
+        List<Object[]> deltasHora = deltas(porHora);
+        List<Object[]> deltasDia = deltas(porDia);
+
+        try {
+            gravarNaTransacao(linhas, deltasHora, deltasDia);
+        } catch (DuplicateKeyException ex) {
+            gravarNaTransacao(linhas, deltasHora, deltasDia);
+        }
+    }
+
+    private void gravarNaTransacao(List<Object[]> linhas, List<Object[]> deltasHora, List<Object[]> deltasDia) {
+        transactionTemplate.executeWithoutResult(status -> {
+            jdbcTemplate.batchUpdate(SQL_EVENTO, linhas);
+            incrementar(SQL_HORA_UPDATE, SQL_HORA_INSERT, deltasHora);
+            incrementar(SQL_DIA_UPDATE, SQL_DIA_INSERT, deltasDia);
+        });
+    }
+
+    /**
+     * UPDATE de todos os deltas e INSERT dos que não encontraram linha. Os parâmetros do UPDATE e do
+     * INSERT estão na mesma ordem (delta primeiro, depois a chave).
+     */
+    private void incrementar(String sqlUpdate, String sqlInsert, List<Object[]> deltas) {
+        int[] atualizadas = jdbcTemplate.batchUpdate(sqlUpdate, deltas);
+        List<Object[]> novas = new ArrayList<>();
+        for (int i = 0; i < atualizadas.length; i++) {
+            if (atualizadas[i] == 0) {
+                novas.add(deltas.get(i));
+            }
+        }
+        if (!novas.isEmpty()) {
+            jdbcTemplate.batchUpdate(sqlInsert, novas);
+        }
+    }
+
+    private static List<Object[]> deltas(Map<List<Object>, Long> agregados) {
+        List<Object[]> deltas = new ArrayList<>(agregados.size());
+        agregados.forEach((chave, cliques) -> {
+            Object[] parametros = new Object[chave.size() + 1];
+            parametros[0] = cliques;
+            for (int i = 0; i < chave.size(); i++) {
+                parametros[i + 1] = chave.get(i);
+            }
+            deltas.add(parametros);
+        });
+        return deltas;
+    }
+
+    /**
+     * Só o host do referrer (sem caminho e query), em minúsculas; {@code null} se ausente ou inválido.
+     */
+    static String hostDoReferrer(String referrer) {
+        if (referrer == null || referrer.isBlank()) {
+            return null;
+        }
+        int inicio = referrer.indexOf("://");
+        inicio = inicio < 0 ? 0 : inicio + 3;
+        int fim = inicio;
+        while (fim < referrer.length() && "/?#:".indexOf(referrer.charAt(fim)) < 0) {
+            fim++;
+        }
+        int arroba = referrer.lastIndexOf('@', fim - 1);
+        if (arroba >= inicio) {
+            inicio = arroba + 1;
+        }
+        if (fim == inicio) {
+            return null;
+        }
+        String host = referrer.substring(inicio, Math.min(fim, inicio + 255));
+        return host.toLowerCase(Locale.ROOT);
+    }
+}
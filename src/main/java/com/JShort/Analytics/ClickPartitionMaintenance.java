@@ -0,0 +1,103 @@
+package com.JShort.Analytics;
+
+import com.JShort.Config.JShortProperties;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Mantém as partições diárias de {@code click_event} no PostgreSQL: cria as dos próximos
+ * {@code partitions-ahead} dias e remove as que passaram da retenção (DROP da partição em vez de DELETE).
+ * Roda na inicialização e a cada hora; em outros bancos a tabela não é particionada e nada é feito.
+ */
+@Slf4j
+@Component
+public class ClickPartitionMaintenance implements ApplicationRunner {
+
+    private static final DateTimeFormatter SUFIXO = DateTimeFormatter.BASIC_ISO_DATE;
+
+    private static final Pattern NOME_PARTICAO = Pattern.compile("click_event_(\\d{8})");
+
+    private static final String SQL_PARTICOES = "SELECT c.relname FROM pg_inherits i "
+            + "JOIN pg_class c ON c.oid = i.inhrelid "
+            + "JOIN pg_class p ON p.oid = i.inhparent "
+            + "WHERE p.relname = 'click_event'";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private final TaskScheduler taskScheduler;
+
+    private final JShortProperties.Analytics config;
+
+    public ClickPartitionMaintenance(JdbcTemplate jdbcTemplate, TaskScheduler taskScheduler, JShortProperties properties) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.taskScheduler = taskScheduler;
+        this.config = properties.getAnalytics();
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        String banco = jdbcTemplate.execute((ConnectionCallback<String>) conexao -> conexao.getMetaData().getDatabaseProductName());
+        if (!config.isEnabled() || !"PostgreSQL".equals(banco)) {
+            return;
+        }
+        manter();
+        taskScheduler.scheduleWithFixedDelay(this::manter, Instant.now().plus(Duration.ofHours(1)), Duration.ofHours(1));
+    }
+
+    /**
+     * Cada CREATE e cada DROP falha sozinho: uma partição que não pôde ser criada (lock, permissão) não impede
+     * as dos outros dias nem a remoção das vencidas.
+     */
+    public void manter() {
+        LocalDate hoje = LocalDate.now(ZoneOffset.UTC);
+        for (int dia = 0; dia <= config.getPartitionsAhead(); dia++) {
+            LocalDate data = hoje.plusDays(dia);
+            try {
+                jdbcTemplate.execute(criarParticao(data));
+            } catch (DataAccessException ex) {
+                // Sem a partição do dia os eventos vão para click_event_default; tenta de novo na próxima hora
+                log.warn("Falha ao criar a partição de click_event de {}", data, ex);
+            }
+        }
+
+        List<String> particoes;
+        try {
+            particoes = jdbcTemplate.queryForList(SQL_PARTICOES, String.class);
+        } catch (DataAccessException ex) {
+            log.warn("Falha ao listar as partições de click_event", ex);
+            return;
+        }
+        LocalDate limite = hoje.minusDays(config.getRetention().toDays());
+        for (String particao : particoes) {
+            Matcher matcher = NOME_PARTICAO.matcher(particao);
+            if (matcher.matches() && LocalDate.parse(matcher.group(1), SUFIXO).isBefore(limite)) {
+                log.info("Removendo a partição {} (retenção de {} dias)", particao, config.getRetention().toDays());
+                try {
+                    jdbcTemplate.execute("DROP TABLE IF EXISTS " + particao);
+                } catch (DataAccessException ex) {
+                    log.warn("Falha ao remover a partição {}, tentando novamente na próxima hora", particao, ex);
+                }
+            }
+        }
+    }
+
+    static String criarParticao(LocalDate dia) {
+        return "CREATE TABLE IF NOT EXISTS click_event_" + dia.format(SUFIXO)
+                + " PARTITION OF click_event FOR VALUES FROM ('" + dia + " 00:00:00') TO ('" + dia.plusDays(1) + " 00:00:00')";
+    }
+}
@@ -0,0 +1,99 @@
+package com.JShort.Analytics;
+
+import com.JShort.DTO.UrlEstatisticasDTO;
+import com.JShort.Exception.UrlNaoEncontradaException;
+import com.JShort.Repository.UrlRepository;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Estatísticas de um código lidas só dos rollups ({@code click_hourly} e {@code click_daily}), sem
+ * varrer os eventos brutos. Os cliques aparecem depois da próxima gravação do {@link ClickEventCollector}
+ * (e, com réplicas, depois do atraso de replicação).
+ */
+@Service
+public class ClickStatsService {
+
+    static final int MAXIMO_DIAS = 366;
+
+    static final int HORAS = 48;
+
+    static final int MAXIMO_REFERENCIAS = 10;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private final UrlRepository urlRepository;
+
+    public ClickStatsService(JdbcTemplate jdbcTemplate, UrlRepository urlRepository) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.urlRepository = urlRepository;
+    }
+
+    /**
+     * Cliques das últimas {@value #HORAS} horas por hora e dos últimos {@code dias} dias (UTC, incluindo hoje)
+     * por dia, país, dispositivo e referrer.
+     */
+    @Transactional(readOnly = true)
+    public UrlEstatisticasDTO estatisticas(String shortCode, int dias) {
+        if (urlRepository.findByShortCode(shortCode).isEmpty()) {
+            throw new UrlNaoEncontradaException(shortCode);
+        }
+        int periodo = Math.max(1, Math.min(dias, MAXIMO_DIAS));
+
+        LocalDateTime desdeHora = LocalDateTime.now(ZoneOffset.UTC).truncatedTo(ChronoUnit.HOURS).minusHours(HORAS - 1);
+        List<UrlEstatisticasDTO.Cliques> porHora = jdbcTemplate.query(
+                "SELECT bucket, clicks FROM click_hourly WHERE short_code = ? AND bucket >= ? ORDER BY bucket",
+                (rs, i) -> new UrlEstatisticasDTO.Cliques(rs.getTimestamp(1).toLocalDateTime().toString(), rs.getLong(2)),
+                shortCode, Timestamp.valueOf(desdeHora));
+
+        LocalDate desdeDia = LocalDate.now(ZoneOffset.UTC).minusDays(periodo - 1);
+        List<UrlEstatisticasDTO.Cliques> porDia = new ArrayList<>();
+        Map<String, Long> paises = new HashMap<>();
+        Map<String, Long> dispositivos = new HashMap<>();
+        Map<String, Long> referencias = new HashMap<>();
+        long[] total = {0};
+
+        jdbcTemplate.query("SELECT bucket, dimension, dimension_value, clicks FROM click_daily "
+                + "WHERE short_code = ? AND bucket >= ? ORDER BY bucket", rs -> {
+            String dimensao = rs.getString(2);
+            String valor = rs.getString(3);
+            long cliques = rs.getLong(4);
+            switch (dimensao) {
+                case ClickEventWriter.DIMENSAO_TOTAL -> {
+                    porDia.add(new UrlEstatisticasDTO.Cliques(rs.getDate(1).toLocalDate().toString(), cliques));
+                    total[0] += cliques;
+                }
+                case ClickEventWriter.DIMENSAO_PAIS -> paises.merge(valor, cliques, Long::sum);
+                case ClickEventWriter.DIMENSAO_DISPOSITIVO -> dispositivos.merge(valor, cliques, Long::sum);
+                case ClickEventWriter.DIMENSAO_REFERENCIA -> referencias.merge(valor, cliques, Long::sum);
+                default -> { }
+            }
+        }, shortCode, Date.valueOf(desdeDia));
+
+        return new UrlEstatisticasDTO(shortCode, periodo, total[0], porHora, porDia,
+                ordenados(paises, Integer.MAX_VALUE), ordenados(dispositivos, Integer.MAX_VALUE),
+                ordenados(referencias, MAXIMO_REFERENCIAS));
+    }
+
+    private static Map<String, Long> ordenados(Map<String, Long> cliques, int limite) {
+        Map<String, Long> ordenados = new LinkedHashMap<>();
+        cliques.entrySet().stream()
+                .sorted(Map.Entry.<String, Long>comparingByValue().reversed())
+                .limit(limite)
+                .forEach(entry -> ordenados.put(entry.getKey(), entry.getValue()));
+        return ordenados;
+    }
+}
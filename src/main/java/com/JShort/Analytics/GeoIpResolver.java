@@ -0,0 +1,134 @@
+package com.JShort.Analytics;
+
+import com.JShort.Config.JShortProperties;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Resolve o país de um IPv4 a partir de um CSV local de faixas ({@code inicio,fim,pais}), no formato das
+ * bases "lite" gratuitas (DB-IP, IP2Location). Os limites podem vir como IP com pontos ou como número.
+ *
+ * <p>As faixas ficam em arrays ordenados e a consulta é uma busca binária, sem alocação. IPv6, endereços
+ * fora das faixas e a ausência do arquivo resultam em {@link #DESCONHECIDO}.
+ */
+@Slf4j
+@Component
+public class GeoIpResolver {
+
+    public static final String DESCONHECIDO = "ZZ";
+
+    private final long[] inicios;
+
+    private final long[] fins;
+
+    private final String[] paises;
+
+    public GeoIpResolver(JShortProperties properties) {
+        String arquivo = properties.getAnalytics().getGeoipFile();
+        List<Faixa> faixas = arquivo == null || arquivo.isBlank() ? List.of() : carregar(Path.of(arquivo));
+
+        this.inicios = new long[faixas.size()];
+        this.fins = new long[faixas.size()];
+        this.paises = new String[faixas.size()];
+        for (int i = 0; i < faixas.size(); i++) {
+            inicios[i] = faixas.get(i).inicio();
+            fins[i] = faixas.get(i).fim();
+            paises[i] = faixas.get(i).pais();
+        }
+    }
+
+    public String pais(String enderecoIp) {
+        long ip = ipv4(enderecoIp);
+        if (ip < 0) {
+            return DESCONHECIDO;
+        }
+        int i = Arrays.binarySearch(inicios, ip);
+        if (i < 0) {
+            // Última faixa que começa antes do IP
+            i = -i - 2;
+        }
+        return i >= 0 && ip <= fins[i] ? paises[i] : DESCONHECIDO;
+    }
+
+    int faixas() {
+        return inicios.length;
+    }
+
+    private static List<Faixa> carregar(Path arquivo) {
+        List<Faixa> faixas = new ArrayList<>();
+        try (BufferedReader reader = Files.newBufferedReader(arquivo, StandardCharsets.UTF_8)) {
+            String linha;
+            while ((linha = reader.readLine()) != null) {
+                String[] campos = linha.replace("\"", "").split(",");
+                if (campos.length < 3) {
+                    continue;
+                }
+                long inicio = limite(campos[0].trim());
+                long fim = limite(campos[1].trim());
+                String pais = campos[2].trim().toUpperCase(Locale.ROOT);
+                // Linhas IPv6, cabeçalho ou país fora do padrão ISO são ignorados
+                if (inicio >= 0 && fim >= inicio && pais.length() == 2) {
+                    faixas.add(new Faixa(inicio, fim, pais));
+                }
+            }
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Não foi possível ler o arquivo de GeoIP " + arquivo, ex);
+        }
+        faixas.sort(Comparator.comparingLong(Faixa::inicio));
+        log.info("GeoIP carregado com {} faixas IPv4 de {}", faixas.size(), arquivo);
+        return faixas;
+    }
+
+    private static long limite(String valor) {
+        if (!valor.isEmpty() && valor.chars().allMatch(Character::isDigit)) {
+            return valor.length() > 10 ? -1 : Long.parseLong(valor);
+        }
+        return ipv4(valor);
+    }
+
+    /**
+     * IPv4 com pontos como número sem sinal, ou -1 se não for um IPv4.
+     */
+    static long ipv4(String endereco) {
+        if (endereco == null) {
+            return -1;
+        }
+        long ip = 0;
+        int octeto = -1;
+        int octetos = 0;
+        for (int i = 0; i < endereco.length(); i++) {
+            char c = endereco.charAt(i);
+            if (c >= '0' && c <= '9') {
+                octeto = (octeto < 0 ? 0 : octeto * 10) + (c - '0');
+                if (octeto > 255) {
+                    return -1;
+                }
+            } else if (c == '.' && octeto >= 0 && octetos < 3) {
+                ip = (ip << 8) | octeto;
+                octeto = -1;
+                octetos++;
+            } else {
+                return -1;
+            }
+        }
+        if (octeto < 0 || octetos != 3) {
+            return -1;
+        }
+        return (ip << 8) | octeto;
+    }
+
+    private record Faixa(long inicio, long fim, String pais) {
+    }
+}
@@ -0,0 +1,36 @@
+package com.JShort.Analytics;
+
+import java.util.Locale;
+
+/**
+ * Classe de dispositivo derivada do User-Agent, por palavras-chave. Não pretende identificar navegadores,
+ * só separar robôs, celulares, tablets e desktops nas estatísticas.
+ */
+public enum UserAgentClass {
+
+    BOT, MOBILE, TABLET, DESKTOP, DESCONHECIDO;
+
+    private static final String[] MARCADORES_BOT = {
+            "bot", "crawler", "spider", "slurp", "preview", "curl", "wget", "python", "httpclient", "java/", "okhttp"
+    };
+
+    public static UserAgentClass classificar(String userAgent) {
+        if (userAgent == null || userAgent.isBlank()) {
+            return DESCONHECIDO;
+        }
+        String ua = userAgent.toLowerCase(Locale.ROOT);
+        for (String marcador : MARCADORES_BOT) {
+            if (ua.contains(marcador)) {
+                return BOT;
+            }
+        }
+        // Android sem "mobile" é tablet, segundo a própria convenção do Android
+        if (ua.contains("ipad") || ua.contains("tablet") || (ua.contains("android") && !ua.contains("mobile"))) {
+            return TABLET;
+        }
+        if (ua.contains("mobi") || ua.contains("iphone") || ua.contains("android")) {
+            return MOBILE;
+        }
+        return DESKTOP;
+    }
+}
@@ -0,0 +1,141 @@
+package com.JShort.Cache;
+
+import com.JShort.Config.JShortProperties;
+import com.JShort.Model.UrlResolvida;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Aquece o {@link UrlCache} na inicialização, para que os códigos quentes não voltem todos ao banco a cada
+ * deploy.
+ *
+ * <p>Roda como {@link ApplicationRunner}: o Spring Boot só publica o readiness {@code ACCEPTING_TRAFFIC}
+ * (e o {@code /actuator/health/readiness} só responde UP) depois que os runners terminam. Com
+ * {@code jshort.warmup.snapshot-file} configurado, o cache é restaurado do snapshot local, se for recente;
+ * senão carrega os {@code top-n} códigos com mais acessos. O snapshot é regravado periodicamente e no
+ * desligamento com todas as entradas válidas do cache: limitado por tamanho, o cache já despeja os códigos
+ * menos usados, então o que está nele é o conjunto quente (e {@code jshort.cache.maximum-size} limita o
+ * snapshot). Cortar em {@code top-n} pegaria uma parte arbitrária dele, na ordem interna do hash.
+ */
+@Slf4j
+@Component
+public class CacheWarmup implements ApplicationRunner {
+
+    private final UrlCache urlCache;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private final TaskScheduler taskScheduler;
+
+    private final JShortProperties.Warmup config;
+
+    public CacheWarmup(UrlCache urlCache, JdbcTemplate jdbcTemplate, TaskScheduler taskScheduler,
+                       JShortProperties properties) {
+        this.urlCache = urlCache;
+        this.jdbcTemplate = jdbcTemplate;
+        this.taskScheduler = taskScheduler;
+        this.config = properties.getWarmup();
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        if (config.isEnabled()) {
+            aquecer();
+        }
+        Duration intervalo = config.getSnapshotInterval();
+        if (snapshot() != null && !intervalo.isZero()) {
+            taskScheduler.scheduleWithFixedDelay(this::gravarSnapshot, Instant.now().plus(intervalo), intervalo);
+        }
+    }
+
+    void aquecer() {
+        long inicio = System.nanoTime();
+        String origem = "snapshot";
+        Map<String, UrlResolvida> urls = restaurarSnapshot();
+        if (urls == null) {
+            origem = "banco";
+            urls = maisAcessadas();
+        }
+        urlCache.carregar(urls);
+        log.info("Cache de redirecionamento aquecido com {} códigos ({}) em {} ms",
+                urls.size(), origem, (System.nanoTime() - inicio) / 1_000_000);
+    }
+
+    private Map<String, UrlResolvida> maisAcessadas() {
+        Map<String, UrlResolvida> urls = new HashMap<>();
+        try {
+            // Só códigos já clicados têm linha em url_access_count, e são esses que interessam
+            jdbcTemplate.query("SELECT u.short_code, u.original_url, u.expiration_date FROM url_access_count c "
+                            + "JOIN url u ON u.short_code = c.short_code "
+                            + "WHERE u.expiration_date IS NULL OR u.expiration_date > ? "
+                            + "ORDER BY c.access_count DESC LIMIT ?",
+                    rs -> {
+                        urls.put(rs.getString(1), new UrlResolvida(rs.getString(2),
+                                rs.getObject(3, LocalDateTime.class)));
+                    },
+                    LocalDateTime.now(), config.getTopN());
+        } catch (RuntimeException ex) {
+            // Sobe com o cache frio em vez de não subir
+            log.warn("Falha ao aquecer o cache de redirecionamento", ex);
+        }
+        return urls;
+    }
+
+    /**
+     * Entradas válidas do snapshot, ou {@code null} se não houver snapshot utilizável.
+     */
+    private Map<String, UrlResolvida> restaurarSnapshot() {
+        Path arquivo = snapshot();
+        if (arquivo == null || !Files.isRegularFile(arquivo)) {
+            return null;
+        }
+        try {
+            HotSetSnapshot snapshot = HotSetSnapshot.ler(arquivo);
+            if (snapshot.criadoEm().isBefore(Instant.now().minus(config.getSnapshotMaxAge()))) {
+                log.info("Snapshot do cache gravado em {} é antigo demais; aquecendo pelo banco", snapshot.criadoEm());
+                return null;
+            }
+            LocalDateTime agora = LocalDateTime.now();
+            Map<String, UrlResolvida> urls = new HashMap<>(snapshot.entradas());
+            urls.values().removeIf(url -> url.expirada(agora));
+            return urls;
+        } catch (IOException ex) {
+            log.warn("Snapshot do cache ilegível; aquecendo pelo banco", ex);
+            return null;
+        }
+    }
+
+    @PreDestroy
+    public void gravarSnapshot() {
+        Path arquivo = snapshot();
+        if (arquivo == null) {
+            return;
+        }
+        LocalDateTime agora = LocalDateTime.now();
+        Map<String, UrlResolvida> urls = new HashMap<>(urlCache.entradas());
+        urls.values().removeIf(url -> url.expirada(agora));
+        try {
+            new HotSetSnapshot(Instant.now(), urls).gravar(arquivo);
+        } catch (IOException | RuntimeException ex) {
+            log.warn("Falha ao gravar o snapshot do cache em {}", arquivo, ex);
+        }
+    }
+
+    private Path snapshot() {
+        return config.getSnapshotFile().isBlank() ? null : Path.of(config.getSnapshotFile());
+    }
+}
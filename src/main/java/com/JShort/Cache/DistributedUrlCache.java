@@ -0,0 +1,285 @@
+package com.JShort.Cache;
+
+import com.JShort.Config.JShortProperties;
+import com.JShort.Model.UrlResolvida;
+import com.hazelcast.core.HazelcastInstance;
+import com.hazelcast.map.IMap;
+import com.hazelcast.topic.ITopic;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Cache compartilhado entre as instâncias (L2, opcional, {@code jshort.l2.enabled}), consultado depois do
+ * {@link UrlCache} local e antes do banco.
+ *
+ * <p>Guarda só links válidos, com TTL limitado pela expiração do link; um valor expirado vindo do L2 não é
+ * usado e o código segue para o banco, porque outra instância pode ter renovado o link. Cada invalidação do
+ * {@link UrlCache} (renovação, remoção pelo sweeper) tira o código do L2 e é publicada num tópico para os
+ * caches locais das outras instâncias; cada código registrado no {@link ShortCodeBloomFilter} também, para
+ * que o filtro de uma instância não responda 404 para um código criado em outra.
+ *
+ * <p>Qualquer falha ou demora além de {@code jshort.l2.timeout} é tratada como ausência: o redirecionamento
+ * segue pelo banco e o L2 fica de fora por {@code jshort.l2.retry-after}. Com o L2 desligado, nada aqui
+ * faz I/O. Como o tópico não confirma entrega, cada falha suspende a negativa do bloom filter desta instância e,
+ * na primeira publicação depois dela, a das outras ({@link ShortCodeBloomFilter#registroPerdido()}).
+ */
+@Slf4j
+@Component
+public class DistributedUrlCache {
+
+    public static final String MAPA = "jshort-urls";
+
+    static final String TOPICO = "jshort-eventos";
+
+    private static final char INVALIDACAO = 'I';
+
+    private static final char REGISTRO = 'R';
+
+    private static final char PERDA = 'P';
+
+    private final UrlCache urlCache;
+
+    private final ShortCodeBloomFilter bloomFilter;
+
+    private final JShortProperties.L2 config;
+
+    private final HazelcastInstance hazelcast;
+
+    private final ReentrantLock conectando = new ReentrantLock();
+
+    private final Counter encontrados;
+
+    private final Counter ausentes;
+
+    private final Counter falhas;
+
+    private volatile IMap<String, String> mapa;
+
+    private volatile ITopic<String> topico;
+
+    private volatile long indisponivelAte;
+
+    private volatile boolean perdaPendente;
+
+    public DistributedUrlCache(UrlCache urlCache, ShortCodeBloomFilter bloomFilter, JShortProperties properties,
+                               ObjectProvider<HazelcastInstance> hazelcast, MeterRegistry meterRegistry) {
+        this.urlCache = urlCache;
+        this.bloomFilter = bloomFilter;
+        this.config = properties.getL2();
+        this.hazelcast = config.isEnabled() ? hazelcast.getIfAvailable() : null;
+
+        this.encontrados = Counter.builder("jshort.l2.consultas").tag("resultado", "encontrado")
+                .description("Códigos resolvidos pelo cache compartilhado")
+                .register(meterRegistry);
+        this.ausentes = Counter.builder("jshort.l2.consultas").tag("resultado", "ausente")
+                .description("Códigos que o cache compartilhado não tinha e seguiram para o banco")
+                .register(meterRegistry);
+        this.falhas = Counter.builder("jshort.l2.consultas").tag("resultado", "falha")
+                .description("Operações no cache compartilhado que falharam ou passaram do timeout")
+                .register(meterRegistry);
+        Gauge.builder("jshort.l2.disponivel", this, c -> c.disponivel() ? 1 : 0)
+                .description("1 enquanto o cache compartilhado está sendo usado")
+                .register(meterRegistry);
+
+        if (this.hazelcast != null) {
+            urlCache.propagarInvalidacoes(this::invalidar);
+            bloomFilter.propagarRegistros(this::registrar);
+            conectar();
+        }
+    }
+
+    /**
+     * URL do código no L2, ou {@code null} se não estiver lá, estiver expirada ou o L2 não responder a tempo.
+     */
+    public UrlResolvida buscar(String shortCode) {
+        return buscarAsync(shortCode).join();
+    }
+
+    /**
+     * Como {@link #buscar(String)}, sem bloquear; o futuro nunca completa com erro.
+     */
+    public CompletableFuture<UrlResolvida> buscarAsync(String shortCode) {
+        IMap<String, String> atual = conectar();
+        if (atual == null) {
+            return CompletableFuture.completedFuture(null);
+        }
+        try {
+            return atual.getAsync(shortCode).toCompletableFuture()
+                    .thenApply(DistributedUrlCache::decodificar)
+                    .orTimeout(config.getTimeout().toMillis(), TimeUnit.MILLISECONDS)
+                    .handle((url, ex) -> {
+                        if (ex != null) {
+                            falhou(ex);
+                            return null;
+                        }
+                        if (url == null || url.expirada(LocalDateTime.now())) {
+                            ausentes.increment();
+                            return null;
+                        }
+                        encontrados.increment();
+                        return url;
+                    });
+        } catch (RuntimeException ex) {
+            falhou(ex);
+            return CompletableFuture.completedFuture(null);
+        }
+    }
+
+    /**
+     * Publica no L2 a URL carregada do banco, sem esperar a confirmação. Links expirados não entram.
+     */
+    public void guardar(String shortCode, UrlResolvida url) {
+        IMap<String, String> atual = conectar();
+        if (atual == null) {
+            return;
+        }
+        Duration ttl = config.getTtl();
+        if (url.expirationDate() != null) {
+            Duration restante = Duration.between(LocalDateTime.now(), url.expirationDate());
+            if (restante.compareTo(ttl) < 0) {
+                ttl = restante;
+            }
+        }
+        if (ttl.toMillis() <= 0) {
+            return;
+        }
+        try {
+            atual.setAsync(shortCode, codificar(url), ttl.toMillis(), TimeUnit.MILLISECONDS)
+                    .whenComplete((ok, ex) -> {
+                        if (ex != null) {
+                            falhou(ex);
+                        }
+                    });
+        } catch (RuntimeException ex) {
+            falhou(ex);
+        }
+    }
+
+    private void invalidar(String shortCode) {
+        IMap<String, String> atual = conectar();
+        if (atual == null) {
+            // As outras instâncias só deixam de ver a versão antiga quando o TTL dos caches vencer
+            return;
+        }
+        try {
+            atual.removeAsync(shortCode);
+            topico.publishAsync(INVALIDACAO + shortCode);
+        } catch (RuntimeException ex) {
+            falhou(ex);
+        }
+    }
+
+    private void registrar(String shortCode) {
+        if (conectar() == null) {
+            registroPerdido();
+            return;
+        }
+        try {
+            publicar(REGISTRO + shortCode);
+            if (perdaPendente) {
+                perdaPendente = false;
+                publicar(String.valueOf(PERDA));
+            }
+        } catch (RuntimeException ex) {
+            falhou(ex);
+        }
+    }
+
+    private void publicar(String mensagem) {
+        topico.publishAsync(mensagem).whenComplete((ok, ex) -> {
+            if (ex != null) {
+                falhou(ex);
+            }
+        });
+    }
+
+    /**
+     * Esta instância pode ter deixado de publicar ou de receber registros: o filtro local deixa de confiar na
+     * negativa já, e os das outras instâncias quando o tópico voltar a publicar.
+     */
+    private void registroPerdido() {
+        perdaPendente = true;
+        bloomFilter.registroPerdido();
+    }
+
+    private void receber(String mensagem) {
+        String shortCode = mensagem.substring(1);
+        if (mensagem.charAt(0) == INVALIDACAO) {
+            urlCache.invalidarLocal(shortCode);
+        } else if (mensagem.charAt(0) == REGISTRO) {
+            bloomFilter.registrarLocal(shortCode);
+        } else if (mensagem.charAt(0) == PERDA) {
+            bloomFilter.registroPerdido();
+        }
+    }
+
+    /**
+     * Mapa do L2, assinando o tópico na primeira vez; {@code null} se o L2 está desligado ou em espera depois
+     * de uma falha.
+     */
+    private IMap<String, String> conectar() {
+        if (!disponivel()) {
+            return null;
+        }
+        IMap<String, String> atual = mapa;
+        if (atual != null) {
+            return atual;
+        }
+        // Só uma thread cria os proxies (no modo cliente, pode ser o primeiro contato com o cluster)
+        if (!conectando.tryLock()) {
+            return null;
+        }
+        try {
+            if (mapa == null) {
+                ITopic<String> novoTopico = hazelcast.getTopic(TOPICO);
+                novoTopico.addMessageListener(mensagem -> receber(mensagem.getMessageObject()));
+                topico = novoTopico;
+                mapa = hazelcast.getMap(MAPA);
+                log.info("Cache compartilhado (L2) conectado ao cluster {}", config.getClusterName());
+            }
+            return mapa;
+        } catch (RuntimeException ex) {
+            falhou(ex);
+            return null;
+        } finally {
+            conectando.unlock();
+        }
+    }
+
+    private boolean disponivel() {
+        return hazelcast != null && System.currentTimeMillis() >= indisponivelAte;
+    }
+
+    private void falhou(Throwable ex) {
+        falhas.increment();
+        registroPerdido();
+        if (disponivel()) {
+            log.warn("Cache compartilhado (L2) indisponível, seguindo sem ele por {}", config.getRetryAfter(), ex);
+        }
+        indisponivelAte = System.currentTimeMillis() + config.getRetryAfter().toMillis();
+    }
+
+    static String codificar(UrlResolvida url) {
+        String expiracao = url.expirationDate() == null ? "" : url.expirationDate().toString();
+        return expiracao + '|' + url.originalUrl();
+    }
+
+    static UrlResolvida decodificar(String valor) {
+        if (valor == null) {
+            return null;
+        }
+        int separador = valor.indexOf('|');
+        LocalDateTime expiracao = separador == 0 ? null : LocalDateTime.parse(valor.substring(0, separador));
+        return new UrlResolvida(valor.substring(separador + 1), expiracao);
+    }
+}
@@ -0,0 +1,104 @@
+package com.JShort.Cache;
+
+import com.JShort.Model.UrlResolvida;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.DateTimeException;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Snapshot binário do conjunto quente do {@link UrlCache}.
+ *
+ * <p>Formato: cabeçalho (magic, versão, instante da gravação em epoch millis, quantidade) seguido das
+ * entradas (código com tamanho em 2 bytes, URL com tamanho em 4 bytes, ambos UTF-8, e a expiração em
+ * segundos/nanos UTC, com {@link Long#MIN_VALUE} para "sem expiração"). A gravação vai para um arquivo
+ * temporário renomeado no fim, então quem lê nunca vê um snapshot pela metade; a leitura mapeia o arquivo
+ * em memória e decodifica direto do buffer.
+ */
+record HotSetSnapshot(Instant criadoEm, Map<String, UrlResolvida> entradas) {
+
+    static final int MAGIC = 0x4A534853; // "JSHS"
+
+    static final int VERSAO = 1;
+
+    private static final long SEM_EXPIRACAO = Long.MIN_VALUE;
+
+    void gravar(Path arquivo) throws IOException {
+        Path diretorio = arquivo.toAbsolutePath().getParent();
+        Files.createDirectories(diretorio);
+        Path temporario = Files.createTempFile(diretorio, arquivo.getFileName().toString(), ".tmp");
+        try {
+            try (OutputStream arquivoTemporario = Files.newOutputStream(temporario);
+                 DataOutputStream saida = new DataOutputStream(new BufferedOutputStream(arquivoTemporario, 64 * 1024))) {
+                saida.writeInt(MAGIC);
+                saida.writeInt(VERSAO);
+                saida.writeLong(criadoEm.toEpochMilli());
+                saida.writeInt(entradas.size());
+                for (Map.Entry<String, UrlResolvida> entrada : entradas.entrySet()) {
+                    byte[] codigo = entrada.getKey().getBytes(StandardCharsets.UTF_8);
+                    byte[] url = entrada.getValue().originalUrl().getBytes(StandardCharsets.UTF_8);
+                    saida.writeShort(codigo.length);
+                    saida.write(codigo);
+                    saida.writeInt(url.length);
+                    saida.write(url);
+                    LocalDateTime expiracao = entrada.getValue().expirationDate();
+                    saida.writeLong(expiracao == null ? SEM_EXPIRACAO : expiracao.toEpochSecond(ZoneOffset.UTC));
+                    saida.writeInt(expiracao == null ? 0 : expiracao.getNano());
+                }
+            }
+            Files.move(temporario, arquivo, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(temporario);
+        }
+    }
+
+    /**
+     * Lê o snapshot mapeando o arquivo em memória. Lança {@link IOException} se o arquivo não for um
+     * snapshot válido desta versão.
+     */
+    static HotSetSnapshot ler(Path arquivo) throws IOException {
+        try (FileChannel canal = FileChannel.open(arquivo, StandardOpenOption.READ)) {
+            MappedByteBuffer buffer = canal.map(FileChannel.MapMode.READ_ONLY, 0, canal.size());
+            if (buffer.getInt() != MAGIC || buffer.getInt() != VERSAO) {
+                throw new IOException("Snapshot em formato desconhecido: " + arquivo);
+            }
+            Instant criadoEm = Instant.ofEpochMilli(buffer.getLong());
+            int quantidade = buffer.getInt();
+            Map<String, UrlResolvida> entradas = new HashMap<>(Math.max(16, (int) (quantidade / 0.75f) + 1));
+            for (int i = 0; i < quantidade; i++) {
+                String codigo = texto(buffer, buffer.getShort() & 0xFFFF);
+                String url = texto(buffer, buffer.getInt());
+                long segundos = buffer.getLong();
+                int nanos = buffer.getInt();
+                LocalDateTime expiracao = segundos == SEM_EXPIRACAO
+                        ? null : LocalDateTime.ofEpochSecond(segundos, nanos, ZoneOffset.UTC);
+                entradas.put(codigo, new UrlResolvida(url, expiracao));
+            }
+            return new HotSetSnapshot(criadoEm, entradas);
+        } catch (BufferUnderflowException | NegativeArraySizeException | DateTimeException ex) {
+            throw new IOException("Snapshot truncado ou corrompido: " + arquivo, ex);
+        }
+    }
+
+    private static String texto(ByteBuffer buffer, int tamanho) {
+        byte[] bytes = new byte[tamanho];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
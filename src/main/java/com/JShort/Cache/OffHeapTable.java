@@ -0,0 +1,287 @@
+package com.JShort.Cache;
+
+import com.JShort.Model.UrlResolvida;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Arrays;
+
+/**
+ * Tabela hash de endereçamento aberto (sondagem linear) fora do heap: chave {@code long} para um registro
+ * numa arena de bytes, também fora do heap.
+ *
+ * <p>Cada posição da tabela tem 16 bytes: a chave e a referência do registro na arena. O registro guarda a
+ * expiração (segundos UTC, {@link Long#MIN_VALUE} se não expira, e nanossegundos), o tamanho e os bytes UTF-8 da URL. A
+ * memória é dividida em segmentos de {@link ByteBuffer} diretos, ou mapeados de arquivos num diretório
+ * (o sistema operacional pode então paginar para o disco), porque um buffer passa de 2 GB.
+ *
+ * <p>Um escritor por vez (quem chama serializa as escritas) e leitores sem lock: o escritor publica a
+ * referência e só depois a chave, com release; o leitor lê a chave com acquire. Atualizações gravam um
+ * registro novo na arena e trocam a referência; o espaço antigo só é recuperado quando a tabela é
+ * reconstruída. Remoções deixam a chave com referência {@link #REMOVIDA}.
+ */
+final class OffHeapTable {
+
+    private static final VarHandle LONGS = MethodHandles.byteBufferViewVarHandle(long[].class, ByteOrder.nativeOrder());
+
+    private static final int BYTES_POSICAO = 16;
+
+    private static final long REMOVIDA = -1L;
+
+    private static final long SEM_EXPIRACAO = Long.MIN_VALUE;
+
+    private static final int CABECALHO_REGISTRO = Long.BYTES + Integer.BYTES + Short.BYTES;
+
+    private static final float CARGA_MAXIMA = 0.7f;
+
+    private final int bitsSegmentoPosicoes;
+
+    private final int bitsSegmentoArena;
+
+    private final Path diretorio;
+
+    // Copiada a cada segmento novo; os leitores só veem o array por essa referência volátil
+    private volatile ByteBuffer[] arena;
+
+    private volatile Posicoes posicoes;
+
+    // Próxima posição livre na arena; começa depois do zero para que referência 0 signifique "nenhuma"
+    private long fimArena = Long.BYTES;
+
+    private long ocupadas;
+
+    private volatile long entradas;
+
+    private volatile long bytesAlocados;
+
+    /**
+     * @param capacidadeInicial     posições iniciais (arredondado para potência de 2)
+     * @param bitsSegmentoPosicoes  log2 de posições por segmento da tabela
+     * @param bitsSegmentoArena     log2 de bytes por segmento da arena
+     * @param diretorio             onde criar os arquivos mapeados; {@code null} usa memória direta
+     */
+    OffHeapTable(long capacidadeInicial, int bitsSegmentoPosicoes, int bitsSegmentoArena, Path diretorio) {
+        this.bitsSegmentoPosicoes = bitsSegmentoPosicoes;
+        this.bitsSegmentoArena = bitsSegmentoArena;
+        this.diretorio = diretorio;
+        this.posicoes = new Posicoes(Long.highestOneBit(Math.max(2, capacidadeInicial - 1)) << 1);
+        this.arena = new ByteBuffer[]{alocar(1 << bitsSegmentoArena)};
+    }
+
+    /**
+     * URL da chave, ou {@code null} se a chave não estiver na tabela. Não trava e não aloca além da URL.
+     */
+    UrlResolvida buscar(long chave) {
+        Posicoes atual = posicoes;
+        long referencia = atual.referencia(chave);
+        return referencia > 0 ? ler(referencia) : null;
+    }
+
+    /**
+     * Grava ou substitui a URL da chave. {@code false} se a URL não couber num registro.
+     */
+    boolean gravar(long chave, UrlResolvida url) {
+        return gravar(chave, url, true);
+    }
+
+    /**
+     * Grava só se a chave ainda não estiver presente (nem como removida).
+     */
+    boolean gravarSeAusente(long chave, UrlResolvida url) {
+        return gravar(chave, url, false);
+    }
+
+    void remover(long chave) {
+        long posicao = posicoes.localizar(chave);
+        if (posicao >= 0 && posicoes.chave(posicao) == chave && posicoes.referenciaEm(posicao) > 0) {
+            posicoes.publicar(posicao, chave, REMOVIDA);
+            entradas--;
+        }
+    }
+
+    long entradas() {
+        return entradas;
+    }
+
+    long bytesAlocados() {
+        return bytesAlocados;
+    }
+
+    private boolean gravar(long chave, UrlResolvida url, boolean substituir) {
+        if ((ocupadas + 1) > posicoes.capacidade * CARGA_MAXIMA) {
+            crescer();
+        }
+        long posicao = posicoes.localizar(chave);
+        boolean existe = posicoes.chave(posicao) == chave;
+        if (existe && !substituir) {
+            return false;
+        }
+        byte[] bytes = url.originalUrl().getBytes(StandardCharsets.UTF_8);
+        if (bytes.length > 0xFFFF) {
+            return false;
+        }
+        long referencia = escrever(bytes, url.expirationDate());
+        if (!existe) {
+            ocupadas++;
+        }
+        if (!existe || posicoes.referenciaEm(posicao) <= 0) {
+            entradas++;
+        }
+        posicoes.publicar(posicao, chave, referencia);
+        return true;
+    }
+
+    private void crescer() {
+        Posicoes antiga = posicoes;
+        Posicoes nova = new Posicoes(antiga.capacidade << 1);
+        long vivas = 0;
+        for (long i = 0; i < antiga.capacidade; i++) {
+            long chave = antiga.chave(i);
+            long referencia = antiga.referenciaEm(i);
+            // Removidas ficam para trás: a tabela nova só tem entradas vivas
+            if (chave != 0 && referencia > 0) {
+                nova.publicar(nova.localizar(chave), chave, referencia);
+                vivas++;
+            }
+        }
+        ocupadas = vivas;
+        posicoes = nova;
+        bytesAlocados -= antiga.capacidade * BYTES_POSICAO;
+    }
+
+    private long escrever(byte[] bytes, LocalDateTime expiracao) {
+        int tamanhoSegmento = 1 << bitsSegmentoArena;
+        int tamanho = CABECALHO_REGISTRO + bytes.length;
+        if (tamanho > tamanhoSegmento) {
+            throw new IllegalArgumentException("Registro maior que o segmento da arena: " + tamanho);
+        }
+        int deslocamento = (int) (fimArena & (tamanhoSegmento - 1));
+        // Também quando o registro anterior terminou exatamente no fim do segmento
+        if (deslocamento + tamanho > tamanhoSegmento || (fimArena >>> bitsSegmentoArena) == arena.length) {
+            ByteBuffer[] segmentos = Arrays.copyOf(arena, arena.length + 1);
+            segmentos[segmentos.length - 1] = alocar(tamanhoSegmento);
+            arena = segmentos;
+            fimArena = (long) (segmentos.length - 1) << bitsSegmentoArena;
+            deslocamento = 0;
+        }
+        // Registros alinhados em 8 bytes para o long da expiração
+        ByteBuffer segmento = arena[(int) (fimArena >>> bitsSegmentoArena)];
+        // Com os nanossegundos: a expiração lida é igual à gravada, como no UrlCache do heap
+        segmento.putLong(deslocamento, expiracao == null ? SEM_EXPIRACAO : expiracao.toEpochSecond(ZoneOffset.UTC));
+        segmento.putInt(deslocamento + Long.BYTES, expiracao == null ? 0 : expiracao.getNano());
+        segmento.putShort(deslocamento + Long.BYTES + Integer.BYTES, (short) bytes.length);
+        segmento.put(deslocamento + CABECALHO_REGISTRO, bytes);
+
+        long referencia = fimArena;
+        fimArena += (tamanho + 7) & ~7;
+        return referencia;
+    }
+
+    private UrlResolvida ler(long referencia) {
+        ByteBuffer segmento = arena[(int) (referencia >>> bitsSegmentoArena)];
+        int deslocamento = (int) (referencia & ((1 << bitsSegmentoArena) - 1));
+        long segundos = segmento.getLong(deslocamento);
+        int nanos = segmento.getInt(deslocamento + Long.BYTES);
+        byte[] bytes = new byte[segmento.getShort(deslocamento + Long.BYTES + Integer.BYTES) & 0xFFFF];
+        segmento.get(deslocamento + CABECALHO_REGISTRO, bytes);
+        return new UrlResolvida(new String(bytes, StandardCharsets.UTF_8),
+                segundos == SEM_EXPIRACAO ? null : LocalDateTime.ofEpochSecond(segundos, nanos, ZoneOffset.UTC));
+    }
+
+    private ByteBuffer alocar(int bytes) {
+        bytesAlocados += bytes;
+        if (diretorio == null) {
+            return ByteBuffer.allocateDirect(bytes).order(ByteOrder.nativeOrder());
+        }
+        try {
+            Files.createDirectories(diretorio);
+            Path arquivo = Files.createTempFile(diretorio, "jshort-index", ".bin");
+            try (FileChannel canal = FileChannel.open(arquivo, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+                // O mapeamento continua válido depois que o arquivo é apagado e o canal fechado
+                return canal.map(FileChannel.MapMode.READ_WRITE, 0, bytes).order(ByteOrder.nativeOrder());
+            } finally {
+                Files.delete(arquivo);
+            }
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+
+    private static long espalhar(long chave) {
+        // Finalizador do MurmurHash3: chaves sequenciais caem em posições distantes
+        chave ^= chave >>> 33;
+        chave *= 0xff51afd7ed558ccdL;
+        chave ^= chave >>> 33;
+        chave *= 0xc4ceb9fe1a85ec53L;
+        chave ^= chave >>> 33;
+        return chave;
+    }
+
+    private final class Posicoes {
+
+        private final long capacidade;
+
+        private final ByteBuffer[] segmentos;
+
+        Posicoes(long capacidade) {
+            this.capacidade = capacidade;
+            long porSegmento = Math.min(capacidade, 1L << bitsSegmentoPosicoes);
+            this.segmentos = new ByteBuffer[(int) (capacidade / porSegmento)];
+            for (int i = 0; i < segmentos.length; i++) {
+                segmentos[i] = alocar((int) (porSegmento * BYTES_POSICAO));
+            }
+        }
+
+        /**
+         * Posição da chave ou a primeira vazia da sequência de sondagem dela.
+         */
+        long localizar(long chave) {
+            long mascara = capacidade - 1;
+            for (long posicao = espalhar(chave) & mascara; ; posicao = (posicao + 1) & mascara) {
+                long atual = chave(posicao);
+                if (atual == chave || atual == 0) {
+                    return posicao;
+                }
+            }
+        }
+
+        long referencia(long chave) {
+            long posicao = localizar(chave);
+            return chave(posicao) == chave ? referenciaEm(posicao) : 0;
+        }
+
+        long chave(long posicao) {
+            return (long) LONGS.getAcquire(segmento(posicao), deslocamento(posicao));
+        }
+
+        long referenciaEm(long posicao) {
+            return (long) LONGS.getAcquire(segmento(posicao), deslocamento(posicao) + Long.BYTES);
+        }
+
+        void publicar(long posicao, long chave, long referencia) {
+            ByteBuffer segmento = segmento(posicao);
+            int deslocamento = deslocamento(posicao);
+            LONGS.setRelease(segmento, deslocamento + Long.BYTES, referencia);
+            LONGS.setRelease(segmento, deslocamento, chave);
+        }
+
+        private ByteBuffer segmento(long posicao) {
+            return segmentos[(int) (posicao >>> bitsSegmentoPosicoes)];
+        }
+
+        private int deslocamento(long posicao) {
+            return (int) (posicao & ((1L << bitsSegmentoPosicoes) - 1)) * BYTES_POSICAO;
+        }
+    }
+}
@@ -0,0 +1,193 @@
+package com.JShort.Cache;
+
+import com.JShort.Config.JShortProperties;
+import com.JShort.Config.ReplicaRoutingDataSource;
+import com.JShort.Model.UrlResolvida;
+import com.JShort.ShortCode.ShortCodeKey;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.file.Path;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Índice em memória fora do heap de todos os códigos, para resolver redirecionamentos sem objeto Java por
+ * entrada (opcional, {@code jshort.index.enabled}).
+ *
+ * <p>O código vira um {@code long} ({@link ShortCodeKey}) e aponta para a URL numa arena de bytes
+ * ({@link OffHeapTable}); centenas de milhões de links não pesam no GC. É construído na inicialização
+ * lendo a tabela {@code url} em streaming, recebe cada código gravado ou renovado e é reconstruído
+ * periodicamente, o que também descarta links apagados e o espaço de registros substituídos. Códigos que
+ * não cabem num {@code long} simplesmente não entram no índice e seguem pelo cache/banco.
+ */
+@Slf4j
+@Component
+public class OffHeapUrlIndex implements ApplicationRunner {
+
+    // 16 M posições (256 MB) por segmento da tabela e 256 MB por segmento da arena
+    private static final int BITS_SEGMENTO_POSICOES = 24;
+
+    private static final int BITS_SEGMENTO_ARENA = 28;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private final TransactionTemplate leitura;
+
+    private final TaskScheduler taskScheduler;
+
+    private final JShortProperties.Index config;
+
+    private final ReentrantLock escrevendo = new ReentrantLock();
+
+    private final ReentrantLock reconstruindo = new ReentrantLock();
+
+    private final Counter encontrados;
+
+    private final Counter ausentes;
+
+    private volatile OffHeapTable tabela;
+
+    private volatile OffHeapTable emConstrucao;
+
+    public OffHeapUrlIndex(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager,
+                           TaskScheduler taskScheduler, JShortProperties properties, MeterRegistry meterRegistry) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.leitura = new TransactionTemplate(transactionManager);
+        this.leitura.setReadOnly(true);
+        this.taskScheduler = taskScheduler;
+        this.config = properties.getIndex();
+
+        this.encontrados = Counter.builder("jshort.index.consultas").tag("resultado", "encontrado")
+                .description("Códigos resolvidos pelo índice fora do heap")
+                .register(meterRegistry);
+        this.ausentes = Counter.builder("jshort.index.consultas").tag("resultado", "ausente")
+                .description("Códigos que o índice não tinha e seguiram para o banco")
+                .register(meterRegistry);
+        Gauge.builder("jshort.index.entradas", this, i -> i.tabela == null ? 0 : i.tabela.entradas())
+                .description("Códigos no índice fora do heap")
+                .register(meterRegistry);
+        Gauge.builder("jshort.index.memoria", this, i -> i.tabela == null ? 0 : i.tabela.bytesAlocados())
+                .baseUnit("bytes")
+                .description("Memória fora do heap (ou mapeada) do índice")
+                .register(meterRegistry);
+    }
+
+    /**
+     * URL do código, ou {@code null} se o índice não estiver pronto ou não tiver o código (o que não quer
+     * dizer que ele não exista). A URL pode estar expirada; quem chama decide.
+     */
+    public UrlResolvida buscar(String shortCode) {
+        OffHeapTable atual = tabela;
+        if (atual == null) {
+            return null;
+        }
+        long chave = ShortCodeKey.codificar(shortCode);
+        UrlResolvida url = chave == ShortCodeKey.INVALIDA ? null : atual.buscar(chave);
+        (url == null ? ausentes : encontrados).increment();
+        return url;
+    }
+
+    /**
+     * Grava ou atualiza o código depois que a linha foi gravada (ou renovada) no banco.
+     */
+    public void registrar(String shortCode, UrlResolvida url) {
+        if (!config.isEnabled()) {
+            return;
+        }
+        long chave = ShortCodeKey.codificar(shortCode);
+        if (chave == ShortCodeKey.INVALIDA) {
+            return;
+        }
+        escrevendo.lock();
+        try {
+            gravar(tabela, chave, url);
+            gravar(emConstrucao, chave, url);
+        } finally {
+            escrevendo.unlock();
+        }
+    }
+
+    private static void gravar(OffHeapTable alvo, long chave, UrlResolvida url) {
+        if (alvo == null) {
+            return;
+        }
+        try {
+            alvo.gravar(chave, url);
+        } catch (RuntimeException | OutOfMemoryError ex) {
+            // Sem espaço para o registro novo: tira o código do índice para não servir a versão antiga
+            alvo.remover(chave);
+            log.warn("Falha ao gravar o código no índice fora do heap", ex);
+        }
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        if (!config.isEnabled()) {
+            return;
+        }
+        reconstruir();
+        Duration intervalo = config.getRebuildInterval();
+        if (!intervalo.isZero()) {
+            taskScheduler.scheduleWithFixedDelay(this::reconstruir, Instant.now().plus(intervalo), intervalo);
+        }
+    }
+
+    public void reconstruir() {
+        reconstruindo.lock();
+        try {
+            long inicio = System.nanoTime();
+            Path diretorio = config.getDirectory().isBlank() ? null : Path.of(config.getDirectory());
+            OffHeapTable atual = tabela;
+            long capacidade = Math.max(config.getInitialCapacity(), atual == null ? 0 : (long) (atual.entradas() / 0.5));
+            OffHeapTable nova = new OffHeapTable(capacidade, BITS_SEGMENTO_POSICOES, BITS_SEGMENTO_ARENA, diretorio);
+            emConstrucao = nova;
+
+            // A leitura não sobrescreve: o que foi registrado durante a reconstrução é mais novo que a linha lida.
+            // Dentro de uma transação, porque em autocommit o driver do PostgreSQL ignora o fetch size e traz a
+            // tabela inteira para o heap; no primário, como antes, mesmo a transação sendo somente leitura
+            ReplicaRoutingDataSource.noPrimario(() -> leitura.execute(status -> {
+                jdbcTemplate.query(conexao -> {
+                    var statement = conexao.prepareStatement("SELECT short_code, original_url, expiration_date FROM url");
+                    statement.setFetchSize(config.getFetchSize());
+                    return statement;
+                }, rs -> {
+                    long chave = ShortCodeKey.codificar(rs.getString(1));
+                    if (chave == ShortCodeKey.INVALIDA) {
+                        return;
+                    }
+                    Timestamp expiracao = rs.getTimestamp(3);
+                    UrlResolvida url = new UrlResolvida(rs.getString(2), expiracao == null ? null : expiracao.toLocalDateTime());
+                    escrevendo.lock();
+                    try {
+                        nova.gravarSeAusente(chave, url);
+                    } finally {
+                        escrevendo.unlock();
+                    }
+                });
+                return null;
+            }));
+
+            tabela = nova;
+            log.info("Índice fora do heap construído com {} códigos ({} MB) em {} ms", nova.entradas(),
+                    nova.bytesAlocados() / (1024 * 1024), (System.nanoTime() - inicio) / 1_000_000);
+        } catch (RuntimeException | OutOfMemoryError ex) {
+            // OutOfMemoryError aqui é falta de memória direta (MaxDirectMemorySize); mantém o índice anterior
+            log.warn("Falha ao reconstruir o índice fora do heap", ex);
+        } finally {
+            emConstrucao = null;
+            reconstruindo.unlock();
+        }
+    }
+}
@@ -0,0 +1,260 @@
+package com.JShort.Cache;
+
+import com.JShort.Config.JShortProperties;
+import com.JShort.Config.ReplicaRoutingDataSource;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.hash.BloomFilter;
+import com.google.common.hash.Funnels;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+
+/**
+ * Bloom filter com todos os códigos existentes, consultado antes do banco no redirecionamento.
+ *
+ * <p>Se o filtro diz que o código não existe, ele certamente não existe e a requisição vira 404 sem tocar
+ * no banco. É construído na inicialização lendo a tabela {@code url} em streaming, recebe cada código novo
+ * antes do INSERT e é reconstruído periodicamente (para acompanhar o crescimento e descartar os apagados).
+ * Enquanto não houver filtro pronto, tudo é tratado como "pode existir".
+ *
+ * <p>O "não existe" só é definitivo quando os códigos criados nas outras instâncias chegam a este filtro, o que
+ * acontece pelo {@link DistributedUrlCache} (L2). Sem ele, um código recém-criado em outra instância fica fora
+ * deste filtro até a próxima reconstrução; então a negativa não é usada e o código segue para o banco como se
+ * o filtro não existisse. Por isso o filtro só vem ligado por padrão junto com o L2.
+ *
+ * <p>A troca pelo L2 é sem confirmação: quando um registro não pôde ser publicado (ou pode não ter chegado), a
+ * negativa volta a ser ignorada até uma reconstrução que comece depois da perda, agendada para um minuto depois
+ * dela.
+ */
+@Slf4j
+@Component
+public class ShortCodeBloomFilter implements ApplicationRunner {
+
+    private static final double LN2_AO_QUADRADO = Math.log(2) * Math.log(2);
+
+    // Mesma janela dos recentes: tempo para os INSERTs dos códigos perdidos estarem commitados
+    private static final Duration ESPERA_APOS_PERDA = Duration.ofMinutes(1);
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private final TransactionTemplate leitura;
+
+    private final TaskScheduler taskScheduler;
+
+    private final JShortProperties.Bloom config;
+
+    private final ReentrantLock reconstruindo = new ReentrantLock();
+
+    // Códigos registrados no último minuto: cobrem os INSERTs que ainda não estavam commitados
+    // quando a leitura da reconstrução começou
+    private final Cache<String, Boolean> recentes = CacheBuilder.newBuilder()
+            .expireAfterWrite(Duration.ofMinutes(1))
+            .build();
+
+    private final Counter negativos;
+
+    private final Counter talvez;
+
+    private final Counter naoPropagados;
+
+    private volatile BloomFilter<CharSequence> filtro;
+
+    private volatile BloomFilter<CharSequence> emConstrucao;
+
+    private volatile long capacidade;
+
+    private volatile Consumer<String> propagacao = shortCode -> { };
+
+    private volatile boolean propagacaoLigada;
+
+    private volatile boolean propagado;
+
+    private final AtomicLong perdas = new AtomicLong();
+
+    private final AtomicBoolean reconstrucaoAgendada = new AtomicBoolean();
+
+    public ShortCodeBloomFilter(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager,
+                                TaskScheduler taskScheduler, JShortProperties properties, MeterRegistry meterRegistry) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.leitura = new TransactionTemplate(transactionManager);
+        this.leitura.setReadOnly(true);
+        this.taskScheduler = taskScheduler;
+        this.config = properties.getBloom();
+
+        this.negativos = Counter.builder("jshort.bloom.consultas").tag("resultado", "inexistente")
+                .description("Códigos descartados pelo bloom filter sem consultar o banco")
+                .register(meterRegistry);
+        this.talvez = Counter.builder("jshort.bloom.consultas").tag("resultado", "talvez")
+                .description("Códigos que o bloom filter deixou seguir para o cache/banco")
+                .register(meterRegistry);
+        this.naoPropagados = Counter.builder("jshort.bloom.consultas").tag("resultado", "sem-propagacao")
+                .description("Códigos fora do filtro que seguiram para o banco porque, sem o L2, podem ter sido "
+                        + "criados em outra instância")
+                .register(meterRegistry);
+        Gauge.builder("jshort.bloom.elementos", this, f -> f.filtro == null ? 0 : f.filtro.approximateElementCount())
+                .description("Quantidade aproximada de códigos no bloom filter")
+                .register(meterRegistry);
+        Gauge.builder("jshort.bloom.falso.positivo", this, f -> f.filtro == null ? 0 : f.filtro.expectedFpp())
+                .description("Taxa de falso positivo estimada com a ocupação atual")
+                .register(meterRegistry);
+        Gauge.builder("jshort.bloom.tamanho", this, f -> tamanhoEmBytes(f.capacidade, config.getFalsePositiveRate()))
+                .baseUnit("bytes")
+                .register(meterRegistry);
+    }
+
+    /**
+     * {@code false} somente quando o código certamente não existe.
+     */
+    public boolean podeExistir(String shortCode) {
+        BloomFilter<CharSequence> atual = filtro;
+        if (atual == null || atual.mightContain(shortCode)) {
+            talvez.increment();
+            return true;
+        }
+        if (!propagado) {
+            naoPropagados.increment();
+            return true;
+        }
+        negativos.increment();
+        return false;
+    }
+
+    /**
+     * Deve ser chamado antes de gravar o código, para que nunca exista no banco um código fora do filtro.
+     */
+    public void registrar(String shortCode) {
+        if (!config.isEnabled()) {
+            return;
+        }
+        registrarLocal(shortCode);
+        propagacao.accept(shortCode);
+    }
+
+    /**
+     * Só o filtro desta instância (código registrado em outra instância).
+     */
+    public void registrarLocal(String shortCode) {
+        if (!config.isEnabled()) {
+            return;
+        }
+        recentes.put(shortCode, Boolean.TRUE);
+        BloomFilter<CharSequence> atual = filtro;
+        if (atual != null) {
+            atual.put(shortCode);
+        }
+        BloomFilter<CharSequence> novo = emConstrucao;
+        if (novo != null) {
+            novo.put(shortCode);
+        }
+    }
+
+    /**
+     * Liga a troca de registros com as outras instâncias; a partir daí a negativa do filtro é definitiva.
+     */
+    void propagarRegistros(Consumer<String> propagacao) {
+        this.propagacao = propagacao;
+        this.propagacaoLigada = true;
+        this.propagado = true;
+    }
+
+    /**
+     * Um registro desta ou de outra instância pode não ter chegado aos filtros: a negativa deixa de ser definitiva
+     * até a próxima reconstrução que comece depois desta chamada.
+     */
+    void registroPerdido() {
+        if (!config.isEnabled()) {
+            return;
+        }
+        perdas.incrementAndGet();
+        if (propagado) {
+            propagado = false;
+            log.warn("Registro de código não propagado entre as instâncias; negativas do bloom filter seguem para o "
+                    + "banco até a próxima reconstrução");
+        }
+        if (taskScheduler != null && reconstrucaoAgendada.compareAndSet(false, true)) {
+            taskScheduler.schedule(() -> {
+                reconstrucaoAgendada.set(false);
+                reconstruir();
+            }, Instant.now().plus(ESPERA_APOS_PERDA));
+        }
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        if (!config.isEnabled()) {
+            return;
+        }
+        reconstruir();
+        Duration intervalo = config.getRebuildInterval();
+        if (!intervalo.isZero()) {
+            taskScheduler.scheduleWithFixedDelay(this::reconstruir, Instant.now().plus(intervalo), intervalo);
+        }
+    }
+
+    public void reconstruir() {
+        reconstruindo.lock();
+        try {
+            long inicio = System.nanoTime();
+            long perdasAntes = perdas.get();
+            Long linhas = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM url", Long.class);
+            long esperados = Math.max(config.getExpectedInsertions(), (long) (linhas * config.getGrowthFactor()));
+
+            BloomFilter<CharSequence> novo = BloomFilter.create(
+                    Funnels.stringFunnel(StandardCharsets.UTF_8), esperados, config.getFalsePositiveRate());
+            emConstrucao = novo;
+
+            // Em transação para o fetch size valer no PostgreSQL (em autocommit o driver traz tudo para o heap), e
+            // no primário: a réplica atrasada mais que o minuto dos recentes deixaria códigos existentes de fora
+            ReplicaRoutingDataSource.noPrimario(() -> leitura.execute(status -> {
+                jdbcTemplate.query(conexao -> {
+                    var statement = conexao.prepareStatement("SELECT short_code FROM url");
+                    statement.setFetchSize(config.getFetchSize());
+                    return statement;
+                }, rs -> {
+                    novo.put(rs.getString(1));
+                });
+                return null;
+            }));
+            recentes.asMap().keySet().forEach(novo::put);
+
+            filtro = novo;
+            capacidade = esperados;
+            // Uma perda durante a leitura pode ter deixado de fora um código ainda não commitado
+            if (propagacaoLigada && perdas.get() == perdasAntes) {
+                propagado = true;
+            }
+            log.info("Bloom filter de códigos construído com {} códigos (capacidade {}) em {} ms",
+                    novo.approximateElementCount(), esperados, (System.nanoTime() - inicio) / 1_000_000);
+        } catch (RuntimeException ex) {
+            // Mantém o filtro anterior: melhor um filtro desatualizado que falso negativo por filtro vazio
+            log.warn("Falha ao reconstruir o bloom filter de códigos", ex);
+        } finally {
+            emConstrucao = null;
+            reconstruindo.unlock();
+        }
+    }
+
+    static long tamanhoEmBytes(long esperados, double taxaFalsoPositivo) {
+        if (esperados == 0) {
+            return 0;
+        }
+        return (long) (-esperados * Math.log(taxaFalsoPositivo) / LN2_AO_QUADRADO / 8);
+    }
+}
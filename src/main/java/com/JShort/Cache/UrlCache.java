@@ -0,0 +1,102 @@
+package com.JShort.Cache;
+
+import com.JShort.Config.JShortProperties;
+import com.JShort.Exception.UrlExpiradaException;
+import com.JShort.Model.UrlResolvida;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.GuavaCacheMetrics;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Consumer;
+
+/**
+ * Cache em memória de shortCode para URL original, na frente do {@code UrlRepository}.
+ *
+ * <p>Limitado por tamanho e por TTL. A validade do link é verificada aqui em todo acesso: links expirados
+ * continuam em cache e resultam em {@link UrlExpiradaException}, então acessos repetidos a um link vencido
+ * também não chegam ao banco.
+ * As estatísticas (hits, misses, evictions) ficam disponíveis no actuator como {@code cache.*{cache=urlCache}}.
+ */
+@Component
+public class UrlCache {
+
+    static final String NOME = "urlCache";
+
+    private final Cache<String, UrlResolvida> cache;
+
+    private volatile Consumer<String> propagacao = shortCode -> { };
+
+    public UrlCache(JShortProperties properties, MeterRegistry meterRegistry) {
+        JShortProperties.Cache config = properties.getCache();
+        this.cache = CacheBuilder.newBuilder()
+                .maximumSize(config.getMaximumSize())
+                .expireAfterWrite(config.getTtl())
+                .recordStats()
+                .build();
+        GuavaCacheMetrics.monitor(meterRegistry, cache, NOME);
+    }
+
+    /**
+     * URL em cache do código. Lança {@link UrlExpiradaException} se o link em cache já expirou.
+     */
+    public Optional<UrlResolvida> buscar(String shortCode) {
+        UrlResolvida url = cache.getIfPresent(shortCode);
+        return url == null ? Optional.empty() : Optional.of(validar(shortCode, url));
+    }
+
+    /**
+     * Guarda a URL carregada do banco (expirada ou não) e a devolve se ainda for válida; se já expirou,
+     * lança {@link UrlExpiradaException}.
+     */
+    public UrlResolvida guardar(String shortCode, UrlResolvida url) {
+        cache.put(shortCode, url);
+        return validar(shortCode, url);
+    }
+
+    /**
+     * Tira o código do cache desta instância e, com o {@link DistributedUrlCache} ligado, do L2 e dos caches
+     * das outras instâncias.
+     */
+    public void invalidar(String shortCode) {
+        cache.invalidate(shortCode);
+        propagacao.accept(shortCode);
+    }
+
+    /**
+     * Só o cache desta instância (invalidação recebida de outra instância).
+     */
+    public void invalidarLocal(String shortCode) {
+        cache.invalidate(shortCode);
+    }
+
+    void propagarInvalidacoes(Consumer<String> propagacao) {
+        this.propagacao = propagacao;
+    }
+
+    /**
+     * Carga em massa do aquecimento; quem chama já descartou os links expirados.
+     */
+    public void carregar(Map<String, UrlResolvida> urls) {
+        cache.putAll(urls);
+    }
+
+    /**
+     * Visão das entradas atuais, para o snapshot do conjunto quente.
+     */
+    public Map<String, UrlResolvida> entradas() {
+        return Collections.unmodifiableMap(cache.asMap());
+    }
+
+    private static UrlResolvida validar(String shortCode, UrlResolvida url) {
+        if (url.expirada(LocalDateTime.now())) {
+            throw new UrlExpiradaException(shortCode);
+        }
+        return url;
+    }
+}
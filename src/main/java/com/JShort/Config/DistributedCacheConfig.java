@@ -0,0 +1,68 @@
+package com.JShort.Config;
+
+import com.hazelcast.client.HazelcastClient;
+import com.hazelcast.client.config.ClientConfig;
+import com.hazelcast.client.config.ClientConnectionStrategyConfig;
+import com.hazelcast.config.Config;
+import com.hazelcast.config.EvictionPolicy;
+import com.hazelcast.config.JoinConfig;
+import com.hazelcast.config.MapConfig;
+import com.hazelcast.config.MaxSizePolicy;
+import com.hazelcast.core.Hazelcast;
+import com.hazelcast.core.HazelcastInstance;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import static com.JShort.Cache.DistributedUrlCache.MAPA;
+
+/**
+ * Com {@code jshort.l2.enabled=true}, cria o {@link HazelcastInstance} do cache compartilhado: um membro do
+ * cluster dentro da aplicação (descoberta por TCP/IP em {@code jshort.l2.members}) ou um cliente de um
+ * cluster externo. O cliente inicia sem esperar o cluster e reconecta em segundo plano, então a aplicação
+ * sobe e atende mesmo com o cluster fora do ar.
+ */
+@Configuration
+@ConditionalOnProperty(name = "jshort.l2.enabled", havingValue = "true")
+public class DistributedCacheConfig {
+
+    @Bean(destroyMethod = "shutdown")
+    public HazelcastInstance hazelcastInstance(JShortProperties properties) {
+        JShortProperties.L2 config = properties.getL2();
+        return config.getMode() == JShortProperties.L2.Modo.CLIENT
+                ? HazelcastClient.newHazelcastClient(cliente(config))
+                : Hazelcast.newHazelcastInstance(membro(config));
+    }
+
+    static Config membro(JShortProperties.L2 l2) {
+        Config config = new Config();
+        config.setClusterName(l2.getClusterName());
+        config.setProperty("hazelcast.logging.type", "slf4j");
+        config.setProperty("hazelcast.phone.home.enabled", "false");
+        config.getNetworkConfig().setPort(l2.getPort());
+
+        JoinConfig join = config.getNetworkConfig().getJoin();
+        join.getMulticastConfig().setEnabled(false);
+        join.getAutoDetectionConfig().setEnabled(false);
+        join.getTcpIpConfig().setEnabled(!l2.getMembers().isEmpty()).setMembers(l2.getMembers());
+
+        MapConfig mapa = config.getMapConfig(MAPA);
+        mapa.setTimeToLiveSeconds((int) l2.getTtl().toSeconds());
+        mapa.getEvictionConfig()
+                .setEvictionPolicy(EvictionPolicy.LRU)
+                .setMaxSizePolicy(MaxSizePolicy.PER_NODE)
+                .setSize(l2.getMaximumSize());
+        return config;
+    }
+
+    static ClientConfig cliente(JShortProperties.L2 l2) {
+        ClientConfig config = new ClientConfig();
+        config.setClusterName(l2.getClusterName());
+        config.setProperty("hazelcast.logging.type", "slf4j");
+        config.getNetworkConfig().setAddresses(l2.getMembers());
+        config.getConnectionStrategyConfig()
+                .setAsyncStart(true)
+                .setReconnectMode(ClientConnectionStrategyConfig.ReconnectMode.ASYNC);
+        return config;
+    }
+}
@@ -0,0 +1,423 @@
+package com.JShort.Config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Configurações próprias do JShort (prefixo {@code jshort}).
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "jshort")
+public class JShortProperties {
+
+    private final Cache cache = new Cache();
+
+    private final AccessCount accessCount = new AccessCount();
+
+    private final ShortCode shortCode = new ShortCode();
+
+    private final Dedup dedup = new Dedup();
+
+    private final Batch batch = new Batch();
+
+    private final Redirect redirect = new Redirect();
+
+    private final Bloom bloom = new Bloom();
+
+    private final Analytics analytics = new Analytics();
+
+    private final Expiration expiration = new Expiration();
+
+    private final Replicas replicas = new Replicas();
+
+    private final Warmup warmup = new Warmup();
+
+    private final Index index = new Index();
+
+    private final WriteBehind writeBehind = new WriteBehind();
+
+    private final L2 l2 = new L2();
+
+    private final RateLimit rateLimit = new RateLimit();
+
+    private final Transfer transfer = new Transfer();
+
+    private final Coalescing coalescing = new Coalescing();
+
+    @Getter
+    @Setter
+    public static class Cache {
+
+        /** Número máximo de códigos mantidos no cache de redirecionamento. */
+        private long maximumSize = 100_000;
+
+        /** Tempo máximo que uma entrada permanece no cache após ser carregada. */
+        private Duration ttl = Duration.ofMinutes(10);
+    }
+
+    @Getter
+    @Setter
+    public static class AccessCount {
+
+        /** Intervalo entre as gravações dos contadores de acesso acumulados em memória. */
+        private Duration flushInterval = Duration.ofSeconds(1);
+
+        /** Quantidade máxima de códigos por batch de UPDATE. */
+        private int maxBatchSize = 500;
+    }
+
+    @Getter
+    @Setter
+    public static class ShortCode {
+
+        /** Estratégia de geração: {@code sequence} (sem colisão) ou {@code random}. */
+        private String strategy = "sequence";
+
+        /** Sequence do banco de onde o gerador {@code sequence} reserva os blocos de ids. */
+        private String sequenceName = "url_short_code_seq";
+
+        /** Salt do Hashids. Mudar o salt muda todos os códigos gerados dali em diante. */
+        private String salt = "JShort";
+
+        /** Tamanho mínimo dos códigos gerados pelo Hashids. */
+        private int minLength = 6;
+    }
+
+    @Getter
+    @Setter
+    public static class Dedup {
+
+        /**
+         * Preenche o original_url_hash das URLs antigas na inicialização. É um passo único da migração de um banco
+         * criado antes das migrations: ligue numa instância só, junto com o baseline do Flyway, e desligue depois.
+         */
+        private boolean backfillOnStartup = false;
+
+        /** Linhas lidas e atualizadas por lote no preenchimento. */
+        private int backfillBatchSize = 1000;
+    }
+
+    @Getter
+    @Setter
+    public static class Batch {
+
+        /** URLs processadas (deduplicadas, geradas e gravadas) por bloco no encurtamento em lote. */
+        private int chunkSize = 500;
+    }
+
+    @Getter
+    @Setter
+    public static class Redirect {
+
+        /** Status do redirecionamento: 302 (temporário, todo clique chega aqui) ou 301/308 (permanente, cacheável). */
+        private int status = 302;
+
+        /** max-age privado dos redirecionamentos temporários; zero envia {@code no-cache}. */
+        private Duration temporaryMaxAge = Duration.ZERO;
+
+        /** max-age público dos redirecionamentos permanentes, limitado pela expiração do link. */
+        private Duration permanentMaxAge = Duration.ofDays(1);
+
+        /** max-age público das respostas 404 de códigos que o banco confirmou não existirem. */
+        private Duration notFoundMaxAge = Duration.ofMinutes(1);
+    }
+
+    @Getter
+    @Setter
+    public static class Bloom {
+
+        /**
+         * Consulta o bloom filter antes do banco para descartar códigos inexistentes. Só descarta com o L2
+         * ligado, que leva a este filtro os códigos criados nas outras instâncias.
+         */
+        private boolean enabled = false;
+
+        /** Taxa de falso positivo desejada (códigos inexistentes que ainda vão ao banco). */
+        private double falsePositiveRate = 0.01;
+
+        /** Capacidade mínima do filtro. */
+        private long expectedInsertions = 1_000_000;
+
+        /** Capacidade do filtro em relação ao número de códigos existentes na reconstrução. */
+        private double growthFactor = 2.0;
+
+        /** Intervalo entre reconstruções completas; zero reconstrói só na inicialização. */
+        private Duration rebuildInterval = Duration.ofHours(6);
+
+        /** Fetch size da leitura em streaming da tabela url. */
+        private int fetchSize = 10_000;
+    }
+
+    @Getter
+    @Setter
+    public static class Analytics {
+
+        /** Captura eventos de clique para as estatísticas por código. */
+        private boolean enabled = true;
+
+        /** Capacidade do buffer de eventos; com o buffer cheio os eventos são descartados. */
+        private int bufferCapacity = 65_536;
+
+        /** Intervalo entre as gravações dos eventos acumulados. */
+        private Duration flushInterval = Duration.ofSeconds(1);
+
+        /** Máximo de eventos por transação de gravação. */
+        private int maxBatchSize = 1000;
+
+        /** CSV de faixas IPv4 por país (inicio,fim,pais); vazio deixa o país como desconhecido. */
+        private String geoipFile = "";
+
+        /** Dias de partições diárias de click_event criadas à frente (PostgreSQL). */
+        private int partitionsAhead = 7;
+
+        /** Retenção dos eventos brutos; partições mais antigas são removidas. Os rollups são mantidos. */
+        private Duration retention = Duration.ofDays(90);
+    }
+
+    @Getter
+    @Setter
+    public static class Expiration {
+
+        public enum Modo { DELETE, ARCHIVE }
+
+        /** Validade dos links quando o encurtamento não informa um TTL. */
+        private Duration defaultTtl = Duration.ofDays(365);
+
+        /** Maior TTL aceito no encurtamento. */
+        private Duration maxTtl = Duration.ofDays(3650);
+
+        /** Remove os links expirados em segundo plano. */
+        private boolean sweeperEnabled = true;
+
+        /** Intervalo entre as varreduras. */
+        private Duration sweeperInterval = Duration.ofHours(1);
+
+        /** Tempo depois da expiração em que o link ainda pode ser renovado antes de ser removido. */
+        private Duration gracePeriod = Duration.ofDays(7);
+
+        /** Linhas removidas por transação. */
+        private int sweeperBatchSize = 500;
+
+        /** Pausa entre os lotes de uma varredura, para não disputar a tabela url com o tráfego. */
+        private Duration sweeperPause = Duration.ofMillis(200);
+
+        /** DELETE remove as linhas; ARCHIVE copia para url_archive antes de remover. */
+        private Modo sweeperMode = Modo.DELETE;
+    }
+
+    @Getter
+    @Setter
+    public static class Replicas {
+
+        /** Envia as leituras de redirecionamento e de estatísticas para as réplicas. */
+        private boolean enabled = false;
+
+        /** Réplicas de leitura; o primário continua sendo o spring.datasource.*. */
+        private List<Replica> instances = new ArrayList<>();
+
+        /** Intervalo da verificação de saúde das réplicas. */
+        private Duration healthCheckInterval = Duration.ofSeconds(5);
+
+        @Getter
+        @Setter
+        public static class Replica {
+
+            /** URL JDBC da réplica. */
+            private String url;
+
+            private String username;
+
+            private String password;
+
+            /** Tamanho do pool de conexões da réplica. */
+            private int maximumPoolSize = 10;
+
+            /** Espera máxima por uma conexão antes de cair para o primário. */
+            private Duration connectionTimeout = Duration.ofSeconds(1);
+        }
+    }
+
+    @Getter
+    @Setter
+    public static class Warmup {
+
+        /** Pré-carrega o cache de redirecionamento antes de a aplicação ficar pronta (readiness). */
+        private boolean enabled = true;
+
+        /**
+         * Quantos códigos mais acessados (access_count) carregar do banco no aquecimento sem snapshot. O snapshot
+         * guarda o cache inteiro, limitado por {@code jshort.cache.maximum-size}.
+         */
+        private int topN = 10_000;
+
+        /** Arquivo local com o snapshot do conjunto quente do cache; vazio desativa o snapshot. */
+        private String snapshotFile = "";
+
+        /** Intervalo entre gravações do snapshot (também gravado no desligamento). */
+        private Duration snapshotInterval = Duration.ofMinutes(5);
+
+        /** Snapshots mais antigos que isso são ignorados e o aquecimento vai ao banco. */
+        private Duration snapshotMaxAge = Duration.ofDays(1);
+    }
+
+    @Getter
+    @Setter
+    public static class Index {
+
+        /** Mantém todos os códigos num índice fora do heap, consultado antes do bloom filter e do banco. */
+        private boolean enabled = false;
+
+        /** Posições iniciais da tabela hash (16 bytes cada); cresce dobrando. */
+        private long initialCapacity = 1 << 20;
+
+        /** Diretório para arquivos mapeados em memória; vazio usa memória direta (-XX:MaxDirectMemorySize). */
+        private String directory = "";
+
+        /** Intervalo entre reconstruções completas; zero reconstrói só na inicialização. */
+        private Duration rebuildInterval = Duration.ofHours(6);
+
+        /** Fetch size da leitura em streaming da tabela url. */
+        private int fetchSize = 10_000;
+    }
+
+    @Getter
+    @Setter
+    public static class WriteBehind {
+
+        /** Aceita o encurtamento (202) assim que ele está no write-ahead log local e grava no banco em lote. */
+        private boolean enabled = false;
+
+        /** Diretório do write-ahead log; precisa sobreviver a reinícios (volume persistente). */
+        private String directory = "data/wal";
+
+        /** Tamanho a partir do qual o log passa para um segmento novo. */
+        private DataSize segmentSize = DataSize.ofMegabytes(64);
+
+        /** URLs aguardando gravação; acima disso o encurtamento volta a ser síncrono. */
+        private int capacity = 100_000;
+
+        /** Intervalo entre gravações dos lotes. */
+        private Duration flushInterval = Duration.ofMillis(200);
+
+        /** Máximo de URLs por INSERT em batch. */
+        private int maxBatchSize = 1000;
+
+        /** Tempo que uma Idempotency-Key devolve o mesmo código sem consultar o banco. */
+        private Duration idempotencyTtl = Duration.ofHours(24);
+
+        /** Máximo de Idempotency-Keys lembradas em memória. */
+        private long idempotencyMaximumSize = 1_000_000;
+    }
+
+    @Getter
+    @Setter
+    public static class L2 {
+
+        public enum Modo { MEMBER, CLIENT }
+
+        /** Cache compartilhado entre as instâncias (Hazelcast) atrás do cache local de cada uma. */
+        private boolean enabled = false;
+
+        /** MEMBER sobe um membro do cluster dentro da aplicação; CLIENT conecta num cluster externo. */
+        private Modo mode = Modo.MEMBER;
+
+        /** Nome do cluster; instâncias com nomes diferentes não compartilham o cache. */
+        private String clusterName = "jshort";
+
+        /** host[:porta] dos membros (descoberta TCP/IP no modo MEMBER, endereços do cluster no CLIENT). */
+        private List<String> members = new ArrayList<>();
+
+        /** Porta do membro embutido (modo MEMBER). */
+        private int port = 5701;
+
+        /** Tempo máximo de uma entrada no cache compartilhado; nunca passa da expiração do link. */
+        private Duration ttl = Duration.ofMinutes(10);
+
+        /** Máximo de entradas por membro do cluster. */
+        private int maximumSize = 1_000_000;
+
+        /** Espera máxima por uma leitura do cache compartilhado antes de seguir para o banco. */
+        private Duration timeout = Duration.ofMillis(50);
+
+        /** Depois de uma falha, o cache compartilhado é ignorado por esse tempo. */
+        private Duration retryAfter = Duration.ofSeconds(5);
+    }
+
+    @Getter
+    @Setter
+    public static class RateLimit {
+
+        /**
+         * Limita as requisições por cliente (API key conhecida, senão IP) e responde 429 acima do limite.
+         * Desligado por padrão: atrás de um proxy, sem {@code server.forward-headers-strategy}, o IP de todos os
+         * clientes é o do proxy e todos dividiriam o mesmo balde.
+         */
+        private boolean enabled;
+
+        /** Header com a API key do cliente. */
+        private String apiKeyHeader = "X-API-Key";
+
+        /** API keys com limite próprio; requisições sem key ou com key desconhecida são limitadas por IP. */
+        private List<String> apiKeys = new ArrayList<>();
+
+        /** Máximo de clientes acompanhados por rota; clientes ociosos saem antes. */
+        private long maximumClients = 100_000;
+
+        /** POST /url/encurtar e /url/encurtar/lote. */
+        private Limite shorten = new Limite(10, 20);
+
+        /** GET /url/{shortCode}. */
+        private Limite redirect = new Limite(100, 200);
+
+        @Getter
+        @Setter
+        public static class Limite {
+
+            /** Requisições por segundo sustentadas por cliente; zero desliga o limite da rota. */
+            private double requestsPerSecond;
+
+            /** Rajada aceita de uma vez por um cliente que estava ocioso. */
+            private int burst;
+
+            public Limite() {
+            }
+
+            public Limite(double requestsPerSecond, int burst) {
+                this.requestsPerSecond = requestsPerSecond;
+                this.burst = burst;
+            }
+        }
+    }
+
+    @Getter
+    @Setter
+    public static class Transfer {
+
+        /** Token exigido no header X-Admin-Token de /admin/urls/*; vazio desliga os endpoints. */
+        private String adminToken = "";
+
+        /** Linhas lidas por ida ao banco no cursor da exportação. */
+        private int fetchSize = 10_000;
+
+        /** Linhas por INSERT em batch na importação. */
+        private int batchSize = 1000;
+    }
+
+    @Getter
+    @Setter
+    public static class Coalescing {
+
+        /** Buscas no banco do mesmo código (e encurtamentos da mesma URL) concorrentes viram uma só. */
+        private boolean enabled = true;
+
+        /** Espera máxima pela operação em andamento; depois disso a requisição recebe 503. */
+        private Duration timeout = Duration.ofSeconds(2);
+    }
+}
@@ -0,0 +1,34 @@
+package com.JShort.Config;
+
+import com.JShort.DTO.UrlDTO;
+import com.JShort.DTO.UrlEstatisticasDTO;
+import com.JShort.DTO.UrlImportacaoDTO;
+import com.JShort.DTO.UrlLoteResultadoDTO;
+import com.JShort.Model.Url;
+import org.springframework.aot.hint.MemberCategory;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.RuntimeHintsRegistrar;
+
+/**
+ * Hints do native image (perfil Maven {@code native}) que o AOT do Spring não deduz sozinho.
+ *
+ * <p>A entidade {@link Url} e os DTOs têm getters, setters e construtores gerados pelo Lombok, que o
+ * Hibernate, o Jackson e o springdoc (ao montar os schemas do OpenAPI) acessam por reflexão. Os arquivos
+ * do Swagger UI vêm do webjar e o springdoc descobre a versão dele pelo {@code pom.properties}.
+ */
+public class NativeRuntimeHints implements RuntimeHintsRegistrar {
+
+    @Override
+    public void registerHints(RuntimeHints hints, ClassLoader classLoader) {
+        for (Class<?> tipo : new Class<?>[] {Url.class, UrlDTO.class, UrlEstatisticasDTO.class,
+                UrlImportacaoDTO.class, UrlLoteResultadoDTO.class}) {
+            hints.reflection().registerType(tipo,
+                    MemberCategory.DECLARED_FIELDS,
+                    MemberCategory.INVOKE_DECLARED_CONSTRUCTORS,
+                    MemberCategory.INVOKE_PUBLIC_METHODS);
+        }
+        hints.resources()
+                .registerPattern("META-INF/resources/webjars/swagger-ui/**")
+                .registerPattern("META-INF/maven/org.webjars/swagger-ui/pom.properties");
+    }
+}
@@ -0,0 +1,73 @@
+package com.JShort.Config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.scheduling.TaskScheduler;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Com {@code jshort.replicas.enabled=true}, o DataSource da aplicação passa a ser o primário configurado em
+ * {@code spring.datasource.*} mais as réplicas de {@code jshort.replicas.instances}, roteados pelo
+ * {@link ReplicaRoutingDataSource}. As leituras marcadas com {@code @Transactional(readOnly = true)} vão
+ * para as réplicas; escritas e o restante continuam no primário.
+ */
+@Configuration
+@ConditionalOnProperty(name = "jshort.replicas.enabled", havingValue = "true")
+public class ReplicaDataSourceConfig {
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties dataSourceProperties) {
+        return dataSourceProperties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+    }
+
+    @Bean
+    public ReplicaRoutingDataSource replicaRoutingDataSource(HikariDataSource primaryDataSource, JShortProperties properties,
+                                                             TaskScheduler taskScheduler, MeterRegistry meterRegistry) {
+        JShortProperties.Replicas config = properties.getReplicas();
+
+        List<DataSource> replicas = new ArrayList<>();
+        for (int i = 0; i < config.getInstances().size(); i++) {
+            JShortProperties.Replicas.Replica replica = config.getInstances().get(i);
+            HikariDataSource pool = new HikariDataSource();
+            pool.setPoolName("replica-" + i);
+            pool.setJdbcUrl(replica.getUrl());
+            pool.setUsername(replica.getUsername());
+            pool.setPassword(replica.getPassword());
+            pool.setMaximumPoolSize(replica.getMaximumPoolSize());
+            pool.setConnectionTimeout(replica.getConnectionTimeout().toMillis());
+            pool.setReadOnly(true);
+            // Mesmas propriedades do driver do primário (ex.: cache de prepared statements do perfil prod)
+            pool.setDataSourceProperties(primaryDataSource.getDataSourceProperties());
+            // Não falha a inicialização se a réplica estiver fora: a verificação de saúde a tira da rotação
+            pool.setInitializationFailTimeout(-1);
+            pool.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(meterRegistry));
+            replicas.add(pool);
+        }
+
+        ReplicaRoutingDataSource roteador = new ReplicaRoutingDataSource(primaryDataSource, replicas);
+        taskScheduler.scheduleWithFixedDelay(roteador::verificarSaude, config.getHealthCheckInterval());
+        Gauge.builder("jshort.replicas.saudaveis", roteador, ReplicaRoutingDataSource::replicasSaudaveis)
+                .description("Réplicas de leitura na rotação")
+                .register(meterRegistry);
+        return roteador;
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(ReplicaRoutingDataSource replicaRoutingDataSource) {
+        return new LazyConnectionDataSourceProxy(replicaRoutingDataSource);
+    }
+}
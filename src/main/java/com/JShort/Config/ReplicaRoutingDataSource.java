@@ -0,0 +1,148 @@
+package com.JShort.Config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.function.Supplier;
+
+/**
+ * Envia as conexões de transações {@code readOnly} para as réplicas (round-robin entre as saudáveis) e todo
+ * o resto para o primário. {@link #naReplica(Supplier)} faz o mesmo para leituras fora de transação.
+ *
+ * <p>Deve ficar atrás de um {@link org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy}: só
+ * assim a conexão é pedida depois que a transação já marcou se é somente leitura. Uma réplica que falha ao
+ * entregar conexão sai da rotação até a próxima {@link #verificarSaude()}; sem réplica saudável, as leituras
+ * vão para o primário. {@link #noPrimario(Supplier)} força o primário, para leituras que não podem ver dados
+ * atrasados.
+ */
+@Slf4j
+public class ReplicaRoutingDataSource extends AbstractDataSource implements AutoCloseable {
+
+    private static final ThreadLocal<Boolean> PRIMARIO_FORCADO = new ThreadLocal<>();
+
+    private static final ThreadLocal<Boolean> REPLICA_PEDIDA = new ThreadLocal<>();
+
+    private static final int TIMEOUT_VALIDACAO_SEGUNDOS = 1;
+
+    private final DataSource primario;
+
+    private final List<DataSource> replicas;
+
+    private final AtomicIntegerArray saudaveis;
+
+    private final AtomicInteger proxima = new AtomicInteger();
+
+    public ReplicaRoutingDataSource(DataSource primario, List<DataSource> replicas) {
+        this.primario = primario;
+        this.replicas = List.copyOf(replicas);
+        this.saudaveis = new AtomicIntegerArray(replicas.size());
+        for (int i = 0; i < replicas.size(); i++) {
+            saudaveis.set(i, 1);
+        }
+    }
+
+    /**
+     * Executa {@code leitura} com as conexões indo para o primário, mesmo em transações somente leitura.
+     */
+    public static <T> T noPrimario(Supplier<T> leitura) {
+        Boolean anterior = PRIMARIO_FORCADO.get();
+        PRIMARIO_FORCADO.set(Boolean.TRUE);
+        try {
+            return leitura.get();
+        } finally {
+            if (anterior == null) {
+                PRIMARIO_FORCADO.remove();
+            }
+        }
+    }
+
+    /**
+     * Executa {@code leitura} com as conexões indo para as réplicas sem precisar de uma transação
+     * {@code readOnly}: leituras em JDBC puro que não querem abrir transação (nem EntityManager) por consulta.
+     */
+    public static <T> T naReplica(Supplier<T> leitura) {
+        Boolean anterior = REPLICA_PEDIDA.get();
+        REPLICA_PEDIDA.set(Boolean.TRUE);
+        try {
+            return leitura.get();
+        } finally {
+            if (anterior == null) {
+                REPLICA_PEDIDA.remove();
+            }
+        }
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        if (!usarReplica()) {
+            return primario.getConnection();
+        }
+        for (int tentativa = 0; tentativa < replicas.size(); tentativa++) {
+            int i = Math.floorMod(proxima.getAndIncrement(), replicas.size());
+            if (saudaveis.get(i) == 1) {
+                try {
+                    return replicas.get(i).getConnection();
+                } catch (SQLException ex) {
+                    if (saudaveis.compareAndSet(i, 1, 0)) {
+                        log.warn("Réplica {} indisponível, leituras vão para as demais ou para o primário", i, ex);
+                    }
+                }
+            }
+        }
+        return primario.getConnection();
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return getConnection();
+    }
+
+    /**
+     * Testa uma conexão de cada réplica e atualiza a rotação.
+     */
+    public void verificarSaude() {
+        for (int i = 0; i < replicas.size(); i++) {
+            boolean saudavel;
+            try (Connection conexao = replicas.get(i).getConnection()) {
+                saudavel = conexao.isValid(TIMEOUT_VALIDACAO_SEGUNDOS);
+            } catch (SQLException ex) {
+                saudavel = false;
+            }
+            int anterior = saudaveis.getAndSet(i, saudavel ? 1 : 0);
+            if (anterior == 0 && saudavel) {
+                log.info("Réplica {} voltou para a rotação de leituras", i);
+            } else if (anterior == 1 && !saudavel) {
+                log.warn("Réplica {} saiu da rotação de leituras", i);
+            }
+        }
+    }
+
+    public int replicasSaudaveis() {
+        int total = 0;
+        for (int i = 0; i < saudaveis.length(); i++) {
+            total += saudaveis.get(i);
+        }
+        return total;
+    }
+
+    @Override
+    public void close() throws Exception {
+        for (DataSource replica : replicas) {
+            if (replica instanceof AutoCloseable closeable) {
+                closeable.close();
+            }
+        }
+    }
+
+    private static boolean usarReplica() {
+        return (TransactionSynchronizationManager.isCurrentTransactionReadOnly() || REPLICA_PEDIDA.get() != null)
+                && PRIMARIO_FORCADO.get() == null;
+    }
+}
@@ -0,0 +1,88 @@
+package com.JShort.Controller;
+
+import com.JShort.Config.JShortProperties;
+import com.JShort.Model.UrlResolvida;
+import com.google.common.hash.Hashing;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+/**
+ * Monta a resposta de redirecionamento conforme {@code jshort.redirect.*}.
+ *
+ * <p>Permanente (301/308): {@code Cache-Control: public} com max-age limitado pela expiração do link, para
+ * que navegadores e CDN sirvam os cliques seguintes sem chegar aqui (que então não são contados).
+ * Temporário (302): {@code private} com max-age curto, para links cujos cliques precisam ser contados.
+ * Em ambos há ETag, e um {@code If-None-Match} igual recebe 304.
+ */
+@Component
+public class RedirectPolicy {
+
+    private final JShortProperties.Redirect config;
+
+    public RedirectPolicy(JShortProperties properties) {
+        this.config = properties.getRedirect();
+    }
+
+    public ResponseEntity<Void> responder(UrlResolvida url, String ifNoneMatch) {
+        HttpStatus status = HttpStatus.valueOf(config.getStatus());
+        String etag = etag(status, url.originalUrl());
+        CacheControl cacheControl = cacheControl(status, url.expirationDate());
+
+        if (ifNoneMatch != null && corresponde(ifNoneMatch, etag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                    .eTag(etag)
+                    .cacheControl(cacheControl)
+                    .build();
+        }
+
+        return ResponseEntity.status(status)
+                .location(URI.create(url.originalUrl()))
+                .eTag(etag)
+                .cacheControl(cacheControl)
+                .build();
+    }
+
+    private CacheControl cacheControl(HttpStatus status, LocalDateTime expirationDate) {
+        if (status == HttpStatus.FOUND || status == HttpStatus.TEMPORARY_REDIRECT) {
+            Duration maxAge = config.getTemporaryMaxAge();
+            return maxAge.isZero() ? CacheControl.noCache().cachePrivate() : CacheControl.maxAge(maxAge).cachePrivate();
+        }
+
+        Duration maxAge = config.getPermanentMaxAge();
+        if (expirationDate != null) {
+            Duration restante = Duration.between(LocalDateTime.now(), expirationDate);
+            if (restante.compareTo(maxAge) < 0) {
+                maxAge = restante.isNegative() ? Duration.ZERO : restante;
+            }
+        }
+        return CacheControl.maxAge(maxAge).cachePublic();
+    }
+
+    static String etag(HttpStatus status, String originalUrl) {
+        return "\"" + Hashing.murmur3_128()
+                .newHasher()
+                .putInt(status.value())
+                .putString(originalUrl, StandardCharsets.UTF_8)
+                .hash() + "\"";
+    }
+
+    private static boolean corresponde(String ifNoneMatch, String etag) {
+        for (String candidato : ifNoneMatch.split(",")) {
+            String valor = candidato.trim();
+            if (valor.startsWith("W/")) {
+                valor = valor.substring(2);
+            }
+            if (valor.equals("*") || valor.equals(etag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -1,47 +1,141 @@
 package com.JShort.Controller;
 
+import com.JShort.Analytics.ClickEventCollector;
+import com.JShort.Analytics.ClickStatsService;
 import com.JShort.DTO.UrlDTO;
+import com.JShort.DTO.UrlEstatisticasDTO;
+import com.JShort.DTO.UrlLoteResultadoDTO;
 import com.JShort.Model.Url;
+import com.JShort.Model.UrlResolvida;
+import com.JShort.RateLimit.RateLimits;
 import com.JShort.Service.UrlService;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
-import java.net.URI;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.util.Iterator;
 
+// No profile "reactive" as mesmas rotas são servidas pelo ReactiveUrlController (WebFlux)
 @RestController
 @RequestMapping("/url")
+@Profile("!reactive")
 public class UrlController {
 
     private final UrlService urlService;
 
-    public UrlController(UrlService urlService) {
+    private final ObjectMapper objectMapper;
+
+    private final RedirectPolicy redirectPolicy;
+
+    private final ClickEventCollector clickEventCollector;
+
+    private final ClickStatsService clickStatsService;
+
+    private final RateLimits rateLimits;
+
+    public UrlController(UrlService urlService, ObjectMapper objectMapper, RedirectPolicy redirectPolicy,
+                         ClickEventCollector clickEventCollector, ClickStatsService clickStatsService,
+                         RateLimits rateLimits) {
         this.urlService = urlService;
+        this.objectMapper = objectMapper;
+        this.redirectPolicy = redirectPolicy;
+        this.clickEventCollector = clickEventCollector;
+        this.clickStatsService = clickStatsService;
+        this.rateLimits = rateLimits;
     }
 
+    /**
+     * 201 com a URL gravada, ou 202 quando o write-behind está ativo: o código já resolve, mas a gravação no
+     * banco acontece depois. Retentativas com o mesmo {@code Idempotency-Key} recebem o mesmo código.
+     */
     @PostMapping("/encurtar")
-    public ResponseEntity<Url> encurtarUrl(@RequestBody UrlDTO data) {
+    public ResponseEntity<Url> encurtarUrl(@RequestBody UrlDTO data,
+                                           @RequestHeader(value = "Idempotency-Key", required = false) String idempotencyKey) {
+        Url url = urlService.encutadorUrl(data.getOriginalUrl(), data.getTtl(), idempotencyKey);
         return ResponseEntity
-                .status(HttpStatus.CREATED)
-                .body(urlService.encutadorUrl(data.getOriginalUrl()));
+                .status(urlService.escritaAtrasada() ? HttpStatus.ACCEPTED : HttpStatus.CREATED)
+                .body(url);
+    }
+
+    /**
+     * Encurta um lote de URLs (array JSON ou NDJSON) e devolve um resultado por linha em NDJSON,
+     * na ordem de entrada, à medida que cada bloco é gravado. Com limite de requisições, cada URL conta como
+     * um encurtamento; acima do limite o lote para e a última linha traz o erro, com {@code status} 429 e
+     * {@code retryAfter} em segundos.
+     */
+    @PostMapping(value = "/encurtar/lote",
+            consumes = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE},
+            produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> encurtarLote(HttpServletRequest request) throws IOException {
+        InputStream entrada = request.getInputStream();
+        String apiKey = request.getHeader(rateLimits.apiKeyHeader());
+        String ip = request.getRemoteAddr();
+
+        StreamingResponseBody corpo = saida -> {
+            try (JsonGenerator generator = objectMapper.getFactory().createGenerator(saida)) {
+                generator.setRootValueSeparator(null);
+                Iterator<String> urls = new UrlLoteReader(objectMapper, entrada);
+                UrlLoteLimitado limitado = null;
+                if (rateLimits.limitada(RateLimits.Rota.ENCURTAR)) {
+                    limitado = new UrlLoteLimitado(urls, rateLimits, apiKey, ip);
+                    urls = limitado;
+                }
+                urlService.encurtarLote(urls, bloco -> {
+                    try {
+                        for (UrlLoteResultadoDTO resultado : bloco) {
+                            generator.writeObject(resultado);
+                            generator.writeRaw('\n');
+                        }
+                        generator.flush();
+                    } catch (IOException ex) {
+                        throw new UncheckedIOException(ex);
+                    }
+                });
+                if (limitado != null && limitado.retryAfter() > 0) {
+                    generator.writeStartObject();
+                    generator.writeStringField("erro", "Limite de requisições excedido");
+                    generator.writeNumberField("status", HttpStatus.TOO_MANY_REQUESTS.value());
+                    generator.writeNumberField("retryAfter", limitado.retryAfter());
+                    generator.writeEndObject();
+                    generator.writeRaw('\n');
+                }
+            }
+        };
+
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(corpo);
     }
 
     @GetMapping("/{shortCode}")
-    public ResponseEntity<Void> redirecionar(@PathVariable String shortCode) {
-        String originalUrl = urlService.BuscarUrlOriginal(shortCode);
-
-        if (originalUrl != null) {
-            return ResponseEntity
-                    .status(HttpStatus.FOUND) // 302
-                    .location(URI.create(originalUrl))
-                    .build();
-        } else {
-            return ResponseEntity.notFound().build();
-        }
+    public ResponseEntity<Void> redirecionar(@PathVariable String shortCode,
+                                             @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+                                             HttpServletRequest request) {
+        UrlResolvida url = urlService.buscarRedirecionamento(shortCode);
+        clickEventCollector.registrar(shortCode, request.getHeader(HttpHeaders.REFERER),
+                request.getHeader(HttpHeaders.USER_AGENT), request.getRemoteAddr());
+        return redirectPolicy.responder(url, ifNoneMatch);
     }
 
+    /**
+     * Cliques por hora (últimas 48h), por dia, país, dispositivo e referrer nos últimos {@code dias} dias.
+     */
+    @GetMapping("/{shortCode}/stats")
+    public ResponseEntity<UrlEstatisticasDTO> estatisticas(@PathVariable String shortCode,
+                                                          @RequestParam(defaultValue = "30") int dias) {
+        return ResponseEntity.ok(clickStatsService.estatisticas(shortCode, dias));
+    }
 
 }
 
-
@@ -0,0 +1,65 @@
+package com.JShort.Controller;
+
+import com.JShort.Config.JShortProperties;
+import com.JShort.Exception.UrlException;
+import com.JShort.Exception.UrlExpiradaException;
+import com.JShort.Exception.UrlIndisponivelException;
+import com.JShort.Exception.UrlNaoEncontradaException;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+
+import java.util.Map;
+
+@RestControllerAdvice
+public class UrlExceptionHandler {
+
+    private final JShortProperties.Redirect config;
+
+    public UrlExceptionHandler(JShortProperties properties) {
+        this.config = properties.getRedirect();
+    }
+
+    /**
+     * 404 cacheável quando o banco confirmou: caches de borda absorvem varreduras de códigos aleatórios sem chegar
+     * ao banco. Uma negativa que pode deixar de valer em seguida (só do bloom filter) não é guardada.
+     */
+    @ExceptionHandler(UrlNaoEncontradaException.class)
+    public ResponseEntity<Map<String, String>> naoEncontrada(UrlNaoEncontradaException ex) {
+        CacheControl cache = ex.isDefinitiva()
+                ? CacheControl.maxAge(config.getNotFoundMaxAge()).cachePublic()
+                : CacheControl.noStore();
+        return ResponseEntity.status(HttpStatus.NOT_FOUND)
+                .cacheControl(cache)
+                .body(Map.of("erro", ex.getMessage()));
+    }
+
+    /**
+     * 410 para links que já expiraram, com o mesmo cache de borda do 404.
+     */
+    @ExceptionHandler(UrlExpiradaException.class)
+    public ResponseEntity<Map<String, String>> expirada(UrlExpiradaException ex) {
+        return ResponseEntity.status(HttpStatus.GONE)
+                .cacheControl(CacheControl.maxAge(config.getNotFoundMaxAge()).cachePublic())
+                .body(Map.of("erro", ex.getMessage()));
+    }
+
+    /**
+     * 503 para quem desistiu de esperar a mesma busca em andamento; o cliente tenta de novo em seguida.
+     */
+    @ExceptionHandler(UrlIndisponivelException.class)
+    public ResponseEntity<Map<String, String>> indisponivel(UrlIndisponivelException ex) {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, "1")
+                .body(Map.of("erro", ex.getMessage()));
+    }
+
+    @ExceptionHandler(UrlException.class)
+    public ResponseEntity<Map<String, String>> invalida(UrlException ex) {
+        return ResponseEntity.badRequest()
+                .body(Map.of("erro", ex.getMessage()));
+    }
+}
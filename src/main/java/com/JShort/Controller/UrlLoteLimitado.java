@@ -0,0 +1,63 @@
+package com.JShort.Controller;
+
+import com.JShort.RateLimit.RateLimits;
+
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * Cobra do limite de encurtamento uma requisição por URL do lote. A primeira já foi cobrada pelo filtro;
+ * as demais são cobradas antes de serem lidas, e o lote para na primeira recusada ({@link #retryAfter()}).
+ */
+class UrlLoteLimitado implements Iterator<String> {
+
+    private final Iterator<String> urls;
+
+    private final RateLimits rateLimits;
+
+    private final String apiKey;
+
+    private final String ip;
+
+    private boolean primeira = true;
+
+    private boolean cobrada;
+
+    private long retryAfter;
+
+    UrlLoteLimitado(Iterator<String> urls, RateLimits rateLimits, String apiKey, String ip) {
+        this.urls = urls;
+        this.rateLimits = rateLimits;
+        this.apiKey = apiKey;
+        this.ip = ip;
+    }
+
+    @Override
+    public boolean hasNext() {
+        if (retryAfter > 0 || !urls.hasNext()) {
+            return false;
+        }
+        if (!primeira && !cobrada) {
+            retryAfter = rateLimits.consumir(RateLimits.Rota.ENCURTAR, apiKey, ip);
+            cobrada = retryAfter == 0;
+        }
+        return retryAfter == 0;
+    }
+
+    @Override
+    public String next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        primeira = false;
+        cobrada = false;
+        return urls.next();
+    }
+
+    /**
+     * Segundos para o {@code Retry-After} se o lote foi interrompido pelo limite, senão zero.
+     */
+    long retryAfter() {
+        return retryAfter;
+    }
+}
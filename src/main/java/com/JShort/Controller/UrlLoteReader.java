@@ -0,0 +1,57 @@
+package com.JShort.Controller;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * Lê as URLs do corpo do lote sem carregar o corpo inteiro: aceita um array JSON ou NDJSON
+ * (um valor por linha). Cada item pode ser a URL como string ou um objeto com {@code originalUrl}.
+ */
+class UrlLoteReader implements Iterator<String> {
+
+    private final ObjectMapper objectMapper;
+
+    private final JsonParser parser;
+
+    private boolean dentroDeArray;
+
+    private JsonToken proximo;
+
+    UrlLoteReader(ObjectMapper objectMapper, InputStream entrada) throws IOException {
+        this.objectMapper = objectMapper;
+        this.parser = objectMapper.getFactory().createParser(entrada);
+
+        proximo = parser.nextToken();
+        if (proximo == JsonToken.START_ARRAY) {
+            dentroDeArray = true;
+            proximo = parser.nextToken();
+        }
+    }
+
+    @Override
+    public boolean hasNext() {
+        return proximo != null && !(dentroDeArray && proximo == JsonToken.END_ARRAY);
+    }
+
+    @Override
+    public String next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        try {
+            JsonNode item = objectMapper.readTree(parser);
+            proximo = parser.nextToken();
+            return item.isTextual() ? item.asText() : item.path("originalUrl").asText(null);
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+}
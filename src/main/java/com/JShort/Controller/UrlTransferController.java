@@ -0,0 +1,75 @@
+package com.JShort.Controller;
+
+import com.JShort.Config.JShortProperties;
+import com.JShort.DTO.UrlImportacaoDTO;
+import com.JShort.Transfer.UrlExporter;
+import com.JShort.Transfer.UrlImporter;
+import com.JShort.Transfer.UrlTransferFormat;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+
+/**
+ * Exportação e importação da tabela {@code url} pela API, para migrações e backups. Só responde com
+ * {@code jshort.transfer.admin-token} configurado e o mesmo valor no header {@code X-Admin-Token}.
+ *
+ * <p>A exportação escreve direto na resposta, sem o timeout das requisições assíncronas; a importação lê o
+ * corpo em streaming (gzip detectado pela assinatura).
+ */
+@RestController
+@RequestMapping("/admin/urls")
+@Profile("!reactive")
+public class UrlTransferController {
+
+    private final UrlExporter exporter;
+
+    private final UrlImporter importer;
+
+    private final JShortProperties.Transfer config;
+
+    public UrlTransferController(UrlExporter exporter, UrlImporter importer, JShortProperties properties) {
+        this.exporter = exporter;
+        this.importer = importer;
+        this.config = properties.getTransfer();
+    }
+
+    @GetMapping("/export")
+    public void exportar(@RequestHeader(value = "X-Admin-Token", required = false) String token,
+                         @RequestParam(defaultValue = "ndjson") String formato,
+                         @RequestParam(defaultValue = "false") boolean gzip,
+                         HttpServletResponse response) throws IOException {
+        autorizar(token);
+        UrlTransferFormat transferFormat = UrlTransferFormat.porNome(formato);
+        String arquivo = "urls" + transferFormat.extensao() + (gzip ? ".gz" : "");
+        response.setContentType(gzip ? "application/gzip" : transferFormat.contentType() + ";charset=UTF-8");
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment().filename(arquivo).build().toString());
+        exporter.exportar(response.getOutputStream(), transferFormat, gzip);
+    }
+
+    @PostMapping("/import")
+    public UrlImportacaoDTO importar(@RequestHeader(value = "X-Admin-Token", required = false) String token,
+                                     @RequestParam(defaultValue = "ndjson") String formato,
+                                     HttpServletRequest request) throws IOException {
+        autorizar(token);
+        return importer.importar(request.getInputStream(), UrlTransferFormat.porNome(formato));
+    }
+
+    private void autorizar(String token) {
+        if (config.getAdminToken().isEmpty()) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND);
+        }
+        if (token == null || !MessageDigest.isEqual(token.getBytes(StandardCharsets.UTF_8),
+                config.getAdminToken().getBytes(StandardCharsets.UTF_8))) {
+            throw new ResponseStatusException(HttpStatus.UNAUTHORIZED);
+        }
+    }
+}
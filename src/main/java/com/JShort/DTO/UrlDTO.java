@@ -3,6 +3,8 @@ package com.JShort.DTO;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.Pattern;
 
+import java.time.Duration;
+
 public class UrlDTO {
 
     @NotBlank(message = "A URL não pode estar vazia")
@@ -12,6 +14,9 @@ public class UrlDTO {
     )
     private String originalUrl;
 
+    // Validade do link em ISO-8601 (ex.: "P30D", "PT12H"); ausente usa jshort.expiration.default-ttl
+    private Duration ttl;
+
     public String getOriginalUrl() {
         return originalUrl;
     }
@@ -19,5 +24,13 @@ public class UrlDTO {
     public void setOriginalUrl(String originalUrl) {
         this.originalUrl = originalUrl;
     }
+
+    public Duration getTtl() {
+        return ttl;
+    }
+
+    public void setTtl(Duration ttl) {
+        this.ttl = ttl;
+    }
 }
     
@@ -0,0 +1,41 @@
+package com.JShort.DTO;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Estatísticas de cliques de um código (GET /url/{shortCode}/stats). Períodos em UTC; os mapas vêm
+ * ordenados do maior para o menor número de cliques.
+ */
+@Getter
+@AllArgsConstructor
+public class UrlEstatisticasDTO {
+
+    private final String shortCode;
+
+    private final int dias;
+
+    private final long totalCliques;
+
+    private final List<Cliques> porHora;
+
+    private final List<Cliques> porDia;
+
+    private final Map<String, Long> paises;
+
+    private final Map<String, Long> dispositivos;
+
+    private final Map<String, Long> referencias;
+
+    @Getter
+    @AllArgsConstructor
+    public static class Cliques {
+
+        private final String periodo;
+
+        private final long cliques;
+    }
+}
@@ -0,0 +1,18 @@
+package com.JShort.DTO;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Resumo de uma importação: linhas gravadas, linhas cujo código (ou URL) já existia e linhas inválidas.
+ */
+@Getter
+@AllArgsConstructor
+public class UrlImportacaoDTO {
+
+    private final long importadas;
+
+    private final long existentes;
+
+    private final long invalidas;
+}
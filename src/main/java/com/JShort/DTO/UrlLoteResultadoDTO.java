@@ -0,0 +1,26 @@
+package com.JShort.DTO;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Resultado de um item do encurtamento em lote, devolvido como uma linha de NDJSON.
+ */
+@Getter
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class UrlLoteResultadoDTO {
+
+    public enum Status { CRIADA, EXISTENTE, INVALIDA }
+
+    private final String originalUrl;
+
+    private final String shortCode;
+
+    private final Status status;
+
+    public static UrlLoteResultadoDTO invalida(String originalUrl) {
+        return new UrlLoteResultadoDTO(originalUrl, null, Status.INVALIDA);
+    }
+}
@@ -0,0 +1,7 @@
+package com.JShort.Exception;
+
+public class UrlExpiradaException extends UrlException {
+    public UrlExpiradaException(String shortCode) {
+        super("URL expirada: " + shortCode);
+    }
+}
@@ -0,0 +1,7 @@
+package com.JShort.Exception;
+
+public class UrlIndisponivelException extends UrlException {
+    public UrlIndisponivelException(String mensagem) {
+        super(mensagem);
+    }
+}
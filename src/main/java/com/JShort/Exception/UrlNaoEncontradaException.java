@@ -0,0 +1,24 @@
+package com.JShort.Exception;
+
+public class UrlNaoEncontradaException extends UrlException {
+
+    private final boolean definitiva;
+
+    public UrlNaoEncontradaException(String shortCode) {
+        this(shortCode, true);
+    }
+
+    /**
+     * @param definitiva {@code false} quando o código pode passar a existir em seguida (negativa só do bloom
+     *                   filter, ou aceito pelo write-behind de outra instância e ainda não gravado); a resposta
+     *                   então não vai para caches de borda
+     */
+    public UrlNaoEncontradaException(String shortCode, boolean definitiva) {
+        super("URL não encontrada: " + shortCode);
+        this.definitiva = definitiva;
+    }
+
+    public boolean isDefinitiva() {
+        return definitiva;
+    }
+}
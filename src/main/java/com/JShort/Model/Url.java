@@ -9,7 +9,9 @@ import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
 import jakarta.persistence.Table;
 import lombok.*;
+import org.hibernate.annotations.Formula;
 
+// Tabela, índices e tabelas auxiliares (url_hash, url_access_count) definidos nas migrations em db/migration
 @Entity
 @Table(name = "url")
 @Getter
@@ -26,6 +28,10 @@ public class Url {
     @Column(nullable = false, length = 2048)
     private String originalUrl;
 
+    // SHA-256 da URL normalizada; a unicidade (uma linha por URL) fica na PK de url_hash
+    @Column(length = 64)
+    private String originalUrlHash;
+
     @Column(nullable = false, unique = true)
     private String shortCode;
 
@@ -33,6 +39,8 @@ public class Url {
 
     private LocalDateTime expirationDate;
 
+    // Contador em url_access_count, gravado pelo AccessCountAggregator; aqui só é lido
+    @Formula("COALESCE((SELECT c.access_count FROM url_access_count c WHERE c.short_code = short_code), 0)")
     private Long accessCount = 0L;
 
 }
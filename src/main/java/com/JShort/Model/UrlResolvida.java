@@ -0,0 +1,17 @@
+package com.JShort.Model;
+
+import java.time.LocalDateTime;
+
+/**
+ * Somente o necessário para redirecionar um código curto: a URL de destino e a data de expiração.
+ */
+public record UrlResolvida(String originalUrl, LocalDateTime expirationDate) {
+
+    public static UrlResolvida de(Url url) {
+        return new UrlResolvida(url.getOriginalUrl(), url.getExpirationDate());
+    }
+
+    public boolean expirada(LocalDateTime agora) {
+        return expirationDate != null && !expirationDate.isAfter(agora);
+    }
+}
@@ -0,0 +1,52 @@
+package com.JShort.RateLimit;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Aplica os {@link RateLimits} antes do controller: acima do limite, responde 429 com {@code Retry-After}
+ * sem ler o corpo nem chegar ao serviço.
+ */
+@Component
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+@Order(Ordered.HIGHEST_PRECEDENCE + 10)
+public class RateLimitFilter extends OncePerRequestFilter {
+
+    private final RateLimits rateLimits;
+
+    public RateLimitFilter(RateLimits rateLimits) {
+        this.rateLimits = rateLimits;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        String caminho = request.getRequestURI().substring(request.getContextPath().length());
+        RateLimits.Rota rota = rateLimits.rota(request.getMethod(), caminho);
+        if (rota != null) {
+            long retryAfter = rateLimits.consumir(rota, request.getHeader(rateLimits.apiKeyHeader()), request.getRemoteAddr());
+            if (retryAfter > 0) {
+                response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+                response.setHeader(HttpHeaders.RETRY_AFTER, Long.toString(retryAfter));
+                response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+                response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+                response.getWriter().write("{\"erro\":\"Limite de requisições excedido\"}");
+                return;
+            }
+        }
+        chain.doFilter(request, response);
+    }
+}
@@ -0,0 +1,88 @@
+package com.JShort.RateLimit;
+
+import com.JShort.Config.JShortProperties;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+
+import java.time.Duration;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * Token bucket por cliente no formato GCRA: cada cliente é um único {@code long} (o instante teórico da
+ * próxima requisição), atualizado por CAS, sem lock e sem thread de reposição de tokens.
+ *
+ * <p>Os clientes ficam num cache do Guava (segmentado) limitado por tamanho e por inatividade. Um cliente
+ * ocioso por mais que {@code burst / requests-per-second} já teria o balde cheio de novo, então removê-lo
+ * não muda o resultado de nenhuma requisição.
+ */
+public class RateLimiter {
+
+    private final long intervalo;
+
+    private final long tolerancia;
+
+    private final LongSupplier relogio;
+
+    private final Cache<String, AtomicLong> clientes;
+
+    public RateLimiter(JShortProperties.RateLimit.Limite limite, long maximoClientes) {
+        this(limite, maximoClientes, relogio());
+    }
+
+    RateLimiter(JShortProperties.RateLimit.Limite limite, long maximoClientes, LongSupplier relogio) {
+        this.intervalo = (long) (TimeUnit.SECONDS.toNanos(1) / limite.getRequestsPerSecond());
+        this.tolerancia = intervalo * Math.max(limite.getBurst(), 1);
+        this.relogio = relogio;
+        this.clientes = CacheBuilder.newBuilder()
+                .maximumSize(maximoClientes)
+                .expireAfterAccess(Duration.ofNanos(tolerancia))
+                .build();
+    }
+
+    /**
+     * Consome uma requisição do cliente. Devolve zero se ela pode seguir, ou quantos nanossegundos faltam
+     * para a próxima ser aceita.
+     */
+    public long consumir(String cliente) {
+        AtomicLong proxima = clientes.getIfPresent(cliente);
+        if (proxima == null) {
+            proxima = criar(cliente);
+        }
+        while (true) {
+            // Relógio lido depois do estado, a cada tentativa: quem perde o CAS para uma requisição mais nova
+            // não calcula a espera com um instante anterior ao dela
+            long atual = proxima.get();
+            long agora = relogio.getAsLong();
+            long nova = Math.max(atual, agora) + intervalo;
+            long espera = nova - tolerancia - agora;
+            if (espera > 0) {
+                return espera;
+            }
+            if (proxima.compareAndSet(atual, nova)) {
+                return 0;
+            }
+        }
+    }
+
+    long clientes() {
+        clientes.cleanUp();
+        return clientes.size();
+    }
+
+    private AtomicLong criar(String cliente) {
+        try {
+            return clientes.get(cliente, AtomicLong::new);
+        } catch (ExecutionException ex) {
+            throw new IllegalStateException(ex);
+        }
+    }
+
+    // Nanossegundos desde a criação do limitador: nunca negativo, então o zero de um cliente novo é "ocioso"
+    private static LongSupplier relogio() {
+        long origem = System.nanoTime();
+        return () -> System.nanoTime() - origem;
+    }
+}
@@ -0,0 +1,92 @@
+package com.JShort.RateLimit;
+
+import com.JShort.Config.JShortProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Limites por cliente das rotas de encurtamento e de redirecionamento, usados pelo filtro do runtime
+ * servlet e pelo do reativo.
+ *
+ * <p>Cada rota tem o seu {@link RateLimiter}. O cliente é a API key, quando ela está em
+ * {@code jshort.rate-limit.api-keys}; sem key ou com uma key desconhecida, é o IP (uma key inventada não
+ * abre um balde novo).
+ *
+ * <p>O encurtamento em lote paga um token por URL: o filtro cobra a primeira, na chegada da requisição, e o
+ * controller cobra as demais conforme lê o corpo.
+ */
+@Component
+public class RateLimits {
+
+    public enum Rota { ENCURTAR, REDIRECIONAR }
+
+    private final JShortProperties.RateLimit config;
+
+    private final Set<String> apiKeys;
+
+    private final Map<Rota, RateLimiter> limitadores = new EnumMap<>(Rota.class);
+
+    private final Map<Rota, Counter> rejeitadas = new EnumMap<>(Rota.class);
+
+    public RateLimits(JShortProperties properties, MeterRegistry meterRegistry) {
+        this.config = properties.getRateLimit();
+        this.apiKeys = Set.copyOf(config.getApiKeys());
+        adicionar(Rota.ENCURTAR, config.getShorten(), meterRegistry);
+        adicionar(Rota.REDIRECIONAR, config.getRedirect(), meterRegistry);
+    }
+
+    private void adicionar(Rota rota, JShortProperties.RateLimit.Limite limite, MeterRegistry meterRegistry) {
+        if (!config.isEnabled() || limite.getRequestsPerSecond() <= 0) {
+            return;
+        }
+        limitadores.put(rota, new RateLimiter(limite, config.getMaximumClients()));
+        rejeitadas.put(rota, Counter.builder("jshort.ratelimit.rejeitadas")
+                .tag("rota", rota.name().toLowerCase())
+                .description("Requisições respondidas com 429 pelo limite por cliente")
+                .register(meterRegistry));
+    }
+
+    /**
+     * Rota limitada da requisição ({@code caminho} sem o context path), ou {@code null} se não houver limite.
+     */
+    public Rota rota(String metodo, String caminho) {
+        if ("POST".equals(metodo) && (caminho.equals("/url/encurtar") || caminho.equals("/url/encurtar/lote"))) {
+            return limitada(Rota.ENCURTAR) ? Rota.ENCURTAR : null;
+        }
+        if ("GET".equals(metodo) && caminho.startsWith("/url/") && caminho.indexOf('/', 5) < 0) {
+            return limitada(Rota.REDIRECIONAR) ? Rota.REDIRECIONAR : null;
+        }
+        return null;
+    }
+
+    /**
+     * Se a rota tem limite.
+     */
+    public boolean limitada(Rota rota) {
+        return limitadores.containsKey(rota);
+    }
+
+    /**
+     * Consome uma requisição do cliente na rota. Devolve zero se ela pode seguir, senão os segundos
+     * (arredondados para cima) para o {@code Retry-After}.
+     */
+    public long consumir(Rota rota, String apiKey, String ip) {
+        String cliente = apiKey != null && apiKeys.contains(apiKey) ? "key:" + apiKey : ip;
+        long espera = limitadores.get(rota).consumir(cliente);
+        if (espera == 0) {
+            return 0;
+        }
+        rejeitadas.get(rota).increment();
+        return Math.max(1, (espera + TimeUnit.SECONDS.toNanos(1) - 1) / TimeUnit.SECONDS.toNanos(1));
+    }
+
+    public String apiKeyHeader() {
+        return config.getApiKeyHeader();
+    }
+}
@@ -0,0 +1,31 @@
+package com.JShort.Repository;
+
+import com.JShort.Model.Url;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Gravação de URLs novas no {@link UrlRepository}, em JDBC. A tabela {@code url} é particionada por
+ * {@code short_code} e não pode ter unique de {@code original_url_hash}: a deduplicação é a PK de
+ * {@code url_hash}, e uma URL só conta como gravada depois de reivindicar o hash lá.
+ */
+public interface UrlInsercao {
+
+    /**
+     * Insere a URL se nem o hash nem o shortCode já existirem. Retorna 0 quando houve conflito,
+     * sem lançar exceção, para que requisições concorrentes da mesma URL não gerem duas linhas.
+     */
+    @Transactional
+    int inserirSeAusente(String id, String originalUrl, String originalUrlHash, String shortCode,
+                         LocalDateTime creationDate, LocalDateTime expirationDate);
+
+    /**
+     * Insere as URLs em batch e devolve as que foram gravadas, na ordem de entrada. Ficam de fora as de código
+     * já existente e as de URL que já tem outro código; com {@code manterRepetidas}, estas são gravadas sem o
+     * hash e os dois códigos funcionam. Contadores de acesso maiores que zero vão para {@code url_access_count}.
+     */
+    @Transactional
+    List<Url> inserirLote(List<Url> urls, boolean manterRepetidas);
+}
@@ -0,0 +1,107 @@
+package com.JShort.Repository;
+
+import com.JShort.Model.Url;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * INSERT em {@code url} seguido da reivindicação do hash em {@code url_hash}, ambos com
+ * {@code ON CONFLICT DO NOTHING}. Se o hash já é de outro código, a linha recém-gravada é removida (ou fica sem
+ * o hash). Também é usada fora do repositório, direto sobre um {@link JdbcTemplate}, pelo write-behind e pela
+ * importação; aí o {@code @Transactional} de {@link UrlInsercao} não vale e quem chama abre a transação, senão
+ * a linha fica visível com o hash de outro código entre um comando e o outro.
+ *
+ * <p>Os comandos de uma URL só ({@link UrlSql}) são os mesmos do runtime reativo. O lote não depende das contagens do batch (que o {@code reWriteBatchedInserts} do PostgreSQL não
+ * informa): a reivindicação e a limpeza só tocam a linha cujo id é o desta URL, e no fim uma consulta pelos
+ * códigos diz quais ficaram. Repetir um lote já gravado não muda nada.
+ */
+public class UrlInsercaoImpl implements UrlInsercao {
+
+    private static final String SQL_HASH_DA_LINHA = "INSERT INTO url_hash (original_url_hash, short_code) "
+            + "SELECT original_url_hash, short_code FROM url "
+            + "WHERE short_code = ? AND id = ? AND original_url_hash IS NOT NULL ON CONFLICT DO NOTHING";
+
+    // A linha desta URL tem um hash que está reivindicado por outro código
+    private static final String HASH_DE_OUTRO = "short_code = ? AND id = ? AND original_url_hash IS NOT NULL "
+            + "AND NOT EXISTS (SELECT 1 FROM url_hash h "
+            + "WHERE h.original_url_hash = url.original_url_hash AND h.short_code = url.short_code)";
+
+    private static final String SQL_REMOVER_REPETIDA = "DELETE FROM url WHERE " + HASH_DE_OUTRO;
+
+    private static final String SQL_TIRAR_HASH = "UPDATE url SET original_url_hash = NULL WHERE " + HASH_DE_OUTRO;
+
+    private static final String SQL_GRAVADAS = "SELECT short_code, id FROM url WHERE short_code IN (:codigos)";
+
+    private static final String SQL_CONTADOR = "INSERT INTO url_access_count (short_code, access_count) VALUES (?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private final NamedParameterJdbcTemplate named;
+
+    public UrlInsercaoImpl(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.named = new NamedParameterJdbcTemplate(jdbcTemplate);
+    }
+
+    @Override
+    public int inserirSeAusente(String id, String originalUrl, String originalUrlHash, String shortCode,
+                                LocalDateTime creationDate, LocalDateTime expirationDate) {
+        MapSqlParameterSource parametros = new MapSqlParameterSource(UrlSql.novaUrl(id, originalUrl, originalUrlHash,
+                shortCode, creationDate, expirationDate));
+        if (named.update(UrlSql.INSERIR_URL, parametros) == 0) {
+            return 0;
+        }
+        if (originalUrlHash != null && named.update(UrlSql.REIVINDICAR_HASH, parametros) == 0) {
+            // A URL já tem outro código: a linha sai na mesma transação
+            named.update(UrlSql.DESCARTAR_URL, parametros);
+            return 0;
+        }
+        return 1;
+    }
+
+    @Override
+    public List<Url> inserirLote(List<Url> urls, boolean manterRepetidas) {
+        if (urls.isEmpty()) {
+            return List.of();
+        }
+        MapSqlParameterSource[] valores = new MapSqlParameterSource[urls.size()];
+        List<Object[]> linhas = new ArrayList<>(urls.size());
+        for (Url url : urls) {
+            valores[linhas.size()] = new MapSqlParameterSource(UrlSql.novaUrl(url.getId(), url.getOriginalUrl(),
+                    url.getOriginalUrlHash(), url.getShortCode(), url.getCreationDate(), url.getExpirationDate()));
+            linhas.add(new Object[]{url.getShortCode(), url.getId()});
+        }
+        named.batchUpdate(UrlSql.INSERIR_URL, valores);
+        jdbcTemplate.batchUpdate(SQL_HASH_DA_LINHA, linhas);
+        jdbcTemplate.batchUpdate(manterRepetidas ? SQL_TIRAR_HASH : SQL_REMOVER_REPETIDA, linhas);
+
+        Map<String, String> idPorCodigo = new HashMap<>();
+        named.query(SQL_GRAVADAS,
+                new MapSqlParameterSource("codigos", urls.stream().map(Url::getShortCode).toList()),
+                rs -> {
+                    idPorCodigo.put(rs.getString(1), rs.getString(2));
+                });
+
+        List<Url> gravadas = new ArrayList<>(urls.size());
+        List<Object[]> contadores = new ArrayList<>();
+        for (Url url : urls) {
+            if (url.getId().equals(idPorCodigo.get(url.getShortCode()))) {
+                gravadas.add(url);
+                if (url.getAccessCount() != null && url.getAccessCount() > 0) {
+                    contadores.add(new Object[]{url.getShortCode(), url.getAccessCount()});
+                }
+            }
+        }
+        if (!contadores.isEmpty()) {
+            jdbcTemplate.batchUpdate(SQL_CONTADOR, contadores);
+        }
+        return gravadas;
+    }
+}
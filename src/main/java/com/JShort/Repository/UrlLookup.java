@@ -0,0 +1,17 @@
+package com.JShort.Repository;
+
+import com.JShort.Model.UrlResolvida;
+
+import java.util.Optional;
+
+/**
+ * Consultas do {@link UrlRepository} feitas direto em JDBC, fora do Hibernate.
+ */
+public interface UrlLookup {
+
+    /**
+     * Só a URL de destino e a expiração do código, para o redirecionamento. Com réplicas configuradas, vai para
+     * uma réplica (a menos que a leitura esteja em {@code ReplicaRoutingDataSource.noPrimario}).
+     */
+    Optional<UrlResolvida> buscarResolvida(String shortCode);
+}
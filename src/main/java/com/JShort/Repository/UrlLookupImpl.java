@@ -0,0 +1,40 @@
+package com.JShort.Repository;
+
+import com.JShort.Config.ReplicaRoutingDataSource;
+import com.JShort.Model.UrlResolvida;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ResultSetExtractor;
+import org.springframework.jdbc.core.namedparam.NamedParameterUtils;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+/**
+ * Caminho enxuto do redirecionamento: um SELECT de duas colunas pelo índice único de {@code short_code}
+ * ({@link UrlSql#RESOLVIDA}, o mesmo do runtime reativo), num PreparedStatement via {@link JdbcTemplate}. Não
+ * passa pelo EntityManager, então não há entidade gerenciada, dirty checking, flush nem log de SQL do Hibernate;
+ * o resultado vira direto um {@link UrlResolvida}. Como o texto do SQL é sempre o mesmo, o driver do PostgreSQL
+ * reaproveita o statement preparado no servidor em cada conexão do pool ({@code prepareThreshold}).
+ */
+class UrlLookupImpl implements UrlLookup {
+
+    // Convertido para "?" uma vez, fora do caminho da requisição
+    private static final String SQL_RESOLVIDA = NamedParameterUtils.parseSqlStatementIntoString(UrlSql.RESOLVIDA);
+
+    private static final ResultSetExtractor<UrlResolvida> RESOLVIDA = rs -> rs.next()
+            ? new UrlResolvida(rs.getString(1), rs.getObject(2, LocalDateTime.class))
+            : null;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    UrlLookupImpl(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public Optional<UrlResolvida> buscarResolvida(String shortCode) {
+        // Sem transação (que abriria um EntityManager): a réplica é escolhida pela própria leitura
+        return Optional.ofNullable(ReplicaRoutingDataSource.naReplica(
+                () -> jdbcTemplate.query(SQL_RESOLVIDA, RESOLVIDA, shortCode)));
+    }
+}
@@ -1,16 +1,43 @@
 package com.JShort.Repository;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
 import com.JShort.Model.Url;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
-public interface UrlRepository extends JpaRepository<Url, String> {
+public interface UrlRepository extends JpaRepository<Url, String>, UrlLookup, UrlInsercao {
 
     Optional<Url> findByOriginalUrl(String originalUrl);
 
+    // Somente leitura: com réplicas configuradas, vai para uma réplica. O redirecionamento usa buscarResolvida
+    @Transactional(readOnly = true)
     Optional<Url> findByShortCode(String shortCode);
-    
-    
+
+    /**
+     * URL que reivindicou o hash ({@link UrlSql#POR_HASH}).
+     */
+    @Query(value = UrlSql.POR_HASH, nativeQuery = true)
+    Optional<Url> findByOriginalUrlHash(@Param("hash") String originalUrlHash);
+
+    @Query(value = "SELECT u.*, " + UrlSql.ACESSOS + " FROM url_hash h JOIN url u ON u.short_code = h.short_code "
+            + "WHERE h.original_url_hash IN (:hashes)", nativeQuery = true)
+    List<Url> findByOriginalUrlHashIn(@Param("hashes") Collection<String> originalUrlHashes);
+
+    /**
+     * Adia a expiração para {@code expirationDate} se ela for mais tarde que a atual. Retorna 0 se a linha
+     * não existe mais (removida pelo sweeper) ou já vale até depois disso.
+     */
+    @Transactional
+    @Modifying
+    @Query(value = UrlSql.ESTENDER_EXPIRACAO, nativeQuery = true)
+    int estenderExpiracao(@Param("id") String id, @Param("expirationDate") LocalDateTime expirationDate);
+
 }
@@ -0,0 +1,72 @@
+package com.JShort.Repository;
+
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * SQL do encurtamento e do redirecionamento, com parâmetros nomeados, executado pelos dois runtimes: em JDBC
+ * pelo {@link UrlInsercaoImpl}, pelo {@link UrlLookupImpl} e pelas consultas nativas do {@link UrlRepository},
+ * e em R2DBC pelo {@code ReactiveUrlService}.
+ *
+ * <p>Gravação de uma URL nova, numa transação:
+ * <ol>
+ *     <li>{@link #INSERIR_URL}; nenhuma linha inserida é colisão do código;</li>
+ *     <li>{@link #REIVINDICAR_HASH}; nenhuma linha inserida é a URL já encurtada com outro código, que
+ *     {@link #POR_HASH} devolve;</li>
+ *     <li>nesse caso, {@link #DESCARTAR_URL} remove a linha do passo 1 antes do commit, e ninguém a vê com o hash
+ *     de outro código.</li>
+ * </ol>
+ * Uma URL existente é procurada por {@link #POR_HASH} e, se expira antes do que o pedido exige, adiada com
+ * {@link #ESTENDER_EXPIRACAO}; se nenhuma linha muda, outra requisição adiou mais ainda ou o sweeper a removeu,
+ * e {@link #POR_ID} diz qual.
+ */
+public final class UrlSql {
+
+    // O @Formula de Url.accessCount, com o nome da propriedade que as consultas nativas esperam
+    static final String ACESSOS = "COALESCE((SELECT c.access_count FROM url_access_count c "
+            + "WHERE c.short_code = u.short_code), 0) AS accessCount";
+
+    public static final String INSERIR_URL = "INSERT INTO url "
+            + "(id, original_url, original_url_hash, short_code, creation_date, expiration_date) "
+            + "VALUES (:id, :originalUrl, :originalUrlHash, :shortCode, :creationDate, :expirationDate) "
+            + "ON CONFLICT DO NOTHING";
+
+    public static final String REIVINDICAR_HASH = "INSERT INTO url_hash (original_url_hash, short_code) "
+            + "VALUES (:originalUrlHash, :shortCode) ON CONFLICT DO NOTHING";
+
+    public static final String DESCARTAR_URL = "DELETE FROM url WHERE short_code = :shortCode AND id = :id";
+
+    /**
+     * Pela PK de {@code url_hash} e depois pela de {@code url}, numa partição só. O índice de
+     * {@code original_url_hash} em {@code url} teria de ser consultado em todas as partições, e uma linha gravada
+     * sem o hash reivindicado (write-behind, importação) nunca é devolvida.
+     */
+    public static final String POR_HASH = "SELECT u.*, " + ACESSOS + " FROM url u WHERE u.short_code = "
+            + "(SELECT h.short_code FROM url_hash h WHERE h.original_url_hash = :hash)";
+
+    public static final String POR_ID = "SELECT u.*, " + ACESSOS + " FROM url u WHERE u.id = :id";
+
+    public static final String ESTENDER_EXPIRACAO = "UPDATE url SET expiration_date = :expirationDate "
+            + "WHERE id = :id AND expiration_date < :expirationDate";
+
+    public static final String RESOLVIDA = "SELECT original_url, expiration_date FROM url WHERE short_code = :shortCode";
+
+    private UrlSql() {
+    }
+
+    /**
+     * Parâmetros de {@link #INSERIR_URL}, {@link #REIVINDICAR_HASH} e {@link #DESCARTAR_URL}.
+     */
+    public static Map<String, Object> novaUrl(String id, String originalUrl, String originalUrlHash, String shortCode,
+                                              LocalDateTime creationDate, LocalDateTime expirationDate) {
+        Map<String, Object> parametros = new HashMap<>();
+        parametros.put("id", id);
+        parametros.put("originalUrl", originalUrl);
+        parametros.put("originalUrlHash", originalUrlHash);
+        parametros.put("shortCode", shortCode);
+        parametros.put("creationDate", creationDate);
+        parametros.put("expirationDate", expirationDate);
+        return parametros;
+    }
+}
@@ -0,0 +1,205 @@
+package com.JShort.Service;
+
+import com.JShort.Config.JShortProperties;
+import com.JShort.WriteBehind.UrlWriteBehind;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Agrega os cliques por shortCode em memória e grava os deltas periodicamente em lote,
+ * tirando a escrita do caminho do redirecionamento.
+ *
+ * <p>Cada código tem um {@link LongAdder} próprio, então cliques concorrentes no mesmo código
+ * não disputam o mesmo contador. A cada intervalo os deltas acumulados viram um único upsert em batch na
+ * tabela estreita {@code url_access_count}, que soma o delta à linha do código ou a cria no primeiro clique.
+ * No PostgreSQL é um {@code INSERT ... ON CONFLICT DO UPDATE}, que não falha quando duas instâncias criam a
+ * linha do mesmo código ao mesmo tempo; o H2 dos testes não tem {@code DO UPDATE} e usa {@code MERGE}.
+ * No shutdown os deltas pendentes são descarregados depois que o servidor web para de aceitar requisições.
+ *
+ * <p>Um código ainda na fila do write-behind não tem linha em {@code url}, então o upsert não grava nada
+ * para ele; o delta volta para o contador e é gravado numa rodada depois que a URL chegar ao banco.
+ */
+@Slf4j
+@Component
+public class AccessCountAggregator implements SmartLifecycle {
+
+    // A origem vem de url: um código removido pelo sweeper nesse meio tempo não gera linha (nem erro de FK)
+    static final String SQL_INCREMENTO = "INSERT INTO url_access_count (short_code, access_count) "
+            + "SELECT u.short_code, CAST(? AS BIGINT) FROM url u WHERE u.short_code = ? "
+            + "ON CONFLICT (short_code) DO UPDATE SET access_count = url_access_count.access_count + EXCLUDED.access_count";
+
+    static final String SQL_INCREMENTO_H2 = "MERGE INTO url_access_count c "
+            + "USING (SELECT u.short_code, CAST(? AS BIGINT) AS delta FROM url u WHERE u.short_code = ?) d "
+            + "ON c.short_code = d.short_code "
+            + "WHEN MATCHED THEN UPDATE SET access_count = c.access_count + d.delta "
+            + "WHEN NOT MATCHED THEN INSERT (short_code, access_count) VALUES (d.short_code, d.delta)";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private final TaskScheduler taskScheduler;
+
+    private final UrlWriteBehind writeBehind;
+
+    private final JShortProperties.AccessCount config;
+
+    private final Map<String, LongAdder> contadores = new ConcurrentHashMap<>();
+
+    // ReentrantLock em vez de synchronized: não prende a carrier thread durante o JDBC com virtual threads
+    private final ReentrantLock gravando = new ReentrantLock();
+
+    private volatile ScheduledFuture<?> agendamento;
+
+    // Escolhido na primeira gravação, sob o lock
+    private String sqlIncremento;
+
+    public AccessCountAggregator(JdbcTemplate jdbcTemplate, TaskScheduler taskScheduler, UrlWriteBehind writeBehind,
+                                 JShortProperties properties) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.taskScheduler = taskScheduler;
+        this.writeBehind = writeBehind;
+        this.config = properties.getAccessCount();
+    }
+
+    public void registrarAcesso(String shortCode) {
+        adicionar(shortCode, 1);
+    }
+
+    /**
+     * Grava todos os deltas acumulados até agora. Se o banco falhar, os deltas voltam para os contadores
+     * e são tentados de novo na próxima rodada.
+     */
+    public void descarregar() {
+        gravando.lock();
+        try {
+            List<Object[]> lote = new ArrayList<>();
+
+            for (Map.Entry<String, LongAdder> entry : contadores.entrySet()) {
+                String shortCode = entry.getKey();
+                LongAdder contador = entry.getValue();
+                long delta = contador.sumThenReset();
+
+                if (delta == 0) {
+                    // Código sem cliques desde a última rodada: libera a memória. Um clique que já tinha o
+                    // contador em mãos e some depois disso é recuperado por quem o somou (ver adicionar)
+                    if (contadores.remove(shortCode, contador)) {
+                        long atrasado = contador.sumThenReset();
+                        if (atrasado > 0) {
+                            adicionar(shortCode, atrasado);
+                        }
+                    }
+                    continue;
+                }
+
+                lote.add(new Object[]{delta, shortCode});
+                if (lote.size() >= config.getMaxBatchSize()) {
+                    gravar(lote);
+                    lote = new ArrayList<>();
+                }
+            }
+
+            if (!lote.isEmpty()) {
+                gravar(lote);
+            }
+        } finally {
+            gravando.unlock();
+        }
+    }
+
+    long pendentes(String shortCode) {
+        LongAdder contador = contadores.get(shortCode);
+        return contador == null ? 0 : contador.sum();
+    }
+
+    private void gravar(List<Object[]> lote) {
+        int[] gravadas;
+        try {
+            gravadas = jdbcTemplate.batchUpdate(sqlIncremento(), lote);
+        } catch (DataAccessException ex) {
+            log.warn("Falha ao gravar {} contadores de acesso, tentando novamente na próxima rodada", lote.size(), ex);
+            for (Object[] item : lote) {
+                adicionar((String) item[1], (Long) item[0]);
+            }
+            return;
+        }
+        if (!writeBehind.ativo()) {
+            return;
+        }
+        // Sem linha em url: o código foi removido (o delta é descartado) ou ainda não saiu do write-behind
+        for (int i = 0; i < gravadas.length; i++) {
+            String shortCode = (String) lote.get(i)[1];
+            if (gravadas[i] == 0 && writeBehind.pendente(shortCode) != null) {
+                adicionar(shortCode, (Long) lote.get(i)[0]);
+            }
+        }
+    }
+
+    private String sqlIncremento() {
+        if (sqlIncremento == null) {
+            String banco = jdbcTemplate.execute((ConnectionCallback<String>) conexao -> conexao.getMetaData().getDatabaseProductName());
+            sqlIncremento = "H2".equals(banco) ? SQL_INCREMENTO_H2 : SQL_INCREMENTO;
+        }
+        return sqlIncremento;
+    }
+
+    /**
+     * Soma sem lock no caminho comum. Se o descarregar tirou o contador do mapa enquanto este clique era somado,
+     * o clique pode ter caído depois da última leitura dele; então quem somou confere se o contador ainda é o do
+     * mapa e, se não for, leva o que sobrou nele para o contador atual. O {@code sumThenReset} zera cada célula
+     * com getAndSet, então se os dois lados recolherem ao mesmo tempo cada um leva uma parte diferente.
+     */
+    private void adicionar(String shortCode, long delta) {
+        LongAdder contador = contadores.get(shortCode);
+        if (contador == null) {
+            contador = contadores.computeIfAbsent(shortCode, k -> new LongAdder());
+        }
+        contador.add(delta);
+        if (contadores.get(shortCode) != contador) {
+            long orfao = contador.sumThenReset();
+            if (orfao > 0) {
+                adicionar(shortCode, orfao);
+            }
+        }
+    }
+
+    @Override
+    public void start() {
+        agendamento = taskScheduler.scheduleWithFixedDelay(this::descarregar, config.getFlushInterval());
+    }
+
+    @Override
+    public void stop() {
+        ScheduledFuture<?> atual = agendamento;
+        if (atual != null) {
+            atual.cancel(false);
+            agendamento = null;
+        }
+        descarregar();
+    }
+
+    @Override
+    public boolean isRunning() {
+        return agendamento != null;
+    }
+
+    /**
+     * Para depois do servidor web (e do seu graceful shutdown), para que os cliques
+     * das últimas requisições também sejam gravados.
+     */
+    @Override
+    public int getPhase() {
+        return SmartLifecycle.DEFAULT_PHASE - 4096;
+    }
+}
@@ -0,0 +1,175 @@
+package com.JShort.Service;
+
+import com.JShort.Cache.UrlCache;
+import com.JShort.Config.JShortProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Remove (ou arquiva em {@code url_archive}) os links expirados há mais de {@code grace-period}.
+ *
+ * <p>Cada varredura percorre o índice {@code (expiration_date, id)} em keyset, em lotes pequenos e cada
+ * lote na sua própria transação curta, então nenhuma trava na tabela {@code url} dura mais que um lote.
+ * Entre os lotes o próximo é reagendado depois de {@code sweeper-pause}, sem ocupar a thread do scheduler.
+ * O DELETE repete o filtro de expiração, então um link renovado no meio da varredura não é removido.
+ * Os códigos removidos saem do {@link UrlCache}.
+ */
+@Slf4j
+@Component
+public class ExpiredUrlSweeper implements ApplicationRunner {
+
+    private static final String SQL_PRIMEIRO_LOTE = "SELECT id, expiration_date, short_code FROM url "
+            + "WHERE expiration_date < ? ORDER BY expiration_date, id LIMIT ?";
+
+    private static final String SQL_PROXIMO_LOTE = "SELECT id, expiration_date, short_code FROM url "
+            + "WHERE expiration_date < ? AND (expiration_date, id) > (?, ?) ORDER BY expiration_date, id LIMIT ?";
+
+    // Remoção pelo short_code, a chave de partição da url; url_hash e url_access_count saem em cascata
+    private static final String SQL_ARQUIVAR = "INSERT INTO url_archive "
+            + "(id, original_url, original_url_hash, short_code, creation_date, expiration_date, access_count, archived_at) "
+            + "SELECT u.id, u.original_url, u.original_url_hash, u.short_code, u.creation_date, u.expiration_date, "
+            + "COALESCE(c.access_count, 0), ? FROM url u LEFT JOIN url_access_count c ON c.short_code = u.short_code "
+            + "WHERE u.short_code = ? AND u.expiration_date < ?";
+
+    private static final String SQL_REMOVER = "DELETE FROM url WHERE short_code = ? AND expiration_date < ?";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private final TaskScheduler taskScheduler;
+
+    private final UrlCache urlCache;
+
+    private final JShortProperties.Expiration config;
+
+    private final Counter removidas;
+
+    private final AtomicBoolean varrendo = new AtomicBoolean();
+
+    public ExpiredUrlSweeper(JdbcTemplate jdbcTemplate, TransactionTemplate transactionTemplate, TaskScheduler taskScheduler,
+                             UrlCache urlCache, JShortProperties properties, MeterRegistry meterRegistry) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.taskScheduler = taskScheduler;
+        this.urlCache = urlCache;
+        this.config = properties.getExpiration();
+        this.removidas = Counter.builder("jshort.url.removidas")
+                .tag("modo", config.getSweeperMode().name().toLowerCase())
+                .description("Links expirados removidos pelo sweeper")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        if (config.isSweeperEnabled()) {
+            taskScheduler.scheduleWithFixedDelay(this::varrer, Instant.now().plus(config.getSweeperInterval()),
+                    config.getSweeperInterval());
+        }
+    }
+
+    /**
+     * Começa uma varredura, se não houver outra em andamento; os lotes seguem agendados até acabar.
+     */
+    public void varrer() {
+        if (varrendo.compareAndSet(false, true)) {
+            proximoLote(novaVarredura());
+        }
+    }
+
+    private void proximoLote(Varredura varredura) {
+        try {
+            if (varrerLote(varredura)) {
+                taskScheduler.schedule(() -> proximoLote(varredura), Instant.now().plus(config.getSweeperPause()));
+                return;
+            }
+            if (varredura.removidas > 0) {
+                log.info("Varredura de links expirados removeu {} URLs", varredura.removidas);
+            }
+        } catch (DataAccessException ex) {
+            log.warn("Falha na varredura de links expirados, tentando novamente no próximo intervalo", ex);
+        }
+        varrendo.set(false);
+    }
+
+    Varredura novaVarredura() {
+        return new Varredura(LocalDateTime.now().minus(config.getGracePeriod()));
+    }
+
+    /**
+     * Processa um lote da varredura. Retorna {@code true} enquanto houver mais lotes.
+     */
+    boolean varrerLote(Varredura varredura) {
+        Timestamp limite = Timestamp.valueOf(varredura.limite);
+        List<Object[]> lote = varredura.ultimoId == null
+                ? jdbcTemplate.query(SQL_PRIMEIRO_LOTE, (rs, i) -> new Object[]{rs.getString(1), rs.getTimestamp(2), rs.getString(3)},
+                        limite, config.getSweeperBatchSize())
+                : jdbcTemplate.query(SQL_PROXIMO_LOTE, (rs, i) -> new Object[]{rs.getString(1), rs.getTimestamp(2), rs.getString(3)},
+                        limite, varredura.ultimaExpiracao, varredura.ultimoId, config.getSweeperBatchSize());
+        if (lote.isEmpty()) {
+            return false;
+        }
+
+        List<Object[]> remocoes = new ArrayList<>(lote.size());
+        List<Object[]> arquivamentos = new ArrayList<>(lote.size());
+        Timestamp agora = Timestamp.valueOf(LocalDateTime.now());
+        for (Object[] linha : lote) {
+            remocoes.add(new Object[]{linha[2], limite});
+            arquivamentos.add(new Object[]{agora, linha[2], limite});
+        }
+
+        int[] removidasNoLote = transactionTemplate.execute(status -> {
+            if (config.getSweeperMode() == JShortProperties.Expiration.Modo.ARCHIVE) {
+                jdbcTemplate.batchUpdate(SQL_ARQUIVAR, arquivamentos);
+            }
+            return jdbcTemplate.batchUpdate(SQL_REMOVER, remocoes);
+        });
+        for (int linhas : removidasNoLote) {
+            varredura.removidas += Math.max(linhas, 0);
+            removidas.increment(Math.max(linhas, 0));
+        }
+        // Com o L2 ligado, a remoção chega também ao cache compartilhado e às outras instâncias
+        for (Object[] linha : lote) {
+            urlCache.invalidar((String) linha[2]);
+        }
+
+        Object[] ultima = lote.get(lote.size() - 1);
+        varredura.ultimoId = (String) ultima[0];
+        varredura.ultimaExpiracao = (Timestamp) ultima[1];
+        return lote.size() == config.getSweeperBatchSize();
+    }
+
+    static final class Varredura {
+
+        private final LocalDateTime limite;
+
+        private Timestamp ultimaExpiracao;
+
+        private String ultimoId;
+
+        private int removidas;
+
+        private Varredura(LocalDateTime limite) {
+            this.limite = limite;
+        }
+
+        int removidas() {
+            return removidas;
+        }
+    }
+}
@@ -0,0 +1,137 @@
+package com.JShort.Service;
+
+import com.JShort.Exception.UrlIndisponivelException;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+/**
+ * Junta chamadas concorrentes com a mesma chave: a primeira executa a carga na própria thread e as que
+ * chegam enquanto ela roda esperam o resultado dela (valor, vazio ou exceção) em vez de repetir a consulta.
+ * Nada fica guardado depois: quem chega com a carga já terminada executa uma nova.
+ *
+ * <p>A espera é limitada; passado o limite, a chamada falha com {@link UrlIndisponivelException} (503) em
+ * vez de ir ao banco por conta própria, que é justamente o que o pool não aguenta nessa hora.
+ *
+ * <p>{@link #executarAsync} faz o mesmo sem bloquear, para o runtime reativo: quem chega depois recebe um futuro
+ * que completa junto com o da primeira carga.
+ */
+public class SingleFlight<K, V> {
+
+    private final ConcurrentHashMap<K, CompletableFuture<V>> emAndamento = new ConcurrentHashMap<>();
+
+    private final boolean ativo;
+
+    private final long esperaNanos;
+
+    private final Runnable aoCompartilhar;
+
+    private final Runnable aoEsgotar;
+
+    /**
+     * {@code aoCompartilhar} roda para cada chamada que esperou a de outra thread; {@code aoEsgotar}, para
+     * cada uma que desistiu no limite.
+     */
+    public SingleFlight(boolean ativo, Duration espera, Runnable aoCompartilhar, Runnable aoEsgotar) {
+        this.ativo = ativo;
+        this.esperaNanos = espera.toNanos();
+        this.aoCompartilhar = aoCompartilhar;
+        this.aoEsgotar = aoEsgotar;
+    }
+
+    public V executar(K chave, Supplier<V> carga) {
+        if (!ativo) {
+            return carga.get();
+        }
+        CompletableFuture<V> propria = new CompletableFuture<>();
+        CompletableFuture<V> atual = emAndamento.putIfAbsent(chave, propria);
+        if (atual == null) {
+            try {
+                V valor = carga.get();
+                propria.complete(valor);
+                return valor;
+            } catch (RuntimeException | Error ex) {
+                propria.completeExceptionally(ex);
+                throw ex;
+            } finally {
+                emAndamento.remove(chave, propria);
+            }
+        }
+
+        aoCompartilhar.run();
+        try {
+            return atual.get(esperaNanos, TimeUnit.NANOSECONDS);
+        } catch (ExecutionException ex) {
+            if (ex.getCause() instanceof RuntimeException causa) {
+                throw causa;
+            }
+            if (ex.getCause() instanceof Error causa) {
+                throw causa;
+            }
+            throw new IllegalStateException(ex.getCause());
+        } catch (TimeoutException ex) {
+            aoEsgotar.run();
+            throw new UrlIndisponivelException("Tempo esgotado esperando a mesma operação em andamento");
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new UrlIndisponivelException("Interrompido esperando a mesma operação em andamento");
+        }
+    }
+
+    /**
+     * Como {@link #executar}, com a carga devolvendo um futuro. Cada chamada recebe um futuro próprio: cancelar
+     * o seu (cliente que desconectou) não afeta os outros nem a carga. Passado o limite, quem esperava completa
+     * com {@link UrlIndisponivelException}.
+     */
+    public CompletableFuture<V> executarAsync(K chave, Supplier<CompletableFuture<V>> carga) {
+        if (!ativo) {
+            return carga.get();
+        }
+        CompletableFuture<V> propria = new CompletableFuture<>();
+        CompletableFuture<V> atual = emAndamento.putIfAbsent(chave, propria);
+        if (atual == null) {
+            CompletableFuture<V> resultado;
+            try {
+                resultado = carga.get();
+            } catch (RuntimeException | Error ex) {
+                resultado = CompletableFuture.failedFuture(ex);
+            }
+            resultado.whenComplete((valor, ex) -> {
+                emAndamento.remove(chave, propria);
+                if (ex != null) {
+                    propria.completeExceptionally(ex instanceof CompletionException ? ex.getCause() : ex);
+                } else {
+                    propria.complete(valor);
+                }
+            });
+            return propria.copy();
+        }
+
+        aoCompartilhar.run();
+        CompletableFuture<V> espera = new CompletableFuture<>();
+        atual.copy().orTimeout(esperaNanos, TimeUnit.NANOSECONDS).whenComplete((valor, ex) -> {
+            if (ex == null) {
+                espera.complete(valor);
+                return;
+            }
+            Throwable causa = ex instanceof CompletionException ? ex.getCause() : ex;
+            if (causa instanceof TimeoutException) {
+                aoEsgotar.run();
+                causa = new UrlIndisponivelException("Tempo esgotado esperando a mesma operação em andamento");
+            }
+            espera.completeExceptionally(causa);
+        });
+        return espera;
+    }
+
+    /** Chaves com carga em andamento. */
+    int emAndamento() {
+        return emAndamento.size();
+    }
+}
@@ -0,0 +1,45 @@
+package com.JShort.Service;
+
+import com.google.common.hash.Hashing;
+
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.nio.charset.StandardCharsets;
+import java.util.Locale;
+
+/**
+ * Hash de tamanho fixo da URL original, usado na deduplicação no lugar da coluna de 2048 caracteres.
+ */
+public final class UrlHash {
+
+    private UrlHash() {
+    }
+
+    /**
+     * SHA-256 (64 caracteres hex) da URL normalizada: esquema e host em minúsculas, o resto como veio.
+     */
+    public static String calcular(String originalUrl) {
+        return Hashing.sha256()
+                .hashString(normalizar(originalUrl), StandardCharsets.UTF_8)
+                .toString();
+    }
+
+    static String normalizar(String originalUrl) {
+        try {
+            URI uri = new URI(originalUrl);
+            if (uri.getScheme() == null || uri.getRawAuthority() == null) {
+                return originalUrl;
+            }
+            String autoridade = uri.getRawAuthority();
+            int inicioHost = autoridade.lastIndexOf('@') + 1;
+            autoridade = autoridade.substring(0, inicioHost) + autoridade.substring(inicioHost).toLowerCase(Locale.ROOT);
+
+            // A busca começa depois de "esquema://": um host curto como "t" também aparece dentro de "http"
+            int inicioAutoridade = originalUrl.indexOf(uri.getRawAuthority(), uri.getScheme().length() + 3);
+            String resto = originalUrl.substring(inicioAutoridade + uri.getRawAuthority().length());
+            return uri.getScheme().toLowerCase(Locale.ROOT) + "://" + autoridade + resto;
+        } catch (URISyntaxException ex) {
+            return originalUrl;
+        }
+    }
+}
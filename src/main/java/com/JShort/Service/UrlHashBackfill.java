@@ -0,0 +1,84 @@
+package com.JShort.Service;
+
+import com.JShort.Config.JShortProperties;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Preenche {@code original_url_hash} das linhas gravadas antes da coluna existir.
+ *
+ * <p>Percorre a tabela em lotes paginados por id. Cada linha reivindica o hash em {@code url_hash} e só recebe
+ * o hash se ficou com ele: se duas linhas antigas tiverem a mesma URL, a segunda fica sem hash e continua
+ * funcionando para redirecionamento.
+ */
+@Slf4j
+@Component
+public class UrlHashBackfill implements ApplicationRunner {
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private final JShortProperties.Dedup config;
+
+    public UrlHashBackfill(JdbcTemplate jdbcTemplate, JShortProperties properties) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.config = properties.getDedup();
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        if (config.isBackfillOnStartup()) {
+            preencher();
+        }
+    }
+
+    public int preencher() {
+        int total = 0;
+        String ultimoId = "";
+
+        while (true) {
+            List<Object[]> lote = jdbcTemplate.query(
+                    "SELECT id, short_code, original_url FROM url WHERE original_url_hash IS NULL AND id > ? ORDER BY id LIMIT ?",
+                    (rs, rowNum) -> new Object[]{UrlHash.calcular(rs.getString("original_url")), rs.getString("short_code"),
+                            rs.getString("id")},
+                    ultimoId, config.getBackfillBatchSize());
+            if (lote.isEmpty()) {
+                break;
+            }
+
+            total += gravar(lote);
+            ultimoId = (String) lote.get(lote.size() - 1)[2];
+        }
+
+        if (total > 0) {
+            log.info("original_url_hash preenchido em {} URLs existentes", total);
+        }
+        return total;
+    }
+
+    private int gravar(List<Object[]> lote) {
+        List<Object[]> reivindicacoes = new ArrayList<>(lote.size());
+        List<Object[]> atualizacoes = new ArrayList<>(lote.size());
+        for (Object[] linha : lote) {
+            reivindicacoes.add(new Object[]{linha[0], linha[1]});
+            atualizacoes.add(new Object[]{linha[0], linha[1], linha[0]});
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO url_hash (original_url_hash, short_code) VALUES (?, ?) ON CONFLICT DO NOTHING",
+                reivindicacoes);
+        int gravadas = 0;
+        for (int linhas : jdbcTemplate.batchUpdate("UPDATE url SET original_url_hash = ? WHERE short_code = ? "
+                + "AND EXISTS (SELECT 1 FROM url_hash h WHERE h.original_url_hash = ? AND h.short_code = url.short_code)",
+                atualizacoes)) {
+            gravadas += Math.max(linhas, 0);
+        }
+        if (gravadas < lote.size()) {
+            log.warn("{} URLs duplicam outras já existentes e foram mantidas sem original_url_hash", lote.size() - gravadas);
+        }
+        return gravadas;
+    }
+}
@@ -0,0 +1,191 @@
+package com.JShort.Service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Timers e contadores do encurtamento e do redirecionamento.
+ *
+ * <p>Os timers publicam p50/p99 calculados na instância e o histograma (buckets) para agregar entre
+ * instâncias no Prometheus. As chamadas aos repositórios são medidas pelo próprio Spring Boot em
+ * {@code spring.data.repository.invocations}; junto com {@code jshort.short.code.geracao} dá para separar
+ * o tempo do banco, do gerador e da camada web ({@code http.server.requests}).
+ */
+@Component
+public class UrlMetrics {
+
+    private final Timer encurtamentoSucesso;
+
+    private final Timer encurtamentoErro;
+
+    private final Timer redirecionamentoSucesso;
+
+    private final Timer redirecionamentoErro;
+
+    private final Timer geracaoShortCode;
+
+    private final Counter dedupExistente;
+
+    private final Counter dedupConcorrente;
+
+    private final Counter dedupLote;
+
+    private final Counter colisaoNovaTentativa;
+
+    private final Counter colisaoDesistencia;
+
+    private final Counter naoEncontradaBloom;
+
+    private final Counter naoEncontradaBanco;
+
+    private final Counter expirada;
+
+    private final Counter coalescidaRedirecionamento;
+
+    private final Counter coalescidaEncurtamento;
+
+    private final Counter esgotadaRedirecionamento;
+
+    private final Counter esgotadaEncurtamento;
+
+    public UrlMetrics(MeterRegistry meterRegistry) {
+        this.encurtamentoSucesso = timer("jshort.url.encurtamento", "sucesso", meterRegistry);
+        this.encurtamentoErro = timer("jshort.url.encurtamento", "erro", meterRegistry);
+        this.redirecionamentoSucesso = timer("jshort.url.redirecionamento", "sucesso", meterRegistry);
+        this.redirecionamentoErro = timer("jshort.url.redirecionamento", "erro", meterRegistry);
+        this.geracaoShortCode = Timer.builder("jshort.short.code.geracao")
+                .description("Tempo para gerar um código curto (inclui reserva de bloco da sequence)")
+                .publishPercentiles(0.5, 0.99)
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+
+        this.dedupExistente = dedup("existente", meterRegistry);
+        this.dedupConcorrente = dedup("concorrente", meterRegistry);
+        this.dedupLote = dedup("lote", meterRegistry);
+
+        this.colisaoNovaTentativa = Counter.builder("jshort.short.code.colisoes").tag("desfecho", "nova_tentativa")
+                .description("Códigos curtos que já existiam no banco")
+                .register(meterRegistry);
+        this.colisaoDesistencia = Counter.builder("jshort.short.code.colisoes").tag("desfecho", "desistencia")
+                .description("Códigos curtos que já existiam no banco")
+                .register(meterRegistry);
+
+        this.naoEncontradaBloom = naoEncontrada("bloom", meterRegistry);
+        this.naoEncontradaBanco = naoEncontrada("banco", meterRegistry);
+        this.expirada = Counter.builder("jshort.url.expirada")
+                .description("Redirecionamentos recusados (410) de links expirados")
+                .register(meterRegistry);
+
+        this.coalescidaRedirecionamento = coalescida("redirecionamento", "compartilhada", meterRegistry);
+        this.coalescidaEncurtamento = coalescida("encurtamento", "compartilhada", meterRegistry);
+        this.esgotadaRedirecionamento = coalescida("redirecionamento", "timeout", meterRegistry);
+        this.esgotadaEncurtamento = coalescida("encurtamento", "timeout", meterRegistry);
+    }
+
+    public <T> T medirEncurtamento(Supplier<T> operacao) {
+        return medir(encurtamentoSucesso, encurtamentoErro, operacao);
+    }
+
+    public <T> T medirRedirecionamento(Supplier<T> operacao) {
+        return medir(redirecionamentoSucesso, redirecionamentoErro, operacao);
+    }
+
+    /**
+     * Para quem mede o tempo por conta própria, como o runtime reativo (a operação termina em outra thread).
+     */
+    public void registrarEncurtamento(long nanos, boolean sucesso) {
+        (sucesso ? encurtamentoSucesso : encurtamentoErro).record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    public void registrarRedirecionamento(long nanos, boolean sucesso) {
+        (sucesso ? redirecionamentoSucesso : redirecionamentoErro).record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    public String medirGeracao(Supplier<String> gerador) {
+        return geracaoShortCode.record(gerador);
+    }
+
+    /** URL já encurtada antes, encontrada pelo hash. */
+    public void dedupExistente() {
+        dedupExistente.increment();
+    }
+
+    /** Outra requisição gravou a mesma URL entre a consulta e o INSERT. */
+    public void dedupConcorrente() {
+        dedupConcorrente.increment();
+    }
+
+    /** URLs de um lote resolvidas sem gerar código (repetidas no bloco ou já no banco). */
+    public void dedupLote(int quantidade) {
+        dedupLote.increment(quantidade);
+    }
+
+    public void colisao(boolean desistiu) {
+        (desistiu ? colisaoDesistencia : colisaoNovaTentativa).increment();
+    }
+
+    public void naoEncontrada(boolean descartadaPeloBloom) {
+        (descartadaPeloBloom ? naoEncontradaBloom : naoEncontradaBanco).increment();
+    }
+
+    public void expirada() {
+        expirada.increment();
+    }
+
+    /** Requisição que esperou a mesma busca (ou encurtamento) já em andamento em vez de repetir. */
+    public void coalescida(boolean encurtamento) {
+        (encurtamento ? coalescidaEncurtamento : coalescidaRedirecionamento).increment();
+    }
+
+    /** Requisição que desistiu de esperar a operação em andamento (503). */
+    public void esperaEsgotada(boolean encurtamento) {
+        (encurtamento ? esgotadaEncurtamento : esgotadaRedirecionamento).increment();
+    }
+
+    private static <T> T medir(Timer sucesso, Timer erro, Supplier<T> operacao) {
+        long inicio = System.nanoTime();
+        try {
+            T resultado = operacao.get();
+            sucesso.record(System.nanoTime() - inicio, TimeUnit.NANOSECONDS);
+            return resultado;
+        } catch (RuntimeException ex) {
+            erro.record(System.nanoTime() - inicio, TimeUnit.NANOSECONDS);
+            throw ex;
+        }
+    }
+
+    private static Timer timer(String nome, String resultado, MeterRegistry meterRegistry) {
+        return Timer.builder(nome)
+                .tag("resultado", resultado)
+                .publishPercentiles(0.5, 0.99)
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+    }
+
+    private static Counter dedup(String origem, MeterRegistry meterRegistry) {
+        return Counter.builder("jshort.url.dedup")
+                .tag("origem", origem)
+                .description("Encurtamentos resolvidos com um código já existente")
+                .register(meterRegistry);
+    }
+
+    private static Counter naoEncontrada(String origem, MeterRegistry meterRegistry) {
+        return Counter.builder("jshort.url.nao.encontrada")
+                .tag("origem", origem)
+                .description("Códigos curtos inexistentes, por onde foram descartados")
+                .register(meterRegistry);
+    }
+
+    private static Counter coalescida(String operacao, String desfecho, MeterRegistry meterRegistry) {
+        return Counter.builder("jshort.url.coalescidas")
+                .tag("operacao", operacao)
+                .tag("desfecho", desfecho)
+                .description("Requisições que esperaram a mesma operação em andamento em outra thread")
+                .register(meterRegistry);
+    }
+}
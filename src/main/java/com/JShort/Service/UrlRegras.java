@@ -0,0 +1,82 @@
+package com.JShort.Service;
+
+import com.JShort.Config.JShortProperties;
+import com.JShort.Exception.UrlException;
+import com.JShort.Model.Url;
+import com.JShort.ShortCode.ShortCodeGenerator;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Regras do encurtamento que não dependem de como os dados são acessados, compartilhadas pelo
+ * {@link UrlService} e pelo runtime reativo. O SQL de cada passo está em {@code UrlSql}.
+ */
+public final class UrlRegras {
+
+    /** Tentativas de gerar um código curto livre antes de desistir (geradores com colisão). */
+    public static final int TENTATIVAS_SHORT_CODE = 3;
+
+    private UrlRegras() {
+    }
+
+    public static boolean urlValida(String originalUrl) {
+        return originalUrl != null && !originalUrl.trim().isEmpty() && originalUrl.toLowerCase().startsWith("http");
+    }
+
+    /**
+     * Valida a URL e o TTL pedido, lançando {@link UrlException} se algum for inválido.
+     */
+    public static void validar(String originalUrl, Duration ttl, JShortProperties.Expiration config) {
+        if (!urlValida(originalUrl)) {
+            throw new UrlException("URL inválida");
+        }
+        if (ttl != null && (ttl.isNegative() || ttl.isZero() || ttl.compareTo(config.getMaxTtl()) > 0)) {
+            throw new UrlException("TTL inválido: deve ser positivo e no máximo " + config.getMaxTtl());
+        }
+    }
+
+    /**
+     * Data de expiração de um link criado {@code agora} com {@code ttl} ({@code null} usa o TTL padrão).
+     */
+    public static LocalDateTime expiracao(LocalDateTime agora, Duration ttl, JShortProperties.Expiration config) {
+        return agora.plus(ttl == null ? config.getDefaultTtl() : ttl);
+    }
+
+    /**
+     * Uma URL já encurtada tem a expiração adiada quando expira antes deste instante: se o TTL não foi
+     * informado, só quando já expirou; se foi, quando a expiração pedida vai além da atual.
+     */
+    public static LocalDateTime limiteRenovacao(LocalDateTime agora, Duration ttl, LocalDateTime expiracao) {
+        return ttl == null ? agora : expiracao;
+    }
+
+    /**
+     * Se a URL existente precisa ter a expiração adiada para atender um pedido com este {@code limite}.
+     */
+    public static boolean precisaRenovar(Url existente, LocalDateTime limite) {
+        return existente.getExpirationDate() != null && existente.getExpirationDate().isBefore(limite);
+    }
+
+    /**
+     * URL nova ainda sem código, criada {@code agora}.
+     */
+    public static Url nova(String originalUrl, String hash, LocalDateTime agora, LocalDateTime expiracao) {
+        Url url = new Url();
+        url.setId(UUID.randomUUID().toString());
+        url.setOriginalUrl(originalUrl);
+        url.setOriginalUrlHash(hash);
+        url.setCreationDate(agora);
+        url.setExpirationDate(expiracao);
+        url.setAccessCount(0L);
+        return url;
+    }
+
+    /**
+     * Depois de uma colisão na {@code tentativa}, se é hora de desistir em vez de gerar outro código.
+     */
+    public static boolean desistir(ShortCodeGenerator gerador, int tentativa) {
+        return gerador.livreDeColisao() || tentativa >= TENTATIVAS_SHORT_CODE;
+    }
+}
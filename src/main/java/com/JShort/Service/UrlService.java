@@ -1,67 +1,390 @@
 package com.JShort.Service;
 
+import com.JShort.Cache.DistributedUrlCache;
+import com.JShort.Cache.OffHeapUrlIndex;
+import com.JShort.Cache.ShortCodeBloomFilter;
+import com.JShort.Cache.UrlCache;
+import com.JShort.Config.JShortProperties;
+import com.JShort.Config.ReplicaRoutingDataSource;
+import com.JShort.DTO.UrlLoteResultadoDTO;
 import com.JShort.Exception.UrlException;
+import com.JShort.Exception.UrlExpiradaException;
+import com.JShort.Exception.UrlNaoEncontradaException;
 import com.JShort.Model.Url;
+import com.JShort.Model.UrlResolvida;
 import com.JShort.Repository.UrlRepository;
+import com.JShort.ShortCode.ShortCodeGenerator;
+import com.JShort.WriteBehind.UrlWriteBehind;
 import org.springframework.stereotype.Service;
 
+import java.time.Duration;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
-import java.util.Random;
+import java.util.function.Consumer;
 
 @Service
 public class UrlService {
 
     private final UrlRepository urlRepository;
 
-    private final Random random = new Random();
+    private final UrlCache urlCache;
 
-    public UrlService(UrlRepository urlRepository) {
+    private final DistributedUrlCache distributedCache;
+
+    private final AccessCountAggregator accessCountAggregator;
+
+    private final ShortCodeGenerator shortCodeGenerator;
+
+    private final ShortCodeBloomFilter bloomFilter;
+
+    private final OffHeapUrlIndex offHeapIndex;
+
+    private final UrlWriteBehind writeBehind;
+
+    private final UrlMetrics urlMetrics;
+
+    private final JShortProperties properties;
+
+    private final SingleFlight<String, Optional<UrlResolvida>> buscas;
+
+    private final SingleFlight<String, Url> encurtamentos;
+
+    public UrlService(UrlRepository urlRepository, UrlCache urlCache, DistributedUrlCache distributedCache,
+                      AccessCountAggregator accessCountAggregator, ShortCodeGenerator shortCodeGenerator,
+                      ShortCodeBloomFilter bloomFilter, OffHeapUrlIndex offHeapIndex, UrlWriteBehind writeBehind, UrlMetrics urlMetrics,
+                      JShortProperties properties) {
         this.urlRepository = urlRepository;
+        this.urlCache = urlCache;
+        this.distributedCache = distributedCache;
+        this.accessCountAggregator = accessCountAggregator;
+        this.shortCodeGenerator = shortCodeGenerator;
+        this.bloomFilter = bloomFilter;
+        this.offHeapIndex = offHeapIndex;
+        this.writeBehind = writeBehind;
+        this.urlMetrics = urlMetrics;
+        this.properties = properties;
+
+        JShortProperties.Coalescing coalescing = properties.getCoalescing();
+        this.buscas = new SingleFlight<>(coalescing.isEnabled(), coalescing.getTimeout(),
+                () -> urlMetrics.coalescida(false), () -> urlMetrics.esperaEsgotada(false));
+        this.encurtamentos = new SingleFlight<>(coalescing.isEnabled(), coalescing.getTimeout(),
+                () -> urlMetrics.coalescida(true), () -> urlMetrics.esperaEsgotada(true));
     }
 
     public Url encutadorUrl(String originalUrl) {
-        if (originalUrl == null || originalUrl.trim().isEmpty() || !originalUrl.toLowerCase().startsWith("http")) {
-            throw new UrlException("URL inválida");
+        return encutadorUrl(originalUrl, null);
+    }
+
+    /**
+     * Encurta a URL com validade {@code ttl} ({@code null} usa {@code jshort.expiration.default-ttl}).
+     * Se a URL já foi encurtada, devolve o mesmo código; a expiração dele só é adiada quando o link já
+     * expirou ou quando o {@code ttl} pedido vai além dela. Pedidos simultâneos da mesma URL e validade
+     * fazem uma única consulta e um único INSERT.
+     */
+    public Url encutadorUrl(String originalUrl, Duration ttl) {
+        return urlMetrics.medirEncurtamento(() -> {
+            UrlRegras.validar(originalUrl, ttl, properties.getExpiration());
+            String hash = UrlHash.calcular(originalUrl);
+            return encurtamentos.executar(hash + '|' + ttl, () -> encurtar(originalUrl, hash, ttl));
+        });
+    }
+
+    /**
+     * Com o write-behind ativo, a URL é aceita sem ir ao banco: ganha um código na hora, resolve pela memória
+     * e é gravada em lote depois. A mesma {@code chaveIdempotencia} devolve sempre o mesmo código. Sem o
+     * write-behind, é o mesmo que {@link #encutadorUrl(String, Duration)}.
+     */
+    public Url encutadorUrl(String originalUrl, Duration ttl, String chaveIdempotencia) {
+        if (!writeBehind.ativo()) {
+            return encutadorUrl(originalUrl, ttl);
         }
+        return urlMetrics.medirEncurtamento(() -> {
+            UrlRegras.validar(originalUrl, ttl, properties.getExpiration());
+            if (chaveIdempotencia == null) {
+                return aceitar(originalUrl, ttl);
+            }
+            Url url = writeBehind.porChave(chaveIdempotencia, () -> aceitar(originalUrl, ttl, chaveIdempotencia));
+            if (!url.getOriginalUrl().equals(originalUrl)) {
+                throw new UrlException("Idempotency-Key já usada para outra URL");
+            }
+            return url;
+        });
+    }
+
+    /**
+     * Se os encurtamentos estão sendo aceitos pelo write-behind (gravação no banco depois da resposta).
+     */
+    public boolean escritaAtrasada() {
+        return writeBehind.ativo();
+    }
+
+    private Url aceitar(String originalUrl, Duration ttl) {
+        return aceitar(originalUrl, ttl, null);
+    }
+
+    private Url aceitar(String originalUrl, Duration ttl, String chaveIdempotencia) {
+        LocalDateTime agora = LocalDateTime.now();
 
-        Optional<Url> exist = urlRepository.findByOriginalUrl(originalUrl);
+        Url url = UrlRegras.nova(originalUrl, UrlHash.calcular(originalUrl), agora,
+                UrlRegras.expiracao(agora, ttl, properties.getExpiration()));
+        url.setShortCode(urlMetrics.medirGeracao(shortCodeGenerator::gerarShortCode));
+        bloomFilter.registrar(url.getShortCode());
+
+        if (!writeBehind.aceitar(url, chaveIdempotencia)) {
+            // Fila cheia: grava agora, como no modo síncrono
+            return encurtar(originalUrl, url.getOriginalUrlHash(), ttl);
+        }
+        offHeapIndex.registrar(url.getShortCode(), UrlResolvida.de(url));
+        // Até o lote chegar ao banco, só a memória desta instância conhece o código; o L2 o leva às outras
+        distributedCache.guardar(url.getShortCode(), UrlResolvida.de(url));
+        return url;
+    }
+
+    /**
+     * Encurta uma URL já validada, cujo hash é {@code hash}.
+     */
+    private Url encurtar(String originalUrl, String hash, Duration ttl) {
+        LocalDateTime agora = LocalDateTime.now();
+        LocalDateTime expiracao = UrlRegras.expiracao(agora, ttl, properties.getExpiration());
+        LocalDateTime limiteRenovacao = UrlRegras.limiteRenovacao(agora, ttl, expiracao);
+
+        Optional<Url> exist = urlRepository.findByOriginalUrlHash(hash)
+                .flatMap(existente -> renovar(existente, limiteRenovacao, expiracao));
         if (exist.isPresent()) {
+            urlMetrics.dedupExistente();
             return exist.get();
         }
 
-        String shortCode = gerarShortCode();
+        Url url = UrlRegras.nova(originalUrl, hash, agora, expiracao);
+
+        // INSERT ... ON CONFLICT DO NOTHING: se outra requisição gravou a mesma URL antes, devolve a dela.
+        // Geradores sem colisão acertam na primeira; o aleatório pode bater na PK de short_code.
+        for (int tentativa = 1; ; tentativa++) {
+            url.setShortCode(urlMetrics.medirGeracao(shortCodeGenerator::gerarShortCode));
+            bloomFilter.registrar(url.getShortCode());
+            int inseridas = urlRepository.inserirSeAusente(url.getId(), url.getOriginalUrl(), hash,
+                    url.getShortCode(), url.getCreationDate(), url.getExpirationDate());
+            if (inseridas == 1) {
+                offHeapIndex.registrar(url.getShortCode(), UrlResolvida.de(url));
+                return url;
+            }
+
+            Optional<Url> concorrente = urlRepository.findByOriginalUrlHash(hash)
+                    .flatMap(existente -> renovar(existente, limiteRenovacao, expiracao));
+            if (concorrente.isPresent()) {
+                urlMetrics.dedupConcorrente();
+                return concorrente.get();
+            }
+            boolean desistir = UrlRegras.desistir(shortCodeGenerator, tentativa);
+            urlMetrics.colisao(desistir);
+            if (desistir) {
+                throw new UrlException("Não foi possível gerar um código curto único");
+            }
+        }
+    }
+
+    /**
+     * Encurta as URLs em blocos de {@code jshort.batch.chunk-size}: deduplica dentro do bloco e contra o banco
+     * com uma única consulta, gera os códigos e grava as novas com batch do JDBC. Os resultados de cada bloco
+     * são entregues a {@code saida} na ordem de entrada, então a memória não cresce com o tamanho do lote.
+     */
+    public void encurtarLote(Iterator<String> urls, Consumer<List<UrlLoteResultadoDTO>> saida) {
+        int tamanhoBloco = properties.getBatch().getChunkSize();
+        List<String> bloco = new ArrayList<>(tamanhoBloco);
+
+        while (urls.hasNext()) {
+            bloco.add(urls.next());
+            if (bloco.size() == tamanhoBloco) {
+                saida.accept(encurtarBloco(bloco));
+                bloco.clear();
+            }
+        }
+        if (!bloco.isEmpty()) {
+            saida.accept(encurtarBloco(bloco));
+        }
+    }
+
+    private List<UrlLoteResultadoDTO> encurtarBloco(List<String> bloco) {
+        // hash -> URL, uma vez por URL distinta do bloco
+        Map<String, String> distintas = new LinkedHashMap<>();
+        String[] hashes = new String[bloco.size()];
+        for (int i = 0; i < bloco.size(); i++) {
+            String originalUrl = bloco.get(i);
+            if (UrlRegras.urlValida(originalUrl)) {
+                hashes[i] = UrlHash.calcular(originalUrl);
+                distintas.putIfAbsent(hashes[i], originalUrl);
+            }
+        }
+
+        LocalDateTime agora = LocalDateTime.now();
+        LocalDateTime expiracao = UrlRegras.expiracao(agora, null, properties.getExpiration());
+
+        // Existentes já expiradas são renovadas; as que o sweeper removeu no meio tempo são criadas de novo
+        Map<String, Url> existentes = new HashMap<>();
+        for (Url existente : urlRepository.findByOriginalUrlHashIn(distintas.keySet())) {
+            renovar(existente, agora, expiracao).ifPresent(url -> existentes.put(url.getOriginalUrlHash(), url));
+        }
+
+        List<Url> novas = new ArrayList<>();
+        for (Map.Entry<String, String> entry : distintas.entrySet()) {
+            if (!existentes.containsKey(entry.getKey())) {
+                Url url = UrlRegras.nova(entry.getValue(), entry.getKey(), agora, expiracao);
+                url.setShortCode(urlMetrics.medirGeracao(shortCodeGenerator::gerarShortCode));
+                bloomFilter.registrar(url.getShortCode());
+                novas.add(url);
+            }
+        }
+
+        Map<String, Url> criadas = gravarNovas(novas, existentes);
+        int validas = (int) Arrays.stream(hashes).filter(Objects::nonNull).count();
+        urlMetrics.dedupLote(validas - criadas.size());
+
+        List<UrlLoteResultadoDTO> resultados = new ArrayList<>(bloco.size());
+        for (int i = 0; i < bloco.size(); i++) {
+            String hash = hashes[i];
+            if (hash == null) {
+                resultados.add(UrlLoteResultadoDTO.invalida(bloco.get(i)));
+                continue;
+            }
+            // Só a primeira ocorrência de uma URL nova no bloco conta como criada
+            Url criada = criadas.remove(hash);
+            if (criada != null) {
+                existentes.put(hash, criada);
+                resultados.add(new UrlLoteResultadoDTO(bloco.get(i), criada.getShortCode(), UrlLoteResultadoDTO.Status.CRIADA));
+            } else {
+                resultados.add(new UrlLoteResultadoDTO(bloco.get(i), existentes.get(hash).getShortCode(), UrlLoteResultadoDTO.Status.EXISTENTE));
+            }
+        }
+        return resultados;
+    }
 
-        Url url = new Url();
-        url.setOriginalUrl(originalUrl);
-        url.setShortCode(shortCode);
-        url.setCreationDate(LocalDateTime.now());
-        // Data de expiração: 1 ano a partir de agora
-        url.setExpirationDate(LocalDateTime.now().plusYears(1));
-        url.setAccessCount(0L);
+    /**
+     * Grava as novas URLs com batch do JDBC ({@code inserirLote}). As que não entraram (outra requisição gravou a
+     * mesma URL no meio tempo, ou o código colidiu) passam pelo caminho individual e vão para {@code existentes}.
+     */
+    private Map<String, Url> gravarNovas(List<Url> novas, Map<String, Url> existentes) {
+        Map<String, Url> criadas = new LinkedHashMap<>();
+        if (novas.isEmpty()) {
+            return criadas;
+        }
+        for (Url url : urlRepository.inserirLote(novas, false)) {
+            criadas.put(url.getOriginalUrlHash(), url);
+            offHeapIndex.registrar(url.getShortCode(), UrlResolvida.de(url));
+        }
+        for (Url url : novas) {
+            if (!criadas.containsKey(url.getOriginalUrlHash())) {
+                existentes.put(url.getOriginalUrlHash(), encurtar(url.getOriginalUrl(), url.getOriginalUrlHash(), null));
+            }
+        }
+        return criadas;
+    }
 
-        return urlRepository.save(url);
+    /**
+     * Adia para {@code expiracao} a validade de uma URL existente que expira antes de {@code limite}.
+     * Vazio se a linha foi removida pelo sweeper entre a consulta e o UPDATE.
+     */
+    private Optional<Url> renovar(Url existente, LocalDateTime limite, LocalDateTime expiracao) {
+        if (!UrlRegras.precisaRenovar(existente, limite)) {
+            return Optional.of(existente);
+        }
+        if (urlRepository.estenderExpiracao(existente.getId(), expiracao) == 1) {
+            existente.setExpirationDate(expiracao);
+            urlCache.invalidar(existente.getShortCode());
+            offHeapIndex.registrar(existente.getShortCode(), UrlResolvida.de(existente));
+            return Optional.of(existente);
+        }
+        // Outra requisição adiou mais ainda, ou a linha não existe mais
+        return urlRepository.findById(existente.getId());
     }
 
     public String BuscarUrlOriginal(String shortCode) {
-        Url url = urlRepository.findByShortCode(shortCode)
-                .orElseThrow(()  -> new UrlException("URL não encontrada"));
+        return buscarRedirecionamento(shortCode).originalUrl();
+    }
 
-        // Incrementar o contador de acesso
-        url.setAccessCount(url.getAccessCount() + 1);
-        urlRepository.save(url);
+    /**
+     * Resolve o código (cache local, índice fora do heap, bloom filter, cache compartilhado, depois banco) e registra o acesso. Lança
+     * {@link UrlNaoEncontradaException} se o código não existir e {@link UrlExpiradaException} se o link expirou.
+     */
+    public UrlResolvida buscarRedirecionamento(String shortCode) {
+        return urlMetrics.medirRedirecionamento(() -> resolver(shortCode));
+    }
 
-        return url.getOriginalUrl();
+    private UrlResolvida resolver(String shortCode) {
+        try {
+            return resolverValida(shortCode);
+        } catch (UrlExpiradaException ex) {
+            urlMetrics.expirada();
+            throw ex;
+        }
     }
 
-    private String gerarShortCode(){
-        String chars = "abcdefghijklmnopqrstuvwxyzABCDEFGHIJKLMNOPQRSTUVWXYZ0123456789";
-        StringBuilder sb = new StringBuilder();
+    private UrlResolvida resolverValida(String shortCode) {
+        UrlResolvida url = urlCache.buscar(shortCode).orElseGet(() -> {
+            UrlResolvida pendente = writeBehind.pendente(shortCode);
+            if (pendente != null) {
+                return pendente;
+            }
+            // O que o índice resolve não passa pelo cache: não cria objeto por entrada no heap. Expirado no
+            // índice é confirmado no banco, porque outra instância pode ter renovado o link
+            UrlResolvida indexada = offHeapIndex.buscar(shortCode);
+            if (indexada != null && !indexada.expirada(LocalDateTime.now())) {
+                return indexada;
+            }
+            if (!bloomFilter.podeExistir(shortCode)) {
+                urlMetrics.naoEncontrada(true);
+                throw new UrlNaoEncontradaException(shortCode, false);
+            }
+            // Um código que acabou de viralizar chega em milhares de requisições antes de estar no cache:
+            // uma só vai ao L2/banco e as outras esperam o resultado dela, inclusive o "não existe"
+            // Com o write-behind, o código pode ter sido aceito por outra instância e ainda não estar no banco
+            return buscas.executar(shortCode, () -> buscarForaDoCache(shortCode))
+                    .orElseThrow(() -> {
+                        urlMetrics.naoEncontrada(false);
+                        return new UrlNaoEncontradaException(shortCode, !properties.getWriteBehind().isEnabled());
+                    });
+        });
 
-        for (int i = 0; i < 6; i++) {
-            sb.append(chars.charAt(random.nextInt(chars.length())));
+        // O contador é gravado em lote pelo AccessCountAggregator, fora da requisição
+        accessCountAggregator.registrarAcesso(shortCode);
+
+        return url;
+    }
+
+    /**
+     * Busca o código no cache compartilhado e depois no banco, guardando o que encontrar nos caches. Lança
+     * {@link UrlExpiradaException} se o link expirou.
+     */
+    private Optional<UrlResolvida> buscarForaDoCache(String shortCode) {
+        UrlResolvida compartilhada = distributedCache.buscar(shortCode);
+        if (compartilhada != null) {
+            return Optional.of(urlCache.guardar(shortCode, compartilhada));
         }
+        return carregar(shortCode).map(url -> {
+            // Códigos gravados por outras instâncias entram no índice na primeira leitura
+            offHeapIndex.registrar(shortCode, url);
+            distributedCache.guardar(shortCode, url);
+            return urlCache.guardar(shortCode, url);
+        });
+    }
 
-        return sb.toString();
+    /**
+     * Busca o código no banco (na réplica, se configurada) pelo caminho enxuto, sem carregar a entidade. Como
+     * a réplica pode estar atrasada, uma resposta "não existe" ou "expirada" dela é confirmada no primário: um
+     * código recém-criado ou recém-renovado resolve na hora, em qualquer instância.
+     */
+    private Optional<UrlResolvida> carregar(String shortCode) {
+        Optional<UrlResolvida> url = urlRepository.buscarResolvida(shortCode);
+        if (properties.getReplicas().isEnabled() && url.map(u -> u.expirada(LocalDateTime.now())).orElse(true)) {
+            return ReplicaRoutingDataSource.noPrimario(() -> urlRepository.buscarResolvida(shortCode));
+        }
+        return url;
     }
 }
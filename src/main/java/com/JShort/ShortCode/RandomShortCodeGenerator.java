@@ -0,0 +1,32 @@
+package com.JShort.ShortCode;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Gera 6 caracteres aleatórios. Pode colidir; o {@code UrlService} tenta novamente nesse caso.
+ */
+@Component
+@ConditionalOnProperty(name = "jshort.short-code.strategy", havingValue = "random")
+public class RandomShortCodeGenerator implements ShortCodeGenerator {
+
+    private static final int TAMANHO = 6;
+
+    @Override
+    public String gerarShortCode() {
+        // ThreadLocalRandom evita a disputa de um Random compartilhado entre as threads
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        char[] codigo = new char[TAMANHO];
+        for (int i = 0; i < TAMANHO; i++) {
+            codigo[i] = ALFABETO.charAt(random.nextInt(ALFABETO.length()));
+        }
+        return new String(codigo);
+    }
+
+    @Override
+    public boolean livreDeColisao() {
+        return false;
+    }
+}
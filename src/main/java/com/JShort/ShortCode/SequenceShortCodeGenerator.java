@@ -0,0 +1,153 @@
+package com.JShort.ShortCode;
+
+import com.JShort.Config.JShortProperties;
+import org.hashids.Hashids;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Gera códigos a partir de uma sequence do banco, reservando blocos de ids por vez.
+ *
+ * <p>Cada {@code nextval} devolve o fim de um bloco exclusivo {@code (v - increment, v]}, então várias
+ * instâncias geram códigos ao mesmo tempo sem se coordenar e sem colidir. Dentro do bloco os ids saem de
+ * um {@link AtomicLong}; o banco só é consultado uma vez a cada {@code increment} códigos. O id vira texto
+ * com Hashids, que é injetivo para um salt fixo e não deixa a sequência óbvia para quem vê os códigos.
+ */
+@Component
+@ConditionalOnProperty(name = "jshort.short-code.strategy", havingValue = "sequence", matchIfMissing = true)
+public class SequenceShortCodeGenerator implements ShortCodeGenerator {
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private final JShortProperties.ShortCode config;
+
+    private final Hashids hashids;
+
+    private volatile Bloco bloco = new Bloco(1, 0);
+
+    // ReentrantLock em vez de synchronized: não prende a carrier thread durante o nextval com virtual threads
+    private final ReentrantLock reservando = new ReentrantLock();
+
+    private long incremento;
+
+    // Maior id já reservado da sequence por esta instância (ou adiantado pela importação)
+    private volatile long reservadoAte;
+
+    public SequenceShortCodeGenerator(JdbcTemplate jdbcTemplate, JShortProperties properties) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.config = properties.getShortCode();
+        this.hashids = new Hashids(config.getSalt(), config.getMinLength(), ALFABETO);
+    }
+
+    @Override
+    public String gerarShortCode() {
+        return hashids.encode(proximoId());
+    }
+
+    @Override
+    public boolean livreDeColisao() {
+        return true;
+    }
+
+    /**
+     * Códigos importados gerados com o mesmo salt decodificam para ids da sequence; se algum passa do que já
+     * foi reservado, a sequence é adiantada para depois dele e o bloco atual é descartado; se cai na parte ainda
+     * não entregue do bloco atual, o bloco continua depois dele. Blocos já reservados por outras instâncias não
+     * são afetados: importe antes de abrir o encurtamento.
+     */
+    @Override
+    public void reservarImportados(Collection<String> codigos) {
+        long maior = 0;
+        for (String codigo : codigos) {
+            maior = Math.max(maior, decodificar(codigo));
+        }
+        if (maior <= reservadoAte) {
+            // Já reservado, mas pode estar na parte ainda não entregue do bloco atual: ela pula para depois dele
+            bloco.proximo.accumulateAndGet(maior + 1, Math::max);
+            return;
+        }
+        reservando.lock();
+        try {
+            if (incremento == 0) {
+                incremento = lerIncremento();
+            }
+            Long atual = jdbcTemplate.queryForObject("SELECT nextval('" + config.getSequenceName() + "')", Long.class);
+            if (atual - incremento < maior) {
+                // O próximo nextval devolve o fim de um bloco que começa depois do maior id importado
+                long reinicio = (maior / incremento + 2) * incremento;
+                jdbcTemplate.execute("ALTER SEQUENCE " + config.getSequenceName() + " RESTART WITH " + reinicio);
+                reservadoAte = reinicio - incremento;
+            } else {
+                reservadoAte = Math.max(reservadoAte, atual - incremento);
+            }
+            bloco = new Bloco(1, 0);
+        } finally {
+            reservando.unlock();
+        }
+    }
+
+    private long decodificar(String codigo) {
+        try {
+            long[] ids = hashids.decode(codigo);
+            return ids.length == 1 && hashids.encode(ids[0]).equals(codigo) ? ids[0] : 0;
+        } catch (RuntimeException ex) {
+            return 0; // código de outro formato, não colide com os gerados aqui
+        }
+    }
+
+    long proximoId() {
+        while (true) {
+            Bloco atual = bloco;
+            long id = atual.proximo.getAndIncrement();
+            if (id <= atual.fim) {
+                return id;
+            }
+            reservarBloco(atual);
+        }
+    }
+
+    private void reservarBloco(Bloco esgotado) {
+        reservando.lock();
+        try {
+            if (bloco != esgotado) {
+                return; // outra thread já reservou
+            }
+            if (incremento == 0) {
+                incremento = lerIncremento();
+            }
+            Long fim = jdbcTemplate.queryForObject("SELECT nextval('" + config.getSequenceName() + "')", Long.class);
+            bloco = new Bloco(fim - incremento + 1, fim);
+            reservadoAte = Math.max(reservadoAte, fim);
+        } finally {
+            reservando.unlock();
+        }
+    }
+
+    /**
+     * O tamanho do bloco vem da própria sequence, para que instâncias com configurações diferentes
+     * nunca reservem faixas sobrepostas.
+     */
+    private long lerIncremento() {
+        String incremento = jdbcTemplate.queryForObject(
+                "SELECT CAST(increment AS VARCHAR(20)) FROM information_schema.sequences WHERE UPPER(sequence_name) = UPPER(?)",
+                String.class, config.getSequenceName());
+        return Long.parseLong(incremento);
+    }
+
+    private static final class Bloco {
+
+        private final AtomicLong proximo;
+
+        private final long fim;
+
+        private Bloco(long inicio, long fim) {
+            this.proximo = new AtomicLong(inicio);
+            this.fim = fim;
+        }
+    }
+}
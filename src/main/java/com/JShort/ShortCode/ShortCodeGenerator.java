@@ -0,0 +1,27 @@
+package com.JShort.ShortCode;
+
+import java.util.Collection;
+
+/**
+ * Estratégia de geração de códigos curtos. A implementação ativa é escolhida por
+ * {@code jshort.short-code.strategy}.
+ */
+public interface ShortCodeGenerator {
+
+    String ALFABETO = "abcdefghijklmnopqrstuvwxyzABCDEFGHIJKLMNOPQRSTUVWXYZ0123456789";
+
+    String gerarShortCode();
+
+    /**
+     * Indica se a estratégia garante códigos únicos sem consultar a tabela {@code url}.
+     * Quando {@code false}, quem grava deve tratar a violação da unique de {@code short_code}.
+     */
+    boolean livreDeColisao();
+
+    /**
+     * Chamado pela importação a cada lote de códigos gravados, para que a estratégia não gere depois um código
+     * igual a um importado.
+     */
+    default void reservarImportados(Collection<String> codigos) {
+    }
+}
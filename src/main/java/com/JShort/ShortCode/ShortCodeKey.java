@@ -0,0 +1,51 @@
+package com.JShort.ShortCode;
+
+/**
+ * Codifica um código curto num {@code long}, para índices com chave primitiva.
+ *
+ * <p>Cada caractere do {@link ShortCodeGenerator#ALFABETO} vira um dígito de 1 a 62 numa base 63 (o zero
+ * fica de fora, então {@code "a"} e {@code "aa"} não colidem). Cabem até 10 caracteres, já que
+ * 63^10 &lt; 2^63; os 6 caracteres de hoje usam só uma fração disso. A codificação é injetiva e nunca
+ * devolve 0, que fica livre para marcar posição vazia.
+ */
+public final class ShortCodeKey {
+
+    /** Devolvido para códigos que não cabem num {@code long}. */
+    public static final long INVALIDA = 0L;
+
+    public static final int TAMANHO_MAXIMO = 10;
+
+    private static final int BASE = ShortCodeGenerator.ALFABETO.length() + 1;
+
+    private static final byte[] DIGITOS = new byte[128];
+
+    static {
+        for (int i = 0; i < ShortCodeGenerator.ALFABETO.length(); i++) {
+            DIGITOS[ShortCodeGenerator.ALFABETO.charAt(i)] = (byte) (i + 1);
+        }
+    }
+
+    private ShortCodeKey() {
+    }
+
+    /**
+     * Chave do código, ou {@link #INVALIDA} se ele for vazio, maior que {@link #TAMANHO_MAXIMO} ou tiver
+     * caracteres fora do alfabeto.
+     */
+    public static long codificar(String shortCode) {
+        int tamanho = shortCode.length();
+        if (tamanho == 0 || tamanho > TAMANHO_MAXIMO) {
+            return INVALIDA;
+        }
+        long chave = 0;
+        for (int i = 0; i < tamanho; i++) {
+            char c = shortCode.charAt(i);
+            int digito = c < DIGITOS.length ? DIGITOS[c] : 0;
+            if (digito == 0) {
+                return INVALIDA;
+            }
+            chave = chave * BASE + digito;
+        }
+        return chave;
+    }
+}
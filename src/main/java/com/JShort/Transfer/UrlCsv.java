@@ -0,0 +1,93 @@
+package com.JShort.Transfer;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * CSV no formato da RFC 4180: campos com vírgula, aspas ou quebra de linha vão entre aspas, com as aspas
+ * internas dobradas. Campo vazio é {@code null}.
+ */
+final class UrlCsv {
+
+    private UrlCsv() {
+    }
+
+    static void escrever(Writer saida, List<String> campos) throws IOException {
+        for (int i = 0; i < campos.size(); i++) {
+            if (i > 0) {
+                saida.write(',');
+            }
+            String campo = campos.get(i);
+            if (campo == null) {
+                continue;
+            }
+            if (campo.indexOf(',') < 0 && campo.indexOf('"') < 0 && campo.indexOf('\n') < 0 && campo.indexOf('\r') < 0) {
+                saida.write(campo);
+            } else {
+                saida.write('"');
+                saida.write(campo.replace("\"", "\"\""));
+                saida.write('"');
+            }
+        }
+        saida.write('\n');
+    }
+
+    /**
+     * Próximo registro, ou {@code null} no fim da entrada. Um campo entre aspas pode ocupar várias linhas.
+     */
+    static List<String> ler(BufferedReader entrada) throws IOException {
+        String linha = entrada.readLine();
+        if (linha == null) {
+            return null;
+        }
+        List<String> campos = new ArrayList<>();
+        StringBuilder campo = new StringBuilder();
+        boolean entreAspas = false;
+        boolean citado = false;
+        int i = 0;
+        while (true) {
+            if (i == linha.length()) {
+                if (!entreAspas) {
+                    break;
+                }
+                String continuacao = entrada.readLine();
+                if (continuacao == null) {
+                    break; // aspas sem fechar no fim do arquivo: fica com o que foi lido
+                }
+                campo.append('\n');
+                linha = continuacao;
+                i = 0;
+                continue;
+            }
+            char c = linha.charAt(i++);
+            if (entreAspas) {
+                if (c != '"') {
+                    campo.append(c);
+                } else if (i < linha.length() && linha.charAt(i) == '"') {
+                    campo.append('"');
+                    i++;
+                } else {
+                    entreAspas = false;
+                }
+            } else if (c == '"') {
+                entreAspas = true;
+                citado = true;
+            } else if (c == ',') {
+                campos.add(valor(campo, citado));
+                campo.setLength(0);
+                citado = false;
+            } else {
+                campo.append(c);
+            }
+        }
+        campos.add(valor(campo, citado));
+        return campos;
+    }
+
+    private static String valor(StringBuilder campo, boolean citado) {
+        return campo.length() == 0 && !citado ? null : campo.toString();
+    }
+}
@@ -0,0 +1,166 @@
+package com.JShort.Transfer;
+
+import com.JShort.Config.JShortProperties;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Exporta a tabela {@code url} inteira em CSV ou NDJSON, opcionalmente com gzip, em memória constante.
+ *
+ * <p>A leitura é um cursor no servidor ({@code fetch-size} linhas por ida ao banco, dentro de uma transação
+ * somente leitura, que o driver do PostgreSQL exige para o cursor e que vai para uma réplica quando
+ * configurada) e cada linha é escrita na saída assim que chega: nada da tabela fica acumulado no heap.
+ */
+@Slf4j
+@Component
+public class UrlExporter {
+
+    // Colunas na ordem de UrlTransferFormat.COLUNAS; access_count vem de url_access_count (só códigos já clicados têm linha)
+    private static final String SQL = "SELECT u.id, u.original_url, u.original_url_hash, u.short_code, u.creation_date, "
+            + "u.expiration_date, COALESCE(c.access_count, 0) FROM url u "
+            + "LEFT JOIN url_access_count c ON c.short_code = u.short_code";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private final TransactionTemplate leitura;
+
+    private final ObjectMapper objectMapper;
+
+    private final JShortProperties.Transfer config;
+
+    public UrlExporter(JdbcTemplate jdbcTemplate, TransactionTemplate transactionTemplate, ObjectMapper objectMapper,
+                       JShortProperties properties) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.leitura = new TransactionTemplate(transactionTemplate.getTransactionManager());
+        this.leitura.setReadOnly(true);
+        this.objectMapper = objectMapper;
+        this.config = properties.getTransfer();
+    }
+
+    /**
+     * Escreve todas as linhas em {@code saida} (que continua aberta) e devolve quantas foram exportadas.
+     */
+    public long exportar(OutputStream saida, UrlTransferFormat formato, boolean gzip) throws IOException {
+        long inicio = System.nanoTime();
+        GZIPOutputStream compactada = gzip ? new GZIPOutputStream(saida, 1 << 16) : null;
+        Writer writer = new BufferedWriter(new OutputStreamWriter(compactada != null ? compactada : saida,
+                StandardCharsets.UTF_8), 1 << 16);
+        Escritor escritor = formato == UrlTransferFormat.CSV ? new EscritorCsv(writer) : new EscritorNdjson(writer);
+
+        long[] linhas = new long[1];
+        try {
+            leitura.executeWithoutResult(status -> jdbcTemplate.query(conexao -> {
+                var statement = conexao.prepareStatement(SQL);
+                statement.setFetchSize(config.getFetchSize());
+                return statement;
+            }, rs -> {
+                try {
+                    escritor.escrever(rs);
+                    linhas[0]++;
+                } catch (IOException ex) {
+                    throw new UncheckedIOException(ex);
+                }
+            }));
+        } catch (UncheckedIOException ex) {
+            throw ex.getCause();
+        }
+
+        escritor.finalizar();
+        writer.flush();
+        if (compactada != null) {
+            compactada.finish();
+        }
+        log.info("Exportação de {} URLs em {} concluída em {} ms", linhas[0], formato,
+                (System.nanoTime() - inicio) / 1_000_000);
+        return linhas[0];
+    }
+
+    private static String texto(Timestamp valor) {
+        return valor == null ? null : valor.toLocalDateTime().toString();
+    }
+
+    private interface Escritor {
+
+        void escrever(ResultSet rs) throws SQLException, IOException;
+
+        default void finalizar() throws IOException {
+        }
+    }
+
+    private static final class EscritorCsv implements Escritor {
+
+        private final Writer writer;
+
+        private final List<String> campos = new ArrayList<>(UrlTransferFormat.COLUNAS.size());
+
+        private EscritorCsv(Writer writer) throws IOException {
+            this.writer = writer;
+            UrlCsv.escrever(writer, UrlTransferFormat.COLUNAS);
+        }
+
+        @Override
+        public void escrever(ResultSet rs) throws SQLException, IOException {
+            campos.clear();
+            campos.add(rs.getString(1));
+            campos.add(rs.getString(2));
+            campos.add(rs.getString(3));
+            campos.add(rs.getString(4));
+            campos.add(texto(rs.getTimestamp(5)));
+            campos.add(texto(rs.getTimestamp(6)));
+            campos.add(rs.getString(7));
+            UrlCsv.escrever(writer, campos);
+        }
+    }
+
+    private final class EscritorNdjson implements Escritor {
+
+        private final JsonGenerator generator;
+
+        private EscritorNdjson(Writer writer) throws IOException {
+            this.generator = objectMapper.getFactory().createGenerator(writer);
+            this.generator.setRootValueSeparator(null);
+        }
+
+        @Override
+        public void escrever(ResultSet rs) throws SQLException, IOException {
+            generator.writeStartObject();
+            generator.writeStringField("id", rs.getString(1));
+            generator.writeStringField("original_url", rs.getString(2));
+            generator.writeStringField("original_url_hash", rs.getString(3));
+            generator.writeStringField("short_code", rs.getString(4));
+            generator.writeStringField("creation_date", texto(rs.getTimestamp(5)));
+            generator.writeStringField("expiration_date", texto(rs.getTimestamp(6)));
+            long acessos = rs.getLong(7);
+            if (rs.wasNull()) {
+                generator.writeNullField("access_count");
+            } else {
+                generator.writeNumberField("access_count", acessos);
+            }
+            generator.writeEndObject();
+            generator.writeRaw('\n');
+        }
+
+        @Override
+        public void finalizar() throws IOException {
+            generator.flush();
+        }
+    }
+}
@@ -0,0 +1,276 @@
+package com.JShort.Transfer;
+
+import com.JShort.Cache.ShortCodeBloomFilter;
+import com.JShort.Config.JShortProperties;
+import com.JShort.DTO.UrlImportacaoDTO;
+import com.JShort.Model.Url;
+import com.JShort.Repository.UrlInsercao;
+import com.JShort.Repository.UrlInsercaoImpl;
+import com.JShort.Service.UrlHash;
+import com.JShort.Service.UrlRegras;
+import com.JShort.ShortCode.ShortCodeGenerator;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Importa para a tabela {@code url} o que o {@link UrlExporter} gera (CSV ou NDJSON, gzip detectado pela
+ * assinatura), em lotes de {@code jshort.transfer.batch-size} e memória constante.
+ *
+ * <p>Cada lote verifica de uma vez quais códigos já existem ({@code short_code IN (...)}) e grava os demais
+ * em batch pelo {@link UrlInsercao}, que também descarta as URLs que já têm outro código e cobre as
+ * gravações concorrentes; o {@code access_count} vai para {@code url_access_count}. O hash é sempre recalculado com {@link UrlHash}, para a deduplicação continuar
+ * valendo para as URLs importadas. Os códigos entram no bloom filter antes do INSERT, como no encurtamento,
+ * e o gerador é avisado para não gerar depois um código igual a um importado. Linhas inválidas são
+ * contadas e puladas sem interromper a importação.
+ */
+@Slf4j
+@Component
+public class UrlImporter {
+
+    private static final String SQL_EXISTENTES = "SELECT short_code FROM url WHERE short_code IN (:codigos)";
+
+    private static final int TAMANHO_MAXIMO_CODIGO = 255;
+
+    private final UrlInsercao insercao;
+
+    private final NamedParameterJdbcTemplate namedJdbcTemplate;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private final ShortCodeBloomFilter bloomFilter;
+
+    private final ShortCodeGenerator shortCodeGenerator;
+
+    private final ObjectMapper objectMapper;
+
+    private final JShortProperties.Transfer config;
+
+    public UrlImporter(JdbcTemplate jdbcTemplate, TransactionTemplate transactionTemplate, ShortCodeBloomFilter bloomFilter,
+                       ShortCodeGenerator shortCodeGenerator, ObjectMapper objectMapper, JShortProperties properties) {
+        this.insercao = new UrlInsercaoImpl(jdbcTemplate);
+        this.namedJdbcTemplate = new NamedParameterJdbcTemplate(jdbcTemplate);
+        this.transactionTemplate = transactionTemplate;
+        this.bloomFilter = bloomFilter;
+        this.shortCodeGenerator = shortCodeGenerator;
+        this.objectMapper = objectMapper;
+        this.config = properties.getTransfer();
+    }
+
+    public UrlImportacaoDTO importar(InputStream entrada, UrlTransferFormat formato) throws IOException {
+        long inicio = System.nanoTime();
+        BufferedReader leitor = new BufferedReader(
+                new InputStreamReader(UrlTransferFormat.descompactar(entrada), StandardCharsets.UTF_8), 1 << 16);
+        Leitor linhas = formato == UrlTransferFormat.CSV ? new LeitorCsv(leitor) : new LeitorNdjson(leitor);
+
+        Contagem contagem = new Contagem();
+        List<Url> lote = new ArrayList<>(config.getBatchSize());
+        Map<String, String> linha;
+        while ((linha = linhas.proxima()) != null) {
+            Url url = converter(linha);
+            if (url == null) {
+                contagem.invalidas++;
+                continue;
+            }
+            lote.add(url);
+            if (lote.size() == config.getBatchSize()) {
+                gravar(lote, contagem);
+                lote.clear();
+            }
+        }
+        if (!lote.isEmpty()) {
+            gravar(lote, contagem);
+        }
+        contagem.invalidas += linhas.invalidas();
+
+        log.info("Importação em {} concluída em {} ms: {} importadas, {} existentes, {} inválidas", formato,
+                (System.nanoTime() - inicio) / 1_000_000, contagem.importadas, contagem.existentes, contagem.invalidas);
+        return new UrlImportacaoDTO(contagem.importadas, contagem.existentes, contagem.invalidas);
+    }
+
+    private void gravar(List<Url> lote, Contagem contagem) {
+        Set<String> codigos = new HashSet<>();
+        for (Url url : lote) {
+            codigos.add(url.getShortCode());
+        }
+        Set<String> existentes = new HashSet<>(namedJdbcTemplate.queryForList(SQL_EXISTENTES,
+                new MapSqlParameterSource("codigos", codigos), String.class));
+
+        List<Url> novas = new ArrayList<>(lote.size());
+        List<String> codigosNovos = new ArrayList<>(lote.size());
+        for (Url url : lote) {
+            String codigo = url.getShortCode();
+            // Códigos repetidos dentro do lote: só o primeiro segue
+            if (existentes.add(codigo)) {
+                bloomFilter.registrar(codigo);
+                novas.add(url);
+                codigosNovos.add(codigo);
+            } else {
+                contagem.existentes++;
+            }
+        }
+        if (novas.isEmpty()) {
+            return;
+        }
+
+        int importadas = transactionTemplate.execute(status -> insercao.inserirLote(novas, false).size());
+        contagem.importadas += importadas;
+        contagem.existentes += novas.size() - importadas;
+        shortCodeGenerator.reservarImportados(codigosNovos);
+    }
+
+    /**
+     * URL a gravar, ou {@code null} se a linha for inválida.
+     */
+    private static Url converter(Map<String, String> linha) {
+        String originalUrl = linha.get("original_url");
+        String shortCode = linha.get("short_code");
+        if (!UrlRegras.urlValida(originalUrl) || shortCode == null || shortCode.isBlank()
+                || shortCode.length() > TAMANHO_MAXIMO_CODIGO || shortCode.indexOf('/') >= 0) {
+            return null;
+        }
+        try {
+            String id = linha.get("id");
+            LocalDateTime criacao = data(linha.get("creation_date"));
+            String acessos = linha.get("access_count");
+            return new Url(
+                    id == null || id.isBlank() ? UUID.randomUUID().toString() : id,
+                    originalUrl,
+                    UrlHash.calcular(originalUrl),
+                    shortCode,
+                    criacao == null ? LocalDateTime.now() : criacao,
+                    data(linha.get("expiration_date")),
+                    acessos == null || acessos.isBlank() ? 0L : Long.parseLong(acessos.trim()));
+        } catch (DateTimeParseException | NumberFormatException ex) {
+            return null;
+        }
+    }
+
+    private static LocalDateTime data(String valor) {
+        return valor == null || valor.isBlank() ? null : LocalDateTime.parse(valor.trim());
+    }
+
+    private static final class Contagem {
+
+        private long importadas;
+
+        private long existentes;
+
+        private long invalidas;
+    }
+
+    private interface Leitor {
+
+        /**
+         * Próxima linha como coluna -> valor, ou {@code null} no fim da entrada.
+         */
+        Map<String, String> proxima() throws IOException;
+
+        /**
+         * Linhas que nem chegaram a virar colunas (JSON malformado, CSV com colunas a mais ou a menos).
+         */
+        long invalidas();
+    }
+
+    private static final class LeitorCsv implements Leitor {
+
+        private final BufferedReader entrada;
+
+        private final List<String> cabecalho;
+
+        private long invalidas;
+
+        private LeitorCsv(BufferedReader entrada) throws IOException {
+            this.entrada = entrada;
+            List<String> cabecalho = UrlCsv.ler(entrada);
+            this.cabecalho = cabecalho == null ? List.of() : cabecalho;
+        }
+
+        @Override
+        public Map<String, String> proxima() throws IOException {
+            List<String> campos;
+            while ((campos = UrlCsv.ler(entrada)) != null) {
+                if (campos.size() == 1 && campos.get(0) == null) {
+                    continue; // linha em branco
+                }
+                if (campos.size() != cabecalho.size()) {
+                    invalidas++;
+                    continue;
+                }
+                Map<String, String> linha = new HashMap<>();
+                for (int i = 0; i < campos.size(); i++) {
+                    linha.put(cabecalho.get(i), campos.get(i));
+                }
+                return linha;
+            }
+            return null;
+        }
+
+        @Override
+        public long invalidas() {
+            return invalidas;
+        }
+    }
+
+    private final class LeitorNdjson implements Leitor {
+
+        private final BufferedReader entrada;
+
+        private long invalidas;
+
+        private LeitorNdjson(BufferedReader entrada) {
+            this.entrada = entrada;
+        }
+
+        @Override
+        public Map<String, String> proxima() throws IOException {
+            String texto;
+            while ((texto = entrada.readLine()) != null) {
+                if (texto.isBlank()) {
+                    continue;
+                }
+                JsonNode objeto;
+                try {
+                    objeto = objectMapper.readTree(texto);
+                } catch (IOException ex) {
+                    invalidas++;
+                    continue;
+                }
+                if (!objeto.isObject()) {
+                    invalidas++;
+                    continue;
+                }
+                Map<String, String> linha = new HashMap<>();
+                objeto.fields().forEachRemaining(campo ->
+                        linha.put(campo.getKey(), campo.getValue().isNull() ? null : campo.getValue().asText()));
+                return linha;
+            }
+            return null;
+        }
+
+        @Override
+        public long invalidas() {
+            return invalidas;
+        }
+    }
+}
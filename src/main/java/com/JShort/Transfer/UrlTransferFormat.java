@@ -0,0 +1,77 @@
+package com.JShort.Transfer;
+
+import com.JShort.Exception.UrlException;
+
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * Formatos da exportação/importação da tabela {@code url}. Os dois usam os nomes das colunas da tabela:
+ * cabeçalho do CSV e campos de cada objeto do NDJSON.
+ */
+public enum UrlTransferFormat {
+
+    CSV("text/csv", ".csv"),
+    NDJSON("application/x-ndjson", ".ndjson");
+
+    static final List<String> COLUNAS = List.of("id", "original_url", "original_url_hash", "short_code",
+            "creation_date", "expiration_date", "access_count");
+
+    private final String contentType;
+
+    private final String extensao;
+
+    UrlTransferFormat(String contentType, String extensao) {
+        this.contentType = contentType;
+        this.extensao = extensao;
+    }
+
+    public String contentType() {
+        return contentType;
+    }
+
+    public String extensao() {
+        return extensao;
+    }
+
+    public static UrlTransferFormat porNome(String nome) {
+        for (UrlTransferFormat formato : values()) {
+            if (formato.name().equalsIgnoreCase(nome)) {
+                return formato;
+            }
+        }
+        throw new UrlException("Formato desconhecido: " + nome + " (use csv ou ndjson)");
+    }
+
+    /**
+     * Formato pela extensão do arquivo ({@code .csv}, {@code .ndjson} ou {@code .jsonl}, com {@code .gz} opcional).
+     */
+    public static UrlTransferFormat doArquivo(String arquivo) {
+        String nome = arquivo.toLowerCase();
+        if (nome.endsWith(".gz")) {
+            nome = nome.substring(0, nome.length() - 3);
+        }
+        if (nome.endsWith(".csv")) {
+            return CSV;
+        }
+        if (nome.endsWith(".ndjson") || nome.endsWith(".jsonl")) {
+            return NDJSON;
+        }
+        throw new UrlException("Extensão desconhecida: " + arquivo + " (use .csv, .ndjson ou .jsonl, com .gz opcional)");
+    }
+
+    /**
+     * Descompacta a entrada se ela começar com a assinatura do gzip; senão a devolve como está.
+     */
+    static InputStream descompactar(InputStream entrada) throws IOException {
+        BufferedInputStream bufferizada = new BufferedInputStream(entrada, 1 << 16);
+        bufferizada.mark(2);
+        int primeiro = bufferizada.read();
+        int segundo = bufferizada.read();
+        bufferizada.reset();
+        return primeiro == 0x1f && segundo == 0x8b ? new GZIPInputStream(bufferizada, 1 << 16) : bufferizada;
+    }
+}
@@ -0,0 +1,69 @@
+package com.JShort.Transfer;
+
+import com.JShort.DTO.UrlImportacaoDTO;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+
+/**
+ * Modo linha de comando da exportação/importação: com {@code --export=arquivo} ou {@code --import=arquivo},
+ * a aplicação executa a operação e encerra. O formato vem da extensão ({@code .csv}, {@code .ndjson}, com
+ * {@code .gz} para gzip). Para não abrir a porta HTTP, use também {@code --spring.main.web-application-type=none}.
+ */
+@Slf4j
+@Component
+@Order(Ordered.LOWEST_PRECEDENCE)
+public class UrlTransferRunner implements ApplicationRunner {
+
+    private final UrlExporter exporter;
+
+    private final UrlImporter importer;
+
+    private final ConfigurableApplicationContext context;
+
+    public UrlTransferRunner(UrlExporter exporter, UrlImporter importer, ConfigurableApplicationContext context) {
+        this.exporter = exporter;
+        this.importer = importer;
+        this.context = context;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) throws IOException {
+        if (args.containsOption("export")) {
+            exportar(Path.of(args.getOptionValues("export").get(0)));
+        } else if (args.containsOption("import")) {
+            importar(Path.of(args.getOptionValues("import").get(0)));
+        } else {
+            return;
+        }
+        System.exit(SpringApplication.exit(context));
+    }
+
+    void exportar(Path arquivo) throws IOException {
+        String nome = arquivo.getFileName().toString();
+        // Grava num temporário e move no fim: uma exportação interrompida não deixa um arquivo truncado
+        Path temporario = arquivo.resolveSibling(nome + ".tmp");
+        try (OutputStream saida = Files.newOutputStream(temporario)) {
+            exporter.exportar(saida, UrlTransferFormat.doArquivo(nome), nome.toLowerCase().endsWith(".gz"));
+        }
+        Files.move(temporario, arquivo, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    UrlImportacaoDTO importar(Path arquivo) throws IOException {
+        try (InputStream entrada = Files.newInputStream(arquivo)) {
+            return importer.importar(entrada, UrlTransferFormat.doArquivo(arquivo.getFileName().toString()));
+        }
+    }
+}
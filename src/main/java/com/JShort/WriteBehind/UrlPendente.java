@@ -0,0 +1,69 @@
+package com.JShort.WriteBehind;
+
+import com.JShort.Model.Url;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+
+/**
+ * URL aceita pelo write-behind e ainda não gravada no banco, com a chave de idempotência de quem pediu
+ * e o segmento do write-ahead log onde está o registro.
+ */
+record UrlPendente(Url url, String chaveIdempotencia, long segmento) {
+
+    byte[] serializar() {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(256);
+        try (DataOutputStream saida = new DataOutputStream(bytes)) {
+            saida.writeUTF(url.getId());
+            saida.writeUTF(url.getShortCode());
+            saida.writeUTF(url.getOriginalUrl());
+            saida.writeUTF(url.getOriginalUrlHash());
+            escreverData(saida, url.getCreationDate());
+            escreverData(saida, url.getExpirationDate());
+            saida.writeBoolean(chaveIdempotencia != null);
+            if (chaveIdempotencia != null) {
+                saida.writeUTF(chaveIdempotencia);
+            }
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+        return bytes.toByteArray();
+    }
+
+    static UrlPendente desserializar(byte[] dados, long segmento) throws IOException {
+        try (DataInputStream entrada = new DataInputStream(new ByteArrayInputStream(dados))) {
+            Url url = new Url();
+            url.setId(entrada.readUTF());
+            url.setShortCode(entrada.readUTF());
+            url.setOriginalUrl(entrada.readUTF());
+            url.setOriginalUrlHash(entrada.readUTF());
+            url.setCreationDate(lerData(entrada));
+            url.setExpirationDate(lerData(entrada));
+            url.setAccessCount(0L);
+            String chave = entrada.readBoolean() ? entrada.readUTF() : null;
+            return new UrlPendente(url, chave, segmento);
+        }
+    }
+
+    UrlPendente noSegmento(long numero) {
+        return new UrlPendente(url, chaveIdempotencia, numero);
+    }
+
+    private static void escreverData(DataOutputStream saida, LocalDateTime data) throws IOException {
+        saida.writeBoolean(data != null);
+        if (data != null) {
+            saida.writeLong(data.toEpochSecond(ZoneOffset.UTC));
+            saida.writeInt(data.getNano());
+        }
+    }
+
+    private static LocalDateTime lerData(DataInputStream entrada) throws IOException {
+        return entrada.readBoolean() ? LocalDateTime.ofEpochSecond(entrada.readLong(), entrada.readInt(), ZoneOffset.UTC) : null;
+    }
+}
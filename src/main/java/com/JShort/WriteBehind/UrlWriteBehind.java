@@ -0,0 +1,275 @@
+package com.JShort.WriteBehind;
+
+import com.JShort.Cache.ShortCodeBloomFilter;
+import com.JShort.Cache.UrlCache;
+import com.JShort.Config.JShortProperties;
+import com.JShort.Model.Url;
+import com.JShort.Model.UrlResolvida;
+import com.JShort.Repository.UrlInsercao;
+import com.JShort.Repository.UrlInsercaoImpl;
+import com.JShort.ShortCode.ShortCodeGenerator;
+import com.google.common.cache.Cache;
+import com.google.common.base.Throwables;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.util.concurrent.UncheckedExecutionException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+/**
+ * Encurtamento com gravação atrasada ({@code jshort.write-behind.enabled}): a URL é aceita assim que o
+ * registro dela está no {@link WriteAheadLog} local, resolve na hora a partir da memória e vai para o
+ * banco em lotes, fora da requisição.
+ *
+ * <p>A entrega é pelo menos uma vez: o registro só sai do log depois do INSERT, e na inicialização tudo o
+ * que ficou no log é reenfileirado. O INSERT é idempotente pelo código, então repetir um lote já gravado não
+ * duplica nada. O código é entregue antes da gravação e não pode mais mudar, por isso o modo exige um
+ * gerador sem colisão (estratégia {@code sequence}, que já reserva blocos de códigos em memória). A
+ * deduplicação por URL fica de fora: se a mesma URL já existe no banco, a linha nova é gravada sem o hash
+ * e os dois códigos funcionam.
+ *
+ * <p>Com o header {@code Idempotency-Key}, a mesma chave devolve o mesmo código sem consultar o banco,
+ * enquanto ela estiver na memória ({@code idempotency-ttl}) ou no log.
+ */
+@Slf4j
+@Component
+public class UrlWriteBehind implements SmartLifecycle {
+
+    private final UrlInsercao insercao;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private final TaskScheduler taskScheduler;
+
+    private final UrlCache urlCache;
+
+    private final ShortCodeBloomFilter bloomFilter;
+
+    private final ShortCodeGenerator shortCodeGenerator;
+
+    private final JShortProperties.WriteBehind config;
+
+    private final LinkedBlockingDeque<UrlPendente> fila = new LinkedBlockingDeque<>();
+
+    // Resolvidas pela memória até serem gravadas (o cache pode despejá-las antes disso)
+    private final Map<String, UrlResolvida> pendentes = new ConcurrentHashMap<>();
+
+    private final Cache<String, Url> porChave;
+
+    private final ReentrantLock gravando = new ReentrantLock();
+
+    private final Counter gravadas;
+
+    private final Counter filaCheia;
+
+    private volatile WriteAheadLog wal;
+
+    private volatile ScheduledFuture<?> agendamento;
+
+    public UrlWriteBehind(JdbcTemplate jdbcTemplate, TransactionTemplate transactionTemplate, TaskScheduler taskScheduler,
+                          UrlCache urlCache, ShortCodeBloomFilter bloomFilter, ShortCodeGenerator shortCodeGenerator,
+                          JShortProperties properties, MeterRegistry meterRegistry) {
+        this.insercao = new UrlInsercaoImpl(jdbcTemplate);
+        this.transactionTemplate = transactionTemplate;
+        this.taskScheduler = taskScheduler;
+        this.urlCache = urlCache;
+        this.bloomFilter = bloomFilter;
+        this.shortCodeGenerator = shortCodeGenerator;
+        this.config = properties.getWriteBehind();
+        this.porChave = CacheBuilder.newBuilder()
+                .maximumSize(config.getIdempotencyMaximumSize())
+                .expireAfterWrite(config.getIdempotencyTtl())
+                .build();
+
+        this.gravadas = Counter.builder("jshort.write.behind.gravadas")
+                .description("URLs aceitas pelo write-behind e gravadas no banco")
+                .register(meterRegistry);
+        this.filaCheia = Counter.builder("jshort.write.behind.fila.cheia")
+                .description("Encurtamentos feitos de forma síncrona porque a fila do write-behind estava cheia")
+                .register(meterRegistry);
+        Gauge.builder("jshort.write.behind.pendentes", fila, LinkedBlockingDeque::size)
+                .description("URLs aceitas aguardando gravação no banco")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Se o write-behind está ativo; enquanto não estiver, os encurtamentos são síncronos.
+     */
+    public boolean ativo() {
+        return agendamento != null;
+    }
+
+    /**
+     * URL já criada para a chave, ou a criada agora por {@code criar}. Requisições simultâneas com a mesma
+     * chave esperam a primeira em vez de criar outro código.
+     */
+    public Url porChave(String chaveIdempotencia, Supplier<Url> criar) {
+        try {
+            return porChave.get(chaveIdempotencia, criar::get);
+        } catch (ExecutionException | UncheckedExecutionException ex) {
+            Throwables.throwIfUnchecked(ex.getCause());
+            throw new IllegalStateException(ex.getCause());
+        }
+    }
+
+    /**
+     * URL aceita e ainda não gravada, ou {@code null}.
+     */
+    public UrlResolvida pendente(String shortCode) {
+        return pendentes.get(shortCode);
+    }
+
+    /**
+     * Registra a URL no write-ahead log, espera o fsync (compartilhado com as requisições simultâneas) e só
+     * então a deixa resolvível e na fila: se o fsync falhar, o código nunca foi visto nem gravado no banco, e
+     * o registro que possa ter ficado no log é reenfileirado na próxima inicialização como qualquer outro.
+     * {@code false} se a fila estiver cheia: quem chama grava de forma síncrona.
+     */
+    public boolean aceitar(Url url, String chaveIdempotencia) {
+        if (fila.size() >= config.getCapacity()) {
+            filaCheia.increment();
+            return false;
+        }
+        UrlPendente pendente = new UrlPendente(url, chaveIdempotencia, 0);
+        try {
+            WriteAheadLog.Posicao posicao = wal.anexar(pendente.serializar());
+            wal.sincronizar(posicao);
+            pendentes.put(url.getShortCode(), UrlResolvida.de(url));
+            fila.offer(pendente.noSegmento(posicao.segmento()));
+            return true;
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Falha ao gravar no write-ahead log", ex);
+        }
+    }
+
+    /**
+     * Grava as URLs aceitas até agora, em lotes de {@code max-batch-size}. Se o banco falhar, o lote volta
+     * para a frente da fila e é tentado de novo na próxima rodada.
+     */
+    public void descarregar() {
+        gravando.lock();
+        try {
+            List<UrlPendente> lote = new ArrayList<>(config.getMaxBatchSize());
+            while (fila.drainTo(lote, config.getMaxBatchSize()) > 0) {
+                try {
+                    gravar(lote);
+                } catch (DataAccessException ex) {
+                    log.warn("Falha ao gravar {} URLs do write-behind, tentando novamente na próxima rodada",
+                            lote.size(), ex);
+                    Collections.reverse(lote);
+                    lote.forEach(fila::offerFirst);
+                    return;
+                }
+                confirmar(lote);
+                lote.clear();
+            }
+        } finally {
+            gravando.unlock();
+        }
+    }
+
+    private void gravar(List<UrlPendente> lote) {
+        // Não inseridas: já gravadas antes (replay); URL que já existe com outro código fica sem o hash.
+        // Numa transação: a linha com o hash de outro código não chega a ser vista antes de perdê-lo
+        transactionTemplate.executeWithoutResult(status ->
+                insercao.inserirLote(lote.stream().map(UrlPendente::url).toList(), true));
+    }
+
+    private void confirmar(List<UrlPendente> lote) {
+        Map<String, UrlResolvida> gravadasAgora = new HashMap<>();
+        for (UrlPendente pendente : lote) {
+            String shortCode = pendente.url().getShortCode();
+            UrlResolvida url = pendentes.remove(shortCode);
+            if (url != null) {
+                gravadasAgora.put(shortCode, url);
+            }
+            wal.confirmar(pendente.segmento());
+        }
+        // Continua resolvendo sem ir ao banco logo depois da gravação
+        urlCache.carregar(gravadasAgora);
+        gravadas.increment(lote.size());
+    }
+
+    @Override
+    public void start() {
+        if (!config.isEnabled()) {
+            return;
+        }
+        if (!shortCodeGenerator.livreDeColisao()) {
+            throw new IllegalStateException("jshort.write-behind exige um gerador de códigos sem colisão "
+                    + "(jshort.short-code.strategy=sequence)");
+        }
+        try {
+            WriteAheadLog novo = new WriteAheadLog(Path.of(config.getDirectory()), config.getSegmentSize().toBytes());
+            for (WriteAheadLog.Registro registro : novo.recuperar()) {
+                UrlPendente pendente = UrlPendente.desserializar(registro.dados(), registro.segmento());
+                Url url = pendente.url();
+                bloomFilter.registrar(url.getShortCode());
+                pendentes.put(url.getShortCode(), UrlResolvida.de(url));
+                if (pendente.chaveIdempotencia() != null) {
+                    porChave.put(pendente.chaveIdempotencia(), url);
+                }
+                fila.offer(pendente);
+            }
+            wal = novo;
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Falha ao abrir o write-ahead log em " + config.getDirectory(), ex);
+        }
+        if (!fila.isEmpty()) {
+            log.info("{} URLs do write-ahead log reenfileiradas para gravação", fila.size());
+        }
+        agendamento = taskScheduler.scheduleWithFixedDelay(this::descarregar, config.getFlushInterval());
+    }
+
+    @Override
+    public void stop() {
+        ScheduledFuture<?> atual = agendamento;
+        if (atual == null) {
+            return;
+        }
+        atual.cancel(false);
+        agendamento = null;
+        descarregar();
+        try {
+            // O que não foi gravado continua no log e é reenfileirado na próxima inicialização
+            wal.close();
+        } catch (IOException ex) {
+            log.warn("Falha ao fechar o write-ahead log", ex);
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return agendamento != null;
+    }
+
+    /**
+     * Sobe antes do servidor web (o log é reprocessado antes da primeira requisição) e para depois dele.
+     */
+    @Override
+    public int getPhase() {
+        return SmartLifecycle.DEFAULT_PHASE - 4096;
+    }
+}
@@ -0,0 +1,259 @@
+package com.JShort.WriteBehind;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.Closeable;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Stream;
+import java.util.zip.CRC32C;
+
+/**
+ * Log local de escrita antecipada, em segmentos {@code wal-<n>.log} num diretório.
+ *
+ * <p>Cada registro é {@code [tamanho][crc32c][bytes]}. {@link #anexar} só escreve no arquivo; quem precisa
+ * de durabilidade chama {@link #sincronizar} com a posição devolvida. O {@code fsync} é feito por quem
+ * chegar primeiro e vale para tudo o que já foi escrito (group commit): com muitas requisições simultâneas,
+ * um único {@code force} cobre todas elas. Quando o segmento passa do tamanho configurado, um novo é
+ * aberto; um segmento fechado é apagado assim que todos os seus registros forem {@link #confirmar confirmados}.
+ */
+@Slf4j
+final class WriteAheadLog implements Closeable {
+
+    private static final int CABECALHO = Integer.BYTES * 2;
+
+    private final Path diretorio;
+
+    private final long tamanhoSegmento;
+
+    // ReentrantLock em vez de synchronized: não prende a carrier thread durante o I/O com virtual threads
+    private final ReentrantLock escrevendo = new ReentrantLock();
+
+    private final ReentrantLock sincronizando = new ReentrantLock();
+
+    // Registros ainda não confirmados por segmento
+    private final Map<Long, AtomicInteger> abertos = new ConcurrentHashMap<>();
+
+    private FileChannel canal;
+
+    private long segmento;
+
+    private long escrito;
+
+    private volatile long sincronizado;
+
+    record Posicao(long segmento, long fim) {
+    }
+
+    record Registro(long segmento, byte[] dados) {
+    }
+
+    WriteAheadLog(Path diretorio, long tamanhoSegmento) {
+        this.diretorio = diretorio;
+        this.tamanhoSegmento = tamanhoSegmento;
+    }
+
+    /**
+     * Lê os registros de todos os segmentos existentes, em ordem, e abre um segmento novo para as próximas
+     * escritas. Um registro incompleto ou corrompido (queda no meio da escrita) encerra a leitura daquele
+     * segmento, que é truncado ali.
+     */
+    List<Registro> recuperar() throws IOException {
+        Files.createDirectories(diretorio);
+        List<Long> segmentos;
+        try (Stream<Path> arquivos = Files.list(diretorio)) {
+            segmentos = arquivos.map(arquivo -> arquivo.getFileName().toString())
+                    .filter(nome -> nome.startsWith("wal-") && nome.endsWith(".log"))
+                    .map(nome -> Long.parseLong(nome.substring(4, nome.length() - 4)))
+                    .sorted()
+                    .toList();
+        }
+
+        List<Registro> registros = new ArrayList<>();
+        for (long numero : segmentos) {
+            int lidos = ler(numero, registros);
+            if (lidos == 0) {
+                Files.deleteIfExists(arquivo(numero));
+            } else {
+                abertos.put(numero, new AtomicInteger(lidos));
+            }
+        }
+
+        abrir(segmentos.isEmpty() ? 1 : segmentos.get(segmentos.size() - 1) + 1);
+        return registros;
+    }
+
+    Posicao anexar(byte[] dados) throws IOException {
+        CRC32C crc = new CRC32C();
+        crc.update(dados);
+        ByteBuffer buffer = ByteBuffer.allocate(CABECALHO + dados.length);
+        buffer.putInt(dados.length).putInt((int) crc.getValue()).put(dados).flip();
+
+        escrevendo.lock();
+        try {
+            if (canal.position() + buffer.remaining() > tamanhoSegmento && canal.position() > 0) {
+                rotacionar();
+            }
+            while (buffer.hasRemaining()) {
+                canal.write(buffer);
+            }
+            escrito += CABECALHO + dados.length;
+            abertos.computeIfAbsent(segmento, s -> new AtomicInteger()).incrementAndGet();
+            return new Posicao(segmento, escrito);
+        } finally {
+            escrevendo.unlock();
+        }
+    }
+
+    /**
+     * Garante que tudo até {@code posicao} está em disco.
+     */
+    void sincronizar(Posicao posicao) throws IOException {
+        if (sincronizado >= posicao.fim()) {
+            return;
+        }
+        sincronizando.lock();
+        try {
+            // Quem esperava o lock provavelmente já foi coberto pelo force de quem estava na frente
+            if (sincronizado >= posicao.fim()) {
+                return;
+            }
+            long alvo;
+            FileChannel atual;
+            escrevendo.lock();
+            try {
+                alvo = escrito;
+                atual = canal;
+            } finally {
+                escrevendo.unlock();
+            }
+            try {
+                atual.force(false);
+            } catch (ClosedChannelException ex) {
+                // Rotacionado no meio tempo: a rotação já sincronizou o segmento inteiro
+            }
+            sincronizado = alvo;
+        } finally {
+            sincronizando.unlock();
+        }
+    }
+
+    /**
+     * O registro do segmento já está no banco; segmentos fechados sem pendências são apagados.
+     */
+    void confirmar(long numero) {
+        AtomicInteger pendentes = abertos.get(numero);
+        if (pendentes != null && pendentes.decrementAndGet() == 0) {
+            escrevendo.lock();
+            try {
+                if (numero != segmento && pendentes.get() == 0) {
+                    abertos.remove(numero);
+                    Files.deleteIfExists(arquivo(numero));
+                }
+            } catch (IOException ex) {
+                log.warn("Falha ao apagar o segmento {} do write-ahead log", numero, ex);
+            } finally {
+                escrevendo.unlock();
+            }
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        escrevendo.lock();
+        try {
+            if (canal != null) {
+                canal.force(false);
+                canal.close();
+                AtomicInteger pendentes = abertos.get(segmento);
+                if (pendentes == null || pendentes.get() == 0) {
+                    abertos.remove(segmento);
+                    Files.deleteIfExists(arquivo(segmento));
+                }
+                canal = null;
+            }
+        } finally {
+            escrevendo.unlock();
+        }
+    }
+
+    private void rotacionar() throws IOException {
+        canal.force(false);
+        canal.close();
+        long anterior = segmento;
+        abrir(segmento + 1);
+        AtomicInteger pendentes = abertos.get(anterior);
+        if (pendentes == null || pendentes.get() == 0) {
+            abertos.remove(anterior);
+            Files.deleteIfExists(arquivo(anterior));
+        }
+    }
+
+    private void abrir(long numero) throws IOException {
+        segmento = numero;
+        canal = FileChannel.open(arquivo(numero), StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.APPEND);
+    }
+
+    private int ler(long numero, List<Registro> registros) throws IOException {
+        int lidos = 0;
+        try (FileChannel leitura = FileChannel.open(arquivo(numero), StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            long tamanho = leitura.size();
+            long posicao = 0;
+            ByteBuffer cabecalho = ByteBuffer.allocate(CABECALHO);
+            while (true) {
+                if (posicao + CABECALHO > tamanho) {
+                    break;
+                }
+                cabecalho.clear();
+                lerTudo(leitura, cabecalho, posicao);
+                cabecalho.flip();
+                int comprimento = cabecalho.getInt();
+                int esperado = cabecalho.getInt();
+                if (comprimento < 0 || posicao + CABECALHO + comprimento > tamanho) {
+                    break;
+                }
+                ByteBuffer dados = ByteBuffer.allocate(comprimento);
+                lerTudo(leitura, dados, posicao + CABECALHO);
+                CRC32C crc = new CRC32C();
+                crc.update(dados.array());
+                if ((int) crc.getValue() != esperado) {
+                    break;
+                }
+                registros.add(new Registro(numero, dados.array()));
+                posicao += CABECALHO + comprimento;
+                lidos++;
+            }
+            if (posicao < tamanho) {
+                log.warn("Write-ahead log {}: {} bytes incompletos ou corrompidos descartados no fim do segmento",
+                        numero, tamanho - posicao);
+                leitura.truncate(posicao);
+            }
+        }
+        return lidos;
+    }
+
+    private static void lerTudo(FileChannel canal, ByteBuffer destino, long posicao) throws IOException {
+        while (destino.hasRemaining()) {
+            if (canal.read(destino, posicao + destino.position()) < 0) {
+                throw new EOFException();
+            }
+        }
+    }
+
+    private Path arquivo(long numero) {
+        return diretorio.resolve(String.format("wal-%016d.log", numero));
+    }
+}
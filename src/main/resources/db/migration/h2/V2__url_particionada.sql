@@ -0,0 +1,47 @@
+-- Mesmo layout lógico da V2 do PostgreSQL (url com short_code como PK, url_hash e url_access_count), sem o
+-- particionamento e o fillfactor, que o H2 não tem. Os testes passam pelas mesmas tabelas e constraints.
+
+CREATE TABLE url_particionada (
+    short_code VARCHAR(255) NOT NULL,
+    id VARCHAR(255) NOT NULL,
+    original_url VARCHAR(2048) NOT NULL,
+    original_url_hash VARCHAR(64),
+    creation_date TIMESTAMP,
+    expiration_date TIMESTAMP,
+    CONSTRAINT pk_url PRIMARY KEY (short_code)
+);
+
+INSERT INTO url_particionada (short_code, id, original_url, original_url_hash, creation_date, expiration_date)
+SELECT short_code, id, original_url, original_url_hash, creation_date, expiration_date FROM url;
+
+CREATE TABLE url_hash (
+    original_url_hash VARCHAR(64) NOT NULL,
+    short_code VARCHAR(255) NOT NULL,
+    CONSTRAINT pk_url_hash PRIMARY KEY (original_url_hash)
+);
+
+INSERT INTO url_hash (original_url_hash, short_code)
+SELECT original_url_hash, short_code FROM url WHERE original_url_hash IS NOT NULL;
+
+CREATE TABLE url_access_count (
+    short_code VARCHAR(255) NOT NULL,
+    access_count BIGINT NOT NULL,
+    CONSTRAINT pk_url_access_count PRIMARY KEY (short_code)
+);
+
+INSERT INTO url_access_count (short_code, access_count)
+SELECT short_code, access_count FROM url WHERE access_count > 0;
+
+DROP TABLE url;
+ALTER TABLE url_particionada RENAME TO url;
+
+CREATE INDEX idx_url_original_url_hash ON url (original_url_hash);
+CREATE INDEX idx_url_id ON url (id);
+CREATE INDEX idx_url_expiration_date ON url (expiration_date, id);
+
+ALTER TABLE url_hash ADD CONSTRAINT fk_url_hash_url
+    FOREIGN KEY (short_code) REFERENCES url (short_code) ON DELETE CASCADE;
+CREATE INDEX idx_url_hash_short_code ON url_hash (short_code);
+
+ALTER TABLE url_access_count ADD CONSTRAINT fk_url_access_count_url
+    FOREIGN KEY (short_code) REFERENCES url (short_code) ON DELETE CASCADE;
@@ -0,0 +1,4 @@
+-- A deduplicação procura o hash pela PK de url_hash e a linha pela PK de url (short_code). O índice de
+-- original_url_hash em url, que seria consultado em cada partição, não tem mais leitor e só encarecia o INSERT.
+
+DROP INDEX IF EXISTS idx_url_original_url_hash;
@@ -0,0 +1,63 @@
+-- Esquema de antes das migrations: a tabela url como o Hibernate criava (ddl-auto=update) e o que ficava no
+-- schema.sql/schema-postgresql.sql. Tudo com IF NOT EXISTS, para que um banco já existente (que entra como
+-- baseline na versão 0) passe por aqui ganhando só o que ainda não tinha.
+
+CREATE TABLE IF NOT EXISTS url (
+    id VARCHAR(255) PRIMARY KEY,
+    original_url VARCHAR(2048) NOT NULL,
+    original_url_hash VARCHAR(64) UNIQUE,
+    short_code VARCHAR(255) NOT NULL UNIQUE,
+    creation_date TIMESTAMP,
+    expiration_date TIMESTAMP,
+    access_count BIGINT
+);
+
+-- A url criada pelo Hibernate antes da deduplicação não tem a coluna do hash; o UrlHashBackfill a preenche
+ALTER TABLE url ADD COLUMN IF NOT EXISTS original_url_hash VARCHAR(64);
+
+CREATE INDEX IF NOT EXISTS idx_url_expiration_date ON url (expiration_date, id);
+
+-- Sequence usada pelo SequenceShortCodeGenerator: cada nextval reserva um bloco de INCREMENT ids
+CREATE SEQUENCE IF NOT EXISTS url_short_code_seq START WITH 1000 INCREMENT BY 1000;
+
+-- Rollups de cliques mantidos incrementalmente pelo ClickEventWriter (buckets em UTC)
+CREATE TABLE IF NOT EXISTS click_hourly (
+    short_code VARCHAR(255) NOT NULL,
+    bucket TIMESTAMP NOT NULL,
+    clicks BIGINT NOT NULL,
+    PRIMARY KEY (short_code, bucket)
+);
+
+-- dimension: TOTAL, PAIS, DISPOSITIVO ou REFERENCIA
+CREATE TABLE IF NOT EXISTS click_daily (
+    short_code VARCHAR(255) NOT NULL,
+    bucket DATE NOT NULL,
+    dimension VARCHAR(16) NOT NULL,
+    dimension_value VARCHAR(255) NOT NULL,
+    clicks BIGINT NOT NULL,
+    PRIMARY KEY (short_code, bucket, dimension, dimension_value)
+);
+
+-- Links expirados copiados pelo ExpiredUrlSweeper antes da remoção (jshort.expiration.sweeper-mode=archive)
+CREATE TABLE IF NOT EXISTS url_archive (
+    id VARCHAR(255) PRIMARY KEY,
+    original_url VARCHAR(2048) NOT NULL,
+    original_url_hash VARCHAR(64),
+    short_code VARCHAR(255) NOT NULL,
+    creation_date TIMESTAMP,
+    expiration_date TIMESTAMP,
+    access_count BIGINT,
+    archived_at TIMESTAMP NOT NULL
+);
+
+-- Eventos de clique brutos, particionados por dia; as partições são criadas pelo ClickPartitionMaintenance
+CREATE TABLE IF NOT EXISTS click_event (
+    occurred_at TIMESTAMP NOT NULL,
+    short_code VARCHAR(255) NOT NULL,
+    referrer VARCHAR(255),
+    user_agent_class VARCHAR(16) NOT NULL,
+    country CHAR(2) NOT NULL
+) PARTITION BY RANGE (occurred_at);
+
+-- Recebe eventos fora das partições criadas, para o INSERT nunca falhar
+CREATE TABLE IF NOT EXISTS click_event_default PARTITION OF click_event DEFAULT;
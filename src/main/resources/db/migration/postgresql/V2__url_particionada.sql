@@ -0,0 +1,87 @@
+-- A tabela url passa a ser particionada por hash de short_code, e o que muda com frequência sai dela:
+--
+-- * url: 16 partições por hash(short_code). O redirecionamento (WHERE short_code = ?) vai direto a uma
+--   partição, e vacuum, reindex e cache de páginas trabalham com tabelas e índices 16 vezes menores. Toda
+--   unique de tabela particionada precisa conter a chave de partição, então short_code vira a PK e id e
+--   original_url_hash ficam só com índices comuns. A linha quase não muda depois do INSERT (só a renovação
+--   da expiração, que mexe numa coluna indexada), por isso o fillfactor continua o padrão.
+-- * url_hash: a unicidade de original_url_hash, que a deduplicação do encurtamento exige, numa tabela
+--   estreita com o hash como PK. A linha de url só é considerada gravada depois de reivindicar o hash aqui.
+-- * url_access_count: o contador de cliques, numa tabela de duas colunas com fillfactor 70. O
+--   AccessCountAggregator atualiza só essa linha de ~40 bytes, não a de url com a URL de até 2048
+--   caracteres; como access_count não é indexada e sobra espaço na página, os UPDATEs são HOT (sem nova
+--   entrada de índice) e não disputam as tuplas que o redirecionamento lê. Só códigos já clicados têm linha.
+--
+-- As duas tabelas auxiliares somem junto com a url (ON DELETE CASCADE), então o ExpiredUrlSweeper continua
+-- removendo só de url.
+--
+-- Custo num banco existente: tudo roda numa transação só, e o DROP da url antiga pede ACCESS EXCLUSIVE, mas a
+-- cópia já segura a tabela do começo ao fim. Redirecionamentos e encurtamentos ficam parados enquanto url é
+-- copiada para as partições e para as duas tabelas novas e os índices são criados. É preciso ter livre mais ou
+-- menos o tamanho atual de url com os índices (a url antiga só é apagada no COMMIT), mais o WAL da cópia, que é
+-- da mesma ordem, a não ser com wal_level=minimal. Em tabelas grandes, aumente o maintenance_work_mem da
+-- sessão do Flyway (spring.flyway.init-sql) para a criação dos índices, e meça o tempo antes numa cópia
+-- restaurada do banco.
+--
+-- Por isso um banco sem o histórico do Flyway não é migrado na inicialização normal (baseline-on-migrate
+-- desligado): com todas as instâncias paradas, suba uma vez com JSHORT_FLYWAY_BASELINE=true e
+-- JSHORT_DEDUP_BACKFILL=true. Ela faz o baseline na versão 0, aplica as migrations e preenche o hash das linhas
+-- antigas em url e url_hash (UrlHashBackfill); até terminar, URLs antigas ainda podem ganhar um segundo código.
+-- Depois suba as demais normalmente, com as duas desligadas.
+
+CREATE TABLE url_particionada (
+    short_code VARCHAR(255) NOT NULL,
+    id VARCHAR(255) NOT NULL,
+    original_url VARCHAR(2048) NOT NULL,
+    original_url_hash VARCHAR(64),
+    creation_date TIMESTAMP,
+    expiration_date TIMESTAMP,
+    CONSTRAINT pk_url PRIMARY KEY (short_code)
+) PARTITION BY HASH (short_code);
+
+DO $$
+BEGIN
+    FOR resto IN 0..15 LOOP
+        EXECUTE format('CREATE TABLE url_p%s PARTITION OF url_particionada FOR VALUES WITH (MODULUS 16, REMAINDER %s)',
+                resto, resto);
+    END LOOP;
+END
+$$;
+
+INSERT INTO url_particionada (short_code, id, original_url, original_url_hash, creation_date, expiration_date)
+SELECT short_code, id, original_url, original_url_hash, creation_date, expiration_date FROM url;
+
+CREATE TABLE url_hash (
+    original_url_hash VARCHAR(64) NOT NULL,
+    short_code VARCHAR(255) NOT NULL,
+    CONSTRAINT pk_url_hash PRIMARY KEY (original_url_hash)
+);
+
+INSERT INTO url_hash (original_url_hash, short_code)
+SELECT original_url_hash, short_code FROM url WHERE original_url_hash IS NOT NULL;
+
+CREATE TABLE url_access_count (
+    short_code VARCHAR(255) NOT NULL,
+    access_count BIGINT NOT NULL,
+    CONSTRAINT pk_url_access_count PRIMARY KEY (short_code)
+) WITH (fillfactor = 70);
+
+INSERT INTO url_access_count (short_code, access_count)
+SELECT short_code, access_count FROM url WHERE access_count > 0;
+
+DROP TABLE url;
+ALTER TABLE url_particionada RENAME TO url;
+
+-- Índices criados depois da cópia, de uma vez, em vez de mantidos linha a linha
+CREATE INDEX idx_url_original_url_hash ON url (original_url_hash);
+CREATE INDEX idx_url_id ON url (id);
+-- Varredura de links expirados, percorrida em keyset por (expiration_date, id)
+CREATE INDEX idx_url_expiration_date ON url (expiration_date, id);
+
+ALTER TABLE url_hash ADD CONSTRAINT fk_url_hash_url
+    FOREIGN KEY (short_code) REFERENCES url (short_code) ON DELETE CASCADE;
+-- O CASCADE procura as linhas pelo short_code removido
+CREATE INDEX idx_url_hash_short_code ON url_hash (short_code);
+
+ALTER TABLE url_access_count ADD CONSTRAINT fk_url_access_count_url
+    FOREIGN KEY (short_code) REFERENCES url (short_code) ON DELETE CASCADE;
@@ -0,0 +1,148 @@
+package com.JShort.Reactive;
+
+import com.JShort.Cache.UrlCache;
+import com.JShort.Model.Url;
+import com.JShort.Repository.UrlRepository;
+import com.JShort.Service.UrlHash;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.reactive.AutoConfigureWebTestClient;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.web.embedded.netty.NettyReactiveWebServerFactory;
+import org.springframework.boot.web.reactive.server.ReactiveWebServerFactory;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import reactor.core.publisher.Flux;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// O R2DBC aponta para o mesmo H2 em memória do JDBC do profile "test"
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "spring.r2dbc.url=r2dbc:h2:mem:///testdb;MODE=PostgreSQL;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE",
+        "spring.r2dbc.username=sa",
+        "spring.r2dbc.password="})
+@AutoConfigureWebTestClient
+@ActiveProfiles({"test", "reactive"})
+class ReactiveUrlControllerTest {
+
+    @Autowired
+    private WebTestClient webTestClient;
+
+    @Autowired
+    private UrlCache urlCache;
+
+    @Autowired
+    private ReactiveWebServerFactory serverFactory;
+
+    @Autowired
+    private UrlRepository urlRepository;
+
+    @Test
+    void testServidor_ReactiveProfile_ShouldRunOnNetty() {
+        // Assert
+        assertInstanceOf(NettyReactiveWebServerFactory.class, serverFactory);
+    }
+
+    @Test
+    void testEncurtarERedirecionar_ShouldUseR2dbc() {
+        // Act
+        Url url = encurtar("https://reactive.example.com");
+        urlCache.invalidar(url.getShortCode());
+
+        // Assert
+        assertNotNull(url.getShortCode());
+        webTestClient.get().uri("/url/{shortCode}", url.getShortCode())
+                .exchange()
+                .expectStatus().isFound()
+                .expectHeader().valueEquals("Location", "https://reactive.example.com")
+                .expectHeader().exists("ETag");
+    }
+
+    @Test
+    void testEncurtar_SameUrlTwice_ShouldReturnSameShortCode() {
+        // Act
+        Url primeira = encurtar("https://reactive-dedup.example.com");
+        Url segunda = encurtar("https://reactive-dedup.example.com");
+
+        // Assert
+        assertEquals(primeira.getShortCode(), segunda.getShortCode());
+        assertEquals(primeira.getId(), segunda.getId());
+    }
+
+    @Test
+    void testEncurtar_ConcurrentSameUrl_ShouldReturnSameShortCode() {
+        // Act
+        List<Url> urls = Flux.range(0, 8)
+                .flatMap(i -> webTestClient.mutate().build().post().uri("/url/encurtar")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .bodyValue(Map.of("originalUrl", "https://reactive-concorrente.example.com"))
+                        .exchange()
+                        .returnResult(Url.class)
+                        .getResponseBody()
+                        .next())
+                .collectList()
+                .block(Duration.ofSeconds(10));
+
+        // Assert
+        assertNotNull(urls);
+        assertEquals(8, urls.size());
+        assertEquals(1, urls.stream().map(Url::getShortCode).distinct().count());
+    }
+
+    @Test
+    void testInserirLote_ReactiveProfile_ShouldRunInJpaTransaction() {
+        // Arrange: o R2DBC traz um segundo TransactionManager, e o @Transactional do UrlInsercao não tem qualificador
+        Url url = new Url();
+        url.setId(UUID.randomUUID().toString());
+        url.setOriginalUrl("https://reactive-lote.example.com");
+        url.setOriginalUrlHash(UrlHash.calcular(url.getOriginalUrl()));
+        url.setShortCode("reativoLote");
+        url.setCreationDate(LocalDateTime.now());
+        url.setExpirationDate(LocalDateTime.now().plusDays(1));
+        url.setAccessCount(0L);
+
+        // Act
+        List<Url> gravadas = urlRepository.inserirLote(List.of(url), false);
+
+        // Assert
+        assertEquals(1, gravadas.size());
+        assertTrue(urlRepository.findByShortCode("reativoLote").isPresent());
+    }
+
+    @Test
+    void testEncurtar_InvalidUrl_ShouldReturnBadRequest() {
+        // Act & Assert
+        webTestClient.post().uri("/url/encurtar")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(Map.of("originalUrl", "nao-e-url"))
+                .exchange()
+                .expectStatus().isBadRequest()
+                .expectBody().jsonPath("$.erro").isEqualTo("URL inválida");
+    }
+
+    @Test
+    void testRedirecionar_UnknownCode_ShouldReturnCacheable404() {
+        // Act & Assert
+        webTestClient.get().uri("/url/{shortCode}", "naoExisteReativo")
+                .exchange()
+                .expectStatus().isNotFound()
+                .expectHeader().valueEquals("Cache-Control", "max-age=60, public");
+    }
+
+    private Url encurtar(String originalUrl) {
+        return webTestClient.post().uri("/url/encurtar")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(Map.of("originalUrl", originalUrl))
+                .exchange()
+                .expectStatus().isCreated()
+                .expectBody(Url.class)
+                .returnResult().getResponseBody();
+    }
+}
@@ -0,0 +1,54 @@
+package com.JShort.Reactive;
+
+import com.JShort.Model.Url;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.reactive.AutoConfigureWebTestClient;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "spring.r2dbc.url=r2dbc:h2:mem:///testdb;MODE=PostgreSQL;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE",
+        "spring.r2dbc.username=sa",
+        "spring.r2dbc.password=",
+        "jshort.write-behind.enabled=true",
+        "jshort.short-code.strategy=sequence",
+        "jshort.write-behind.directory=${java.io.tmpdir}/jshort-wal-${random.uuid}"})
+@AutoConfigureWebTestClient
+@ActiveProfiles({"test", "reactive"})
+class ReactiveWriteBehindTest {
+
+    @Autowired
+    private WebTestClient webTestClient;
+
+    @Test
+    void testEncurtar_WriteBehindEnabled_ShouldAcceptAndResolve() {
+        // Act
+        Url url = encurtar("https://reactive-wb.example.com", "chave-1");
+        Url repetida = encurtar("https://reactive-wb.example.com", "chave-1");
+
+        // Assert
+        assertEquals(url.getShortCode(), repetida.getShortCode());
+        webTestClient.get().uri("/url/{shortCode}", url.getShortCode())
+                .exchange()
+                .expectStatus().isFound()
+                .expectHeader().valueEquals("Location", "https://reactive-wb.example.com");
+    }
+
+    private Url encurtar(String originalUrl, String idempotencyKey) {
+        return webTestClient.post().uri("/url/encurtar")
+                .contentType(MediaType.APPLICATION_JSON)
+                .header("Idempotency-Key", idempotencyKey)
+                .bodyValue(Map.of("originalUrl", originalUrl))
+                .exchange()
+                .expectStatus().isAccepted()
+                .expectBody(Url.class)
+                .returnResult().getResponseBody();
+    }
+}
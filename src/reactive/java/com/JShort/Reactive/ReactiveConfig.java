@@ -0,0 +1,64 @@
+package com.JShort.Reactive;
+
+import com.zaxxer.hikari.HikariDataSource;
+import jakarta.persistence.EntityManagerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.web.embedded.netty.NettyReactiveWebServerFactory;
+import org.springframework.boot.web.embedded.netty.NettyRouteProvider;
+import org.springframework.boot.web.embedded.netty.NettyServerCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.env.Environment;
+import org.springframework.orm.jpa.JpaTransactionManager;
+
+/**
+ * Infraestrutura do profile "reactive".
+ *
+ * <p>O Tomcat continua no classpath (o runtime servlet é o padrão) e o Spring Boot o escolheria também
+ * para WebFlux; declarar a factory aqui fixa o Netty. As propriedades {@code server.netty.*} continuam
+ * valendo via customizers do Boot.
+ *
+ * <p>Com um {@code ConnectionFactory} do R2DBC no contexto o Boot deixa de criar o DataSource JDBC, que
+ * continua necessário para o JPA e para as tarefas em segundo plano; ele é criado aqui a partir de
+ * {@code spring.datasource.*} (ou pelo {@code ReplicaDataSourceConfig}, se as réplicas estiverem ativas).
+ *
+ * <p>O R2DBC traz também o seu {@code TransactionManager}, e um {@code @Transactional} sem qualificador (a
+ * gravação do {@code UrlInsercao}, o descarregamento do write-behind) não saberia qual usar; o do JPA é o
+ * primário, e o {@code TransactionalOperator} do R2DBC continua sendo o do {@code ReactiveUrlService}.
+ */
+@Configuration
+@Profile("reactive")
+@EnableConfigurationProperties(DataSourceProperties.class)
+public class ReactiveConfig {
+
+    @Bean
+    public NettyReactiveWebServerFactory nettyReactiveWebServerFactory(
+            ObjectProvider<NettyServerCustomizer> serverCustomizers, ObjectProvider<NettyRouteProvider> routes) {
+        NettyReactiveWebServerFactory factory = new NettyReactiveWebServerFactory();
+        factory.getServerCustomizers().addAll(serverCustomizers.orderedStream().toList());
+        routes.orderedStream().forEach(factory::addRouteProviders);
+        return factory;
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "jshort.replicas.enabled", havingValue = "false", matchIfMissing = true)
+    public HikariDataSource dataSource(DataSourceProperties dataSourceProperties, Environment environment) {
+        HikariDataSource dataSource = dataSourceProperties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        // Mesmo efeito do @ConfigurationProperties("spring.datasource.hikari"), que já está declarado no ReplicaDataSourceConfig
+        Binder.get(environment).bind("spring.datasource.hikari", Bindable.ofInstance(dataSource));
+        return dataSource;
+    }
+
+    @Bean
+    @Primary
+    public JpaTransactionManager transactionManager(EntityManagerFactory entityManagerFactory) {
+        return new JpaTransactionManager(entityManagerFactory);
+    }
+}
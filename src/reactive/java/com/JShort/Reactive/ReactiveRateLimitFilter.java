@@ -0,0 +1,58 @@
+package com.JShort.Reactive;
+
+import com.JShort.RateLimit.RateLimits;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebFilter;
+import org.springframework.web.server.WebFilterChain;
+import reactor.core.publisher.Mono;
+
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Os mesmos {@link RateLimits} do {@code RateLimitFilter}, como {@link WebFilter} do WebFlux.
+ */
+@Component
+@Profile("reactive")
+@Order(Ordered.HIGHEST_PRECEDENCE + 10)
+public class ReactiveRateLimitFilter implements WebFilter {
+
+    private static final byte[] CORPO = "{\"erro\":\"Limite de requisições excedido\"}".getBytes(StandardCharsets.UTF_8);
+
+    private final RateLimits rateLimits;
+
+    public ReactiveRateLimitFilter(RateLimits rateLimits) {
+        this.rateLimits = rateLimits;
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, WebFilterChain chain) {
+        ServerHttpRequest request = exchange.getRequest();
+        RateLimits.Rota rota = rateLimits.rota(request.getMethod().name(), request.getPath().pathWithinApplication().value());
+        if (rota == null) {
+            return chain.filter(exchange);
+        }
+        InetSocketAddress remoto = request.getRemoteAddress();
+        String ip = remoto == null || remoto.getAddress() == null ? "desconhecido" : remoto.getAddress().getHostAddress();
+        long retryAfter = rateLimits.consumir(rota, request.getHeaders().getFirst(rateLimits.apiKeyHeader()), ip);
+        if (retryAfter == 0) {
+            return chain.filter(exchange);
+        }
+        ServerHttpResponse response = exchange.getResponse();
+        response.setStatusCode(HttpStatus.TOO_MANY_REQUESTS);
+        response.getHeaders().set(HttpHeaders.RETRY_AFTER, Long.toString(retryAfter));
+        response.getHeaders().setContentType(MediaType.APPLICATION_JSON);
+        DataBuffer corpo = response.bufferFactory().wrap(CORPO);
+        return response.writeWith(Mono.just(corpo));
+    }
+}
@@ -0,0 +1,64 @@
+package com.JShort.Reactive;
+
+import com.JShort.Analytics.ClickEventCollector;
+import com.JShort.Controller.RedirectPolicy;
+import com.JShort.DTO.UrlDTO;
+import com.JShort.Model.Url;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Mono;
+
+import java.net.InetSocketAddress;
+
+/**
+ * Rotas de encurtamento e redirecionamento no WebFlux (profile "reactive"), com as mesmas respostas do
+ * {@code UrlController}: o {@link RedirectPolicy} e o tratamento de exceções são os mesmos.
+ */
+@RestController
+@RequestMapping("/url")
+@Profile("reactive")
+public class ReactiveUrlController {
+
+    private final ReactiveUrlService urlService;
+
+    private final RedirectPolicy redirectPolicy;
+
+    private final ClickEventCollector clickEventCollector;
+
+    public ReactiveUrlController(ReactiveUrlService urlService, RedirectPolicy redirectPolicy,
+                                 ClickEventCollector clickEventCollector) {
+        this.urlService = urlService;
+        this.redirectPolicy = redirectPolicy;
+        this.clickEventCollector = clickEventCollector;
+    }
+
+    /**
+     * 201 com a URL gravada, ou 202 quando o write-behind está ativo, como no {@code UrlController}.
+     */
+    @PostMapping("/encurtar")
+    public Mono<ResponseEntity<Url>> encurtarUrl(@RequestBody UrlDTO data,
+                                                 @RequestHeader(value = "Idempotency-Key", required = false) String idempotencyKey) {
+        return urlService.encutadorUrl(data.getOriginalUrl(), data.getTtl(), idempotencyKey)
+                .map(url -> ResponseEntity
+                        .status(urlService.escritaAtrasada() ? HttpStatus.ACCEPTED : HttpStatus.CREATED)
+                        .body(url));
+    }
+
+    @GetMapping("/{shortCode}")
+    public Mono<ResponseEntity<Void>> redirecionar(@PathVariable String shortCode,
+                                                   @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+                                                   ServerHttpRequest request) {
+        return urlService.buscarRedirecionamento(shortCode)
+                .map(url -> {
+                    InetSocketAddress remoto = request.getRemoteAddress();
+                    clickEventCollector.registrar(shortCode, request.getHeaders().getFirst(HttpHeaders.REFERER),
+                            request.getHeaders().getFirst(HttpHeaders.USER_AGENT),
+                            remoto == null || remoto.getAddress() == null ? null : remoto.getAddress().getHostAddress());
+                    return redirectPolicy.responder(url, ifNoneMatch);
+                });
+    }
+}
@@ -0,0 +1,308 @@
+package com.JShort.Reactive;
+
+import com.JShort.Cache.DistributedUrlCache;
+import com.JShort.Cache.OffHeapUrlIndex;
+import com.JShort.Cache.ShortCodeBloomFilter;
+import com.JShort.Cache.UrlCache;
+import com.JShort.Config.JShortProperties;
+import com.JShort.Exception.UrlException;
+import com.JShort.Exception.UrlExpiradaException;
+import com.JShort.Exception.UrlNaoEncontradaException;
+import com.JShort.Model.Url;
+import com.JShort.Model.UrlResolvida;
+import com.JShort.Repository.UrlSql;
+import com.JShort.Service.AccessCountAggregator;
+import com.JShort.Service.SingleFlight;
+import com.JShort.Service.UrlHash;
+import com.JShort.Service.UrlMetrics;
+import com.JShort.Service.UrlRegras;
+import com.JShort.Service.UrlService;
+import com.JShort.ShortCode.ShortCodeGenerator;
+import com.JShort.WriteBehind.UrlWriteBehind;
+import io.r2dbc.spi.Readable;
+import org.springframework.context.annotation.Profile;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.reactive.TransactionalOperator;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+/**
+ * Versão não bloqueante do redirecionamento e do encurtamento, sobre R2DBC.
+ *
+ * <p>Segue o mesmo protocolo do {@link UrlService}, com as mesmas peças: {@link UrlCache}, índice fora do heap,
+ * URLs pendentes do write-behind e bloom filter (consultas em memória, sem I/O), o cache compartilhado (consulta
+ * assíncrona), {@link UrlRegras} para validação, expiração, renovação e colisões, {@link UrlSql} para cada comando
+ * no banco, {@link SingleFlight} para juntar buscas e encurtamentos simultâneos e o {@link AccessCountAggregator}
+ * para os contadores. Só a execução muda: os comandos vão pelo {@link DatabaseClient} e a geração do código roda
+ * no {@code boundedElastic}, porque o gerador por sequence reserva blocos via JDBC.
+ *
+ * <p>O R2DBC fala só com o primário ({@code spring.r2dbc.url}), então um código recém-criado ou renovado já é
+ * visto na leitura seguinte, sem a confirmação que o {@link UrlService} faz quando a réplica não o encontra. Com o
+ * write-behind ativo, o encurtamento é o do {@link UrlService}: aceitar já espera o fsync do log, que bloqueia de
+ * qualquer jeito.
+ */
+@Service
+@Profile("reactive")
+public class ReactiveUrlService {
+
+    private final DatabaseClient databaseClient;
+
+    private final TransactionalOperator transacao;
+
+    private final UrlService urlService;
+
+    private final UrlCache urlCache;
+
+    private final DistributedUrlCache distributedCache;
+
+    private final ShortCodeBloomFilter bloomFilter;
+
+    private final OffHeapUrlIndex offHeapIndex;
+
+    private final UrlWriteBehind writeBehind;
+
+    private final AccessCountAggregator accessCountAggregator;
+
+    private final ShortCodeGenerator shortCodeGenerator;
+
+    private final UrlMetrics urlMetrics;
+
+    private final JShortProperties properties;
+
+    private final SingleFlight<String, Optional<UrlResolvida>> buscas;
+
+    private final SingleFlight<String, Url> encurtamentos;
+
+    public ReactiveUrlService(DatabaseClient databaseClient, TransactionalOperator transacao, UrlService urlService,
+                              UrlCache urlCache, DistributedUrlCache distributedCache,
+                              ShortCodeBloomFilter bloomFilter, OffHeapUrlIndex offHeapIndex, UrlWriteBehind writeBehind,
+                              AccessCountAggregator accessCountAggregator, ShortCodeGenerator shortCodeGenerator,
+                              UrlMetrics urlMetrics, JShortProperties properties) {
+        this.databaseClient = databaseClient;
+        this.transacao = transacao;
+        this.urlService = urlService;
+        this.urlCache = urlCache;
+        this.distributedCache = distributedCache;
+        this.bloomFilter = bloomFilter;
+        this.offHeapIndex = offHeapIndex;
+        this.writeBehind = writeBehind;
+        this.accessCountAggregator = accessCountAggregator;
+        this.shortCodeGenerator = shortCodeGenerator;
+        this.urlMetrics = urlMetrics;
+        this.properties = properties;
+
+        JShortProperties.Coalescing coalescing = properties.getCoalescing();
+        this.buscas = new SingleFlight<>(coalescing.isEnabled(), coalescing.getTimeout(),
+                () -> urlMetrics.coalescida(false), () -> urlMetrics.esperaEsgotada(false));
+        this.encurtamentos = new SingleFlight<>(coalescing.isEnabled(), coalescing.getTimeout(),
+                () -> urlMetrics.coalescida(true), () -> urlMetrics.esperaEsgotada(true));
+    }
+
+    public Mono<UrlResolvida> buscarRedirecionamento(String shortCode) {
+        long inicio = System.nanoTime();
+        return Mono.defer(() -> resolver(shortCode))
+                .doOnNext(url -> accessCountAggregator.registrarAcesso(shortCode))
+                .doOnSuccess(url -> urlMetrics.registrarRedirecionamento(System.nanoTime() - inicio, true))
+                .doOnError(ex -> {
+                    urlMetrics.registrarRedirecionamento(System.nanoTime() - inicio, false);
+                    if (ex instanceof UrlExpiradaException) {
+                        urlMetrics.expirada();
+                    }
+                });
+    }
+
+    private Mono<UrlResolvida> resolver(String shortCode) {
+        Optional<UrlResolvida> emCache = urlCache.buscar(shortCode);
+        if (emCache.isPresent()) {
+            return Mono.just(emCache.get());
+        }
+        UrlResolvida pendente = writeBehind.pendente(shortCode);
+        if (pendente != null) {
+            return Mono.just(pendente);
+        }
+        UrlResolvida indexada = offHeapIndex.buscar(shortCode);
+        if (indexada != null && !indexada.expirada(LocalDateTime.now())) {
+            return Mono.just(indexada);
+        }
+        if (!bloomFilter.podeExistir(shortCode)) {
+            urlMetrics.naoEncontrada(true);
+            return Mono.error(new UrlNaoEncontradaException(shortCode, false));
+        }
+        // Uma só requisição por código vai ao L2/banco; as outras esperam o resultado dela, inclusive o "não existe"
+        return Mono.fromFuture(() -> buscas.executarAsync(shortCode, () -> buscarForaDoCache(shortCode).toFuture()))
+                .flatMap(url -> url.map(Mono::just).orElseGet(() -> {
+                    urlMetrics.naoEncontrada(false);
+                    // Com o write-behind, o código pode ter sido aceito por outra instância e ainda não estar no banco
+                    return Mono.error(new UrlNaoEncontradaException(shortCode, !properties.getWriteBehind().isEnabled()));
+                }));
+    }
+
+    private Mono<Optional<UrlResolvida>> buscarForaDoCache(String shortCode) {
+        return Mono.fromFuture(distributedCache.buscarAsync(shortCode))
+                .switchIfEmpty(Mono.defer(() -> carregar(shortCode)))
+                .map(url -> Optional.of(urlCache.guardar(shortCode, url)))
+                .defaultIfEmpty(Optional.empty());
+    }
+
+    private Mono<UrlResolvida> carregar(String shortCode) {
+        return databaseClient.sql(UrlSql.RESOLVIDA)
+                .bind("shortCode", shortCode)
+                .map(row -> new UrlResolvida(row.get("original_url", String.class),
+                        row.get("expiration_date", LocalDateTime.class)))
+                .one()
+                .doOnNext(url -> {
+                    // Códigos gravados por outras instâncias entram no índice na primeira leitura
+                    offHeapIndex.registrar(shortCode, url);
+                    distributedCache.guardar(shortCode, url);
+                });
+    }
+
+    public Mono<Url> encutadorUrl(String originalUrl, Duration ttl) {
+        return encutadorUrl(originalUrl, ttl, null);
+    }
+
+    /**
+     * Como o {@link UrlService#encutadorUrl(String, Duration, String)}: com o write-behind ativo, a URL é aceita
+     * sem ir ao banco e a mesma {@code chaveIdempotencia} devolve sempre o mesmo código.
+     */
+    public Mono<Url> encutadorUrl(String originalUrl, Duration ttl, String chaveIdempotencia) {
+        if (urlService.escritaAtrasada()) {
+            return Mono.fromCallable(() -> urlService.encutadorUrl(originalUrl, ttl, chaveIdempotencia))
+                    .subscribeOn(Schedulers.boundedElastic());
+        }
+        long inicio = System.nanoTime();
+        return Mono.defer(() -> {
+                    UrlRegras.validar(originalUrl, ttl, properties.getExpiration());
+                    String hash = UrlHash.calcular(originalUrl);
+                    return Mono.fromFuture(() -> encurtamentos.executarAsync(hash + '|' + ttl,
+                            () -> encurtar(originalUrl, hash, ttl).toFuture()));
+                })
+                .doOnSuccess(url -> urlMetrics.registrarEncurtamento(System.nanoTime() - inicio, true))
+                .doOnError(ex -> urlMetrics.registrarEncurtamento(System.nanoTime() - inicio, false));
+    }
+
+    /**
+     * Se os encurtamentos estão sendo aceitos pelo write-behind (gravação no banco depois da resposta).
+     */
+    public boolean escritaAtrasada() {
+        return urlService.escritaAtrasada();
+    }
+
+    private Mono<Url> encurtar(String originalUrl, String hash, Duration ttl) {
+        LocalDateTime agora = LocalDateTime.now();
+        LocalDateTime expiracao = UrlRegras.expiracao(agora, ttl, properties.getExpiration());
+        LocalDateTime limiteRenovacao = UrlRegras.limiteRenovacao(agora, ttl, expiracao);
+        Url nova = UrlRegras.nova(originalUrl, hash, agora, expiracao);
+
+        return buscarPorHash(hash)
+                .flatMap(existente -> renovar(existente, limiteRenovacao, expiracao))
+                .doOnNext(existente -> urlMetrics.dedupExistente())
+                .switchIfEmpty(Mono.defer(() -> inserir(nova, limiteRenovacao, 1)));
+    }
+
+    /**
+     * INSERT ... ON CONFLICT DO NOTHING e, se não inseriu, a linha de quem gravou a mesma URL antes; senão foi
+     * colisão de código e tenta de novo com outro.
+     */
+    private Mono<Url> inserir(Url url, LocalDateTime limiteRenovacao, int tentativa) {
+        return Mono.fromCallable(() -> urlMetrics.medirGeracao(shortCodeGenerator::gerarShortCode))
+                .subscribeOn(Schedulers.boundedElastic())
+                .flatMap(shortCode -> {
+                    url.setShortCode(shortCode);
+                    bloomFilter.registrar(shortCode);
+                    return inserirSeAusente(url);
+                })
+                .flatMap(inserida -> {
+                    if (inserida) {
+                        offHeapIndex.registrar(url.getShortCode(), UrlResolvida.de(url));
+                        return Mono.just(url);
+                    }
+                    return buscarPorHash(url.getOriginalUrlHash())
+                            .flatMap(existente -> renovar(existente, limiteRenovacao, url.getExpirationDate()))
+                            .doOnNext(existente -> urlMetrics.dedupConcorrente())
+                            .switchIfEmpty(Mono.defer(() -> {
+                                boolean desistir = UrlRegras.desistir(shortCodeGenerator, tentativa);
+                                urlMetrics.colisao(desistir);
+                                return desistir
+                                        ? Mono.error(new UrlException("Não foi possível gerar um código curto único"))
+                                        : inserir(url, limiteRenovacao, tentativa + 1);
+                            }));
+                });
+    }
+
+    /**
+     * Os três passos de {@link UrlSql} numa transação: {@code false} se o código colidiu ou o hash já é de outro
+     * código.
+     */
+    private Mono<Boolean> inserirSeAusente(Url url) {
+        return databaseClient.sql(UrlSql.INSERIR_URL)
+                .bind("id", url.getId())
+                .bind("originalUrl", url.getOriginalUrl())
+                .bind("originalUrlHash", url.getOriginalUrlHash())
+                .bind("shortCode", url.getShortCode())
+                .bind("creationDate", url.getCreationDate())
+                .bind("expirationDate", url.getExpirationDate())
+                .fetch()
+                .rowsUpdated()
+                .flatMap(inseridas -> inseridas == 0 ? Mono.just(false) : databaseClient.sql(UrlSql.REIVINDICAR_HASH)
+                        .bind("originalUrlHash", url.getOriginalUrlHash())
+                        .bind("shortCode", url.getShortCode())
+                        .fetch()
+                        .rowsUpdated()
+                        .flatMap(reivindicados -> reivindicados == 1 ? Mono.just(true) : databaseClient
+                                .sql(UrlSql.DESCARTAR_URL)
+                                .bind("shortCode", url.getShortCode())
+                                .bind("id", url.getId())
+                                .fetch()
+                                .rowsUpdated()
+                                .thenReturn(false)))
+                .as(transacao::transactional);
+    }
+
+    /**
+     * Adia para {@code expiracao} a validade de uma URL existente que expira antes de {@code limite}.
+     * Vazio se a linha foi removida pelo sweeper entre a consulta e o UPDATE.
+     */
+    private Mono<Url> renovar(Url existente, LocalDateTime limite, LocalDateTime expiracao) {
+        if (!UrlRegras.precisaRenovar(existente, limite)) {
+            return Mono.just(existente);
+        }
+        return databaseClient.sql(UrlSql.ESTENDER_EXPIRACAO)
+                .bind("expirationDate", expiracao)
+                .bind("id", existente.getId())
+                .fetch()
+                .rowsUpdated()
+                .flatMap(atualizadas -> {
+                    if (atualizadas == 1) {
+                        existente.setExpirationDate(expiracao);
+                        urlCache.invalidar(existente.getShortCode());
+                        offHeapIndex.registrar(existente.getShortCode(), UrlResolvida.de(existente));
+                        return Mono.just(existente);
+                    }
+                    // Outra requisição adiou mais ainda, ou a linha não existe mais
+                    return databaseClient.sql(UrlSql.POR_ID)
+                            .bind("id", existente.getId())
+                            .map(ReactiveUrlService::url)
+                            .one();
+                });
+    }
+
+    private Mono<Url> buscarPorHash(String hash) {
+        return databaseClient.sql(UrlSql.POR_HASH)
+                .bind("hash", hash)
+                .map(ReactiveUrlService::url)
+                .one();
+    }
+
+    private static Url url(Readable row) {
+        return new Url(row.get("id", String.class), row.get("original_url", String.class),
+                row.get("original_url_hash", String.class), row.get("short_code", String.class),
+                row.get("creation_date", LocalDateTime.class), row.get("expiration_date", LocalDateTime.class),
+                row.get("accessCount", Long.class));
+    }
+}
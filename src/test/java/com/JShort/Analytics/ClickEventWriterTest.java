@@ -0,0 +1,102 @@
+package com.JShort.Analytics;
+
+import com.JShort.Config.JShortProperties;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabase;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseBuilder;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseType;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ClickEventWriterTest {
+
+    private static final Instant CLIQUE = Instant.parse("2026-03-10T14:25:00Z");
+
+    private EmbeddedDatabase database;
+
+    private JdbcTemplate jdbcTemplate;
+
+    private ClickEventWriter writer;
+
+    @BeforeEach
+    void setUp() {
+        database = new EmbeddedDatabaseBuilder()
+                .setType(EmbeddedDatabaseType.H2)
+                .generateUniqueName(true)
+                .build();
+        Flyway.configure().dataSource(database).locations("classpath:db/migration/h2").load().migrate();
+        jdbcTemplate = new JdbcTemplate(database);
+        writer = new ClickEventWriter(jdbcTemplate, new TransactionTemplate(new DataSourceTransactionManager(database)),
+                new GeoIpResolver(new JShortProperties()));
+    }
+
+    @AfterEach
+    void tearDown() {
+        database.shutdown();
+    }
+
+    @Test
+    void testGravar_ShouldStoreEventsAndRollups() {
+        // Arrange
+        List<ClickEvent> eventos = List.of(
+                new ClickEvent(CLIQUE, "abc", "https://www.Google.com/search?q=x", "curl/8.0", "10.0.0.1"),
+                new ClickEvent(CLIQUE.plusSeconds(60), "abc", null, "Mozilla/5.0 (iPhone) Mobile", "10.0.0.2"),
+                new ClickEvent(CLIQUE, "xyz", null, null, "10.0.0.3"));
+
+        // Act
+        writer.gravar(eventos);
+
+        // Assert
+        assertEquals(3, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM click_event", Integer.class));
+        assertEquals("www.google.com", jdbcTemplate.queryForObject(
+                "SELECT referrer FROM click_event WHERE user_agent_class = 'BOT'", String.class));
+        assertEquals(2, cliquesPorHora("abc"));
+        assertEquals(2, cliquesPorDia("abc", ClickEventWriter.DIMENSAO_TOTAL, ""));
+        assertEquals(1, cliquesPorDia("abc", ClickEventWriter.DIMENSAO_REFERENCIA, ClickEventWriter.REFERENCIA_DIRETA));
+        assertEquals(1, cliquesPorDia("abc", ClickEventWriter.DIMENSAO_DISPOSITIVO, "MOBILE"));
+        assertEquals(2, cliquesPorDia("abc", ClickEventWriter.DIMENSAO_PAIS, GeoIpResolver.DESCONHECIDO));
+    }
+
+    @Test
+    void testGravar_SecondBatch_ShouldIncrementExistingRollups() {
+        // Arrange
+        writer.gravar(List.of(new ClickEvent(CLIQUE, "abc", null, null, null)));
+
+        // Act
+        writer.gravar(List.of(
+                new ClickEvent(CLIQUE.plusSeconds(30), "abc", null, null, null),
+                new ClickEvent(CLIQUE.plusSeconds(3600), "abc", null, null, null)));
+
+        // Assert
+        assertEquals(2, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM click_hourly", Integer.class));
+        assertEquals(3, cliquesPorHora("abc"));
+        assertEquals(3, cliquesPorDia("abc", ClickEventWriter.DIMENSAO_TOTAL, ""));
+    }
+
+    @Test
+    void testHostDoReferrer_ShouldKeepOnlyTheHost() {
+        // Act & Assert
+        assertEquals("example.com", ClickEventWriter.hostDoReferrer("https://user@Example.com:8443/a?b#c"));
+        assertEquals("t.co", ClickEventWriter.hostDoReferrer("t.co/abc"));
+        assertNull(ClickEventWriter.hostDoReferrer(""));
+        assertNull(ClickEventWriter.hostDoReferrer("https:///x"));
+    }
+
+    private long cliquesPorHora(String shortCode) {
+        return jdbcTemplate.queryForObject("SELECT SUM(clicks) FROM click_hourly WHERE short_code = ?", Long.class, shortCode);
+    }
+
+    private long cliquesPorDia(String shortCode, String dimensao, String valor) {
+        return jdbcTemplate.queryForObject("SELECT SUM(clicks) FROM click_daily "
+                + "WHERE short_code = ? AND dimension = ? AND dimension_value = ?", Long.class, shortCode, dimensao, valor);
+    }
+}
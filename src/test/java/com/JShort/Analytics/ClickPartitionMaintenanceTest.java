@@ -0,0 +1,43 @@
+package com.JShort.Analytics;
+
+import com.JShort.Config.JShortProperties;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.CannotAcquireLockException;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.startsWith;
+import static org.mockito.Mockito.*;
+
+class ClickPartitionMaintenanceTest {
+
+    @Test
+    void testManter_OneStatementFails_ShouldRunTheOthers() {
+        // Arrange: o CREATE de hoje e o primeiro DROP falham
+        JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+        JShortProperties properties = new JShortProperties();
+        properties.getAnalytics().setPartitionsAhead(2);
+        LocalDate hoje = LocalDate.now(ZoneOffset.UTC);
+        doThrow(new CannotAcquireLockException("lock")).when(jdbcTemplate)
+                .execute(ClickPartitionMaintenance.criarParticao(hoje));
+        doThrow(new CannotAcquireLockException("lock")).when(jdbcTemplate)
+                .execute("DROP TABLE IF EXISTS click_event_20000101");
+        when(jdbcTemplate.queryForList(anyString(), eq(String.class)))
+                .thenReturn(List.of("click_event_20000101", "click_event_20000102", "click_event_default"));
+        ClickPartitionMaintenance maintenance = new ClickPartitionMaintenance(jdbcTemplate, null, properties);
+
+        // Act
+        maintenance.manter();
+
+        // Assert
+        verify(jdbcTemplate, times(3)).execute(startsWith("CREATE TABLE"));
+        verify(jdbcTemplate).execute(ClickPartitionMaintenance.criarParticao(hoje.plusDays(2)));
+        verify(jdbcTemplate).execute("DROP TABLE IF EXISTS click_event_20000102");
+        verify(jdbcTemplate, never()).execute("DROP TABLE IF EXISTS click_event_default");
+    }
+}
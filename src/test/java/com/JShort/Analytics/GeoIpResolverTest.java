@@ -0,0 +1,64 @@
+package com.JShort.Analytics;
+
+import com.JShort.Config.JShortProperties;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GeoIpResolverTest {
+
+    @TempDir
+    Path diretorio;
+
+    @Test
+    void testPais_IpInsideRange_ShouldReturnCountry() throws IOException {
+        // Arrange
+        GeoIpResolver resolver = resolver("""
+                "1.0.0.0","1.0.0.255","AU"
+                "177.0.0.0","177.255.255.255","BR"
+                "2001:db8::","2001:db8::ffff","US"
+                134744064,134744319,US
+                """);
+
+        // Act & Assert
+        assertEquals(3, resolver.faixas());
+        assertEquals("BR", resolver.pais("177.12.34.56"));
+        assertEquals("AU", resolver.pais("1.0.0.1"));
+        assertEquals("US", resolver.pais("8.8.8.8"));
+    }
+
+    @Test
+    void testPais_IpOutsideRangesOrNotIpv4_ShouldReturnUnknown() throws IOException {
+        // Arrange
+        GeoIpResolver resolver = resolver("1.0.0.0,1.0.0.255,AU\n177.0.0.0,177.255.255.255,BR\n");
+
+        // Act & Assert
+        assertEquals(GeoIpResolver.DESCONHECIDO, resolver.pais("2.0.0.1"));
+        assertEquals(GeoIpResolver.DESCONHECIDO, resolver.pais("0.0.0.1"));
+        assertEquals(GeoIpResolver.DESCONHECIDO, resolver.pais("::1"));
+        assertEquals(GeoIpResolver.DESCONHECIDO, resolver.pais("300.1.1.1"));
+        assertEquals(GeoIpResolver.DESCONHECIDO, resolver.pais(null));
+    }
+
+    @Test
+    void testPais_WithoutFile_ShouldReturnUnknown() {
+        // Arrange
+        GeoIpResolver resolver = new GeoIpResolver(new JShortProperties());
+
+        // Act & Assert
+        assertEquals(GeoIpResolver.DESCONHECIDO, resolver.pais("177.12.34.56"));
+    }
+
+    private GeoIpResolver resolver(String csv) throws IOException {
+        Path arquivo = diretorio.resolve("geoip.csv");
+        Files.writeString(arquivo, csv);
+        JShortProperties properties = new JShortProperties();
+        properties.getAnalytics().setGeoipFile(arquivo.toString());
+        return new GeoIpResolver(properties);
+    }
+}
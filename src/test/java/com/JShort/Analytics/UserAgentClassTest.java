@@ -0,0 +1,38 @@
+package com.JShort.Analytics;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class UserAgentClassTest {
+
+    @Test
+    void testClassificar_CommonUserAgents_ShouldMapToDeviceClass() {
+        // Act & Assert
+        assertEquals(UserAgentClass.DESKTOP, UserAgentClass.classificar(
+                "Mozilla/5.0 (Windows NT 10.0; Win64; x64) AppleWebKit/537.36 (KHTML, like Gecko) Chrome/120.0 Safari/537.36"));
+        assertEquals(UserAgentClass.MOBILE, UserAgentClass.classificar(
+                "Mozilla/5.0 (iPhone; CPU iPhone OS 17_0 like Mac OS X) AppleWebKit/605.1.15 Mobile/15E148"));
+        assertEquals(UserAgentClass.MOBILE, UserAgentClass.classificar(
+                "Mozilla/5.0 (Linux; Android 14; Pixel 8) AppleWebKit/537.36 Chrome/120.0 Mobile Safari/537.36"));
+        assertEquals(UserAgentClass.TABLET, UserAgentClass.classificar(
+                "Mozilla/5.0 (Linux; Android 13; SM-X700) AppleWebKit/537.36 Chrome/120.0 Safari/537.36"));
+        assertEquals(UserAgentClass.TABLET, UserAgentClass.classificar(
+                "Mozilla/5.0 (iPad; CPU OS 17_0 like Mac OS X) AppleWebKit/605.1.15 Mobile/15E148"));
+    }
+
+    @Test
+    void testClassificar_CrawlersAndTools_ShouldBeBot() {
+        // Act & Assert
+        assertEquals(UserAgentClass.BOT, UserAgentClass.classificar("Mozilla/5.0 (compatible; Googlebot/2.1)"));
+        assertEquals(UserAgentClass.BOT, UserAgentClass.classificar("curl/8.4.0"));
+        assertEquals(UserAgentClass.BOT, UserAgentClass.classificar("Slackbot-LinkExpanding 1.0"));
+    }
+
+    @Test
+    void testClassificar_MissingUserAgent_ShouldBeUnknown() {
+        // Act & Assert
+        assertEquals(UserAgentClass.DESCONHECIDO, UserAgentClass.classificar(null));
+        assertEquals(UserAgentClass.DESCONHECIDO, UserAgentClass.classificar(" "));
+    }
+}
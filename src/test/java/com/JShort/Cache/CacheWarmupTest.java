@@ -0,0 +1,152 @@
+package com.JShort.Cache;
+
+import com.JShort.Config.JShortProperties;
+import com.JShort.Model.UrlResolvida;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabase;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseBuilder;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseType;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CacheWarmupTest {
+
+    @TempDir
+    Path diretorio;
+
+    private EmbeddedDatabase database;
+
+    private JdbcTemplate jdbcTemplate;
+
+    private JShortProperties properties;
+
+    private UrlCache urlCache;
+
+    @BeforeEach
+    void setUp() {
+        database = new EmbeddedDatabaseBuilder()
+                .setType(EmbeddedDatabaseType.H2)
+                .generateUniqueName(true)
+                .build();
+        Flyway.configure().dataSource(database).locations("classpath:db/migration/h2").load().migrate();
+        jdbcTemplate = new JdbcTemplate(database);
+
+        properties = new JShortProperties();
+        properties.getWarmup().setTopN(2);
+        urlCache = new UrlCache(properties, new SimpleMeterRegistry());
+    }
+
+    @AfterEach
+    void tearDown() {
+        database.shutdown();
+    }
+
+    @Test
+    void testAquecer_WithoutSnapshot_ShouldLoadMostAccessedValidCodes() {
+        // Arrange
+        LocalDateTime amanha = LocalDateTime.now().plusDays(1).truncatedTo(ChronoUnit.SECONDS);
+        inserir("pouco", 1, amanha);
+        inserir("muito", 100, amanha);
+        inserir("expirado", 1000, LocalDateTime.now().minusDays(1));
+        inserir("semExpiracao", 50, null);
+
+        // Act
+        warmup().aquecer();
+
+        // Assert
+        assertEquals(Map.of("muito", new UrlResolvida("https://muito.example.com", amanha),
+                "semExpiracao", new UrlResolvida("https://semExpiracao.example.com", null)), urlCache.entradas());
+    }
+
+    @Test
+    void testGravarSnapshot_ThenAquecer_ShouldRestoreWithoutDatabase() {
+        // Arrange
+        properties.getWarmup().setSnapshotFile(diretorio.resolve("hot-set.bin").toString());
+        LocalDateTime amanha = LocalDateTime.now().plusDays(1);
+        urlCache.guardar("quente", new UrlResolvida("https://quente.example.com", amanha));
+        warmup().gravarSnapshot();
+
+        UrlCache reiniciado = new UrlCache(properties, new SimpleMeterRegistry());
+        urlCache = reiniciado;
+        database.shutdown();
+
+        // Act
+        warmup().aquecer();
+
+        // Assert
+        assertEquals(Map.of("quente", new UrlResolvida("https://quente.example.com", amanha)), reiniciado.entradas());
+    }
+
+    @Test
+    void testGravarSnapshot_MoreEntriesThanTopN_ShouldKeepWholeCache() throws IOException {
+        // Arrange
+        Path arquivo = diretorio.resolve("hot-set.bin");
+        properties.getWarmup().setSnapshotFile(arquivo.toString());
+        LocalDateTime amanha = LocalDateTime.now().plusDays(1);
+        urlCache.guardar("a", new UrlResolvida("https://a.example.com", amanha));
+        urlCache.guardar("b", new UrlResolvida("https://b.example.com", amanha));
+        urlCache.guardar("c", new UrlResolvida("https://c.example.com", amanha));
+
+        // Act
+        warmup().gravarSnapshot();
+
+        // Assert
+        assertEquals(Set.of("a", "b", "c"), HotSetSnapshot.ler(arquivo).entradas().keySet());
+    }
+
+    @Test
+    void testAquecer_StaleSnapshot_ShouldFallBackToDatabase() throws IOException {
+        // Arrange
+        Path arquivo = diretorio.resolve("hot-set.bin");
+        properties.getWarmup().setSnapshotFile(arquivo.toString());
+        new HotSetSnapshot(Instant.now().minus(properties.getWarmup().getSnapshotMaxAge()).minusSeconds(60),
+                Map.of("antigo", new UrlResolvida("https://antigo.example.com", null))).gravar(arquivo);
+        inserir("atual", 1, null);
+
+        // Act
+        warmup().aquecer();
+
+        // Assert
+        assertEquals(Map.of("atual", new UrlResolvida("https://atual.example.com", null)), urlCache.entradas());
+    }
+
+    @Test
+    void testLer_CorruptedSnapshot_ShouldThrowIOException() throws IOException {
+        // Arrange
+        Path arquivo = diretorio.resolve("hot-set.bin");
+        new HotSetSnapshot(Instant.now(), Map.of("codigo", new UrlResolvida("https://example.com", null))).gravar(arquivo);
+        byte[] bytes = Files.readAllBytes(arquivo);
+        Files.write(arquivo, Arrays.copyOf(bytes, bytes.length - 5));
+
+        // Act & Assert
+        assertThrows(IOException.class, () -> HotSetSnapshot.ler(arquivo));
+    }
+
+    private CacheWarmup warmup() {
+        return new CacheWarmup(urlCache, jdbcTemplate, null, properties);
+    }
+
+    private void inserir(String shortCode, long acessos, LocalDateTime expiracao) {
+        jdbcTemplate.update("INSERT INTO url (id, original_url, short_code, expiration_date) VALUES (?, ?, ?, ?)",
+                shortCode, "https://" + shortCode + ".example.com", shortCode,
+                expiracao == null ? null : Timestamp.valueOf(expiracao));
+        jdbcTemplate.update("INSERT INTO url_access_count (short_code, access_count) VALUES (?, ?)", shortCode, acessos);
+    }
+}
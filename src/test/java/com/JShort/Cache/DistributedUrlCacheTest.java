@@ -0,0 +1,221 @@
+package com.JShort.Cache;
+
+import com.JShort.Config.JShortProperties;
+import com.JShort.Model.UrlResolvida;
+import com.hazelcast.config.Config;
+import com.hazelcast.core.Hazelcast;
+import com.hazelcast.core.HazelcastException;
+import com.hazelcast.core.HazelcastInstance;
+import com.hazelcast.topic.ITopic;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.atLeastOnce;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+
+/**
+ * Duas "instâncias" da aplicação (cada uma com o seu cache local e bloom filter) usando o mesmo membro
+ * Hazelcast embutido como L2.
+ */
+class DistributedUrlCacheTest {
+
+    private static HazelcastInstance hazelcast;
+
+    @BeforeAll
+    static void iniciarCluster() {
+        hazelcast = Hazelcast.newHazelcastInstance(membro());
+    }
+
+    @AfterAll
+    static void pararCluster() {
+        hazelcast.shutdown();
+    }
+
+    @Test
+    void testBuscar_StoredByOtherInstance_ShouldReturnUrl() {
+        // Arrange
+        Instancia a = new Instancia(hazelcast);
+        Instancia b = new Instancia(hazelcast);
+        String shortCode = codigo();
+        UrlResolvida url = new UrlResolvida("https://www.example.com/a|b", LocalDateTime.now().plusDays(1).withNano(0));
+
+        // Act
+        a.l2.guardar(shortCode, url);
+
+        // Assert
+        assertEquals(url, aguardar(() -> b.l2.buscar(shortCode)));
+    }
+
+    @Test
+    void testGuardar_ExpiredUrl_ShouldNotStore() {
+        // Arrange
+        Instancia a = new Instancia(hazelcast);
+        String shortCode = codigo();
+
+        // Act
+        a.l2.guardar(shortCode, new UrlResolvida("https://www.example.com", LocalDateTime.now().minusMinutes(1)));
+
+        // Assert
+        assertFalse(hazelcast.getMap(DistributedUrlCache.MAPA).containsKey(shortCode));
+        assertNull(a.l2.buscar(shortCode));
+    }
+
+    @Test
+    void testInvalidar_ShouldRemoveFromL2AndOtherLocalCaches() {
+        // Arrange
+        Instancia a = new Instancia(hazelcast);
+        Instancia b = new Instancia(hazelcast);
+        String shortCode = codigo();
+        UrlResolvida url = new UrlResolvida("https://www.example.com", null);
+        b.urlCache.carregar(Map.of(shortCode, url));
+        a.l2.guardar(shortCode, url);
+        aguardar(() -> b.l2.buscar(shortCode));
+
+        // Act
+        a.urlCache.invalidar(shortCode);
+
+        // Assert
+        verify(b.urlCache, timeout(5000)).invalidarLocal(shortCode);
+        assertTrue(b.urlCache.buscar(shortCode).isEmpty());
+        assertNull(b.l2.buscar(shortCode));
+    }
+
+    @Test
+    void testRegistrar_ShouldReachBloomFilterOfOtherInstances() {
+        // Arrange
+        Instancia a = new Instancia(hazelcast);
+        Instancia b = new Instancia(hazelcast);
+        String shortCode = codigo();
+
+        // Act
+        a.bloomFilter.registrar(shortCode);
+
+        // Assert
+        verify(b.bloomFilter, timeout(5000)).registrarLocal(shortCode);
+    }
+
+    @Test
+    void testRegistrar_PublishFails_ShouldStopTrustingLocalNegatives() {
+        // Arrange
+        ITopic<String> topico = mock();
+        doReturn(CompletableFuture.failedFuture(new HazelcastException("fora do ar"))).when(topico).publishAsync(any());
+        HazelcastInstance instavel = mock(HazelcastInstance.class);
+        doReturn(topico).when(instavel).getTopic(DistributedUrlCache.TOPICO);
+        doReturn(hazelcast.getMap(DistributedUrlCache.MAPA)).when(instavel).getMap(DistributedUrlCache.MAPA);
+        Instancia a = new Instancia(instavel);
+
+        // Act
+        a.bloomFilter.registrar(codigo());
+
+        // Assert
+        verify(a.bloomFilter, atLeastOnce()).registroPerdido();
+        assertEquals(0, a.meterRegistry.get("jshort.l2.disponivel").gauge().value());
+    }
+
+    @Test
+    void testRegistrar_AfterFailure_ShouldWarnOtherInstances() {
+        // Arrange: a primeira conexão de A falha e a seguinte funciona
+        Instancia b = new Instancia(hazelcast);
+        HazelcastInstance instavel = mock(HazelcastInstance.class);
+        doThrow(new HazelcastException("fora do ar")).doReturn(hazelcast.getTopic(DistributedUrlCache.TOPICO))
+                .when(instavel).getTopic(DistributedUrlCache.TOPICO);
+        doReturn(hazelcast.getMap(DistributedUrlCache.MAPA)).when(instavel).getMap(DistributedUrlCache.MAPA);
+        Instancia a = new Instancia(instavel, Duration.ZERO);
+
+        // Act
+        a.bloomFilter.registrar(codigo());
+
+        // Assert
+        verify(b.bloomFilter, timeout(5000)).registroPerdido();
+    }
+
+    @Test
+    void testBuscar_ClusterDown_ShouldReturnNullWithoutFailing() {
+        // Arrange
+        HazelcastInstance membro = Hazelcast.newHazelcastInstance(membro());
+        Instancia a = new Instancia(membro);
+        String shortCode = codigo();
+        a.l2.guardar(shortCode, new UrlResolvida("https://www.example.com", null));
+        membro.shutdown();
+
+        // Act
+        UrlResolvida url = a.l2.buscar(shortCode);
+        a.l2.guardar(shortCode, new UrlResolvida("https://www.example.com", null));
+        a.urlCache.invalidar(shortCode);
+
+        // Assert
+        assertNull(url);
+        assertEquals(0, a.meterRegistry.get("jshort.l2.disponivel").gauge().value());
+        assertTrue(a.meterRegistry.get("jshort.l2.consultas").tag("resultado", "falha").counter().count() >= 1);
+    }
+
+    private static Config membro() {
+        Config config = new Config();
+        config.setClusterName("jshort-test-" + UUID.randomUUID());
+        config.setProperty("hazelcast.logging.type", "slf4j");
+        config.setProperty("hazelcast.phone.home.enabled", "false");
+        config.getNetworkConfig().getJoin().getMulticastConfig().setEnabled(false);
+        config.getNetworkConfig().getJoin().getAutoDetectionConfig().setEnabled(false);
+        return config;
+    }
+
+    private static String codigo() {
+        return UUID.randomUUID().toString().substring(0, 8);
+    }
+
+    private static UrlResolvida aguardar(Supplier<UrlResolvida> busca) {
+        long limite = System.currentTimeMillis() + 5000;
+        UrlResolvida url = busca.get();
+        while (url == null && System.currentTimeMillis() < limite) {
+            Thread.onSpinWait();
+            url = busca.get();
+        }
+        return url;
+    }
+
+    private static final class Instancia {
+
+        final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+        final UrlCache urlCache;
+
+        final ShortCodeBloomFilter bloomFilter;
+
+        final DistributedUrlCache l2;
+
+        Instancia(HazelcastInstance hazelcast) {
+            this(hazelcast, Duration.ofSeconds(5));
+        }
+
+        Instancia(HazelcastInstance hazelcast, Duration retryAfter) {
+            JShortProperties properties = new JShortProperties();
+            properties.getL2().setEnabled(true);
+            properties.getL2().setRetryAfter(retryAfter);
+            properties.getBloom().setEnabled(true);
+            properties.getL2().setTimeout(Duration.ofSeconds(2));
+            StaticListableBeanFactory beanFactory = new StaticListableBeanFactory(Map.of("hazelcastInstance", hazelcast));
+
+            urlCache = spy(new UrlCache(properties, meterRegistry));
+            bloomFilter = spy(new ShortCodeBloomFilter(null, null, null, properties, meterRegistry));
+            l2 = new DistributedUrlCache(urlCache, bloomFilter, properties,
+                    beanFactory.getBeanProvider(HazelcastInstance.class), meterRegistry);
+        }
+    }
+}
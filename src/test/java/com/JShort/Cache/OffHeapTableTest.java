@@ -0,0 +1,82 @@
+package com.JShort.Cache;
+
+import com.JShort.Model.UrlResolvida;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class OffHeapTableTest {
+
+    @TempDir
+    Path diretorio;
+
+    @Test
+    void testGravar_ManyKeys_ShouldGrowAndSpanSegments() {
+        // Arrange: tabela e arena pequenas para forçar crescimento e vários segmentos
+        OffHeapTable tabela = new OffHeapTable(4, 6, 12, null);
+        LocalDateTime expiracao = LocalDateTime.of(2030, 1, 1, 12, 0);
+
+        // Act
+        for (long chave = 1; chave <= 5000; chave++) {
+            tabela.gravar(chave, new UrlResolvida("https://example.com/" + chave, chave % 2 == 0 ? expiracao : null));
+        }
+
+        // Assert
+        assertEquals(5000, tabela.entradas());
+        for (long chave = 1; chave <= 5000; chave++) {
+            assertEquals(new UrlResolvida("https://example.com/" + chave, chave % 2 == 0 ? expiracao : null),
+                    tabela.buscar(chave));
+        }
+        assertNull(tabela.buscar(5001));
+    }
+
+    @Test
+    void testBuscar_ExpirationWithNanos_ShouldReturnSameInstant() {
+        // Arrange: LocalDateTime.now() e o timestamp(6) do Postgres têm fração de segundo
+        OffHeapTable tabela = new OffHeapTable(16, 6, 12, null);
+        LocalDateTime expiracao = LocalDateTime.of(2030, 1, 1, 12, 0, 59, 123_456_789);
+        tabela.gravar(1, new UrlResolvida("https://example.com", expiracao));
+
+        // Act
+        UrlResolvida lida = tabela.buscar(1);
+
+        // Assert
+        assertEquals(expiracao, lida.expirationDate());
+    }
+
+    @Test
+    void testGravar_ExistingKey_ShouldReplaceAndGravarSeAusenteShouldKeep() {
+        // Arrange
+        OffHeapTable tabela = new OffHeapTable(16, 6, 12, diretorio);
+        tabela.gravar(42, new UrlResolvida("https://antiga.example.com", null));
+
+        // Act
+        tabela.gravar(42, new UrlResolvida("https://nova.example.com", null));
+        boolean gravou = tabela.gravarSeAusente(42, new UrlResolvida("https://ignorada.example.com", null));
+
+        // Assert
+        assertFalse(gravou);
+        assertEquals("https://nova.example.com", tabela.buscar(42).originalUrl());
+        assertEquals(1, tabela.entradas());
+    }
+
+    @Test
+    void testRemover_ShouldHideKeyUntilWrittenAgain() {
+        // Arrange
+        OffHeapTable tabela = new OffHeapTable(16, 6, 12, null);
+        tabela.gravar(7, new UrlResolvida("https://example.com", null));
+
+        // Act
+        tabela.remover(7);
+
+        // Assert
+        assertNull(tabela.buscar(7));
+        assertEquals(0, tabela.entradas());
+        tabela.gravar(7, new UrlResolvida("https://de-novo.example.com", null));
+        assertEquals("https://de-novo.example.com", tabela.buscar(7).originalUrl());
+    }
+}
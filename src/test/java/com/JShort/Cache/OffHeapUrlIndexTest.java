@@ -0,0 +1,79 @@
+package com.JShort.Cache;
+
+import com.JShort.Config.JShortProperties;
+import com.JShort.Model.UrlResolvida;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabase;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseBuilder;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseType;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class OffHeapUrlIndexTest {
+
+    private EmbeddedDatabase database;
+
+    private JdbcTemplate jdbcTemplate;
+
+    private OffHeapUrlIndex index;
+
+    @BeforeEach
+    void setUp() {
+        database = new EmbeddedDatabaseBuilder()
+                .setType(EmbeddedDatabaseType.H2)
+                .generateUniqueName(true)
+                .build();
+        jdbcTemplate = new JdbcTemplate(database);
+        jdbcTemplate.execute("CREATE TABLE url (short_code VARCHAR(255) PRIMARY KEY, original_url VARCHAR(2048) NOT NULL, "
+                + "expiration_date TIMESTAMP)");
+
+        JShortProperties properties = new JShortProperties();
+        properties.getIndex().setEnabled(true);
+        properties.getIndex().setInitialCapacity(16);
+        index = new OffHeapUrlIndex(jdbcTemplate, new DataSourceTransactionManager(database), null, properties, new SimpleMeterRegistry());
+    }
+
+    @AfterEach
+    void tearDown() {
+        database.shutdown();
+    }
+
+    @Test
+    void testBuscar_BeforeBuild_ShouldReturnNull() {
+        // Act & Assert
+        assertNull(index.buscar("abc123"));
+    }
+
+    @Test
+    void testReconstruir_ShouldIndexEncodableCodesFromTable() {
+        // Arrange
+        jdbcTemplate.update("INSERT INTO url VALUES ('abc123', 'https://a.example.com', NULL)");
+        jdbcTemplate.update("INSERT INTO url VALUES ('meu-link', 'https://b.example.com', NULL)");
+
+        // Act
+        index.reconstruir();
+
+        // Assert
+        assertEquals("https://a.example.com", index.buscar("abc123").originalUrl());
+        assertNull(index.buscar("meu-link"));
+        assertNull(index.buscar("zzz999"));
+    }
+
+    @Test
+    void testRegistrar_AfterBuild_ShouldBeVisibleAndReplaceable() {
+        // Arrange
+        index.reconstruir();
+
+        // Act
+        index.registrar("novo01", new UrlResolvida("https://novo.example.com", null));
+        index.registrar("novo01", new UrlResolvida("https://novo.example.com/v2", null));
+
+        // Assert
+        assertEquals("https://novo.example.com/v2", index.buscar("novo01").originalUrl());
+    }
+}
@@ -0,0 +1,156 @@
+package com.JShort.Cache;
+
+import com.JShort.Config.JShortProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabase;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseBuilder;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseType;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ShortCodeBloomFilterTest {
+
+    private EmbeddedDatabase database;
+
+    private JdbcTemplate jdbcTemplate;
+
+    private SimpleMeterRegistry meterRegistry;
+
+    private ShortCodeBloomFilter bloomFilter;
+
+    @BeforeEach
+    void setUp() {
+        database = new EmbeddedDatabaseBuilder()
+                .setType(EmbeddedDatabaseType.H2)
+                .generateUniqueName(true)
+                .build();
+        jdbcTemplate = new JdbcTemplate(database);
+        jdbcTemplate.execute("CREATE TABLE url (id VARCHAR(255) PRIMARY KEY, short_code VARCHAR(255) NOT NULL UNIQUE)");
+        for (int i = 0; i < 100; i++) {
+            jdbcTemplate.update("INSERT INTO url (id, short_code) VALUES (?, ?)", "id-" + i, "code" + i);
+        }
+
+        JShortProperties properties = new JShortProperties();
+        properties.getBloom().setEnabled(true);
+        properties.getBloom().setExpectedInsertions(1000);
+        meterRegistry = new SimpleMeterRegistry();
+        bloomFilter = new ShortCodeBloomFilter(jdbcTemplate, new DataSourceTransactionManager(database), null,
+                properties, meterRegistry);
+        // Como com o L2 ligado: os registros das outras instâncias chegam a este filtro
+        bloomFilter.propagarRegistros(shortCode -> { });
+    }
+
+    @AfterEach
+    void tearDown() {
+        database.shutdown();
+    }
+
+    @Test
+    void testPodeExistir_BeforeBuild_ShouldAssumeEveryCodeMayExist() {
+        // Act & Assert
+        assertTrue(bloomFilter.podeExistir("inexistente"));
+    }
+
+    @Test
+    void testReconstruir_ShouldContainEveryExistingCode() {
+        // Act
+        bloomFilter.reconstruir();
+
+        // Assert
+        for (int i = 0; i < 100; i++) {
+            assertTrue(bloomFilter.podeExistir("code" + i));
+        }
+        assertEquals(100, meterRegistry.get("jshort.bloom.elementos").gauge().value(), 5);
+    }
+
+    @Test
+    void testPodeExistir_UnknownCodes_ShouldRejectAlmostAll() {
+        // Arrange
+        bloomFilter.reconstruir();
+
+        // Act
+        int talvez = 0;
+        for (int i = 0; i < 1000; i++) {
+            if (bloomFilter.podeExistir("desconhecido" + i)) {
+                talvez++;
+            }
+        }
+
+        // Assert
+        assertTrue(talvez < 50, "falsos positivos: " + talvez);
+        assertEquals(1000 - talvez,
+                meterRegistry.get("jshort.bloom.consultas").tag("resultado", "inexistente").counter().count());
+    }
+
+    @Test
+    void testPodeExistir_WithoutPropagation_ShouldNotRejectUnknownCodes() {
+        // Arrange: sem L2, o código pode ter sido criado em outra instância depois da reconstrução
+        JShortProperties properties = new JShortProperties();
+        properties.getBloom().setEnabled(true);
+        properties.getBloom().setExpectedInsertions(1000);
+        ShortCodeBloomFilter local = new ShortCodeBloomFilter(jdbcTemplate, new DataSourceTransactionManager(database),
+                null, properties, meterRegistry);
+        local.reconstruir();
+
+        // Act & Assert
+        assertTrue(local.podeExistir("criadoEmOutraInstancia"));
+        assertEquals(1, meterRegistry.get("jshort.bloom.consultas").tag("resultado", "sem-propagacao").counter().count());
+    }
+
+    @Test
+    void testPodeExistir_AfterLostRegistration_ShouldNotRejectUntilNextBuild() {
+        // Arrange
+        bloomFilter.reconstruir();
+
+        // Act
+        bloomFilter.registroPerdido();
+
+        // Assert
+        assertTrue(bloomFilter.podeExistir("perdidoEmOutraInstancia"));
+        bloomFilter.reconstruir();
+        assertFalse(bloomFilter.podeExistir("perdidoEmOutraInstancia"));
+    }
+
+    @Test
+    void testRegistrar_AfterBuild_ShouldAcceptNewCode() {
+        // Arrange
+        bloomFilter.reconstruir();
+
+        // Act
+        bloomFilter.registrar("novo");
+
+        // Assert
+        assertTrue(bloomFilter.podeExistir("novo"));
+    }
+
+    @Test
+    void testReconstruir_ShouldKeepCodesRegisteredBeforeTheirInsertCommitted() {
+        // Arrange
+        bloomFilter.registrar("pendente");
+
+        // Act
+        bloomFilter.reconstruir();
+
+        // Assert
+        assertTrue(bloomFilter.podeExistir("pendente"));
+    }
+
+    @Test
+    void testReconstruir_WhenQueryFails_ShouldKeepPreviousFilter() {
+        // Arrange
+        bloomFilter.reconstruir();
+        jdbcTemplate.execute("DROP TABLE url");
+
+        // Act
+        bloomFilter.reconstruir();
+
+        // Assert
+        assertTrue(bloomFilter.podeExistir("code1"));
+        assertFalse(bloomFilter.podeExistir("desconhecido"));
+    }
+}
@@ -0,0 +1,28 @@
+package com.JShort.Config;
+
+import com.JShort.DTO.UrlDTO;
+import com.JShort.Model.Url;
+import org.junit.jupiter.api.Test;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.predicate.RuntimeHintsPredicates;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class NativeRuntimeHintsTest {
+
+    @Test
+    void testRegisterHints_ShouldExposeLombokAccessorsAndSwaggerUi() throws NoSuchMethodException {
+        // Arrange
+        RuntimeHints hints = new RuntimeHints();
+
+        // Act
+        new NativeRuntimeHints().registerHints(hints, getClass().getClassLoader());
+
+        // Assert
+        assertTrue(RuntimeHintsPredicates.reflection().onMethod(Url.class.getMethod("getShortCode")).test(hints));
+        assertTrue(RuntimeHintsPredicates.reflection().onConstructor(Url.class.getDeclaredConstructor()).test(hints));
+        assertTrue(RuntimeHintsPredicates.reflection().onMethod(UrlDTO.class.getMethod("getOriginalUrl")).test(hints));
+        assertTrue(RuntimeHintsPredicates.resource()
+                .forResource("META-INF/resources/webjars/swagger-ui/5.2.0/index.html").test(hints));
+    }
+}
@@ -0,0 +1,87 @@
+package com.JShort.Config;
+
+import com.JShort.Model.Url;
+import com.JShort.Model.UrlResolvida;
+import com.JShort.Repository.UrlRepository;
+import com.JShort.Service.UrlService;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = {
+        "jshort.replicas.enabled=true",
+        "jshort.replicas.instances[0].url=" + ReplicaDataSourceConfigTest.URL_REPLICA,
+        "jshort.replicas.instances[0].username=sa",
+        "jshort.replicas.instances[0].password="
+})
+@ActiveProfiles("test")
+class ReplicaDataSourceConfigTest {
+
+    static final String URL_REPLICA = "jdbc:h2:mem:replica;MODE=PostgreSQL;DB_CLOSE_DELAY=-1";
+
+    @Autowired
+    private UrlRepository urlRepository;
+
+    @Autowired
+    private UrlService urlService;
+
+    private JdbcTemplate replica;
+
+    @BeforeEach
+    void setUp() {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource(URL_REPLICA, "sa", "");
+        // Numa réplica de verdade o esquema chega pela replicação; aqui aplica as mesmas migrations
+        Flyway.configure().dataSource(dataSource).locations("classpath:db/migration/h2").load().migrate();
+        replica = new JdbcTemplate(dataSource);
+    }
+
+    @AfterEach
+    void tearDown() {
+        replica.execute("DELETE FROM url");
+    }
+
+    @Test
+    void testFindByShortCode_ShouldReadFromReplica() {
+        // Arrange: a linha só existe na réplica
+        replica.update("INSERT INTO url (id, original_url, short_code, creation_date, expiration_date) "
+                        + "VALUES ('r1', 'https://replica.example.com', 'soNaReplica', ?, ?)",
+                Timestamp.valueOf(LocalDateTime.now()), Timestamp.valueOf(LocalDateTime.now().plusDays(1)));
+
+        // Act & Assert
+        assertEquals("https://replica.example.com",
+                urlRepository.findByShortCode("soNaReplica").map(Url::getOriginalUrl).orElse(null));
+    }
+
+    @Test
+    void testBuscarResolvida_WithoutTransaction_ShouldReadFromReplica() {
+        // Arrange
+        replica.update("INSERT INTO url (id, original_url, short_code, creation_date, expiration_date) "
+                        + "VALUES ('r2', 'https://replica.example.com/enxuta', 'enxutaReplica', ?, NULL)",
+                Timestamp.valueOf(LocalDateTime.now()));
+
+        // Act & Assert
+        assertEquals("https://replica.example.com/enxuta",
+                urlRepository.buscarResolvida("enxutaReplica").map(UrlResolvida::originalUrl).orElse(null));
+    }
+
+    @Test
+    void testBuscarRedirecionamento_CodeNotYetReplicated_ShouldResolveOnPrimary() {
+        // Arrange: gravado só no primário, réplica "atrasada"
+        Url url = urlService.encutadorUrl("https://primary.example.com");
+
+        // Act & Assert
+        assertTrue(urlRepository.findByShortCode(url.getShortCode()).isEmpty());
+        assertEquals("https://primary.example.com", urlService.BuscarUrlOriginal(url.getShortCode()));
+    }
+}
@@ -0,0 +1,113 @@
+package com.JShort.Config;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabase;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseBuilder;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseType;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ReplicaRoutingDataSourceTest {
+
+    private EmbeddedDatabase primario;
+
+    private EmbeddedDatabase replica;
+
+    private ReplicaRoutingDataSource roteador;
+
+    private JdbcTemplate jdbcTemplate;
+
+    private TransactionTemplate leitura;
+
+    private TransactionTemplate escrita;
+
+    @BeforeEach
+    void setUp() {
+        primario = banco("primario");
+        replica = banco("replica");
+        usarRoteador(new ReplicaRoutingDataSource(primario, List.of(replica)));
+    }
+
+    @AfterEach
+    void tearDown() {
+        primario.shutdown();
+        replica.shutdown();
+    }
+
+    @Test
+    void testGetConnection_ReadOnlyTransaction_ShouldUseReplica() {
+        // Act & Assert
+        assertEquals("replica", leitura.execute(status -> origem()));
+        assertEquals("primario", escrita.execute(status -> origem()));
+        assertEquals("primario", origem());
+    }
+
+    @Test
+    void testNoPrimario_InsideReadOnlyTransaction_ShouldUsePrimary() {
+        // Act
+        String resultado = ReplicaRoutingDataSource.noPrimario(() -> leitura.execute(status -> origem()));
+
+        // Assert
+        assertEquals("primario", resultado);
+        assertEquals("replica", leitura.execute(status -> origem()));
+    }
+
+    @Test
+    void testGetConnection_ReplicaDown_ShouldFallBackToPrimary() {
+        // Arrange: réplica sem servidor escutando
+        usarRoteador(new ReplicaRoutingDataSource(primario,
+                List.of(new DriverManagerDataSource("jdbc:h2:tcp://localhost:1/indisponivel", "sa", ""))));
+
+        // Act & Assert
+        assertEquals("primario", leitura.execute(status -> origem()));
+        assertEquals(0, roteador.replicasSaudaveis());
+    }
+
+    @Test
+    void testVerificarSaude_ReplicaBack_ShouldReturnToRotation() {
+        // Arrange
+        usarRoteador(new ReplicaRoutingDataSource(primario,
+                List.of(new DriverManagerDataSource("jdbc:h2:tcp://localhost:1/indisponivel", "sa", ""), replica)));
+        roteador.verificarSaude();
+        assertEquals(1, roteador.replicasSaudaveis());
+
+        // Act & Assert: todas as leituras vão para a réplica que sobrou
+        for (int i = 0; i < 4; i++) {
+            assertEquals("replica", leitura.execute(status -> origem()));
+        }
+    }
+
+    private void usarRoteador(ReplicaRoutingDataSource novo) {
+        roteador = novo;
+        LazyConnectionDataSourceProxy dataSource = new LazyConnectionDataSourceProxy(roteador);
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        DataSourceTransactionManager transactionManager = new DataSourceTransactionManager(dataSource);
+        escrita = new TransactionTemplate(transactionManager);
+        leitura = new TransactionTemplate(transactionManager);
+        leitura.setReadOnly(true);
+    }
+
+    private String origem() {
+        return jdbcTemplate.queryForObject("SELECT nome FROM origem", String.class);
+    }
+
+    private static EmbeddedDatabase banco(String nome) {
+        EmbeddedDatabase banco = new EmbeddedDatabaseBuilder()
+                .setType(EmbeddedDatabaseType.H2)
+                .generateUniqueName(true)
+                .build();
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(banco);
+        jdbcTemplate.execute("CREATE TABLE origem (nome VARCHAR(16))");
+        jdbcTemplate.update("INSERT INTO origem (nome) VALUES (?)", nome);
+        return banco;
+    }
+}
@@ -0,0 +1,89 @@
+package com.JShort.Controller;
+
+import com.JShort.Config.JShortProperties;
+import com.JShort.Model.UrlResolvida;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RedirectPolicyTest {
+
+    private JShortProperties properties;
+
+    private RedirectPolicy policy;
+
+    private UrlResolvida url;
+
+    @BeforeEach
+    void setUp() {
+        properties = new JShortProperties();
+        policy = new RedirectPolicy(properties);
+        url = new UrlResolvida("https://www.example.com", LocalDateTime.now().plusYears(1));
+    }
+
+    @Test
+    void testResponder_Default_ShouldBeUncachedPrivate302() {
+        // Act
+        ResponseEntity<Void> resposta = policy.responder(url, null);
+
+        // Assert
+        assertEquals(HttpStatus.FOUND, resposta.getStatusCode());
+        assertEquals("https://www.example.com", resposta.getHeaders().getLocation().toString());
+        assertEquals("no-cache, private", resposta.getHeaders().getCacheControl());
+        assertNotNull(resposta.getHeaders().getETag());
+    }
+
+    @Test
+    void testResponder_Permanent_ShouldBePublicWithConfiguredMaxAge() {
+        // Arrange
+        properties.getRedirect().setStatus(301);
+
+        // Act
+        ResponseEntity<Void> resposta = policy.responder(url, null);
+
+        // Assert
+        assertEquals(HttpStatus.MOVED_PERMANENTLY, resposta.getStatusCode());
+        assertEquals("max-age=86400, public", resposta.getHeaders().getCacheControl());
+    }
+
+    @Test
+    void testResponder_PermanentCloseToExpiration_ShouldCapMaxAge() {
+        // Arrange
+        properties.getRedirect().setStatus(308);
+        UrlResolvida expirando = new UrlResolvida("https://www.example.com", LocalDateTime.now().plusMinutes(10));
+
+        // Act
+        ResponseEntity<Void> resposta = policy.responder(expirando, null);
+
+        // Assert
+        assertEquals(HttpStatus.PERMANENT_REDIRECT, resposta.getStatusCode());
+        long maxAge = Long.parseLong(resposta.getHeaders().getCacheControl().replaceAll("\\D", ""));
+        assertTrue(maxAge <= 600 && maxAge > 590);
+    }
+
+    @Test
+    void testResponder_MatchingIfNoneMatch_ShouldReturnNotModified() {
+        // Arrange
+        String etag = policy.responder(url, null).getHeaders().getETag();
+
+        // Act
+        ResponseEntity<Void> resposta = policy.responder(url, "\"outra\", W/" + etag);
+
+        // Assert
+        assertEquals(HttpStatus.NOT_MODIFIED, resposta.getStatusCode());
+        assertEquals(etag, resposta.getHeaders().getETag());
+        assertNull(resposta.getHeaders().getLocation());
+    }
+
+    @Test
+    void testEtag_DifferentStatus_ShouldChange() {
+        // Assert
+        assertNotEquals(RedirectPolicy.etag(HttpStatus.FOUND, url.originalUrl()),
+                RedirectPolicy.etag(HttpStatus.MOVED_PERMANENTLY, url.originalUrl()));
+    }
+}
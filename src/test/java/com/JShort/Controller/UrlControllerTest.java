@@ -0,0 +1,194 @@
+package com.JShort.Controller;
+
+import org.junit.jupiter.api.Test;
+import com.JShort.Analytics.ClickEventCollector;
+import com.JShort.Model.Url;
+import com.JShort.Service.UrlService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@AutoConfigureObservability
+@ActiveProfiles("test")
+class UrlControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private UrlService urlService;
+
+    @Autowired
+    private ClickEventCollector clickEventCollector;
+
+    @Test
+    void testRedirecionar_ExistingCode_ShouldRedirectWithEtag() throws Exception {
+        // Arrange
+        Url url = urlService.encutadorUrl("https://redirect.example.com");
+
+        // Act & Assert
+        String etag = mockMvc.perform(get("/url/{shortCode}", url.getShortCode()))
+                .andExpect(status().isFound())
+                .andExpect(header().string("Location", "https://redirect.example.com"))
+                .andExpect(header().string("Cache-Control", "no-cache, private"))
+                .andReturn().getResponse().getHeader("ETag");
+
+        mockMvc.perform(get("/url/{shortCode}", url.getShortCode()).header("If-None-Match", etag))
+                .andExpect(status().isNotModified());
+    }
+
+    @Test
+    void testRedirecionar_UnknownCode_ShouldReturnCacheable404() throws Exception {
+        // Act & Assert
+        mockMvc.perform(get("/url/{shortCode}", "naoExiste"))
+                .andExpect(status().isNotFound())
+                .andExpect(header().string("Cache-Control", "max-age=60, public"));
+    }
+
+    @Test
+    void testEstatisticas_AfterRedirects_ShouldReadFromRollups() throws Exception {
+        // Arrange
+        Url url = urlService.encutadorUrl("https://stats.example.com");
+        mockMvc.perform(get("/url/{shortCode}", url.getShortCode())
+                        .header("Referer", "https://news.example.org/post/1")
+                        .header("User-Agent", "Mozilla/5.0 (iPhone) Mobile"))
+                .andExpect(status().isFound());
+        mockMvc.perform(get("/url/{shortCode}", url.getShortCode())
+                        .header("User-Agent", "curl/8.4.0"))
+                .andExpect(status().isFound());
+        clickEventCollector.descarregar();
+
+        // Act & Assert
+        mockMvc.perform(get("/url/{shortCode}/stats", url.getShortCode()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.totalCliques").value(2))
+                .andExpect(jsonPath("$.dispositivos.MOBILE").value(1))
+                .andExpect(jsonPath("$.dispositivos.BOT").value(1))
+                .andExpect(jsonPath("$.referencias['news.example.org']").value(1))
+                .andExpect(jsonPath("$.referencias.direto").value(1));
+    }
+
+    @Test
+    void testEstatisticas_UnknownCode_ShouldReturnNotFound() throws Exception {
+        // Act & Assert
+        mockMvc.perform(get("/url/{shortCode}/stats", "naoExiste"))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    void testPrometheus_AfterRedirect_ShouldExposeLatencyHistograms() throws Exception {
+        // Arrange
+        Url url = urlService.encutadorUrl("https://metrics.example.com");
+        mockMvc.perform(get("/url/{shortCode}", url.getShortCode())).andExpect(status().isFound());
+
+        // Act
+        String scrape = mockMvc.perform(get("/actuator/prometheus"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+
+        // Assert
+        assertTrue(scrape.contains("jshort_url_redirecionamento_seconds{resultado=\"sucesso\",quantile=\"0.99\""));
+        assertTrue(scrape.contains("jshort_url_encurtamento_seconds_bucket"));
+        assertTrue(scrape.contains("spring_data_repository_invocations_seconds_bucket"));
+    }
+
+    @Test
+    void testReadiness_AfterWarmup_ShouldBeUp() throws Exception {
+        // Act & Assert
+        mockMvc.perform(get("/actuator/health/readiness"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.status").value("UP"));
+    }
+
+    @Test
+    void testRedirecionar_ExpiredCode_ShouldReturnGone() throws Exception {
+        // Arrange
+        Url url = urlService.encutadorUrl("https://expired.example.com", Duration.ofMillis(1));
+        Thread.sleep(5);
+
+        // Act & Assert
+        mockMvc.perform(get("/url/{shortCode}", url.getShortCode()))
+                .andExpect(status().isGone())
+                .andExpect(jsonPath("$.erro").value("URL expirada: " + url.getShortCode()));
+    }
+
+    @Test
+    void testEncurtar_CustomTtl_ShouldSetExpirationDate() throws Exception {
+        // Act & Assert
+        mockMvc.perform(post("/url/encurtar")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"originalUrl\": \"https://ttl.example.com\", \"ttl\": \"P7D\"}"))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.expirationDate").exists());
+        Url url = urlService.encutadorUrl("https://ttl.example.com");
+        assertEquals(7, Duration.between(url.getCreationDate(), url.getExpirationDate()).toDays());
+    }
+
+    @Test
+    void testEncurtar_InvalidUrl_ShouldReturnBadRequest() throws Exception {
+        // Act & Assert
+        mockMvc.perform(post("/url/encurtar")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"originalUrl\": \"nope\"}"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.erro").value("URL inválida"));
+    }
+
+    @Test
+    void testEncurtarLote_JsonArray_ShouldStreamOneResultPerLine() throws Exception {
+        // Act
+        MvcResult inicio = mockMvc.perform(post("/url/encurtar/lote")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("[\"https://lote.example.com/1\", {\"originalUrl\": \"https://lote.example.com/2\"}, \"nope\"]"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        String corpo = mockMvc.perform(asyncDispatch(inicio))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+
+        // Assert
+        String[] linhas = corpo.strip().split("\n");
+        assertEquals(3, linhas.length);
+        assertTrue(linhas[0].contains("\"status\":\"CRIADA\""));
+        assertTrue(linhas[1].contains("https://lote.example.com/2"));
+        assertTrue(linhas[2].contains("\"status\":\"INVALIDA\""));
+    }
+
+    @Test
+    void testEncurtarLote_Ndjson_ShouldReuseExistingCodes() throws Exception {
+        // Arrange
+        String ndjson = "\"https://lote.example.com/ndjson\"\n\"https://lote.example.com/ndjson\"\n";
+
+        // Act
+        MvcResult inicio = mockMvc.perform(post("/url/encurtar/lote")
+                        .contentType(MediaType.APPLICATION_NDJSON)
+                        .content(ndjson))
+                .andReturn();
+        String corpo = mockMvc.perform(asyncDispatch(inicio))
+                .andReturn().getResponse().getContentAsString();
+
+        // Assert
+        String[] linhas = corpo.strip().split("\n");
+        assertEquals(2, linhas.length);
+        assertTrue(linhas[0].contains("\"status\":\"CRIADA\""));
+        assertTrue(linhas[1].contains("\"status\":\"EXISTENTE\""));
+    }
+}
@@ -0,0 +1,31 @@
+package com.JShort.Controller;
+
+import com.JShort.Config.JShortProperties;
+import com.JShort.Exception.UrlNaoEncontradaException;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class UrlExceptionHandlerTest {
+
+    private final UrlExceptionHandler handler = new UrlExceptionHandler(new JShortProperties());
+
+    @Test
+    void testNaoEncontrada_ConfirmedByDatabase_ShouldBePubliclyCacheable() {
+        // Act
+        var resposta = handler.naoEncontrada(new UrlNaoEncontradaException("abc"));
+
+        // Assert
+        assertEquals("max-age=60, public", resposta.getHeaders().getFirst(HttpHeaders.CACHE_CONTROL));
+    }
+
+    @Test
+    void testNaoEncontrada_NotDefinitive_ShouldNotBeStored() {
+        // Act
+        var resposta = handler.naoEncontrada(new UrlNaoEncontradaException("abc", false));
+
+        // Assert
+        assertEquals("no-store", resposta.getHeaders().getFirst(HttpHeaders.CACHE_CONTROL));
+    }
+}
@@ -0,0 +1,57 @@
+package com.JShort.Controller;
+
+import com.JShort.Config.JShortProperties;
+import com.JShort.RateLimit.RateLimits;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class UrlLoteLimitadoTest {
+
+    private RateLimits rateLimits;
+
+    @BeforeEach
+    void setUp() {
+        JShortProperties properties = new JShortProperties();
+        properties.getRateLimit().setEnabled(true);
+        properties.getRateLimit().setShorten(new JShortProperties.RateLimit.Limite(1, 2));
+        rateLimits = new RateLimits(properties, new SimpleMeterRegistry());
+    }
+
+    @Test
+    void testNext_AboveLimit_ShouldStopBatchWithRetryAfter() {
+        // Arrange: o filtro já cobrou a requisição (primeira URL)
+        rateLimits.consumir(RateLimits.Rota.ENCURTAR, null, "203.0.113.7");
+        UrlLoteLimitado lote = new UrlLoteLimitado(List.of("a", "b", "c", "d").iterator(), rateLimits, null, "203.0.113.7");
+
+        // Act
+        List<String> lidas = new ArrayList<>();
+        lote.forEachRemaining(lidas::add);
+
+        // Assert
+        assertEquals(List.of("a", "b"), lidas);
+        assertEquals(1, lote.retryAfter());
+    }
+
+    @Test
+    void testHasNext_CalledRepeatedly_ShouldChargeOnlyOncePerUrl() {
+        // Arrange
+        rateLimits.consumir(RateLimits.Rota.ENCURTAR, null, "203.0.113.7");
+        UrlLoteLimitado lote = new UrlLoteLimitado(List.of("a", "b").iterator(), rateLimits, null, "203.0.113.7");
+
+        // Act
+        lote.next();
+        lote.hasNext();
+        lote.hasNext();
+        lote.next();
+
+        // Assert
+        assertFalse(lote.hasNext());
+        assertEquals(0, lote.retryAfter());
+    }
+}
@@ -0,0 +1,85 @@
+package com.JShort.RateLimit;
+
+import com.JShort.Config.JShortProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RateLimitFilterTest {
+
+    private SimpleMeterRegistry meterRegistry;
+
+    private RateLimitFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        JShortProperties properties = new JShortProperties();
+        properties.getRateLimit().setEnabled(true);
+        properties.getRateLimit().setShorten(new JShortProperties.RateLimit.Limite(1, 2));
+        properties.getRateLimit().setApiKeys(List.of("chave-parceiro"));
+        meterRegistry = new SimpleMeterRegistry();
+        filter = new RateLimitFilter(new RateLimits(properties, meterRegistry));
+    }
+
+    @Test
+    void testDoFilter_ShortenAboveLimit_ShouldReturn429WithRetryAfter() throws Exception {
+        // Arrange
+        encurtar("203.0.113.7", null);
+        encurtar("203.0.113.7", null);
+
+        // Act
+        MockHttpServletResponse resposta = encurtar("203.0.113.7", null);
+
+        // Assert
+        assertEquals(429, resposta.getStatus());
+        assertEquals("1", resposta.getHeader("Retry-After"));
+        assertEquals(1, meterRegistry.get("jshort.ratelimit.rejeitadas").tag("rota", "encurtar").counter().count());
+    }
+
+    @Test
+    void testDoFilter_KnownApiKey_ShouldNotShareBucketWithIp() throws Exception {
+        // Arrange
+        encurtar("203.0.113.7", null);
+        encurtar("203.0.113.7", null);
+
+        // Act & Assert
+        assertEquals(200, encurtar("203.0.113.7", "chave-parceiro").getStatus());
+        assertEquals(429, encurtar("203.0.113.7", "chave-inventada").getStatus());
+    }
+
+    @Test
+    void testDoFilter_OtherRoutes_ShouldNotCountAgainstShortenLimit() throws Exception {
+        // Arrange
+        encurtar("203.0.113.7", null);
+        encurtar("203.0.113.7", null);
+        MockHttpServletRequest estatisticas = new MockHttpServletRequest("GET", "/api/url/abc123/stats");
+        estatisticas.setContextPath("/api");
+        estatisticas.setRemoteAddr("203.0.113.7");
+        MockHttpServletResponse resposta = new MockHttpServletResponse();
+
+        // Act
+        filter.doFilter(estatisticas, resposta, new MockFilterChain());
+
+        // Assert
+        assertEquals(200, resposta.getStatus());
+    }
+
+    private MockHttpServletResponse encurtar(String ip, String apiKey) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/api/url/encurtar");
+        request.setContextPath("/api");
+        request.setRemoteAddr(ip);
+        if (apiKey != null) {
+            request.addHeader("X-API-Key", apiKey);
+        }
+        MockHttpServletResponse resposta = new MockHttpServletResponse();
+        filter.doFilter(request, resposta, new MockFilterChain());
+        return resposta;
+    }
+}
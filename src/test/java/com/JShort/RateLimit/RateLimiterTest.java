@@ -0,0 +1,130 @@
+package com.JShort.RateLimit;
+
+import com.JShort.Config.JShortProperties;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RateLimiterTest {
+
+    private final AtomicLong agora = new AtomicLong();
+
+    private RateLimiter limiter;
+
+    @BeforeEach
+    void setUp() {
+        // 10 por segundo (uma a cada 100 ms), rajada de 3
+        limiter = new RateLimiter(new JShortProperties.RateLimit.Limite(10, 3), 1000, agora::get);
+    }
+
+    @Test
+    void testConsumir_WithinBurst_ShouldAllow() {
+        // Act & Assert
+        for (int i = 0; i < 3; i++) {
+            assertEquals(0, limiter.consumir("1.2.3.4"));
+        }
+    }
+
+    @Test
+    void testConsumir_AboveBurst_ShouldReturnWaitUntilNextToken() {
+        // Arrange
+        for (int i = 0; i < 3; i++) {
+            limiter.consumir("1.2.3.4");
+        }
+
+        // Act
+        long espera = limiter.consumir("1.2.3.4");
+
+        // Assert
+        assertEquals(TimeUnit.MILLISECONDS.toNanos(100), espera);
+    }
+
+    @Test
+    void testConsumir_AfterRefill_ShouldAllowAgainAtSustainedRate() {
+        // Arrange
+        for (int i = 0; i < 3; i++) {
+            limiter.consumir("1.2.3.4");
+        }
+
+        // Act
+        agora.addAndGet(TimeUnit.MILLISECONDS.toNanos(100));
+        long primeira = limiter.consumir("1.2.3.4");
+        long segunda = limiter.consumir("1.2.3.4");
+
+        // Assert
+        assertEquals(0, primeira);
+        assertTrue(segunda > 0);
+    }
+
+    @Test
+    void testConsumir_RejectedRequest_ShouldNotConsumeToken() {
+        // Arrange
+        for (int i = 0; i < 10; i++) {
+            limiter.consumir("1.2.3.4");
+        }
+
+        // Act
+        agora.addAndGet(TimeUnit.MILLISECONDS.toNanos(100));
+
+        // Assert
+        assertEquals(0, limiter.consumir("1.2.3.4"));
+    }
+
+    @Test
+    void testConsumir_DifferentClients_ShouldHaveIndependentBuckets() {
+        // Arrange
+        for (int i = 0; i < 3; i++) {
+            limiter.consumir("1.2.3.4");
+        }
+
+        // Act & Assert
+        assertTrue(limiter.consumir("1.2.3.4") > 0);
+        assertEquals(0, limiter.consumir("5.6.7.8"));
+    }
+
+    @Test
+    void testConsumir_MaximumClients_ShouldBoundTrackedClients() {
+        // Arrange
+        RateLimiter pequeno = new RateLimiter(new JShortProperties.RateLimit.Limite(10, 3), 10, agora::get);
+
+        // Act
+        for (int i = 0; i < 1000; i++) {
+            pequeno.consumir("10.0.0." + i);
+        }
+
+        // Assert
+        assertTrue(pequeno.clientes() <= 10);
+    }
+
+    @Test
+    void testConsumir_LosesCasToNewerRequest_ShouldRetryWithFreshClock() {
+        // Arrange: o balde esgota em t=0; a thread lê o relógio em t=100ms e, antes do CAS, outra consome em t=200ms
+        long ms = TimeUnit.MILLISECONDS.toNanos(1);
+        AtomicBoolean concorrenteRodou = new AtomicBoolean();
+        RateLimiter[] disputado = new RateLimiter[1];
+        disputado[0] = new RateLimiter(new JShortProperties.RateLimit.Limite(10, 3), 1000, () -> {
+            if (agora.get() == 100 * ms && concorrenteRodou.compareAndSet(false, true)) {
+                agora.set(200 * ms);
+                assertEquals(0, disputado[0].consumir("1.2.3.4"));
+                return 100 * ms;
+            }
+            return agora.get();
+        });
+        for (int i = 0; i < 3; i++) {
+            disputado[0].consumir("1.2.3.4");
+        }
+        agora.set(100 * ms);
+
+        // Act
+        long espera = disputado[0].consumir("1.2.3.4");
+
+        // Assert: em t=200ms já há dois tokens, um para cada requisição
+        assertTrue(concorrenteRodou.get());
+        assertEquals(0, espera);
+    }
+}
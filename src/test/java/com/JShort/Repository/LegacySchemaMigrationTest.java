@@ -0,0 +1,74 @@
+package com.JShort.Repository;
+
+import com.JShort.Config.JShortProperties;
+import com.JShort.Service.UrlHash;
+import com.JShort.Service.UrlHashBackfill;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabase;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseBuilder;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseType;
+
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LegacySchemaMigrationTest {
+
+    private EmbeddedDatabase database;
+
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void setUp() {
+        database = new EmbeddedDatabaseBuilder()
+                .setType(EmbeddedDatabaseType.H2)
+                .setName("legado" + UUID.randomUUID() + ";MODE=PostgreSQL")
+                .build();
+        jdbcTemplate = new JdbcTemplate(database);
+
+        // A url como o Hibernate (ddl-auto=update) criava antes das migrations, sem original_url_hash
+        jdbcTemplate.execute("CREATE TABLE url (id VARCHAR(255) NOT NULL PRIMARY KEY, access_count BIGINT, "
+                + "creation_date TIMESTAMP(6), expiration_date TIMESTAMP(6), original_url VARCHAR(2048) NOT NULL, "
+                + "short_code VARCHAR(255) NOT NULL UNIQUE)");
+        jdbcTemplate.update("INSERT INTO url (id, access_count, original_url, short_code) VALUES ('a', 7, 'https://legado.com/a', 'leg1')");
+        jdbcTemplate.update("INSERT INTO url (id, access_count, original_url, short_code) VALUES ('b', 0, 'https://legado.com/a', 'leg2')");
+        jdbcTemplate.update("INSERT INTO url (id, access_count, original_url, short_code) VALUES ('c', NULL, 'https://legado.com/c', 'leg3')");
+    }
+
+    @AfterEach
+    void tearDown() {
+        database.shutdown();
+    }
+
+    @Test
+    void testMigrate_FromPreMigrationSchema_ShouldKeepRowsAndCounters() {
+        // Act
+        Flyway.configure().dataSource(database).locations("classpath:db/migration/h2")
+                .baselineOnMigrate(true).baselineVersion("0").load().migrate();
+
+        // Assert
+        assertEquals(3, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM url", Integer.class));
+        assertEquals(7L, jdbcTemplate.queryForObject(
+                "SELECT access_count FROM url_access_count WHERE short_code = 'leg1'", Long.class));
+        assertEquals(0, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM url_hash", Integer.class));
+    }
+
+    @Test
+    void testBackfill_AfterMigration_ShouldClaimOneHashPerUrl() {
+        // Arrange
+        Flyway.configure().dataSource(database).locations("classpath:db/migration/h2")
+                .baselineOnMigrate(true).baselineVersion("0").load().migrate();
+
+        // Act
+        int preenchidas = new UrlHashBackfill(jdbcTemplate, new JShortProperties()).preencher();
+
+        // Assert
+        assertEquals(2, preenchidas);
+        assertEquals("leg1", jdbcTemplate.queryForObject("SELECT short_code FROM url_hash WHERE original_url_hash = ?",
+                String.class, UrlHash.calcular("https://legado.com/a")));
+    }
+}
@@ -1,13 +1,19 @@
 package com.JShort.Repository;
 
 import com.JShort.Model.Url;
+import com.JShort.Model.UrlResolvida;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
 import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.lang.management.ManagementFactory;
 import java.time.LocalDateTime;
+import java.util.List;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -22,6 +28,9 @@ class UrlRepositoryTest {
     @Autowired
     private UrlRepository urlRepository;
 
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
     @Test
     void testSaveUrl_ShouldPersistUrl() {
         // Arrange
@@ -72,6 +81,57 @@ class UrlRepositoryTest {
         assertFalse(found.isPresent());
     }
 
+    @Test
+    void testBuscarResolvida_ExistingCode_ShouldReturnOnlyUrlAndExpiration() {
+        // Arrange
+        LocalDateTime expiracao = LocalDateTime.of(2030, 1, 2, 3, 4, 5);
+        Url url = new Url();
+        url.setOriginalUrl("https://www.example.com/enxuta");
+        url.setShortCode("enx001");
+        url.setCreationDate(LocalDateTime.now());
+        url.setExpirationDate(expiracao);
+        url.setAccessCount(0L);
+        entityManager.persistAndFlush(url);
+
+        // Act
+        Optional<UrlResolvida> found = urlRepository.buscarResolvida("enx001");
+
+        // Assert
+        assertEquals(Optional.of(new UrlResolvida("https://www.example.com/enxuta", expiracao)), found);
+        assertTrue(urlRepository.buscarResolvida("nonexistent").isEmpty());
+    }
+
+    @Test
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    void testBuscarResolvida_ShouldAllocateLessThanEntityLookup() {
+        // Arrange: fora da transação do teste, como no redirecionamento
+        jdbcTemplate.update("INSERT INTO url (id, original_url, short_code, creation_date, expiration_date) "
+                + "VALUES ('aloc', 'https://www.example.com/alocacao', 'aloc01', CURRENT_TIMESTAMP, NULL)");
+        try {
+            // Act
+            long entidade = bytesPorChamada(() -> urlRepository.findByShortCode("aloc01"));
+            long enxuta = bytesPorChamada(() -> urlRepository.buscarResolvida("aloc01"));
+
+            // Assert
+            assertTrue(enxuta < entidade, "bytes por busca: enxuta=" + enxuta + ", entidade=" + entidade);
+        } finally {
+            jdbcTemplate.update("DELETE FROM url WHERE id = 'aloc'");
+        }
+    }
+
+    private static long bytesPorChamada(Runnable busca) {
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        int chamadas = 500;
+        for (int i = 0; i < chamadas; i++) {
+            busca.run();
+        }
+        long antes = threads.getCurrentThreadAllocatedBytes();
+        for (int i = 0; i < chamadas; i++) {
+            busca.run();
+        }
+        return (threads.getCurrentThreadAllocatedBytes() - antes) / chamadas;
+    }
+
     @Test
     void testFindByOriginalUrl_ExistingUrl_ShouldReturnUrl() {
         // Arrange
@@ -133,14 +193,80 @@ class UrlRepositoryTest {
         Url savedUrl = urlRepository.save(url);
 
         // Act
-        savedUrl.setAccessCount(5L);
+        LocalDateTime novaExpiracao = LocalDateTime.now().plusYears(2).withNano(0);
+        savedUrl.setExpirationDate(novaExpiracao);
         Url updatedUrl = urlRepository.save(savedUrl);
 
         // Assert
-        assertEquals(5L, updatedUrl.getAccessCount());
+        assertEquals(novaExpiracao, updatedUrl.getExpirationDate());
         assertEquals(savedUrl.getId(), updatedUrl.getId());
     }
 
+    @Test
+    void testInserirSeAusente_NewUrl_ShouldInsertAndBeFoundByHash() {
+        // Act
+        int inseridas = urlRepository.inserirSeAusente("id-hash-1", "https://www.hash.com", "hash-1",
+                "hsh123", LocalDateTime.now(), LocalDateTime.now().plusYears(1));
+
+        // Assert
+        assertEquals(1, inseridas);
+        Optional<Url> found = urlRepository.findByOriginalUrlHash("hash-1");
+        assertTrue(found.isPresent());
+        assertEquals("hsh123", found.get().getShortCode());
+        assertEquals(0L, found.get().getAccessCount());
+    }
+
+    @Test
+    void testInserirSeAusente_SameHash_ShouldNotInsertSecondRow() {
+        // Arrange
+        urlRepository.inserirSeAusente("id-dup-1", "https://www.dup.com", "hash-dup",
+                "dup001", LocalDateTime.now(), LocalDateTime.now().plusYears(1));
+
+        // Act
+        int inseridas = urlRepository.inserirSeAusente("id-dup-2", "https://www.dup.com", "hash-dup",
+                "dup002", LocalDateTime.now(), LocalDateTime.now().plusYears(1));
+
+        // Assert
+        assertEquals(0, inseridas);
+        assertFalse(urlRepository.findByShortCode("dup002").isPresent());
+    }
+
+    @Test
+    void testInserirSeAusente_SameShortCode_ShouldNotInsertSecondRow() {
+        // Arrange
+        urlRepository.inserirSeAusente("id-code-1", "https://www.code1.com", "hash-code-1",
+                "code01", LocalDateTime.now(), LocalDateTime.now().plusYears(1));
+
+        // Act
+        int inseridas = urlRepository.inserirSeAusente("id-code-2", "https://www.code2.com", "hash-code-2",
+                "code01", LocalDateTime.now(), LocalDateTime.now().plusYears(1));
+
+        // Assert
+        assertEquals(0, inseridas);
+        assertFalse(urlRepository.findByOriginalUrlHash("hash-code-2").isPresent());
+    }
+
+    @Test
+    void testInserirLote_ExistingHashAndCode_ShouldReturnOnlyNewRows() {
+        // Arrange
+        LocalDateTime agora = LocalDateTime.now();
+        urlRepository.inserirSeAusente("id-lote-0", "https://www.lote0.com", "hash-lote-0",
+                "lote00", agora, agora.plusYears(1));
+        Url nova = new Url("id-lote-1", "https://www.lote1.com", "hash-lote-1", "lote01", agora, agora.plusYears(1), 4L);
+        Url mesmaUrl = new Url("id-lote-2", "https://www.lote0.com", "hash-lote-0", "lote02", agora, agora.plusYears(1), 0L);
+        Url mesmoCodigo = new Url("id-lote-3", "https://www.lote3.com", "hash-lote-3", "lote00", agora, agora.plusYears(1), 0L);
+
+        // Act
+        List<Url> gravadas = urlRepository.inserirLote(List.of(nova, mesmaUrl, mesmoCodigo), false);
+
+        // Assert
+        assertEquals(List.of(nova), gravadas);
+        assertFalse(urlRepository.findByShortCode("lote02").isPresent());
+        assertEquals("lote00", urlRepository.findByOriginalUrlHash("hash-lote-0").map(Url::getShortCode).orElse(null));
+        assertEquals(4L, jdbcTemplate.queryForObject(
+                "SELECT access_count FROM url_access_count WHERE short_code = 'lote01'", Long.class));
+    }
+
     @Test
     void testUrlConstraints_ShortCodeShouldBeUnique() {
         // Arrange
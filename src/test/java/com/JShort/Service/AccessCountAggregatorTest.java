@@ -0,0 +1,190 @@
+package com.JShort.Service;
+
+import com.JShort.Config.JShortProperties;
+import com.JShort.Model.UrlResolvida;
+import com.JShort.WriteBehind.UrlWriteBehind;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.TaskScheduler;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class AccessCountAggregatorTest {
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private TaskScheduler taskScheduler;
+
+    @Mock
+    private UrlWriteBehind writeBehind;
+
+    private JShortProperties properties;
+
+    private AccessCountAggregator aggregator;
+
+    @BeforeEach
+    void setUp() {
+        properties = new JShortProperties();
+        aggregator = new AccessCountAggregator(jdbcTemplate, taskScheduler, writeBehind, properties);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testDescarregar_ShouldWriteAccumulatedDeltasInOneBatch() {
+        // Arrange
+        aggregator.registrarAcesso("abc123");
+        aggregator.registrarAcesso("abc123");
+        aggregator.registrarAcesso("abc123");
+        aggregator.registrarAcesso("xyz789");
+
+        // Act
+        aggregator.descarregar();
+
+        // Assert
+        ArgumentCaptor<List<Object[]>> captor = ArgumentCaptor.forClass(List.class);
+        verify(jdbcTemplate, times(1)).batchUpdate(eq(AccessCountAggregator.SQL_INCREMENTO), captor.capture());
+        List<Object[]> lote = captor.getValue();
+        assertEquals(2, lote.size());
+        assertTrue(lote.stream().anyMatch(item -> item[0].equals(3L) && item[1].equals("abc123")));
+        assertTrue(lote.stream().anyMatch(item -> item[0].equals(1L) && item[1].equals("xyz789")));
+        assertEquals(0, aggregator.pendentes("abc123"));
+    }
+
+    @Test
+    void testDescarregar_NoClicks_ShouldNotTouchDatabase() {
+        // Act
+        aggregator.descarregar();
+
+        // Assert
+        verifyNoInteractions(jdbcTemplate);
+    }
+
+    @Test
+    void testDescarregar_ShouldSplitIntoBatchesOfMaxSize() {
+        // Arrange
+        properties.getAccessCount().setMaxBatchSize(2);
+        for (int i = 0; i < 5; i++) {
+            aggregator.registrarAcesso("code" + i);
+        }
+
+        // Act
+        aggregator.descarregar();
+
+        // Assert
+        verify(jdbcTemplate, times(3)).batchUpdate(eq(AccessCountAggregator.SQL_INCREMENTO), anyList());
+    }
+
+    @Test
+    void testDescarregar_DatabaseFailure_ShouldKeepDeltasForNextRound() {
+        // Arrange
+        aggregator.registrarAcesso("abc123");
+        aggregator.registrarAcesso("abc123");
+        when(jdbcTemplate.batchUpdate(eq(AccessCountAggregator.SQL_INCREMENTO), anyList()))
+                .thenThrow(new DataAccessResourceFailureException("banco fora do ar"));
+
+        // Act
+        aggregator.descarregar();
+
+        // Assert
+        assertEquals(2, aggregator.pendentes("abc123"));
+    }
+
+    @Test
+    void testDescarregar_CodeStillInWriteBehind_ShouldKeepDeltaUntilUrlIsStored() {
+        // Arrange
+        aggregator.registrarAcesso("pendente");
+        aggregator.registrarAcesso("removido");
+        when(jdbcTemplate.batchUpdate(eq(AccessCountAggregator.SQL_INCREMENTO), anyList())).thenReturn(new int[]{0, 0});
+        when(writeBehind.ativo()).thenReturn(true);
+        when(writeBehind.pendente("pendente"))
+                .thenReturn(new UrlResolvida("https://pendente.example.com", LocalDateTime.now().plusDays(1)));
+
+        // Act
+        aggregator.descarregar();
+
+        // Assert
+        assertEquals(1, aggregator.pendentes("pendente"));
+        assertEquals(0, aggregator.pendentes("removido"));
+    }
+
+    @Test
+    void testRegistrarAcesso_ConcurrentClicks_ShouldNotLoseUpdates() throws Exception {
+        // Arrange
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+
+        // Act
+        for (int i = 0; i < 10_000; i++) {
+            executor.execute(() -> aggregator.registrarAcesso("hot001"));
+        }
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+
+        // Assert
+        assertEquals(10_000, aggregator.pendentes("hot001"));
+    }
+
+    @Test
+    void testDescarregar_ConcurrentWithClicksOnIdleCodes_ShouldNotLoseClicks() throws Exception {
+        // Arrange: poucos cliques por código, então o descarregar vive removendo contadores ociosos
+        AtomicLong gravados = new AtomicLong();
+        when(jdbcTemplate.batchUpdate(eq(AccessCountAggregator.SQL_INCREMENTO), anyList())).thenAnswer(invocation -> {
+            List<Object[]> lote = invocation.getArgument(1);
+            lote.forEach(item -> gravados.addAndGet((Long) item[0]));
+            return new int[lote.size()];
+        });
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        AtomicBoolean clicando = new AtomicBoolean(true);
+        Thread descarregador = new Thread(() -> {
+            while (clicando.get()) {
+                aggregator.descarregar();
+            }
+        });
+        descarregador.start();
+
+        // Act
+        for (int i = 0; i < 200_000; i++) {
+            String shortCode = "code" + (i % 64);
+            executor.execute(() -> aggregator.registrarAcesso(shortCode));
+        }
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(30, TimeUnit.SECONDS));
+        clicando.set(false);
+        descarregador.join();
+        aggregator.descarregar();
+
+        // Assert
+        assertEquals(200_000, gravados.get());
+    }
+
+    @Test
+    void testStop_ShouldDrainPendingDeltas() {
+        // Arrange
+        aggregator.registrarAcesso("abc123");
+
+        // Act
+        aggregator.stop();
+
+        // Assert
+        verify(jdbcTemplate, times(1)).batchUpdate(eq(AccessCountAggregator.SQL_INCREMENTO), anyList());
+    }
+}
@@ -0,0 +1,135 @@
+package com.JShort.Service;
+
+import com.JShort.Cache.UrlCache;
+import com.JShort.Config.JShortProperties;
+import com.JShort.Model.UrlResolvida;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabase;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseBuilder;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseType;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ExpiredUrlSweeperTest {
+
+    private EmbeddedDatabase database;
+
+    private JdbcTemplate jdbcTemplate;
+
+    private JShortProperties properties;
+
+    private UrlCache urlCache;
+
+    @BeforeEach
+    void setUp() {
+        database = new EmbeddedDatabaseBuilder()
+                .setType(EmbeddedDatabaseType.H2)
+                .generateUniqueName(true)
+                .build();
+        Flyway.configure().dataSource(database).locations("classpath:db/migration/h2").load().migrate();
+        jdbcTemplate = new JdbcTemplate(database);
+
+        properties = new JShortProperties();
+        properties.getExpiration().setSweeperBatchSize(2);
+        urlCache = new UrlCache(properties, new SimpleMeterRegistry());
+    }
+
+    @AfterEach
+    void tearDown() {
+        database.shutdown();
+    }
+
+    @Test
+    void testVarrerLote_ShouldRemoveOnlyUrlsExpiredBeyondGracePeriod() {
+        // Arrange
+        LocalDateTime agora = LocalDateTime.now();
+        for (int i = 0; i < 5; i++) {
+            inserir("antiga" + i, agora.minusDays(30).plusMinutes(i % 2));
+        }
+        inserir("carencia", agora.minusDays(1));
+        inserir("valida", agora.plusDays(1));
+        inserir("semExpiracao", null);
+        ExpiredUrlSweeper sweeper = sweeper();
+
+        // Act
+        ExpiredUrlSweeper.Varredura varredura = sweeper.novaVarredura();
+        int lotes = 1;
+        while (sweeper.varrerLote(varredura)) {
+            lotes++;
+        }
+
+        // Assert
+        assertEquals(5, varredura.removidas());
+        assertEquals(3, lotes);
+        assertEquals(3, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM url", Integer.class));
+        assertEquals(0, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM url_archive", Integer.class));
+    }
+
+    @Test
+    void testVarrerLote_ArchiveMode_ShouldCopyBeforeRemoving() {
+        // Arrange
+        properties.getExpiration().setSweeperMode(JShortProperties.Expiration.Modo.ARCHIVE);
+        inserir("antiga", LocalDateTime.now().minusDays(30));
+        ExpiredUrlSweeper sweeper = sweeper();
+
+        // Act
+        sweeper.varrerLote(sweeper.novaVarredura());
+
+        // Assert
+        assertEquals(0, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM url", Integer.class));
+        assertEquals("antiga", jdbcTemplate.queryForObject("SELECT short_code FROM url_archive", String.class));
+    }
+
+    @Test
+    void testVarrerLote_UrlRenewedDuringSweep_ShouldBeKept() {
+        // Arrange
+        inserir("renovada", LocalDateTime.now().minusDays(30));
+        ExpiredUrlSweeper sweeper = sweeper();
+        ExpiredUrlSweeper.Varredura varredura = sweeper.novaVarredura();
+        jdbcTemplate.update("UPDATE url SET expiration_date = ? WHERE short_code = 'renovada'",
+                Timestamp.valueOf(LocalDateTime.now().plusDays(365)));
+
+        // Act
+        sweeper.varrerLote(varredura);
+
+        // Assert
+        assertEquals(1, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM url", Integer.class));
+    }
+
+    @Test
+    void testVarrerLote_ShouldInvalidateRemovedCodesInCache() {
+        // Arrange
+        LocalDateTime expiracao = LocalDateTime.now().minusDays(30);
+        inserir("antiga", expiracao);
+        urlCache.carregar(Map.of("antiga", new UrlResolvida("https://www.example.com/antiga", expiracao)));
+        ExpiredUrlSweeper sweeper = sweeper();
+
+        // Act
+        sweeper.varrerLote(sweeper.novaVarredura());
+
+        // Assert
+        assertTrue(urlCache.entradas().isEmpty());
+    }
+
+    private ExpiredUrlSweeper sweeper() {
+        return new ExpiredUrlSweeper(jdbcTemplate, new TransactionTemplate(new DataSourceTransactionManager(database)),
+                null, urlCache, properties, new SimpleMeterRegistry());
+    }
+
+    private void inserir(String shortCode, LocalDateTime expiracao) {
+        jdbcTemplate.update("INSERT INTO url (id, original_url, short_code, creation_date, expiration_date) "
+                        + "VALUES (?, ?, ?, ?, ?)", "id-" + shortCode, "https://www.example.com/" + shortCode, shortCode,
+                Timestamp.valueOf(LocalDateTime.now()), expiracao == null ? null : Timestamp.valueOf(expiracao));
+    }
+}
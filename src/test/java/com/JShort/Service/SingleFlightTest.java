@@ -0,0 +1,193 @@
+package com.JShort.Service;
+
+import com.JShort.Exception.UrlIndisponivelException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SingleFlightTest {
+
+    private static final int CHAMADAS = 8;
+
+    private final ExecutorService executor = Executors.newFixedThreadPool(CHAMADAS);
+
+    private final AtomicInteger compartilhadas = new AtomicInteger();
+
+    private final AtomicInteger esgotadas = new AtomicInteger();
+
+    @AfterEach
+    void encerrar() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    void testExecutar_ConcurrentCallsSameKey_ShouldRunLoadOnce() throws Exception {
+        // Arrange
+        SingleFlight<String, Optional<String>> singleFlight = singleFlight(Duration.ofSeconds(5));
+        AtomicInteger cargas = new AtomicInteger();
+        CountDownLatch liberar = new CountDownLatch(1);
+
+        // Act
+        List<Future<Optional<String>>> resultados = chamarJuntas(() -> singleFlight.executar("abc123", () -> {
+            cargas.incrementAndGet();
+            aguardar(liberar);
+            return Optional.empty();
+        }));
+        aguardarCompartilhadas(CHAMADAS - 1);
+        liberar.countDown();
+
+        // Assert
+        for (Future<Optional<String>> resultado : resultados) {
+            assertEquals(Optional.empty(), resultado.get(5, TimeUnit.SECONDS));
+        }
+        assertEquals(1, cargas.get());
+        assertEquals(0, singleFlight.emAndamento());
+    }
+
+    @Test
+    void testExecutar_LoadFails_ShouldPropagateSameExceptionToWaiters() throws Exception {
+        // Arrange
+        SingleFlight<String, String> singleFlight = singleFlight(Duration.ofSeconds(5));
+        IllegalStateException falha = new IllegalStateException("banco fora");
+        CountDownLatch liberar = new CountDownLatch(1);
+
+        // Act
+        List<Future<String>> resultados = chamarJuntas(() -> singleFlight.executar("abc123", () -> {
+            aguardar(liberar);
+            throw falha;
+        }));
+        aguardarCompartilhadas(CHAMADAS - 1);
+        liberar.countDown();
+
+        // Assert
+        for (Future<String> resultado : resultados) {
+            ExecutionException ex = assertThrows(ExecutionException.class, () -> resultado.get(5, TimeUnit.SECONDS));
+            assertSame(falha, ex.getCause());
+        }
+        assertEquals(0, singleFlight.emAndamento());
+    }
+
+    @Test
+    void testExecutar_WaitAboveTimeout_ShouldFailWithUnavailable() throws Exception {
+        // Arrange
+        SingleFlight<String, String> singleFlight = singleFlight(Duration.ofMillis(50));
+        CountDownLatch liberar = new CountDownLatch(1);
+        Future<String> lenta = executor.submit(() -> singleFlight.executar("abc123", () -> {
+            aguardar(liberar);
+            return "https://www.example.com";
+        }));
+        while (singleFlight.emAndamento() == 0) {
+            Thread.onSpinWait();
+        }
+
+        // Act & Assert
+        assertThrows(UrlIndisponivelException.class, () -> singleFlight.executar("abc123", () -> "outra"));
+        assertEquals(1, esgotadas.get());
+        liberar.countDown();
+        assertEquals("https://www.example.com", lenta.get(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void testExecutar_Disabled_ShouldRunEveryLoad() {
+        // Arrange
+        SingleFlight<String, Integer> singleFlight = new SingleFlight<>(false, Duration.ofSeconds(1),
+                compartilhadas::incrementAndGet, esgotadas::incrementAndGet);
+        AtomicInteger cargas = new AtomicInteger();
+
+        // Act
+        singleFlight.executar("abc123", cargas::incrementAndGet);
+        singleFlight.executar("abc123", cargas::incrementAndGet);
+
+        // Assert
+        assertEquals(2, cargas.get());
+        assertEquals(0, compartilhadas.get());
+    }
+
+    @Test
+    void testExecutarAsync_ConcurrentCallsSameKey_ShouldRunLoadOnce() throws Exception {
+        // Arrange
+        SingleFlight<String, String> singleFlight = singleFlight(Duration.ofSeconds(5));
+        AtomicInteger cargas = new AtomicInteger();
+        CompletableFuture<String> carga = new CompletableFuture<>();
+
+        // Act
+        List<CompletableFuture<String>> resultados = new ArrayList<>();
+        for (int i = 0; i < CHAMADAS; i++) {
+            resultados.add(singleFlight.executarAsync("abc123", () -> {
+                cargas.incrementAndGet();
+                return carga;
+            }));
+        }
+        // Quem desiste (cliente que desconectou) não derruba os outros
+        resultados.get(0).cancel(true);
+        carga.complete("https://www.example.com");
+
+        // Assert
+        for (CompletableFuture<String> resultado : resultados.subList(1, CHAMADAS)) {
+            assertEquals("https://www.example.com", resultado.get(5, TimeUnit.SECONDS));
+        }
+        assertEquals(1, cargas.get());
+        assertEquals(CHAMADAS - 1, compartilhadas.get());
+        assertEquals(0, singleFlight.emAndamento());
+    }
+
+    @Test
+    void testExecutarAsync_WaitAboveTimeout_ShouldFailWithUnavailable() {
+        // Arrange
+        SingleFlight<String, String> singleFlight = singleFlight(Duration.ofMillis(50));
+        CompletableFuture<String> lenta = singleFlight.executarAsync("abc123", CompletableFuture::new);
+
+        // Act
+        CompletableFuture<String> espera = singleFlight.executarAsync("abc123", () -> CompletableFuture.completedFuture("outra"));
+
+        // Assert
+        ExecutionException ex = assertThrows(ExecutionException.class, () -> espera.get(5, TimeUnit.SECONDS));
+        assertInstanceOf(UrlIndisponivelException.class, ex.getCause());
+        assertEquals(1, esgotadas.get());
+        assertFalse(lenta.isDone());
+    }
+
+    private <V> SingleFlight<String, V> singleFlight(Duration espera) {
+        return new SingleFlight<>(true, espera, compartilhadas::incrementAndGet, esgotadas::incrementAndGet);
+    }
+
+    private <V> List<Future<V>> chamarJuntas(Supplier<V> chamada) {
+        List<Future<V>> resultados = new ArrayList<>();
+        for (int i = 0; i < CHAMADAS; i++) {
+            resultados.add(executor.submit(chamada::get));
+        }
+        return resultados;
+    }
+
+    private void aguardarCompartilhadas(int esperadas) {
+        long limite = System.currentTimeMillis() + 5000;
+        while (compartilhadas.get() < esperadas && System.currentTimeMillis() < limite) {
+            Thread.onSpinWait();
+        }
+        assertEquals(esperadas, compartilhadas.get());
+    }
+
+    private static void aguardar(CountDownLatch liberar) {
+        try {
+            assertTrue(liberar.await(5, TimeUnit.SECONDS));
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(ex);
+        }
+    }
+}
@@ -0,0 +1,78 @@
+package com.JShort.Service;
+
+import com.JShort.Config.JShortProperties;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabase;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseBuilder;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseType;
+
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class UrlHashBackfillTest {
+
+    private EmbeddedDatabase database;
+
+    private JdbcTemplate jdbcTemplate;
+
+    private UrlHashBackfill backfill;
+
+    @BeforeEach
+    void setUp() {
+        database = new EmbeddedDatabaseBuilder()
+                .setType(EmbeddedDatabaseType.H2)
+                // ON CONFLICT DO NOTHING precisa do modo PostgreSQL
+                .setName("backfill" + UUID.randomUUID() + ";MODE=PostgreSQL")
+                .build();
+        Flyway.configure().dataSource(database).locations("classpath:db/migration/h2").load().migrate();
+        jdbcTemplate = new JdbcTemplate(database);
+
+        JShortProperties properties = new JShortProperties();
+        properties.getDedup().setBackfillBatchSize(2);
+        backfill = new UrlHashBackfill(jdbcTemplate, properties);
+    }
+
+    @AfterEach
+    void tearDown() {
+        database.shutdown();
+    }
+
+    @Test
+    void testPreencher_ShouldHashEveryRowWithoutHash() {
+        // Arrange
+        for (int i = 0; i < 5; i++) {
+            jdbcTemplate.update("INSERT INTO url (id, original_url, short_code) VALUES (?, ?, ?)",
+                    "id-" + i, "https://www.example.com/" + i, "code" + i);
+        }
+
+        // Act
+        int preenchidas = backfill.preencher();
+
+        // Assert
+        assertEquals(5, preenchidas);
+        assertEquals(UrlHash.calcular("https://www.example.com/3"), jdbcTemplate.queryForObject(
+                "SELECT original_url_hash FROM url WHERE id = 'id-3'", String.class));
+        assertEquals(0, jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM url WHERE original_url_hash IS NULL", Integer.class));
+    }
+
+    @Test
+    void testPreencher_DuplicatedUrls_ShouldKeepOnlyFirstHashed() {
+        // Arrange
+        jdbcTemplate.update("INSERT INTO url (id, original_url, short_code) VALUES ('a', 'https://dup.com', 'dup1')");
+        jdbcTemplate.update("INSERT INTO url (id, original_url, short_code) VALUES ('b', 'https://dup.com', 'dup2')");
+        jdbcTemplate.update("INSERT INTO url (id, original_url, short_code) VALUES ('c', 'https://other.com', 'oth1')");
+
+        // Act
+        int preenchidas = backfill.preencher();
+
+        // Assert
+        assertEquals(2, preenchidas);
+        assertNull(jdbcTemplate.queryForObject("SELECT original_url_hash FROM url WHERE id = 'b'", String.class));
+    }
+}
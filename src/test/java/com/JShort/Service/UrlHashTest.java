@@ -0,0 +1,47 @@
+package com.JShort.Service;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class UrlHashTest {
+
+    @Test
+    void testCalcular_ShouldReturnFixedWidthHex() {
+        // Act
+        String hash = UrlHash.calcular("https://www.google.com/search?q=jshort");
+
+        // Assert
+        assertEquals(64, hash.length());
+        assertTrue(hash.matches("[0-9a-f]+"));
+    }
+
+    @Test
+    void testCalcular_SchemeAndHostCase_ShouldNotMatter() {
+        // Assert
+        assertEquals(UrlHash.calcular("https://www.example.com/Path"),
+                UrlHash.calcular("HTTPS://WWW.Example.COM/Path"));
+    }
+
+    @Test
+    void testCalcular_PathCase_ShouldMatter() {
+        // Assert
+        assertNotEquals(UrlHash.calcular("https://www.example.com/path"),
+                UrlHash.calcular("https://www.example.com/PATH"));
+    }
+
+    @Test
+    void testNormalizar_UserInfo_ShouldKeepItsCase() {
+        // Assert
+        assertEquals("https://User@example.com:8080/A?b=C",
+                UrlHash.normalizar("https://User@EXAMPLE.com:8080/A?b=C"));
+    }
+
+    @Test
+    void testNormalizar_HostInsideScheme_ShouldSpliceAfterAuthority() {
+        // Assert
+        assertEquals("http://t/x", UrlHash.normalizar("http://t/x"));
+        assertEquals("https://s/", UrlHash.normalizar("HTTPS://S/"));
+        assertEquals(UrlHash.calcular("http://t/x"), UrlHash.calcular("HTTP://T/x"));
+    }
+}
@@ -1,28 +1,85 @@
 package com.JShort.Service;
 
+import com.JShort.Cache.DistributedUrlCache;
+import com.JShort.Cache.OffHeapUrlIndex;
+import com.JShort.Cache.ShortCodeBloomFilter;
+import com.JShort.Cache.UrlCache;
+import com.JShort.Config.JShortProperties;
+import com.JShort.DTO.UrlLoteResultadoDTO;
 import com.JShort.Exception.UrlException;
+import com.JShort.Exception.UrlExpiradaException;
+import com.JShort.Exception.UrlNaoEncontradaException;
 import com.JShort.Model.Url;
+import com.JShort.Model.UrlResolvida;
 import com.JShort.Repository.UrlRepository;
+import com.JShort.ShortCode.RandomShortCodeGenerator;
+import com.JShort.ShortCode.ShortCodeGenerator;
+import com.JShort.WriteBehind.UrlWriteBehind;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
 
+import java.time.Duration;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
 class UrlServiceTest {
 
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
     @Mock
     private UrlRepository urlRepository;
 
+    @Mock
+    private AccessCountAggregator accessCountAggregator;
+
+    @Spy
+    private UrlCache urlCache = new UrlCache(new JShortProperties(), new SimpleMeterRegistry());
+
+    @Spy
+    private ShortCodeGenerator shortCodeGenerator = new RandomShortCodeGenerator();
+
+    @Spy
+    private ShortCodeBloomFilter bloomFilter = new ShortCodeBloomFilter(null, null, null, new JShortProperties(), new SimpleMeterRegistry());
+
+    @Spy
+    private DistributedUrlCache distributedCache = new DistributedUrlCache(null, null, new JShortProperties(), null, new SimpleMeterRegistry());
+
+    @Spy
+    private OffHeapUrlIndex offHeapIndex = new OffHeapUrlIndex(null, null, null, new JShortProperties(), new SimpleMeterRegistry());
+
+    @Spy
+    private UrlWriteBehind writeBehind = new UrlWriteBehind(new JdbcTemplate(), null, null, null, null, null, new JShortProperties(), new SimpleMeterRegistry());
+
+    @Spy
+    private UrlMetrics urlMetrics = new UrlMetrics(meterRegistry);
+
+    @Spy
+    private JShortProperties properties = new JShortProperties();
+
     @InjectMocks
     private UrlService urlService;
 
@@ -45,8 +102,8 @@ class UrlServiceTest {
     @Test
     void testEncutadorUrl_ValidUrl_ShouldReturnShortenedUrl() {
         // Arrange
-        when(urlRepository.findByOriginalUrl(validUrl)).thenReturn(Optional.empty());
-        when(urlRepository.save(any(Url.class))).thenReturn(savedUrl);
+        when(urlRepository.findByOriginalUrlHash(UrlHash.calcular(validUrl))).thenReturn(Optional.empty());
+        when(urlRepository.inserirSeAusente(anyString(), anyString(), anyString(), anyString(), any(), any())).thenReturn(1);
 
         // Act
         Url result = urlService.encutadorUrl(validUrl);
@@ -54,13 +111,61 @@ class UrlServiceTest {
         // Assert
         assertNotNull(result);
         assertEquals(validUrl, result.getOriginalUrl());
+        verify(bloomFilter).registrar(result.getShortCode());
         assertNotNull(result.getShortCode());
         assertNotNull(result.getCreationDate());
         assertNotNull(result.getExpirationDate());
         assertEquals(0L, result.getAccessCount());
 
-        verify(urlRepository, times(1)).findByOriginalUrl(validUrl);
-        verify(urlRepository, times(1)).save(any(Url.class));
+        verify(urlRepository, times(1)).findByOriginalUrlHash(UrlHash.calcular(validUrl));
+        verify(urlRepository, times(1)).inserirSeAusente(anyString(), anyString(), anyString(), anyString(), any(), any());
+    }
+
+    @Test
+    void testEncutadorUrl_ShortCodeCollision_ShouldRetryWithNewCode() {
+        // Arrange
+        when(urlRepository.findByOriginalUrlHash(UrlHash.calcular(validUrl))).thenReturn(Optional.empty());
+        when(urlRepository.inserirSeAusente(anyString(), anyString(), anyString(), anyString(), any(), any())).thenReturn(0, 1);
+
+        // Act
+        Url result = urlService.encutadorUrl(validUrl);
+
+        // Assert
+        assertEquals(validUrl, result.getOriginalUrl());
+        verify(shortCodeGenerator, times(2)).gerarShortCode();
+        verify(urlRepository, times(2)).inserirSeAusente(anyString(), anyString(), anyString(), anyString(), any(), any());
+        assertEquals(1, meterRegistry.get("jshort.short.code.colisoes").tag("desfecho", "nova_tentativa").counter().count());
+        assertEquals(2, meterRegistry.get("jshort.short.code.geracao").timer().count());
+    }
+
+    @Test
+    void testEncutadorUrl_RepeatedCollisions_ShouldGiveUp() {
+        // Arrange
+        when(urlRepository.findByOriginalUrlHash(UrlHash.calcular(validUrl))).thenReturn(Optional.empty());
+        when(urlRepository.inserirSeAusente(anyString(), anyString(), anyString(), anyString(), any(), any())).thenReturn(0);
+
+        // Act & Assert
+        assertThrows(UrlException.class, () -> urlService.encutadorUrl(validUrl));
+        verify(urlRepository, times(3)).inserirSeAusente(anyString(), anyString(), anyString(), anyString(), any(), any());
+        assertEquals(1, meterRegistry.get("jshort.short.code.colisoes").tag("desfecho", "desistencia").counter().count());
+        assertEquals(1, meterRegistry.get("jshort.url.encurtamento").tag("resultado", "erro").timer().count());
+    }
+
+    @Test
+    void testEncutadorUrl_ConcurrentInsertOfSameUrl_ShouldReturnWinningRow() {
+        // Arrange: a primeira consulta não acha nada, mas outra requisição grava a mesma URL antes do INSERT
+        when(urlRepository.findByOriginalUrlHash(UrlHash.calcular(validUrl)))
+                .thenReturn(Optional.empty())
+                .thenReturn(Optional.of(savedUrl));
+        when(urlRepository.inserirSeAusente(anyString(), anyString(), anyString(), anyString(), any(), any())).thenReturn(0);
+
+        // Act
+        Url result = urlService.encutadorUrl(validUrl);
+
+        // Assert
+        assertEquals(savedUrl, result);
+        verify(urlRepository, times(1)).inserirSeAusente(anyString(), anyString(), anyString(), anyString(), any(), any());
+        assertEquals(1, meterRegistry.get("jshort.url.dedup").tag("origem", "concorrente").counter().count());
     }
 
     @Test
@@ -73,7 +178,7 @@ class UrlServiceTest {
             urlService.encutadorUrl(emptyUrl);
         });
 
-        verify(urlRepository, never()).save(any(Url.class));
+        verify(urlRepository, never()).inserirSeAusente(anyString(), anyString(), anyString(), anyString(), any(), any());
     }
 
     @Test
@@ -83,7 +188,7 @@ class UrlServiceTest {
             urlService.encutadorUrl(null);
         });
 
-        verify(urlRepository, never()).save(any(Url.class));
+        verify(urlRepository, never()).inserirSeAusente(anyString(), anyString(), anyString(), anyString(), any(), any());
     }
 
     @Test
@@ -96,7 +201,7 @@ class UrlServiceTest {
             urlService.encutadorUrl(invalidUrl);
         });
 
-        verify(urlRepository, never()).save(any(Url.class));
+        verify(urlRepository, never()).inserirSeAusente(anyString(), anyString(), anyString(), anyString(), any(), any());
     }
 
     @Test
@@ -109,67 +214,283 @@ class UrlServiceTest {
             urlService.encutadorUrl(urlWithoutHttp);
         });
 
-        verify(urlRepository, never()).save(any(Url.class));
+        verify(urlRepository, never()).inserirSeAusente(anyString(), anyString(), anyString(), anyString(), any(), any());
     }
 
     @Test
     void testEncutadorUrl_ExistingUrl_ShouldReturnExistingUrl() {
         // Arrange
-        when(urlRepository.findByOriginalUrl(validUrl)).thenReturn(Optional.of(savedUrl));
+        when(urlRepository.findByOriginalUrlHash(UrlHash.calcular(validUrl))).thenReturn(Optional.of(savedUrl));
 
         // Act
         Url result = urlService.encutadorUrl(validUrl);
 
         // Assert
         assertEquals(savedUrl, result);
-        verify(urlRepository, times(1)).findByOriginalUrl(validUrl);
-        verify(urlRepository, never()).save(any(Url.class));
+        verify(urlRepository, times(1)).findByOriginalUrlHash(UrlHash.calcular(validUrl));
+        verify(urlRepository, never()).inserirSeAusente(anyString(), anyString(), anyString(), anyString(), any(), any());
+        assertEquals(1, meterRegistry.get("jshort.url.dedup").tag("origem", "existente").counter().count());
+        assertEquals(1, meterRegistry.get("jshort.url.encurtamento").tag("resultado", "sucesso").timer().count());
     }
 
     @Test
     void testBuscarUrlOriginal_ValidShortCode_ShouldReturnOriginalUrl() {
         // Arrange
         String shortCode = "abc123";
-        when(urlRepository.findByShortCode(shortCode)).thenReturn(Optional.of(savedUrl));
-        when(urlRepository.save(any(Url.class))).thenReturn(savedUrl);
+        when(urlRepository.buscarResolvida(shortCode)).thenReturn(Optional.of(UrlResolvida.de(savedUrl)));
 
         // Act
         String result = urlService.BuscarUrlOriginal(shortCode);
 
         // Assert
         assertEquals(savedUrl.getOriginalUrl(), result);
-        verify(urlRepository, times(1)).findByShortCode(shortCode);
-        verify(urlRepository, times(1)).save(any(Url.class));
+        verify(urlRepository, times(1)).buscarResolvida(shortCode);
+        verify(urlRepository, never()).save(any(Url.class));
+    }
+
+    @Test
+    void testBuscarUrlOriginal_CachedShortCode_ShouldNotQueryRepositoryAgain() {
+        // Arrange
+        String shortCode = "abc123";
+        when(urlRepository.buscarResolvida(shortCode)).thenReturn(Optional.of(UrlResolvida.de(savedUrl)));
+
+        // Act
+        urlService.BuscarUrlOriginal(shortCode);
+        String result = urlService.BuscarUrlOriginal(shortCode);
+
+        // Assert
+        assertEquals(savedUrl.getOriginalUrl(), result);
+        verify(urlRepository, times(1)).buscarResolvida(shortCode);
+        verify(accessCountAggregator, times(2)).registrarAcesso(shortCode);
+    }
+
+    @Test
+    void testBuscarUrlOriginal_ExpiredUrl_ShouldBeRejectedFromCache() {
+        // Arrange
+        String shortCode = "abc123";
+        savedUrl.setExpirationDate(LocalDateTime.now().minusMinutes(1));
+        when(urlRepository.buscarResolvida(shortCode)).thenReturn(Optional.of(UrlResolvida.de(savedUrl)));
+
+        // Act & Assert
+        assertThrows(UrlExpiradaException.class, () -> urlService.BuscarUrlOriginal(shortCode));
+        assertThrows(UrlExpiradaException.class, () -> urlService.BuscarUrlOriginal(shortCode));
+
+        verify(urlRepository, times(1)).buscarResolvida(shortCode);
+        verify(accessCountAggregator, never()).registrarAcesso(anyString());
+        assertEquals(2, meterRegistry.get("jshort.url.expirada").counter().count());
+    }
+
+    @Test
+    void testEncutadorUrl_CustomTtl_ShouldSetExpirationDate() {
+        // Arrange
+        when(urlRepository.findByOriginalUrlHash(UrlHash.calcular(validUrl))).thenReturn(Optional.empty());
+        when(urlRepository.inserirSeAusente(anyString(), anyString(), anyString(), anyString(), any(), any())).thenReturn(1);
+
+        // Act
+        Url result = urlService.encutadorUrl(validUrl, Duration.ofDays(30));
+
+        // Assert
+        assertEquals(Duration.ofDays(30), Duration.between(result.getCreationDate(), result.getExpirationDate()));
+    }
+
+    @Test
+    void testEncutadorUrl_TtlAboveMaximum_ShouldThrowException() {
+        // Act & Assert
+        assertThrows(UrlException.class, () -> urlService.encutadorUrl(validUrl, Duration.ofDays(5000)));
+        assertThrows(UrlException.class, () -> urlService.encutadorUrl(validUrl, Duration.ZERO));
+        verifyNoInteractions(urlRepository);
+    }
+
+    @Test
+    void testEncutadorUrl_ExistingExpiredUrl_ShouldRenewSameCode() {
+        // Arrange
+        savedUrl.setExpirationDate(LocalDateTime.now().minusDays(1));
+        when(urlRepository.findByOriginalUrlHash(UrlHash.calcular(validUrl))).thenReturn(Optional.of(savedUrl));
+        when(urlRepository.estenderExpiracao(eq("1"), any())).thenReturn(1);
+
+        // Act
+        Url result = urlService.encutadorUrl(validUrl);
+
+        // Assert
+        assertEquals("abc123", result.getShortCode());
+        assertTrue(result.getExpirationDate().isAfter(LocalDateTime.now().plusDays(364)));
+        verify(urlCache).invalidar("abc123");
+        verify(urlRepository, never()).inserirSeAusente(anyString(), anyString(), anyString(), anyString(), any(), any());
+    }
+
+    @Test
+    void testEncutadorUrl_ExistingUrlRemovedBySweeper_ShouldCreateNewCode() {
+        // Arrange
+        savedUrl.setExpirationDate(LocalDateTime.now().minusDays(10));
+        when(urlRepository.findByOriginalUrlHash(UrlHash.calcular(validUrl))).thenReturn(Optional.of(savedUrl));
+        when(urlRepository.estenderExpiracao(eq("1"), any())).thenReturn(0);
+        when(urlRepository.findById("1")).thenReturn(Optional.empty());
+        when(urlRepository.inserirSeAusente(anyString(), anyString(), anyString(), anyString(), any(), any())).thenReturn(1);
+
+        // Act
+        Url result = urlService.encutadorUrl(validUrl);
+
+        // Assert
+        assertNotEquals("abc123", result.getShortCode());
+        assertTrue(result.getExpirationDate().isAfter(LocalDateTime.now()));
     }
 
     @Test
     void testBuscarUrlOriginal_InvalidShortCode_ShouldThrowException() {
         // Arrange
         String invalidShortCode = "invalid";
-        when(urlRepository.findByShortCode(invalidShortCode)).thenReturn(Optional.empty());
+        when(urlRepository.buscarResolvida(invalidShortCode)).thenReturn(Optional.empty());
 
         // Act & Assert
         assertThrows(UrlException.class, () -> {
             urlService.BuscarUrlOriginal(invalidShortCode);
         });
 
-        verify(urlRepository, times(1)).findByShortCode(invalidShortCode);
+        verify(urlRepository, times(1)).buscarResolvida(invalidShortCode);
         verify(urlRepository, never()).save(any(Url.class));
+        assertEquals(1, meterRegistry.get("jshort.url.nao.encontrada").tag("origem", "banco").counter().count());
+        assertEquals(1, meterRegistry.get("jshort.url.redirecionamento").tag("resultado", "erro").timer().count());
+    }
+
+    @Test
+    void testBuscarUrlOriginal_NonExistingWithWriteBehind_ShouldNotBeDefinitive() {
+        // Arrange: outra instância pode ter aceitado o código e ainda não gravado
+        properties.getWriteBehind().setEnabled(true);
+        when(urlRepository.buscarResolvida("pendente")).thenReturn(Optional.empty());
+
+        // Act
+        UrlNaoEncontradaException ex = assertThrows(UrlNaoEncontradaException.class,
+                () -> urlService.BuscarUrlOriginal("pendente"));
+
+        // Assert
+        assertFalse(ex.isDefinitiva());
+    }
+
+    @Test
+    void testEncutadorUrl_AcceptedByWriteBehind_ShouldPublishToL2() {
+        // Arrange
+        doReturn(true).when(writeBehind).ativo();
+        doReturn(true).when(writeBehind).aceitar(any(Url.class), any());
+
+        // Act
+        Url result = urlService.encutadorUrl(validUrl, null, null);
+
+        // Assert
+        verify(distributedCache).guardar(result.getShortCode(), UrlResolvida.de(result));
+        verify(urlRepository, never()).inserirSeAusente(anyString(), anyString(), anyString(), anyString(), any(), any());
+    }
+
+    @Test
+    void testBuscarUrlOriginal_BloomFilterMiss_ShouldNotQueryRepository() {
+        // Arrange
+        String unknownShortCode = "zzzzzz";
+        doReturn(false).when(bloomFilter).podeExistir(unknownShortCode);
+
+        // Act & Assert
+        assertThrows(UrlNaoEncontradaException.class, () -> urlService.BuscarUrlOriginal(unknownShortCode));
+        verify(urlRepository, never()).buscarResolvida(anyString());
+        verify(accessCountAggregator, never()).registrarAcesso(anyString());
+        assertEquals(1, meterRegistry.get("jshort.url.nao.encontrada").tag("origem", "bloom").counter().count());
+    }
+
+    @Test
+    void testBuscarUrlOriginal_ReplicaLagging_ShouldConfirmOnPrimary() {
+        // Arrange: a primeira consulta (réplica) ainda não vê o código, a segunda (primário) vê
+        properties.getReplicas().setEnabled(true);
+        String shortCode = "abc123";
+        when(urlRepository.buscarResolvida(shortCode)).thenReturn(Optional.empty())
+                .thenReturn(Optional.of(UrlResolvida.de(savedUrl)));
+
+        // Act
+        String result = urlService.BuscarUrlOriginal(shortCode);
+
+        // Assert
+        assertEquals(savedUrl.getOriginalUrl(), result);
+        verify(urlRepository, times(2)).buscarResolvida(shortCode);
+    }
+
+    @Test
+    void testBuscarUrlOriginal_ConcurrentMisses_ShouldQueryRepositoryOnce() throws Exception {
+        // Arrange
+        CountDownLatch liberar = new CountDownLatch(1);
+        when(urlRepository.buscarResolvida("abc123")).thenAnswer(invocation -> {
+            assertTrue(liberar.await(5, TimeUnit.SECONDS));
+            return Optional.of(UrlResolvida.de(savedUrl));
+        });
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+
+        try {
+            // Act
+            List<Future<String>> resultados = new ArrayList<>();
+            for (int i = 0; i < 8; i++) {
+                resultados.add(executor.submit(() -> urlService.BuscarUrlOriginal("abc123")));
+            }
+            aguardarCoalescidas("redirecionamento", 7);
+            liberar.countDown();
+
+            // Assert
+            for (Future<String> resultado : resultados) {
+                assertEquals("https://www.google.com", resultado.get(5, TimeUnit.SECONDS));
+            }
+            verify(urlRepository, times(1)).buscarResolvida("abc123");
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void testEncutadorUrl_ConcurrentSameUrl_ShouldInsertOnce() throws Exception {
+        // Arrange
+        CountDownLatch liberar = new CountDownLatch(1);
+        when(urlRepository.findByOriginalUrlHash(UrlHash.calcular(validUrl))).thenAnswer(invocation -> {
+            assertTrue(liberar.await(5, TimeUnit.SECONDS));
+            return Optional.empty();
+        });
+        when(urlRepository.inserirSeAusente(anyString(), anyString(), anyString(), anyString(), any(), any())).thenReturn(1);
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+
+        try {
+            // Act
+            List<Future<Url>> resultados = new ArrayList<>();
+            for (int i = 0; i < 8; i++) {
+                resultados.add(executor.submit(() -> urlService.encutadorUrl(validUrl)));
+            }
+            aguardarCoalescidas("encurtamento", 7);
+            liberar.countDown();
+
+            // Assert
+            String shortCode = resultados.get(0).get(5, TimeUnit.SECONDS).getShortCode();
+            for (Future<Url> resultado : resultados) {
+                assertEquals(shortCode, resultado.get(5, TimeUnit.SECONDS).getShortCode());
+            }
+            verify(urlRepository, times(1)).inserirSeAusente(anyString(), anyString(), anyString(), anyString(), any(), any());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private void aguardarCoalescidas(String operacao, int esperadas) {
+        Counter coalescidas = meterRegistry.get("jshort.url.coalescidas")
+                .tag("operacao", operacao).tag("desfecho", "compartilhada").counter();
+        long limite = System.currentTimeMillis() + 5000;
+        while (coalescidas.count() < esperadas && System.currentTimeMillis() < limite) {
+            Thread.onSpinWait();
+        }
+        assertEquals(esperadas, coalescidas.count());
     }
 
     @Test
     void testBuscarUrlOriginal_ValidUrl_ShouldIncrementAccessCount() {
         // Arrange
         String shortCode = "abc123";
-        when(urlRepository.findByShortCode(shortCode)).thenReturn(Optional.of(savedUrl));
-        when(urlRepository.save(any(Url.class))).thenReturn(savedUrl);
+        when(urlRepository.buscarResolvida(shortCode)).thenReturn(Optional.of(UrlResolvida.de(savedUrl)));
 
         // Act
         String result = urlService.BuscarUrlOriginal(shortCode);
 
         // Assert
         assertEquals(savedUrl.getOriginalUrl(), result);
-        verify(urlRepository, times(1)).save(any(Url.class));
+        verify(accessCountAggregator, times(1)).registrarAcesso(shortCode);
     }
 
     @Test
@@ -184,8 +505,8 @@ class UrlServiceTest {
         httpSavedUrl.setExpirationDate(LocalDateTime.now().plusYears(1));
         httpSavedUrl.setAccessCount(0L);
 
-        when(urlRepository.findByOriginalUrl(httpUrl)).thenReturn(Optional.empty());
-        when(urlRepository.save(any(Url.class))).thenReturn(httpSavedUrl);
+        when(urlRepository.findByOriginalUrlHash(UrlHash.calcular(httpUrl))).thenReturn(Optional.empty());
+        when(urlRepository.inserirSeAusente(anyString(), anyString(), anyString(), anyString(), any(), any())).thenReturn(1);
 
         // Act
         Url result = urlService.encutadorUrl(httpUrl);
@@ -193,7 +514,7 @@ class UrlServiceTest {
         // Assert
         assertNotNull(result);
         assertEquals(httpUrl, result.getOriginalUrl());
-        verify(urlRepository, times(1)).save(any(Url.class));
+        verify(urlRepository, times(1)).inserirSeAusente(anyString(), anyString(), anyString(), anyString(), any(), any());
     }
 
     @Test
@@ -208,8 +529,8 @@ class UrlServiceTest {
         httpsSavedUrl.setExpirationDate(LocalDateTime.now().plusYears(1));
         httpsSavedUrl.setAccessCount(0L);
 
-        when(urlRepository.findByOriginalUrl(httpsUrl)).thenReturn(Optional.empty());
-        when(urlRepository.save(any(Url.class))).thenReturn(httpsSavedUrl);
+        when(urlRepository.findByOriginalUrlHash(UrlHash.calcular(httpsUrl))).thenReturn(Optional.empty());
+        when(urlRepository.inserirSeAusente(anyString(), anyString(), anyString(), anyString(), any(), any())).thenReturn(1);
 
         // Act
         Url result = urlService.encutadorUrl(httpsUrl);
@@ -217,7 +538,7 @@ class UrlServiceTest {
         // Assert
         assertNotNull(result);
         assertEquals(httpsUrl, result.getOriginalUrl());
-        verify(urlRepository, times(1)).save(any(Url.class));
+        verify(urlRepository, times(1)).inserirSeAusente(anyString(), anyString(), anyString(), anyString(), any(), any());
     }
 
     @Test
@@ -230,14 +551,14 @@ class UrlServiceTest {
             urlService.encutadorUrl(urlWithSpaces);
         });
 
-        verify(urlRepository, never()).save(any(Url.class));
+        verify(urlRepository, never()).inserirSeAusente(anyString(), anyString(), anyString(), anyString(), any(), any());
     }
 
     @Test
     void testShortCodeGeneration_ShouldGenerateValidCode() {
         // Arrange
-        when(urlRepository.findByOriginalUrl(validUrl)).thenReturn(Optional.empty());
-        when(urlRepository.save(any(Url.class))).thenReturn(savedUrl);
+        when(urlRepository.findByOriginalUrlHash(UrlHash.calcular(validUrl))).thenReturn(Optional.empty());
+        when(urlRepository.inserirSeAusente(anyString(), anyString(), anyString(), anyString(), any(), any())).thenReturn(1);
 
         // Act
         Url result = urlService.encutadorUrl(validUrl);
@@ -247,4 +568,52 @@ class UrlServiceTest {
         assertEquals(6, result.getShortCode().length());
         assertTrue(result.getShortCode().matches("[a-zA-Z0-9]+"));
     }
+
+    @Test
+    void testEncurtarLote_ShouldDeduplicateWithinBatchAndAgainstDatabase() {
+        // Arrange
+        Url existente = new Url();
+        existente.setOriginalUrl("https://www.existing.com");
+        existente.setOriginalUrlHash(UrlHash.calcular("https://www.existing.com"));
+        existente.setShortCode("exi123");
+        when(urlRepository.findByOriginalUrlHashIn(anyCollection())).thenReturn(List.of(existente));
+        when(urlRepository.inserirLote(anyList(), eq(false))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        List<String> urls = List.of(validUrl, "invalid-url", validUrl, "https://www.existing.com");
+        List<UrlLoteResultadoDTO> resultados = new ArrayList<>();
+
+        // Act
+        urlService.encurtarLote(urls.iterator(), resultados::addAll);
+
+        // Assert
+        assertEquals(4, resultados.size());
+        assertEquals(UrlLoteResultadoDTO.Status.CRIADA, resultados.get(0).getStatus());
+        assertEquals(UrlLoteResultadoDTO.Status.INVALIDA, resultados.get(1).getStatus());
+        assertEquals(UrlLoteResultadoDTO.Status.EXISTENTE, resultados.get(2).getStatus());
+        assertEquals(resultados.get(0).getShortCode(), resultados.get(2).getShortCode());
+        assertEquals("exi123", resultados.get(3).getShortCode());
+        verify(urlRepository, times(1)).findByOriginalUrlHashIn(anyCollection());
+        verify(urlRepository, times(1)).inserirLote(anyList(), eq(false));
+        assertEquals(2, meterRegistry.get("jshort.url.dedup").tag("origem", "lote").counter().count());
+    }
+
+    @Test
+    void testEncurtarLote_ShouldProcessInChunksAndKeepInputOrder() {
+        // Arrange
+        properties.getBatch().setChunkSize(2);
+        when(urlRepository.findByOriginalUrlHashIn(anyCollection())).thenReturn(List.of());
+        when(urlRepository.inserirLote(anyList(), eq(false))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        List<String> urls = List.of("https://a.com", "https://b.com", "https://c.com");
+        List<List<UrlLoteResultadoDTO>> blocos = new ArrayList<>();
+
+        // Act
+        urlService.encurtarLote(urls.iterator(), blocos::add);
+
+        // Assert
+        assertEquals(2, blocos.size());
+        assertEquals("https://a.com", blocos.get(0).get(0).getOriginalUrl());
+        assertEquals("https://c.com", blocos.get(1).get(0).getOriginalUrl());
+        verify(urlRepository, times(2)).inserirLote(anyList(), eq(false));
+    }
 }
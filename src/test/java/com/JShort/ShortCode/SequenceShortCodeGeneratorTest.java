@@ -0,0 +1,135 @@
+package com.JShort.ShortCode;
+
+import com.JShort.Config.JShortProperties;
+import org.flywaydb.core.Flyway;
+import org.hashids.Hashids;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabase;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseBuilder;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseType;
+
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SequenceShortCodeGeneratorTest {
+
+    private EmbeddedDatabase database;
+
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void setUp() {
+        database = new EmbeddedDatabaseBuilder()
+                .setType(EmbeddedDatabaseType.H2)
+                .generateUniqueName(true)
+                .build();
+        Flyway.configure().dataSource(database).locations("classpath:db/migration/h2").load().migrate();
+        jdbcTemplate = new JdbcTemplate(database);
+    }
+
+    @AfterEach
+    void tearDown() {
+        database.shutdown();
+    }
+
+    @Test
+    void testGerarShortCode_ShouldGenerateAlphanumericCodesWithMinLength() {
+        // Arrange
+        SequenceShortCodeGenerator generator = new SequenceShortCodeGenerator(jdbcTemplate, new JShortProperties());
+
+        // Act
+        String codigo = generator.gerarShortCode();
+
+        // Assert
+        assertTrue(codigo.length() >= 6);
+        assertTrue(codigo.matches("[a-zA-Z0-9]+"));
+    }
+
+    @Test
+    void testProximoId_ShouldReserveOneBlockPerSequenceCall() {
+        // Arrange
+        SequenceShortCodeGenerator generator = new SequenceShortCodeGenerator(jdbcTemplate, new JShortProperties());
+
+        // Act
+        for (int i = 0; i < 1500; i++) {
+            generator.proximoId();
+        }
+
+        // Assert: 1500 ids consumiram dois blocos de 1000, o próximo começa em 3000
+        Long proximoBloco = jdbcTemplate.queryForObject("SELECT nextval('url_short_code_seq')", Long.class);
+        assertEquals(3000L, proximoBloco);
+    }
+
+    @Test
+    void testGerarShortCode_TwoInstancesConcurrently_ShouldNeverCollide() throws Exception {
+        // Arrange: dois geradores simulam duas instâncias da aplicação usando a mesma sequence
+        List<SequenceShortCodeGenerator> instancias = List.of(
+                new SequenceShortCodeGenerator(jdbcTemplate, new JShortProperties()),
+                new SequenceShortCodeGenerator(jdbcTemplate, new JShortProperties()));
+        Set<String> codigos = ConcurrentHashMap.newKeySet();
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+
+        // Act
+        List<Callable<Void>> tarefas = IntStream.range(0, 8)
+                .<Callable<Void>>mapToObj(t -> () -> {
+                    ShortCodeGenerator generator = instancias.get(t % 2);
+                    for (int i = 0; i < 2500; i++) {
+                        assertTrue(codigos.add(generator.gerarShortCode()));
+                    }
+                    return null;
+                })
+                .toList();
+        for (var resultado : executor.invokeAll(tarefas)) {
+            resultado.get();
+        }
+        executor.shutdown();
+
+        // Assert
+        assertEquals(20_000, codigos.size());
+    }
+
+    @Test
+    void testReservarImportados_CodesAheadOfSequence_ShouldGenerateAfterThem() {
+        // Arrange: códigos de outra base com o mesmo salt, ids além do que a sequence já entregou
+        SequenceShortCodeGenerator origem = new SequenceShortCodeGenerator(jdbcTemplate, new JShortProperties());
+        for (int i = 0; i < 5500; i++) {
+            origem.proximoId();
+        }
+        String importado = origem.gerarShortCode();
+        jdbcTemplate.execute("ALTER SEQUENCE url_short_code_seq RESTART WITH 1000");
+        SequenceShortCodeGenerator generator = new SequenceShortCodeGenerator(jdbcTemplate, new JShortProperties());
+        generator.proximoId();
+
+        // Act
+        generator.reservarImportados(List.of(importado, "outroFormato-1"));
+
+        // Assert
+        assertTrue(generator.proximoId() > 5501);
+    }
+
+    @Test
+    void testReservarImportados_CodeInsideCurrentBlock_ShouldSkipPastIt() {
+        // Arrange: o bloco atual é [1, 1000] e só o id 1 foi entregue
+        JShortProperties properties = new JShortProperties();
+        SequenceShortCodeGenerator generator = new SequenceShortCodeGenerator(jdbcTemplate, properties);
+        generator.proximoId();
+        String importado = new Hashids(properties.getShortCode().getSalt(), properties.getShortCode().getMinLength(),
+                ShortCodeGenerator.ALFABETO).encode(500);
+
+        // Act
+        generator.reservarImportados(List.of(importado));
+
+        // Assert
+        assertEquals(501, generator.proximoId());
+    }
+}
@@ -0,0 +1,36 @@
+package com.JShort.ShortCode;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ShortCodeKeyTest {
+
+    @Test
+    void testCodificar_DifferentCodes_ShouldProduceDistinctPositiveKeys() {
+        // Arrange
+        Set<Long> chaves = new HashSet<>();
+        String[] codigos = {"a", "aa", "aaa", "b", "ab", "ba", "Z9", "9Z", "abc123", "zzzzzzzzzz"};
+
+        // Act
+        for (String codigo : codigos) {
+            chaves.add(ShortCodeKey.codificar(codigo));
+        }
+
+        // Assert
+        assertEquals(codigos.length, chaves.size());
+        assertTrue(chaves.stream().allMatch(chave -> chave > 0));
+    }
+
+    @Test
+    void testCodificar_UnsupportedCodes_ShouldReturnInvalida() {
+        // Act & Assert
+        assertEquals(ShortCodeKey.INVALIDA, ShortCodeKey.codificar(""));
+        assertEquals(ShortCodeKey.INVALIDA, ShortCodeKey.codificar("abcdefghijk"));
+        assertEquals(ShortCodeKey.INVALIDA, ShortCodeKey.codificar("meu-link"));
+        assertEquals(ShortCodeKey.INVALIDA, ShortCodeKey.codificar("ação"));
+    }
+}
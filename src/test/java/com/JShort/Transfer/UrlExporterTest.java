@@ -0,0 +1,94 @@
+package com.JShort.Transfer;
+
+import com.JShort.Config.JShortProperties;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabase;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseBuilder;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseType;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class UrlExporterTest {
+
+    private static final String COLUNAS = "INSERT INTO url (id, original_url, original_url_hash, short_code, "
+            + "creation_date, expiration_date) VALUES ";
+
+    private EmbeddedDatabase database;
+
+    private JdbcTemplate jdbcTemplate;
+
+    private UrlExporter exporter;
+
+    @BeforeEach
+    void setUp() {
+        database = new EmbeddedDatabaseBuilder()
+                .setType(EmbeddedDatabaseType.H2)
+                .generateUniqueName(true)
+                .build();
+        Flyway.configure().dataSource(database).locations("classpath:db/migration/h2").load().migrate();
+        jdbcTemplate = new JdbcTemplate(database);
+        jdbcTemplate.update(COLUNAS + "('1', 'https://a.example.com/?q=1,2', 'h1', 'abc123', "
+                + "TIMESTAMP '2024-01-02 03:04:05', NULL)");
+        jdbcTemplate.update(COLUNAS + "('2', 'https://b.example.com/\"x\"', 'h2', 'def456', "
+                + "TIMESTAMP '2024-01-02 03:04:05', TIMESTAMP '2025-01-02 03:04:05')");
+        jdbcTemplate.update("INSERT INTO url_access_count (short_code, access_count) VALUES ('abc123', 7)");
+
+        JShortProperties properties = new JShortProperties();
+        properties.getTransfer().setFetchSize(1);
+        exporter = new UrlExporter(jdbcTemplate, new TransactionTemplate(new DataSourceTransactionManager(database)),
+                new ObjectMapper(), properties);
+    }
+
+    @AfterEach
+    void tearDown() {
+        database.shutdown();
+    }
+
+    @Test
+    void testExportar_Csv_ShouldWriteHeaderAndQuoteSpecialCharacters() throws Exception {
+        // Arrange
+        ByteArrayOutputStream saida = new ByteArrayOutputStream();
+
+        // Act
+        long linhas = exporter.exportar(saida, UrlTransferFormat.CSV, false);
+
+        // Assert
+        assertEquals(2, linhas);
+        String csv = saida.toString(StandardCharsets.UTF_8);
+        assertTrue(csv.startsWith("id,original_url,original_url_hash,short_code,creation_date,expiration_date,access_count\n"));
+        assertTrue(csv.contains("1,\"https://a.example.com/?q=1,2\",h1,abc123,2024-01-02T03:04:05,,7\n"));
+        assertTrue(csv.contains("2,\"https://b.example.com/\"\"x\"\"\",h2,def456,2024-01-02T03:04:05,2025-01-02T03:04:05,0\n"));
+    }
+
+    @Test
+    void testExportar_NdjsonGzip_ShouldWriteOneObjectPerLine() throws Exception {
+        // Arrange
+        ByteArrayOutputStream saida = new ByteArrayOutputStream();
+
+        // Act
+        exporter.exportar(saida, UrlTransferFormat.NDJSON, true);
+
+        // Assert
+        String ndjson = new String(new GZIPInputStream(new ByteArrayInputStream(saida.toByteArray())).readAllBytes(),
+                StandardCharsets.UTF_8);
+        String[] linhas = ndjson.split("\n");
+        assertEquals(2, linhas.length);
+        JsonNode primeira = new ObjectMapper().readTree(linhas[0]);
+        assertEquals("abc123", primeira.get("short_code").asText());
+        assertEquals(7, primeira.get("access_count").asLong());
+        assertTrue(primeira.get("expiration_date").isNull());
+    }
+}
@@ -0,0 +1,158 @@
+package com.JShort.Transfer;
+
+import com.JShort.Cache.ShortCodeBloomFilter;
+import com.JShort.Config.JShortProperties;
+import com.JShort.DTO.UrlImportacaoDTO;
+import com.JShort.Service.UrlHash;
+import com.JShort.ShortCode.RandomShortCodeGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabase;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseBuilder;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseType;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.UUID;
+import java.util.zip.GZIPOutputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.verify;
+
+class UrlImporterTest {
+
+    private static final String CABECALHO = "id,original_url,original_url_hash,short_code,creation_date,expiration_date,access_count\n";
+
+    private EmbeddedDatabase database;
+
+    private JdbcTemplate jdbcTemplate;
+
+    private ShortCodeBloomFilter bloomFilter;
+
+    private UrlImporter importer;
+
+    @BeforeEach
+    void setUp() {
+        database = new EmbeddedDatabaseBuilder()
+                .setType(EmbeddedDatabaseType.H2)
+                // ON CONFLICT DO NOTHING precisa do modo PostgreSQL
+                .setName("importacao" + UUID.randomUUID() + ";MODE=PostgreSQL")
+                .build();
+        Flyway.configure().dataSource(database).locations("classpath:db/migration/h2").load().migrate();
+        jdbcTemplate = new JdbcTemplate(database);
+
+        JShortProperties properties = new JShortProperties();
+        properties.getTransfer().setBatchSize(2);
+        bloomFilter = spy(new ShortCodeBloomFilter(null, null, null, properties, new SimpleMeterRegistry()));
+        importer = new UrlImporter(jdbcTemplate, new TransactionTemplate(new DataSourceTransactionManager(database)),
+                bloomFilter, new RandomShortCodeGenerator(), new ObjectMapper(), properties);
+    }
+
+    @AfterEach
+    void tearDown() {
+        database.shutdown();
+    }
+
+    @Test
+    void testImportar_Csv_ShouldInsertRowsRecomputeHashAndRegisterCodes() throws Exception {
+        // Arrange
+        String csv = CABECALHO
+                + "1,\"https://a.example.com/?q=1,2\",hash-antigo,abc123,2024-01-02T03:04:05,,7\n"
+                + "2,https://b.example.com,,def456,,2030-01-02T03:04:05,\n"
+                + ",https://c.example.com,,ghi789,,,\n";
+
+        // Act
+        UrlImportacaoDTO resultado = importar(csv.getBytes(StandardCharsets.UTF_8), UrlTransferFormat.CSV);
+
+        // Assert
+        assertEquals(3, resultado.getImportadas());
+        assertEquals(0, resultado.getExistentes());
+        assertEquals(0, resultado.getInvalidas());
+        assertEquals(UrlHash.calcular("https://a.example.com/?q=1,2"),
+                jdbcTemplate.queryForObject("SELECT original_url_hash FROM url WHERE short_code = 'abc123'", String.class));
+        assertEquals(7L, jdbcTemplate.queryForObject("SELECT access_count FROM url_access_count WHERE short_code = 'abc123'", Long.class));
+        assertNotNull(jdbcTemplate.queryForObject("SELECT id FROM url WHERE short_code = 'ghi789'", String.class));
+        verify(bloomFilter).registrar("abc123");
+        verify(bloomFilter).registrar("ghi789");
+    }
+
+    @Test
+    void testImportar_ExistingCodesAndUrls_ShouldSkipAndCountThem() throws Exception {
+        // Arrange
+        jdbcTemplate.update("INSERT INTO url (id, original_url, original_url_hash, short_code) VALUES ('x', 'https://x.example.com', ?, 'abc123')",
+                UrlHash.calcular("https://x.example.com"));
+        jdbcTemplate.update("INSERT INTO url_hash (original_url_hash, short_code) VALUES (?, 'abc123')",
+                UrlHash.calcular("https://x.example.com"));
+        String ndjson = """
+                {"id":"1","original_url":"https://a.example.com","short_code":"abc123"}
+                {"id":"2","original_url":"https://x.example.com","short_code":"novo01"}
+                {"id":"3","original_url":"https://c.example.com","short_code":"novo02"}
+                {"id":"4","original_url":"https://d.example.com","short_code":"novo02"}
+                """;
+
+        // Act
+        UrlImportacaoDTO resultado = importar(ndjson.getBytes(StandardCharsets.UTF_8), UrlTransferFormat.NDJSON);
+
+        // Assert
+        assertEquals(1, resultado.getImportadas());
+        assertEquals(3, resultado.getExistentes());
+        assertEquals(2, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM url", Integer.class));
+        verify(bloomFilter, never()).registrar("abc123");
+    }
+
+    @Test
+    void testImportar_InvalidLines_ShouldCountAndContinue() throws Exception {
+        // Arrange
+        String ndjson = """
+                {"id":"1","original_url":"nao-e-url","short_code":"abc123"}
+                {quebrado
+                {"id":"2","original_url":"https://b.example.com","short_code":"a/b"}
+                {"id":"3","original_url":"https://c.example.com","short_code":"ok0001","creation_date":"ontem"}
+                {"id":"4","original_url":"https://d.example.com","short_code":"ok0002"}
+                """;
+
+        // Act
+        UrlImportacaoDTO resultado = importar(ndjson.getBytes(StandardCharsets.UTF_8), UrlTransferFormat.NDJSON);
+
+        // Assert
+        assertEquals(1, resultado.getImportadas());
+        assertEquals(4, resultado.getInvalidas());
+    }
+
+    @Test
+    void testImportar_GzipExportRoundTrip_ShouldRestoreTable() throws Exception {
+        // Arrange
+        jdbcTemplate.update("INSERT INTO url (id, original_url, original_url_hash, short_code, creation_date) "
+                + "VALUES ('1', 'https://a.example.com', ?, 'abc123', TIMESTAMP '2024-01-02 03:04:05')",
+                UrlHash.calcular("https://a.example.com"));
+        jdbcTemplate.update("INSERT INTO url_access_count (short_code, access_count) VALUES ('abc123', 3)");
+        ByteArrayOutputStream exportacao = new ByteArrayOutputStream();
+        new UrlExporter(jdbcTemplate, new TransactionTemplate(new DataSourceTransactionManager(database)),
+                new ObjectMapper(), new JShortProperties()).exportar(exportacao, UrlTransferFormat.CSV, true);
+        jdbcTemplate.update("DELETE FROM url");
+
+        // Act
+        UrlImportacaoDTO resultado = importar(exportacao.toByteArray(), UrlTransferFormat.CSV);
+
+        // Assert
+        assertEquals(1, resultado.getImportadas());
+        assertEquals("https://a.example.com",
+                jdbcTemplate.queryForObject("SELECT original_url FROM url WHERE short_code = 'abc123'", String.class));
+        assertEquals(3L, jdbcTemplate.queryForObject(
+                "SELECT access_count FROM url_access_count WHERE short_code = 'abc123'", Long.class));
+    }
+
+    private UrlImportacaoDTO importar(byte[] conteudo, UrlTransferFormat formato) throws Exception {
+        return importer.importar(new ByteArrayInputStream(conteudo), formato);
+    }
+}
@@ -0,0 +1,179 @@
+package com.JShort.WriteBehind;
+
+import com.JShort.Cache.ShortCodeBloomFilter;
+import com.JShort.Cache.UrlCache;
+import com.JShort.Config.JShortProperties;
+import com.JShort.Model.Url;
+import com.JShort.Service.UrlHash;
+import com.JShort.ShortCode.ShortCodeGenerator;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabase;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseBuilder;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseType;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.UUID;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class UrlWriteBehindTest {
+
+    @TempDir
+    Path diretorio;
+
+    private EmbeddedDatabase database;
+
+    private JdbcTemplate jdbcTemplate;
+
+    private JShortProperties properties;
+
+    private final AtomicInteger proximoCodigo = new AtomicInteger();
+
+    @BeforeEach
+    void setUp() {
+        database = new EmbeddedDatabaseBuilder()
+                .setType(EmbeddedDatabaseType.H2)
+                // ON CONFLICT DO NOTHING precisa do modo PostgreSQL
+                .setName("writeBehind" + UUID.randomUUID() + ";MODE=PostgreSQL")
+                .build();
+        Flyway.configure().dataSource(database).locations("classpath:db/migration/h2").load().migrate();
+        jdbcTemplate = new JdbcTemplate(database);
+
+        properties = new JShortProperties();
+        properties.getWriteBehind().setEnabled(true);
+        properties.getWriteBehind().setDirectory(diretorio.toString());
+    }
+
+    @AfterEach
+    void tearDown() {
+        database.shutdown();
+    }
+
+    @Test
+    void testAceitar_ShouldResolveFromMemoryAndPersistOnFlush() {
+        // Arrange
+        UrlWriteBehind writeBehind = iniciar();
+        Url url = url("https://wb.example.com");
+
+        // Act
+        assertTrue(writeBehind.aceitar(url, null));
+        String antes = writeBehind.pendente(url.getShortCode()).originalUrl();
+        writeBehind.descarregar();
+
+        // Assert
+        assertEquals("https://wb.example.com", antes);
+        assertNull(writeBehind.pendente(url.getShortCode()));
+        assertEquals(1, contar("short_code = '" + url.getShortCode() + "'"));
+        writeBehind.stop();
+    }
+
+    @Test
+    void testStart_AfterCrash_ShouldReplayLogWithoutDuplicates() {
+        // Arrange: uma URL gravada e outra só no log quando a instância "cai"
+        UrlWriteBehind anterior = iniciar();
+        anterior.aceitar(url("https://gravada.example.com"), null);
+        anterior.descarregar();
+        Url pendente = url("https://pendente.example.com");
+        anterior.aceitar(pendente, null);
+
+        // Act
+        UrlWriteBehind reiniciado = iniciar();
+
+        // Assert
+        assertEquals("https://pendente.example.com", reiniciado.pendente(pendente.getShortCode()).originalUrl());
+        reiniciado.descarregar();
+        assertEquals(2, contar("1 = 1"));
+        reiniciado.stop();
+    }
+
+    @Test
+    void testDescarregar_UrlAlreadyStoredWithAnotherCode_ShouldKeepBothCodes() {
+        // Arrange
+        UrlWriteBehind writeBehind = iniciar();
+        writeBehind.aceitar(url("https://repetida.example.com"), null);
+        Url segunda = url("https://repetida.example.com");
+        writeBehind.aceitar(segunda, null);
+
+        // Act
+        writeBehind.descarregar();
+
+        // Assert
+        assertEquals(2, contar("original_url = 'https://repetida.example.com'"));
+        assertEquals(1, contar("short_code = '" + segunda.getShortCode() + "' AND original_url_hash IS NULL"));
+        writeBehind.stop();
+    }
+
+    @Test
+    void testPorChave_SameKey_ShouldCreateOnlyOnce() {
+        // Arrange
+        UrlWriteBehind writeBehind = iniciar();
+        AtomicInteger criadas = new AtomicInteger();
+
+        // Act
+        Url primeira = writeBehind.porChave("chave-1", () -> {
+            criadas.incrementAndGet();
+            return url("https://idem.example.com");
+        });
+        Url segunda = writeBehind.porChave("chave-1", () -> {
+            criadas.incrementAndGet();
+            return url("https://idem.example.com");
+        });
+
+        // Assert
+        assertSame(primeira, segunda);
+        assertEquals(1, criadas.get());
+        writeBehind.stop();
+    }
+
+    @Test
+    void testStart_GeneratorWithCollisions_ShouldRefuse() {
+        // Arrange
+        UrlWriteBehind writeBehind = criar(false);
+
+        // Act & Assert
+        assertThrows(IllegalStateException.class, writeBehind::start);
+    }
+
+    @SuppressWarnings("unchecked")
+    private UrlWriteBehind criar(boolean livreDeColisao) {
+        TaskScheduler taskScheduler = mock(TaskScheduler.class);
+        doReturn(mock(ScheduledFuture.class)).when(taskScheduler).scheduleWithFixedDelay(any(Runnable.class), any(Duration.class));
+        ShortCodeGenerator gerador = mock(ShortCodeGenerator.class);
+        when(gerador.livreDeColisao()).thenReturn(livreDeColisao);
+        return new UrlWriteBehind(jdbcTemplate, new TransactionTemplate(new DataSourceTransactionManager(database)),
+                taskScheduler, new UrlCache(properties, new SimpleMeterRegistry()),
+                new ShortCodeBloomFilter(null, null, null, properties, new SimpleMeterRegistry()), gerador, properties,
+                new SimpleMeterRegistry());
+    }
+
+    private UrlWriteBehind iniciar() {
+        UrlWriteBehind writeBehind = criar(true);
+        writeBehind.start();
+        return writeBehind;
+    }
+
+    private Url url(String originalUrl) {
+        LocalDateTime agora = LocalDateTime.now();
+        return new Url(UUID.randomUUID().toString(), originalUrl, UrlHash.calcular(originalUrl),
+                "wb" + proximoCodigo.incrementAndGet(), agora, agora.plusDays(30), 0L);
+    }
+
+    private int contar(String condicao) {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM url WHERE " + condicao, Integer.class);
+    }
+}
@@ -0,0 +1,85 @@
+package com.JShort.WriteBehind;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class WriteAheadLogTest {
+
+    @TempDir
+    Path diretorio;
+
+    @Test
+    void testRecuperar_AfterCrash_ShouldReturnUnconfirmedRecordsInOrder() throws IOException {
+        // Arrange: escreve e "cai" sem fechar o log
+        WriteAheadLog wal = new WriteAheadLog(diretorio, 1024 * 1024);
+        wal.recuperar();
+        WriteAheadLog.Posicao ultima = null;
+        for (int i = 0; i < 3; i++) {
+            ultima = wal.anexar(("registro-" + i).getBytes(StandardCharsets.UTF_8));
+        }
+        wal.sincronizar(ultima);
+
+        // Act
+        List<WriteAheadLog.Registro> registros = new WriteAheadLog(diretorio, 1024 * 1024).recuperar();
+
+        // Assert
+        assertEquals(List.of("registro-0", "registro-1", "registro-2"),
+                registros.stream().map(r -> new String(r.dados(), StandardCharsets.UTF_8)).toList());
+    }
+
+    @Test
+    void testRecuperar_TornTail_ShouldDropIncompleteRecord() throws IOException {
+        // Arrange
+        WriteAheadLog wal = new WriteAheadLog(diretorio, 1024 * 1024);
+        wal.recuperar();
+        wal.anexar("completo".getBytes(StandardCharsets.UTF_8));
+        wal.sincronizar(wal.anexar("cortado".getBytes(StandardCharsets.UTF_8)));
+        Path segmento = segmentos().get(0);
+        try (FileChannel canal = FileChannel.open(segmento, StandardOpenOption.WRITE)) {
+            canal.truncate(canal.size() - 3);
+        }
+
+        // Act
+        List<WriteAheadLog.Registro> registros = new WriteAheadLog(diretorio, 1024 * 1024).recuperar();
+
+        // Assert
+        assertEquals(1, registros.size());
+        assertEquals("completo", new String(registros.get(0).dados(), StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void testConfirmar_ClosedSegment_ShouldDeleteIt() throws IOException {
+        // Arrange: segmentos pequenos, um registro por segmento
+        WriteAheadLog wal = new WriteAheadLog(diretorio, 16);
+        wal.recuperar();
+        WriteAheadLog.Posicao primeira = wal.anexar("primeiro-registro".getBytes(StandardCharsets.UTF_8));
+        WriteAheadLog.Posicao segunda = wal.anexar("segundo-registro".getBytes(StandardCharsets.UTF_8));
+        assertEquals(2, segmentos().size());
+
+        // Act
+        wal.confirmar(primeira.segmento());
+
+        // Assert
+        assertEquals(1, segmentos().size());
+        wal.confirmar(segunda.segmento());
+        wal.close();
+        assertTrue(segmentos().isEmpty());
+    }
+
+    private List<Path> segmentos() throws IOException {
+        try (Stream<Path> arquivos = Files.list(diretorio)) {
+            return arquivos.sorted().toList();
+        }
+    }
+}